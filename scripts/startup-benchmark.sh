@@ -0,0 +1,58 @@
+#!/usr/bin/env bash
+# Startup time and first-request latency: plain JVM vs AOT + CDS (vs native image if built).
+#
+#   ./mvnw package -Pfast-startup -DskipTests
+#   ./mvnw -Pnative native:compile          # optional, needs GraalVM
+#   scripts/startup-benchmark.sh [runs]
+#
+# "ready" = process launch until /api/shipping/health answers.
+# "first request" = first POST /api/shipping/calculate (validation path: JSON, validator,
+# admission, async dispatch; no GHN call so no token is needed).
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+JAR=$(ls "$ROOT"/target/shipping_fee-*.jar | grep -v original | head -1)
+NATIVE="$ROOT/target/shipping_fee"
+WORK="$ROOT/target/startup"
+
+now_ms() { date +%s%3N; }
+
+prepare_cds() {
+  rm -rf "$WORK" && mkdir -p "$WORK"
+  java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/app" > /dev/null
+  # Training run: start the context, then exit and dump loaded classes
+  java -XX:ArchiveClassesAtExit="$WORK/app.jsa" -Dspring.aot.enabled=true \
+       -Dspring.context.exit=onRefresh -jar "$WORK/app/$(basename "$JAR")" > "$WORK/training.log" 2>&1
+}
+
+measure() {
+  local name=$1; shift
+  local started ready first
+  started=$(now_ms)
+  "$@" --server.port="$PORT" > "$WORK/$name.log" 2>&1 &
+  local pid=$!
+  until curl -sf -o /dev/null "http://127.0.0.1:$PORT/api/shipping/health"; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "$name failed to start, see $WORK/$name.log" >&2; return 1
+    fi
+    sleep 0.02
+  done
+  ready=$(( $(now_ms) - started ))
+  first=$(curl -s -o /dev/null -w '%{time_total}' -H 'Content-Type: application/json' \
+          -d '{"to_district_id":1442}' "http://127.0.0.1:$PORT/api/shipping/calculate")
+  kill "$pid" && wait "$pid" 2> /dev/null || true
+  printf '%-10s ready %6d ms   first request %6.1f ms\n' "$name" "$ready" "$(awk -v s="$first" 'BEGIN { print s * 1000 }')"
+}
+
+prepare_cds
+APP_JAR="$WORK/app/$(basename "$JAR")"
+
+for i in $(seq "$RUNS"); do
+  measure jvm      java -jar "$JAR"
+  measure aot-cds  java -XX:SharedArchiveFile="$WORK/app.jsa" -Dspring.aot.enabled=true -jar "$APP_JAR"
+  if [ -x "$NATIVE" ]; then
+    measure native "$NATIVE"
+  fi
+done
@@ -0,0 +1,289 @@
+package com.example.shipping_fee.admission;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Priority admission control with queue-time based shedding.
+ *
+ * - At most {@code maxConcurrent} requests run at once; the rest wait in one FIFO queue per
+ *   {@link RequestPriority}. A freed slot always goes to the highest non-empty class.
+ * - Each class runs CoDel-style detection on its queue time: once every request has waited
+ *   longer than the class target for a whole interval, a standing queue has formed and the
+ *   class enters "dropping" state. New arrivals that would have to queue are then rejected
+ *   immediately, before queue time turns into latency collapse. The state clears as soon as a
+ *   request gets through below target or the class queue drains.
+ * - Waiters that exceed the class max wait, and arrivals to a full queue, are rejected too.
+ *
+ * Decisions are exported as Micrometer metrics (shipping.admission.*).
+ */
+@Component
+@Slf4j
+public class AdmissionController {
+
+    public static final String OUTCOME_ADMITTED = "admitted";
+    public static final String OUTCOME_QUEUED = "admitted_after_queue";
+    public static final String OUTCOME_SHED_CODEL = "shed_codel";
+    public static final String OUTCOME_SHED_QUEUE_FULL = "shed_queue_full";
+    public static final String OUTCOME_SHED_WAIT = "shed_max_wait";
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<RequestPriority, ArrayDeque<Waiter>> queues = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, ClassState> classes = new EnumMap<>(RequestPriority.class);
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long intervalNanos;
+    private final MeterRegistry meterRegistry;
+    private int inFlight;
+    private int queued;
+
+    public AdmissionController(
+            MeterRegistry meterRegistry,
+            @Value("${shipping.admission.max-concurrent:64}") int maxConcurrent,
+            @Value("${shipping.admission.max-queue:128}") int maxQueue,
+            @Value("${shipping.admission.interval-ms:100}") long intervalMs,
+            @Value("${shipping.admission.checkout-quote.target-ms:20}") long checkoutTargetMs,
+            @Value("${shipping.admission.checkout-quote.max-wait-ms:500}") long checkoutMaxWaitMs,
+            @Value("${shipping.admission.master-data.target-ms:10}") long masterDataTargetMs,
+            @Value("${shipping.admission.master-data.max-wait-ms:200}") long masterDataMaxWaitMs,
+            @Value("${shipping.admission.health.target-ms:5}") long healthTargetMs,
+            @Value("${shipping.admission.health.max-wait-ms:50}") long healthMaxWaitMs) {
+        this.meterRegistry = meterRegistry;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+
+        classes.put(RequestPriority.CHECKOUT_QUOTE, new ClassState(checkoutTargetMs, checkoutMaxWaitMs));
+        classes.put(RequestPriority.MASTER_DATA, new ClassState(masterDataTargetMs, masterDataMaxWaitMs));
+        classes.put(RequestPriority.HEALTH, new ClassState(healthTargetMs, healthMaxWaitMs));
+
+        for (RequestPriority priority : RequestPriority.values()) {
+            ArrayDeque<Waiter> queue = new ArrayDeque<>();
+            queues.put(priority, queue);
+            ClassState state = classes.get(priority);
+            String tag = priority.name().toLowerCase();
+            state.queueTime = Timer.builder("shipping.admission.queue.time")
+                    .tag("priority", tag)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+            Gauge.builder("shipping.admission.queue.size", queue, ArrayDeque::size)
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+            Gauge.builder("shipping.admission.dropping", state, s -> s.dropping ? 1 : 0)
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+        }
+        Gauge.builder("shipping.admission.in.flight", this, controller -> controller.inFlight)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admit a request or shed it.
+     * Blocks while queued, at most the class max wait.
+     * @return permit that must be released exactly once when the request completes
+     * @throws AdmissionRejectedException if the request is shed
+     */
+    public Permit acquire(RequestPriority priority) throws AdmissionRejectedException {
+        ClassState state = classes.get(priority);
+        Waiter waiter;
+
+        lock.lock();
+        try {
+            if (inFlight < maxConcurrent && !hasWaitersAtOrAbove(priority)) {
+                inFlight++;
+                state.onSojourn(0, System.nanoTime(), intervalNanos);
+                count(priority, OUTCOME_ADMITTED);
+                return new Permit(this);
+            }
+            if (state.dropping) {
+                throw reject(priority, OUTCOME_SHED_CODEL, "queue delay above target");
+            }
+            if (queued >= maxQueue) {
+                throw reject(priority, OUTCOME_SHED_QUEUE_FULL, "admission queue full");
+            }
+            waiter = new Waiter(lock.newCondition(), System.nanoTime());
+            queues.get(priority).addLast(waiter);
+            queued++;
+
+            long remaining = state.maxWaitNanos;
+            while (!waiter.granted && remaining > 0) {
+                try {
+                    remaining = waiter.condition.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+
+            long now = System.nanoTime();
+            long sojourn = now - waiter.enqueuedAt;
+            state.queueTime.record(sojourn, TimeUnit.NANOSECONDS);
+            state.onSojourn(sojourn, now, intervalNanos);
+
+            if (waiter.granted) {
+                count(priority, OUTCOME_QUEUED);
+                return new Permit(this);
+            }
+            // A timed-out waiter keeps the CoDel state: the queue was standing until now
+            queues.get(priority).remove(waiter);
+            queued--;
+            throw reject(priority, OUTCOME_SHED_WAIT, "waited longer than " + state.maxWaitNanos / 1_000_000 + "ms");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hand the slot to the highest-priority waiter, or free it
+     */
+    private void release() {
+        lock.lock();
+        try {
+            for (RequestPriority priority : RequestPriority.values()) {
+                Waiter next = queues.get(priority).pollFirst();
+                if (next != null) {
+                    queued--;
+                    next.granted = true;
+                    next.condition.signal();
+                    clearIfDrained(priority);
+                    return;
+                }
+            }
+            inFlight--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * True when the class is shedding because of a standing queue.
+     * Background work (e.g. speculation) can use this to stay out of the way.
+     */
+    public boolean isDropping(RequestPriority priority) {
+        lock.lock();
+        try {
+            return classes.get(priority).dropping;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean hasWaitersAtOrAbove(RequestPriority priority) {
+        for (RequestPriority other : RequestPriority.values()) {
+            if (!queues.get(other).isEmpty()) {
+                return true;
+            }
+            if (other == priority) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private void clearIfDrained(RequestPriority priority) {
+        if (queues.get(priority).isEmpty()) {
+            classes.get(priority).reset();
+        }
+    }
+
+    private AdmissionRejectedException reject(RequestPriority priority, String outcome, String reason) {
+        count(priority, outcome);
+        log.debug("Shedding {} request: {}", priority, reason);
+        return new AdmissionRejectedException(priority, reason);
+    }
+
+    private void count(RequestPriority priority, String outcome) {
+        Counter.builder("shipping.admission.decisions")
+                .tag("priority", priority.name().toLowerCase())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Slot held by an admitted request
+     */
+    public static final class Permit {
+        private final AdmissionController owner;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(AdmissionController owner) {
+            this.owner = owner;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                owner.release();
+            }
+        }
+    }
+
+    private static final class Waiter {
+        final Condition condition;
+        final long enqueuedAt;
+        boolean granted;
+
+        Waiter(Condition condition, long enqueuedAt) {
+            this.condition = condition;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    /**
+     * Per-class CoDel state (guarded by the controller lock)
+     */
+    private static final class ClassState {
+        final long targetNanos;
+        final long maxWaitNanos;
+        Timer queueTime;
+        long firstAboveAt;
+        boolean dropping;
+
+        ClassState(long targetMs, long maxWaitMs) {
+            this.targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMs);
+            this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        }
+
+        void onSojourn(long sojournNanos, long now, long intervalNanos) {
+            if (sojournNanos < targetNanos) {
+                reset();
+            } else if (firstAboveAt == 0) {
+                firstAboveAt = now + intervalNanos;
+            } else if (now - firstAboveAt >= 0) {
+                dropping = true;
+            }
+        }
+
+        void reset() {
+            firstAboveAt = 0;
+            dropping = false;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.shipping_fee.admission;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.shipping_fee.constant.ErrorCode;
+import com.example.shipping_fee.constant.ErrorMessages;
+import com.example.shipping_fee.dto.ApiResponse;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Runs every /api/shipping request through the {@link AdmissionController}.
+ * Shed requests get a fast 503 with Retry-After instead of queueing behind the overload.
+ * For async requests (/calculate) the slot is held until the async work completes.
+ */
+@Component
+@Slf4j
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final String API_PREFIX = "/api/shipping";
+
+    // Long-lived streams would hold a slot for their whole lifetime, so they are not admitted
+    private static final String MASTER_DATA_STREAM = API_PREFIX + "/master-data/stream";
+
+    private final AdmissionController admissionController;
+    private final ObjectMapper objectMapper;
+
+    @Value("${shipping.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${shipping.admission.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    public AdmissionFilter(AdmissionController admissionController, ObjectMapper objectMapper) {
+        this.admissionController = admissionController;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || "OPTIONS".equals(request.getMethod())
+                || !request.getRequestURI().startsWith(API_PREFIX)
+                || request.getRequestURI().equals(MASTER_DATA_STREAM);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestPriority priority = RequestPriority.forRequest(request.getMethod(), request.getRequestURI());
+
+        AdmissionController.Permit permit;
+        try {
+            permit = admissionController.acquire(priority);
+        } catch (AdmissionRejectedException e) {
+            reject(response);
+            return;
+        }
+
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(permit));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                permit.release();
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(ErrorCode.OVERLOADED, ErrorMessages.ERR_OVERLOADED));
+    }
+
+    /**
+     * Releases the admission slot when an async request finishes
+     */
+    private static final class ReleaseOnComplete implements AsyncListener {
+        private final AdmissionController.Permit permit;
+
+        ReleaseOnComplete(AdmissionController.Permit permit) {
+            this.permit = permit;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // Completion follows; slot is released in onComplete
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permit.release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Not needed
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.shipping_fee.admission;
+
+import lombok.Getter;
+
+/**
+ * Request shed by the {@link AdmissionController}.
+ * Carries no stack trace: it is thrown on the overload path and must stay cheap.
+ */
+@Getter
+public class AdmissionRejectedException extends Exception {
+
+    private final RequestPriority priority;
+    private final String reason;
+
+    public AdmissionRejectedException(RequestPriority priority, String reason) {
+        super("Request shed (" + priority + "): " + reason, null, false, false);
+        this.priority = priority;
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.shipping_fee.admission;
+
+import java.util.Set;
+
+/**
+ * Admission priority classes, highest first.
+ * Under overload lower classes are queued behind and shed before higher ones.
+ */
+public enum RequestPriority {
+
+    // POST /calculate, /calculate/stream, /quotes, /consolidate and /orders - the calls that convert at checkout
+    CHECKOUT_QUOTE,
+
+    // Province / district / ward dropdown data and every other read (order status, tracking, ...)
+    MASTER_DATA,
+
+    // Liveness checks
+    HEALTH;
+
+    private static final String API_PREFIX = "/api/shipping";
+
+    private static final Set<String> CHECKOUT_ROUTES = Set.of(
+            API_PREFIX + "/calculate",
+            API_PREFIX + "/calculate/stream",
+            API_PREFIX + "/quotes",
+            API_PREFIX + "/consolidate",
+            API_PREFIX + "/orders");
+
+    /**
+     * Classify a request by method and exact route; only the checkout POSTs outrank master data
+     */
+    public static RequestPriority forRequest(String method, String path) {
+        if (path.equals(API_PREFIX + "/health")) {
+            return HEALTH;
+        }
+        if ("POST".equals(method) && CHECKOUT_ROUTES.contains(path)) {
+            return CHECKOUT_QUOTE;
+        }
+        return MASTER_DATA;
+    }
+}
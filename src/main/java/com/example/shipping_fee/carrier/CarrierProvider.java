@@ -0,0 +1,53 @@
+package com.example.shipping_fee.carrier;
+
+import java.util.List;
+
+import com.example.shipping_fee.dto.CarrierServiceDTO;
+import com.example.shipping_fee.dto.DistrictDTO;
+import com.example.shipping_fee.dto.ProvinceDTO;
+import com.example.shipping_fee.dto.ShippingRequest;
+import com.example.shipping_fee.dto.ShippingResponse;
+import com.example.shipping_fee.dto.WardDTO;
+
+/**
+ * A shipping carrier that can be quoted by {@link QuoteOrchestrator}.
+ *
+ * Addresses use GHN's province / district / ward IDs; carriers with their own address
+ * data map them internally. Implementations must honour the current
+ * {@link com.example.shipping_fee.deadline.DeadlineContext deadline}: the orchestrator
+ * runs each carrier under its own budget and cancels it when the budget is spent.
+ */
+public interface CarrierProvider {
+
+    /**
+     * Short, stable id used in quotes and metrics (e.g. "ghn")
+     */
+    String getId();
+
+    boolean isEnabled();
+
+    /**
+     * Budget for one quote (fee + leadtime), capped by the request deadline
+     */
+    long getQuoteTimeoutMs();
+
+    List<ProvinceDTO> getProvinces();
+
+    List<DistrictDTO> getDistricts(Integer provinceId);
+
+    List<WardDTO> getWards(Integer districtId);
+
+    /**
+     * Fee for a package; failures are returned as {@code success=false}, not thrown
+     * @throws com.example.shipping_fee.deadline.DeadlineExceededException if the budget ran out
+     */
+    ShippingResponse calculateFee(ShippingRequest request);
+
+    List<CarrierServiceDTO> getAvailableServices(Integer fromDistrictId, Integer toDistrictId);
+
+    /**
+     * Expected delivery time for a package
+     * @return epoch seconds, or null if the carrier cannot tell
+     */
+    Long getLeadtime(ShippingRequest request);
+}
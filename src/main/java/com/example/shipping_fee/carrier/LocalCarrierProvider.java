@@ -0,0 +1,140 @@
+package com.example.shipping_fee.carrier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.shipping_fee.constant.ErrorMessages;
+import com.example.shipping_fee.deadline.Deadline;
+import com.example.shipping_fee.deadline.DeadlineContext;
+import com.example.shipping_fee.deadline.DeadlineExceededException;
+import com.example.shipping_fee.dto.CarrierServiceDTO;
+import com.example.shipping_fee.dto.DistrictDTO;
+import com.example.shipping_fee.dto.ProvinceDTO;
+import com.example.shipping_fee.dto.ShippingRequest;
+import com.example.shipping_fee.dto.ShippingResponse;
+import com.example.shipping_fee.dto.WardDTO;
+
+/**
+ * Stand-in second carrier with a flat rate table (opt-in, shipping.carriers.local.enabled).
+ * Lets multi-carrier quoting be exercised without a second real integration; an optional
+ * simulated latency makes per-carrier timeouts observable.
+ *
+ * Fee = base-fee + fee-per-step per started 500g of chargeable weight (max of actual and
+ * L*W*H/6000), plus 1% COD (min 5,000 VND). Delivers in eta-days, one day less for Express.
+ * Has no address data of its own: it serves GHN's IDs.
+ */
+@Component
+public class LocalCarrierProvider implements CarrierProvider {
+
+    private static final int WEIGHT_STEP_GRAMS = 500;
+    private static final int VOLUMETRIC_DIVISOR = 6000;
+    private static final int MIN_COD_FEE = 5000;
+
+    private final boolean enabled;
+    private final long timeoutMs;
+    private final int baseFee;
+    private final int feePerStep;
+    private final int etaDays;
+    private final long latencyMs;
+
+    public LocalCarrierProvider(@Value("${shipping.carriers.local.enabled:false}") boolean enabled,
+                                @Value("${shipping.carriers.local.timeout-ms:1000}") long timeoutMs,
+                                @Value("${shipping.carriers.local.base-fee:25000}") int baseFee,
+                                @Value("${shipping.carriers.local.fee-per-step:4000}") int feePerStep,
+                                @Value("${shipping.carriers.local.eta-days:3}") int etaDays,
+                                @Value("${shipping.carriers.local.latency-ms:0}") long latencyMs) {
+        this.enabled = enabled;
+        this.timeoutMs = timeoutMs;
+        this.baseFee = baseFee;
+        this.feePerStep = feePerStep;
+        this.etaDays = etaDays;
+        this.latencyMs = latencyMs;
+    }
+
+    @Override
+    public String getId() {
+        return "local";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public long getQuoteTimeoutMs() {
+        return timeoutMs;
+    }
+
+    @Override
+    public List<ProvinceDTO> getProvinces() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<DistrictDTO> getDistricts(Integer provinceId) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<WardDTO> getWards(Integer districtId) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public ShippingResponse calculateFee(ShippingRequest request) {
+        simulateLatency("local fee");
+        int weight = request.getWeight() != null ? request.getWeight() : 0;
+        int volumetric = value(request.getLength()) * value(request.getWidth()) * value(request.getHeight())
+                / VOLUMETRIC_DIVISOR;
+        int steps = Math.max(1, (Math.max(weight, volumetric) + WEIGHT_STEP_GRAMS - 1) / WEIGHT_STEP_GRAMS);
+
+        int serviceFee = baseFee + (steps - 1) * feePerStep;
+        int codFee = value(request.getCodValue()) > 0 ? Math.max(value(request.getCodValue()) / 100, MIN_COD_FEE) : 0;
+        return ShippingResponse.builder()
+                .success(true)
+                .message(ErrorMessages.MSG_FEE_CALCULATION_SUCCESS)
+                .total(serviceFee + codFee)
+                .serviceFee(serviceFee)
+                .codFee(codFee)
+                .insuranceFee(0)
+                .build();
+    }
+
+    @Override
+    public List<CarrierServiceDTO> getAvailableServices(Integer fromDistrictId, Integer toDistrictId) {
+        return List.of(CarrierServiceDTO.builder().serviceId(1).shortName("Local").serviceTypeId(2).build());
+    }
+
+    @Override
+    public Long getLeadtime(ShippingRequest request) {
+        int days = Integer.valueOf(1).equals(request.getServiceTypeId()) ? Math.max(1, etaDays - 1) : etaDays;
+        return Instant.now().plus(Duration.ofDays(days)).getEpochSecond();
+    }
+
+    private void simulateLatency(String operation) {
+        if (latencyMs <= 0) {
+            return;
+        }
+        Deadline deadline = DeadlineContext.current();
+        long sleep = deadline != null ? Math.min(latencyMs, deadline.remainingMillis()) : latencyMs;
+        try {
+            Thread.sleep(sleep);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException(operation);
+        }
+        if (deadline != null) {
+            deadline.check(operation);
+        }
+    }
+
+    private int value(Integer value) {
+        return value != null ? value : 0;
+    }
+}
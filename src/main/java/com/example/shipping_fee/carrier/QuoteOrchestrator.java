@@ -0,0 +1,218 @@
+package com.example.shipping_fee.carrier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import com.example.shipping_fee.constant.ErrorMessages;
+import com.example.shipping_fee.deadline.Deadline;
+import com.example.shipping_fee.deadline.DeadlineContext;
+import com.example.shipping_fee.deadline.DeadlineExceededException;
+import com.example.shipping_fee.dto.CarrierQuoteDTO;
+import com.example.shipping_fee.dto.MultiCarrierQuoteDTO;
+import com.example.shipping_fee.dto.ShippingRequest;
+import com.example.shipping_fee.dto.ShippingResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Quotes every enabled {@link CarrierProvider} concurrently and ranks the answers.
+ *
+ * Each carrier runs on the carrierExecutor under its own budget: its quote timeout, capped
+ * by the request deadline. Cancelling the request cancels every carrier. The orchestrator
+ * returns once every carrier has answered or used up its budget; carriers still running
+ * then are cancelled and reported as TIMEOUT, so a slow carrier delays the answer by at
+ * most its own timeout.
+ */
+@Service
+@Slf4j
+public class QuoteOrchestrator {
+
+    /**
+     * Ranking of OK quotes: cheapest first, or earliest delivery first
+     */
+    public enum Rank {
+        PRICE, ETA;
+
+        /**
+         * @return rank for "price" / "eta" (any case), or null if unknown
+         */
+        public static Rank parse(String value) {
+            for (Rank rank : values()) {
+                if (rank.name().equalsIgnoreCase(value)) {
+                    return rank;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final List<CarrierProvider> carriers;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+
+    public QuoteOrchestrator(List<CarrierProvider> carriers,
+                             @Qualifier("carrierExecutor") Executor executor,
+                             MeterRegistry meterRegistry) {
+        this.carriers = carriers;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Quote a (validated) package with every enabled carrier
+     */
+    public MultiCarrierQuoteDTO quote(ShippingRequest request, Rank rank, Deadline deadline) {
+        List<CarrierProvider> enabled = carriers.stream().filter(CarrierProvider::isEnabled).toList();
+        List<Deadline> budgets = new ArrayList<>();
+        List<Runnable> cancelHooks = new ArrayList<>();
+        List<CompletableFuture<CarrierQuoteDTO>> futures = new ArrayList<>();
+        long started = System.nanoTime();
+
+        for (CarrierProvider carrier : enabled) {
+            Deadline budget = Deadline.after(Duration.ofMillis(
+                    Math.min(carrier.getQuoteTimeoutMs(), deadline.remainingMillis())));
+            Runnable hook = budget::cancel;
+            deadline.onCancel(hook);
+            budgets.add(budget);
+            cancelHooks.add(hook);
+
+            CompletableFuture<CarrierQuoteDTO> future;
+            try {
+                future = CompletableFuture.supplyAsync(
+                        () -> DeadlineContext.callWith(budget, () -> quoteOne(carrier, request, budget)), executor);
+            } catch (RejectedExecutionException e) {
+                future = CompletableFuture.completedFuture(failed(carrier, CarrierQuoteDTO.Status.ERROR,
+                        ErrorMessages.ERR_OVERLOADED, started));
+            }
+            futures.add(future);
+        }
+
+        awaitAll(futures, budgets);
+
+        List<CarrierQuoteDTO> quotes = new ArrayList<>();
+        for (int i = 0; i < enabled.size(); i++) {
+            CompletableFuture<CarrierQuoteDTO> future = futures.get(i);
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                quotes.add(future.join());
+            } else {
+                // Past its budget: abort the carrier call and answer without it
+                budgets.get(i).cancel();
+                quotes.add(failed(enabled.get(i), CarrierQuoteDTO.Status.TIMEOUT,
+                        ErrorMessages.ERR_DEADLINE_EXCEEDED, started));
+            }
+            deadline.removeCancelHook(cancelHooks.get(i));
+        }
+        for (CarrierQuoteDTO quote : quotes) {
+            Timer.builder("shipping.carrier.quote")
+                    .tag("carrier", quote.getCarrier())
+                    .tag("outcome", quote.getStatus().name().toLowerCase())
+                    .register(meterRegistry)
+                    .record(quote.getLatencyMs(), TimeUnit.MILLISECONDS);
+        }
+
+        quotes.sort(comparator(rank));
+        CarrierQuoteDTO winner = !quotes.isEmpty() && quotes.get(0).getStatus() == CarrierQuoteDTO.Status.OK
+                ? quotes.get(0) : null;
+        if (winner != null) {
+            Counter.builder("shipping.carrier.wins")
+                    .tag("carrier", winner.getCarrier())
+                    .tag("rank", rank.name().toLowerCase())
+                    .register(meterRegistry)
+                    .increment();
+        }
+        return MultiCarrierQuoteDTO.builder()
+                .rank(rank.name().toLowerCase())
+                .winner(winner)
+                .quotes(quotes)
+                .build();
+    }
+
+    /**
+     * Wait for each carrier until it answers or its own budget ends
+     */
+    private void awaitAll(List<CompletableFuture<CarrierQuoteDTO>> futures, List<Deadline> budgets) {
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get(budgets.get(i).remainingMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | TimeoutException e) {
+                // Reported as TIMEOUT by the caller
+            }
+        }
+    }
+
+    private CarrierQuoteDTO quoteOne(CarrierProvider carrier, ShippingRequest request, Deadline budget) {
+        long started = System.nanoTime();
+        try {
+            ShippingResponse fee = carrier.calculateFee(request);
+            if (!fee.isSuccess()) {
+                return failed(carrier, CarrierQuoteDTO.Status.ERROR, fee.getMessage(), started);
+            }
+            // ETA is best effort: a quote without one still counts (ranked last by eta)
+            Long leadtime = null;
+            if (!budget.isExpired()) {
+                try {
+                    leadtime = carrier.getLeadtime(request);
+                } catch (RuntimeException e) {
+                    log.debug("No leadtime from {}: {}", carrier.getId(), e.getMessage());
+                }
+            }
+            return CarrierQuoteDTO.builder()
+                    .carrier(carrier.getId())
+                    .status(CarrierQuoteDTO.Status.OK)
+                    .total(fee.getTotal())
+                    .leadtime(leadtime)
+                    .fee(fee)
+                    .latencyMs(elapsedMs(started))
+                    .build();
+        } catch (DeadlineExceededException e) {
+            return failed(carrier, CarrierQuoteDTO.Status.TIMEOUT, ErrorMessages.ERR_DEADLINE_EXCEEDED, started);
+        } catch (RuntimeException e) {
+            log.warn("Carrier {} failed to quote: {}", carrier.getId(), e.getMessage());
+            return failed(carrier, CarrierQuoteDTO.Status.ERROR, e.getMessage(), started);
+        }
+    }
+
+    /**
+     * OK quotes first, in rank order; ties broken by the other criterion, then carrier id
+     */
+    private Comparator<CarrierQuoteDTO> comparator(Rank rank) {
+        Comparator<CarrierQuoteDTO> byPrice = Comparator.comparing(CarrierQuoteDTO::getTotal,
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        Comparator<CarrierQuoteDTO> byEta = Comparator.comparing(CarrierQuoteDTO::getLeadtime,
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        Comparator<CarrierQuoteDTO> ranking = rank == Rank.ETA ? byEta.thenComparing(byPrice) : byPrice.thenComparing(byEta);
+        return Comparator.comparing((CarrierQuoteDTO quote) -> quote.getStatus() != CarrierQuoteDTO.Status.OK)
+                .thenComparing(ranking)
+                .thenComparing(CarrierQuoteDTO::getCarrier);
+    }
+
+    private CarrierQuoteDTO failed(CarrierProvider carrier, CarrierQuoteDTO.Status status, String message, long started) {
+        return CarrierQuoteDTO.builder()
+                .carrier(carrier.getId())
+                .status(status)
+                .message(message)
+                .latencyMs(elapsedMs(started))
+                .build();
+    }
+
+    private long elapsedMs(long started) {
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+}
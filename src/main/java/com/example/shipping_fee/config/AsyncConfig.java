@@ -0,0 +1,160 @@
+package com.example.shipping_fee.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.example.shipping_fee.tracing.TraceContext;
+
+/**
+ * Executors for request work that runs off the servlet thread.
+ * Pools working for a live request carry its trace span to their threads.
+ */
+@Configuration
+public class AsyncConfig {
+
+    @Value("${shipping.async.quote-threads:64}")
+    private int quoteThreads;
+
+    @Value("${shipping.async.quote-queue-capacity:256}")
+    private int quoteQueueCapacity;
+
+    @Value("${shipping.speculation.threads:2}")
+    private int speculationThreads;
+
+    @Value("${shipping.speculation.queue-capacity:16}")
+    private int speculationQueueCapacity;
+
+    @Value("${shipping.orders.workers:8}")
+    private int orderWorkers;
+
+    @Value("${shipping.orders.batch-size:32}")
+    private int orderBatchSize;
+
+    @Value("${shipping.carriers.threads:32}")
+    private int carrierThreads;
+
+    @Value("${shipping.carriers.queue-capacity:64}")
+    private int carrierQueueCapacity;
+
+    @Value("${shipping.tracking.threads:4}")
+    private int trackingThreads;
+
+    @Value("${shipping.tracking.max-in-flight:8}")
+    private int trackingMaxInFlight;
+
+    @Value("${shipping.consolidation.threads:16}")
+    private int consolidationThreads;
+
+    @Value("${shipping.consolidation.queue-capacity:128}")
+    private int consolidationQueueCapacity;
+
+    @Value("${shipping.address-bootstrap.tree-threads:8}")
+    private int addressThreads;
+
+    /**
+     * Runs /calculate work under its deadline so the request can be
+     * timed out or cancelled independently of the servlet thread
+     */
+    @Bean
+    public ThreadPoolTaskExecutor quoteExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(quoteThreads);
+        executor.setMaxPoolSize(quoteThreads);
+        executor.setQueueCapacity(quoteQueueCapacity);
+        executor.setThreadNamePrefix("quote-");
+        executor.setTaskDecorator(TraceContext::wrap);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Small, separate pool for speculative pre-quotes so they can never
+     * take threads from real /calculate requests
+     */
+    @Bean
+    public ThreadPoolTaskExecutor speculationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(speculationThreads);
+        executor.setMaxPoolSize(speculationThreads);
+        executor.setQueueCapacity(speculationQueueCapacity);
+        executor.setThreadNamePrefix("speculate-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Per-carrier calls of /quotes; separate from quoteExecutor, which runs
+     * the /quotes request itself and waits on these
+     */
+    @Bean
+    public ThreadPoolTaskExecutor carrierExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(carrierThreads);
+        executor.setMaxPoolSize(carrierThreads);
+        executor.setQueueCapacity(carrierQueueCapacity);
+        executor.setThreadNamePrefix("carrier-");
+        executor.setTaskDecorator(TraceContext::wrap);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Workers submitting outbox orders to GHN; the dispatcher never claims
+     * more than batch-size orders, so the queue never rejects in practice
+     */
+    @Bean
+    public ThreadPoolTaskExecutor orderExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(orderWorkers);
+        executor.setMaxPoolSize(orderWorkers);
+        executor.setQueueCapacity(orderBatchSize);
+        executor.setThreadNamePrefix("order-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Background order-status polls; bounded by max-in-flight like the order workers
+     */
+    @Bean
+    public ThreadPoolTaskExecutor trackingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(trackingThreads);
+        executor.setMaxPoolSize(trackingThreads);
+        executor.setQueueCapacity(trackingMaxInFlight);
+        executor.setThreadNamePrefix("tracking-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Parcel quotes of /consolidate; the request itself runs on quoteExecutor and waits on these
+     */
+    @Bean
+    public ThreadPoolTaskExecutor consolidationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(consolidationThreads);
+        executor.setMaxPoolSize(consolidationThreads);
+        executor.setQueueCapacity(consolidationQueueCapacity);
+        executor.setThreadNamePrefix("consolidate-");
+        executor.setTaskDecorator(TraceContext::wrap);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Parallel district / ward fetches while building the address tree;
+     * unbounded queue because a build submits one task per district at once
+     */
+    @Bean
+    public ThreadPoolTaskExecutor addressExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(addressThreads);
+        executor.setMaxPoolSize(addressThreads);
+        executor.setThreadNamePrefix("address-");
+        executor.initialize();
+        return executor;
+    }
+}
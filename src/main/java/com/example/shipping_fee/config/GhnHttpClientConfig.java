@@ -0,0 +1,76 @@
+package com.example.shipping_fee.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.SystemDefaultDnsResolver;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.DefaultHttpClientConnectionOperator;
+import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
+import org.apache.hc.client5.http.ssl.TlsSocketStrategy;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.config.RegistryBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import com.example.shipping_fee.deadline.DeadlineAwareRequestFactory;
+import com.example.shipping_fee.diagnostics.InstrumentedConnectionManager;
+import com.example.shipping_fee.tracing.HttpClientTracing;
+
+/**
+ * HTTP client used for GHN calls.
+ * Pooled keep-alive connections, bounded timeouts, and per-request deadline capping
+ * via {@link DeadlineAwareRequestFactory}. Pool waits are reported as JFR events
+ * by {@link InstrumentedConnectionManager}; pool wait, DNS, connect, TLS, server time and
+ * decoding are traced by {@link HttpClientTracing}, which also sends traceparent to GHN.
+ */
+@Configuration
+public class GhnHttpClientConfig {
+
+    @Value("${ghtk.api.http.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${ghtk.api.http.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${ghtk.api.http.connection-request-timeout-ms:1000}")
+    private long connectionRequestTimeoutMs;
+
+    @Value("${ghtk.api.http.response-timeout-ms:5000}")
+    private long responseTimeoutMs;
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient ghnHttpClient() {
+        InstrumentedConnectionManager connectionManager = new InstrumentedConnectionManager(
+                new DefaultHttpClientConnectionOperator(
+                        DefaultSchemePortResolver.INSTANCE,
+                        HttpClientTracing.dnsResolver(SystemDefaultDnsResolver.INSTANCE),
+                        RegistryBuilder.<TlsSocketStrategy>create()
+                                .register(URIScheme.HTTPS.id,
+                                        HttpClientTracing.tlsStrategy(DefaultClientTlsStrategy.createDefault()))
+                                .build()));
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+                .build());
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .addRequestInterceptorLast(HttpClientTracing.REQUEST)
+                .addResponseInterceptorFirst(HttpClientTracing.RESPONSE)
+                .build();
+    }
+
+    @Bean
+    public RestTemplate ghnRestTemplate(CloseableHttpClient ghnHttpClient) {
+        return new RestTemplate(new DeadlineAwareRequestFactory(
+                ghnHttpClient, connectionRequestTimeoutMs, responseTimeoutMs));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.shipping_fee.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.shipping_fee.simulator.GhnSimulator;
+import com.example.shipping_fee.simulator.GhnSimulatorSettings;
+
+/**
+ * Starts the embedded GHN simulator inside the application.
+ * Enabled by the "ghn-stub" profile (ghn.simulator.enabled=true), which also points
+ * ghtk.api.base-url at the simulator so no real GHN token is needed.
+ * In AOT/native builds this condition is evaluated at build time (see README, Fast Startup).
+ */
+@Configuration
+@ConditionalOnProperty(name = "ghn.simulator.enabled", havingValue = "true")
+public class GhnSimulatorConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "ghn.simulator")
+    public GhnSimulatorSettings ghnSimulatorSettings() {
+        return new GhnSimulatorSettings();
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public GhnSimulator ghnSimulator(GhnSimulatorSettings ghnSimulatorSettings) {
+        return new GhnSimulator(ghnSimulatorSettings);
+    }
+}
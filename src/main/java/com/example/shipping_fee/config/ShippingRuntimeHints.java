@@ -0,0 +1,92 @@
+package com.example.shipping_fee.config;
+
+import java.util.List;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.example.shipping_fee.dto.AddressBootstrapDTO;
+import com.example.shipping_fee.dto.AddressTreeDTO;
+import com.example.shipping_fee.dto.ApiResponse;
+import com.example.shipping_fee.dto.CarrierQuoteDTO;
+import com.example.shipping_fee.dto.CarrierServiceDTO;
+import com.example.shipping_fee.dto.CompactDistrictListDTO;
+import com.example.shipping_fee.dto.CompactWardListDTO;
+import com.example.shipping_fee.dto.ConsolidationPlanDTO;
+import com.example.shipping_fee.dto.ConsolidationRequest;
+import com.example.shipping_fee.dto.CreatedOrderDTO;
+import com.example.shipping_fee.dto.DistrictDTO;
+import com.example.shipping_fee.dto.ErrorMessageDTO;
+import com.example.shipping_fee.dto.MasterDataChangeDTO;
+import com.example.shipping_fee.dto.MasterDataChangesDTO;
+import com.example.shipping_fee.dto.MultiCarrierQuoteDTO;
+import com.example.shipping_fee.dto.OrderItemDTO;
+import com.example.shipping_fee.dto.OrderRequest;
+import com.example.shipping_fee.dto.OrderSubmissionDTO;
+import com.example.shipping_fee.dto.OrderTrackingDTO;
+import com.example.shipping_fee.dto.ProvinceDTO;
+import com.example.shipping_fee.dto.QuoteHintRequest;
+import com.example.shipping_fee.dto.QuoteStreamItemDTO;
+import com.example.shipping_fee.dto.ShippingRequest;
+import com.example.shipping_fee.dto.ShippingResponse;
+import com.example.shipping_fee.dto.SpanDTO;
+import com.example.shipping_fee.dto.TraceDTO;
+import com.example.shipping_fee.dto.WardDTO;
+import com.example.shipping_fee.order.OutboxRecord;
+import com.example.shipping_fee.validation.ValidationRule;
+
+/**
+ * Reflection hints for AOT processing and GraalVM native images (-Pfast-startup, -Pnative).
+ *
+ * Spring only infers binding hints from controller signatures. The DTOs below are also
+ * (de)serialized elsewhere: nested inside ApiResponse generics, swapped in by
+ * CompactResponseAdvice, or bound from configuration lists, so they are registered explicitly.
+ * GHN responses are read as plain Maps, which Jackson handles without reflection.
+ */
+@Configuration
+@ImportRuntimeHints(ShippingRuntimeHints.class)
+public class ShippingRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final List<Class<?>> BINDING_TYPES = List.of(
+            ApiResponse.class,
+            ProvinceDTO.class,
+            DistrictDTO.class,
+            WardDTO.class,
+            AddressBootstrapDTO.class,
+            AddressTreeDTO.class,
+            CompactDistrictListDTO.class,
+            CompactWardListDTO.class,
+            ShippingRequest.class,
+            ShippingResponse.class,
+            ErrorMessageDTO.class,
+            MasterDataChangeDTO.class,
+            MasterDataChangesDTO.class,
+            QuoteHintRequest.class,
+            QuoteStreamItemDTO.class,
+            OrderRequest.class,
+            OrderItemDTO.class,
+            OrderSubmissionDTO.class,
+            CreatedOrderDTO.class,
+            OutboxRecord.class,
+            OrderTrackingDTO.class,
+            CarrierServiceDTO.class,
+            CarrierQuoteDTO.class,
+            MultiCarrierQuoteDTO.class,
+            ConsolidationRequest.class,
+            ConsolidationPlanDTO.class,
+            TraceDTO.class,
+            SpanDTO.class,
+            ValidationRule.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar registrar = new BindingReflectionHintsRegistrar();
+        for (Class<?> type : BINDING_TYPES) {
+            registrar.registerReflectionHints(hints.reflection(), type);
+        }
+        hints.resources().registerPattern("application-*.yaml");
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.shipping_fee.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.shipping_fee.validation.ShippingRequestValidator;
+import com.example.shipping_fee.validation.ValidationProperties;
+
+/**
+ * Compiles the shipping request rules from shipping.validation.* once at startup
+ */
+@Configuration
+public class ValidationConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "shipping.validation")
+    public ValidationProperties validationProperties() {
+        return new ValidationProperties();
+    }
+
+    @Bean
+    public ShippingRequestValidator shippingRequestValidator(ValidationProperties validationProperties) {
+        return ShippingRequestValidator.compile(validationProperties.getRules());
+    }
+}
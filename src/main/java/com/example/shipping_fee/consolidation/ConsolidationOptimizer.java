@@ -0,0 +1,343 @@
+package com.example.shipping_fee.consolidation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntToLongFunction;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.shipping_fee.constant.ErrorCode;
+import com.example.shipping_fee.constant.ErrorMessages;
+import com.example.shipping_fee.deadline.Deadline;
+import com.example.shipping_fee.deadline.DeadlineContext;
+import com.example.shipping_fee.dto.CartItemDTO;
+import com.example.shipping_fee.dto.ConsolidationPlanDTO;
+import com.example.shipping_fee.dto.ConsolidationRequest;
+import com.example.shipping_fee.dto.ErrorMessageDTO;
+import com.example.shipping_fee.dto.ParcelDTO;
+import com.example.shipping_fee.dto.ShippingRequest;
+import com.example.shipping_fee.dto.ShippingResponse;
+import com.example.shipping_fee.service.GhnApiException;
+import com.example.shipping_fee.service.GhtkService;
+import com.example.shipping_fee.service.QuoteKey;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Splits a cart into the parcels that cost the least to ship in total.
+ *
+ * 1. Calibrate: two quotes (one weight step, probe-weight-grams) in parallel fit a
+ *    {@link StepFeeModel} for the destination and service.
+ * 2. Search: {@link PackingPlanner} candidates ranked by the model, the best improved by local
+ *    search, all within search-budget-ms. No GHN call.
+ * 3. Verify: the verify-top plans are quoted parcel by parcel in parallel (identical parcels
+ *    once) under the request deadline; the cheapest fully quoted plan wins.
+ *
+ * Quotes go through {@link GhtkService#calculateFee}, so the quote cache and fee matrix answer
+ * repeated parcels. Insurance and COD belong to the cart and are put on the heaviest parcel.
+ */
+@Service
+@Slf4j
+public class ConsolidationOptimizer {
+
+    private final GhtkService ghtkService;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final PackingPlanner planner;
+    private final int maxUnits;
+    private final int stepGrams;
+    private final int probeGrams;
+    private final int[] weightCaps;
+    private final int verifyTop;
+    private final long searchBudgetMs;
+
+    public ConsolidationOptimizer(GhtkService ghtkService,
+                                  @Qualifier("consolidationExecutor") Executor executor,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${shipping.consolidation.max-units:500}") int maxUnits,
+                                  @Value("${shipping.consolidation.max-parcel-weight-grams:50000}") int maxParcelWeight,
+                                  @Value("${shipping.consolidation.max-dimension-cm:200}") int maxDimension,
+                                  @Value("${shipping.consolidation.volumetric-divisor:5000}") int volumetricDivisor,
+                                  @Value("${shipping.consolidation.weight-step-grams:500}") int stepGrams,
+                                  @Value("${shipping.consolidation.probe-weight-grams:10000}") int probeGrams,
+                                  @Value("${shipping.consolidation.weight-caps-grams:2000,5000,10000,20000,30000}") int[] weightCaps,
+                                  @Value("${shipping.consolidation.verify-top:3}") int verifyTop,
+                                  @Value("${shipping.consolidation.search-budget-ms:50}") long searchBudgetMs) {
+        this.ghtkService = ghtkService;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.planner = new PackingPlanner(maxParcelWeight, maxDimension, volumetricDivisor);
+        this.maxUnits = maxUnits;
+        this.stepGrams = stepGrams;
+        this.probeGrams = probeGrams;
+        this.weightCaps = weightCaps.clone();
+        this.verifyTop = Math.max(1, verifyTop);
+        this.searchBudgetMs = searchBudgetMs;
+    }
+
+    /**
+     * Cart checks plus the /calculate rules for destination, service and values
+     * @return List of validation errors (empty if valid)
+     */
+    public List<ErrorMessageDTO> validate(ConsolidationRequest request) {
+        List<ErrorMessageDTO> errors = new ArrayList<>();
+        List<CartItemDTO> items = request.getItems();
+        if (items == null || items.isEmpty()) {
+            errors.add(new ErrorMessageDTO("items", ErrorMessages.ERR_CART_EMPTY));
+        } else {
+            long units = 0;
+            for (int i = 0; i < items.size(); i++) {
+                CartItemDTO item = items.get(i);
+                int quantity = item.getQuantity() != null ? item.getQuantity() : 1;
+                if (item.getWeight() == null || item.getWeight() <= 0 || quantity <= 0) {
+                    errors.add(new ErrorMessageDTO("items[" + i + "]", ErrorMessages.ERR_CART_ITEM_INVALID));
+                } else if (!planner.fitsAlone(unitOf(item, i))) {
+                    errors.add(new ErrorMessageDTO("items[" + i + "]", ErrorMessages.ERR_CART_ITEM_TOO_LARGE));
+                }
+                units += Math.max(0, quantity);
+            }
+            if (units > maxUnits) {
+                errors.add(new ErrorMessageDTO("items", ErrorMessages.ERR_CART_TOO_LARGE));
+            }
+        }
+        errors.addAll(ghtkService.validateRequest(parcelRequest(request, stepGrams, null, true)));
+        return errors;
+    }
+
+    /**
+     * Cheapest verified plan for a (validated) cart
+     * @throws GhnApiException if no plan could be quoted (rejected route, deadline, overload)
+     */
+    public ConsolidationPlanDTO optimize(ConsolidationRequest request, Deadline deadline) {
+        long started = System.nanoTime();
+        try {
+            ConsolidationPlanDTO plan = search(request, deadline, started);
+            record(started, "ok");
+            DistributionSummary.builder("shipping.consolidation.parcels")
+                    .register(meterRegistry)
+                    .record(plan.getParcels().size());
+            return plan;
+        } catch (GhnApiException e) {
+            record(started, e.getErrorCode().name().toLowerCase());
+            throw e;
+        }
+    }
+
+    private ConsolidationPlanDTO search(ConsolidationRequest request, Deadline deadline, long started) {
+        List<PackingPlanner.Unit> units = new ArrayList<>();
+        for (int i = 0; i < request.getItems().size(); i++) {
+            CartItemDTO item = request.getItems().get(i);
+            PackingPlanner.Unit unit = unitOf(item, i);
+            for (int n = item.getQuantity() != null ? item.getQuantity() : 1; n > 0; n--) {
+                units.add(unit);
+            }
+        }
+
+        StepFeeModel model = calibrate(request, deadline);
+        IntToLongFunction fee = model::estimate;
+
+        long stopAt = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(Math.min(searchBudgetMs, deadline.remainingMillis() / 4));
+        List<List<PackingPlanner.Parcel>> candidates = planner.candidates(units, weightCaps);
+        candidates.sort(Comparator.comparingLong(plan -> planner.estimate(plan, fee)));
+        Map<String, List<PackingPlanner.Parcel>> distinct = new LinkedHashMap<>();
+        for (List<PackingPlanner.Parcel> plan : candidates.subList(0, Math.min(verifyTop, candidates.size()))) {
+            List<PackingPlanner.Parcel> improved = planner.improve(plan, fee, stopAt);
+            distinct.putIfAbsent(PackingPlanner.signature(improved), improved);
+        }
+        for (List<PackingPlanner.Parcel> plan : candidates) {
+            distinct.putIfAbsent(PackingPlanner.signature(plan), plan);
+        }
+        List<List<PackingPlanner.Parcel>> ranked = new ArrayList<>(distinct.values());
+        ranked.sort(Comparator.comparingLong((List<PackingPlanner.Parcel> plan) -> planner.estimate(plan, fee))
+                .thenComparingInt(List::size));
+        List<List<PackingPlanner.Parcel>> shortlist = ranked.subList(0, Math.min(verifyTop, ranked.size()));
+
+        return verify(request, shortlist, fee, distinct.size(), deadline, started);
+    }
+
+    /**
+     * Fit the fee model from two parallel quotes
+     */
+    private StepFeeModel calibrate(ConsolidationRequest request, Deadline deadline) {
+        Map<QuoteKey, CompletableFuture<ShippingResponse>> probes = new LinkedHashMap<>();
+        ShippingRequest firstStep = parcelRequest(request, stepGrams, null, false);
+        ShippingRequest probe = parcelRequest(request, probeGrams, null, false);
+        quoteAll(List.of(firstStep, probe), probes, deadline);
+
+        ShippingResponse firstStepFee = result(probes.get(QuoteKey.of(firstStep)));
+        ShippingResponse probeFee = result(probes.get(QuoteKey.of(probe)));
+        for (ShippingResponse response : Arrays.asList(firstStepFee, probeFee)) {
+            if (response == null) {
+                throw unavailable(deadline);
+            }
+            if (!response.isSuccess()) {
+                throw rejected(response);
+            }
+        }
+        StepFeeModel model = StepFeeModel.fit(stepGrams, firstStepFee.getTotal(), probeGrams, probeFee.getTotal());
+        log.debug("Fee model for district {}: base {} + {} per {}g", request.getToDistrictId(),
+                model.baseFee(), model.feePerStep(), stepGrams);
+        return model;
+    }
+
+    /**
+     * Quote every parcel of the shortlisted plans and keep the cheapest fully quoted plan
+     */
+    private ConsolidationPlanDTO verify(ConsolidationRequest request, List<List<PackingPlanner.Parcel>> shortlist,
+                                       IntToLongFunction fee, int candidates, Deadline deadline, long started) {
+        List<List<ShippingRequest>> planRequests = new ArrayList<>();
+        List<ShippingRequest> all = new ArrayList<>();
+        for (List<PackingPlanner.Parcel> plan : shortlist) {
+            plan.sort(Comparator.comparingInt((PackingPlanner.Parcel parcel) -> parcel.weight).reversed());
+            List<ShippingRequest> requests = new ArrayList<>(plan.size());
+            for (int i = 0; i < plan.size(); i++) {
+                requests.add(parcelRequest(request, plan.get(i).weight, plan.get(i), i == 0));
+            }
+            planRequests.add(requests);
+            all.addAll(requests);
+        }
+        Map<QuoteKey, CompletableFuture<ShippingResponse>> quotes = new LinkedHashMap<>();
+        quoteAll(all, quotes, deadline);
+
+        int best = -1;
+        long bestTotal = Long.MAX_VALUE;
+        List<ShippingResponse> bestFees = null;
+        ShippingResponse rejection = null;
+        for (int p = 0; p < shortlist.size(); p++) {
+            List<ShippingResponse> fees = new ArrayList<>();
+            long total = 0;
+            for (ShippingRequest parcelRequest : planRequests.get(p)) {
+                ShippingResponse response = result(quotes.get(QuoteKey.of(parcelRequest)));
+                if (response == null || !response.isSuccess()) {
+                    rejection = response != null ? response : rejection;
+                    fees = null;
+                    break;
+                }
+                fees.add(response);
+                total += response.getTotal();
+            }
+            if (fees != null && total < bestTotal) {
+                best = p;
+                bestTotal = total;
+                bestFees = fees;
+            }
+        }
+        if (best < 0) {
+            throw rejection != null ? rejected(rejection) : unavailable(deadline);
+        }
+
+        List<PackingPlanner.Parcel> plan = shortlist.get(best);
+        long estimated = planner.estimate(plan, fee);
+        DistributionSummary.builder("shipping.consolidation.estimate.error")
+                .baseUnit("vnd")
+                .register(meterRegistry)
+                .record(Math.abs(bestTotal - estimated));
+
+        List<ParcelDTO> parcels = new ArrayList<>(plan.size());
+        for (int i = 0; i < plan.size(); i++) {
+            PackingPlanner.Parcel parcel = plan.get(i);
+            parcels.add(ParcelDTO.builder()
+                    .items(parcel.counts())
+                    .weight(parcel.weight)
+                    .length(parcel.length)
+                    .width(parcel.width)
+                    .height(parcel.height)
+                    .chargeableWeight(planner.chargeableWeight(parcel))
+                    .fee(bestFees.get(i))
+                    .build());
+        }
+        return ConsolidationPlanDTO.builder()
+                .total((int) bestTotal)
+                .estimatedTotal((int) estimated)
+                .parcels(parcels)
+                .candidates(candidates)
+                .verified(shortlist.size())
+                .latencyMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started))
+                .build();
+    }
+
+    /**
+     * Quote distinct requests concurrently and wait until all answer or the deadline ends
+     */
+    private void quoteAll(List<ShippingRequest> requests, Map<QuoteKey, CompletableFuture<ShippingResponse>> quotes,
+                          Deadline deadline) {
+        for (ShippingRequest request : requests) {
+            quotes.computeIfAbsent(QuoteKey.of(request), key -> {
+                try {
+                    return CompletableFuture.supplyAsync(
+                            () -> DeadlineContext.callWith(deadline, () -> ghtkService.calculateFee(request)), executor);
+                } catch (RejectedExecutionException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            });
+        }
+        try {
+            CompletableFuture.allOf(quotes.values().toArray(new CompletableFuture[0]))
+                    .get(Math.max(0, deadline.remainingMillis()), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Unanswered parcels make their plans unverified
+        }
+    }
+
+    private ShippingRequest parcelRequest(ConsolidationRequest request, int weight, PackingPlanner.Parcel parcel,
+                                          boolean carriesValue) {
+        return ShippingRequest.builder()
+                .fromDistrictId(request.getFromDistrictId())
+                .fromWardCode(request.getFromWardCode())
+                .toDistrictId(request.getToDistrictId())
+                .toWardCode(request.getToWardCode())
+                .serviceTypeId(request.getServiceTypeId())
+                .weight(weight)
+                .length(parcel != null && parcel.length > 0 ? parcel.length : null)
+                .width(parcel != null && parcel.width > 0 ? parcel.width : null)
+                .height(parcel != null && parcel.height > 0 ? parcel.height : null)
+                .insuranceValue(carriesValue ? request.getInsuranceValue() : null)
+                .codValue(carriesValue ? request.getCodValue() : null)
+                .build();
+    }
+
+    private static PackingPlanner.Unit unitOf(CartItemDTO item, int index) {
+        String code = item.getCode() != null ? item.getCode() : "item-" + index;
+        return PackingPlanner.Unit.of(code, item.getWeight(), item.getLength(), item.getWidth(), item.getHeight());
+    }
+
+    private static ShippingResponse result(CompletableFuture<ShippingResponse> future) {
+        return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    private static GhnApiException rejected(ShippingResponse response) {
+        return new GhnApiException(response.getErrorCode() != null ? response.getErrorCode() : ErrorCode.REJECTED_BY_CARRIER,
+                response.getMessage());
+    }
+
+    private static GhnApiException unavailable(Deadline deadline) {
+        return deadline.isExpired() || deadline.isCancelled()
+                ? new GhnApiException(ErrorCode.DEADLINE_EXCEEDED, ErrorMessages.ERR_DEADLINE_EXCEEDED)
+                : new GhnApiException(ErrorCode.UPSTREAM_UNAVAILABLE, ErrorMessages.ERR_OVERLOADED);
+    }
+
+    private void record(long started, String outcome) {
+        Timer.builder("shipping.consolidation")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.shipping_fee.consolidation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Bin-packing heuristics that split cart units into parcels.
+ *
+ * A parcel's box is estimated by stacking: each unit is turned so its longest side is the
+ * length and its shortest the height, units are stacked on their shortest side. Candidates come
+ * from first-fit decreasing under several weight caps and unit orders (the fee curve decides which
+ * cap wins), then the best few are improved by merging parcels and moving single units while the
+ * estimated fee drops. Everything here is local; no GHN call.
+ */
+final class PackingPlanner {
+
+    /**
+     * One physical unit; a >= b >= c are its sides in cm (0 if unknown)
+     */
+    record Unit(String code, int weight, int a, int b, int c) {
+
+        static Unit of(String code, int weight, Integer length, Integer width, Integer height) {
+            int[] sides = {orZero(length), orZero(width), orZero(height)};
+            Arrays.sort(sides);
+            return new Unit(code, weight, sides[2], sides[1], sides[0]);
+        }
+
+        long volume() {
+            return (long) a * b * c;
+        }
+
+        private static int orZero(Integer value) {
+            return value != null ? Math.max(0, value) : 0;
+        }
+    }
+
+    /**
+     * Units packed together and the box they need
+     */
+    static final class Parcel {
+        final List<Unit> units = new ArrayList<>();
+        int weight;
+        int length;
+        int width;
+        int height;
+
+        Parcel() {
+        }
+
+        Parcel(Parcel other) {
+            units.addAll(other.units);
+            weight = other.weight;
+            length = other.length;
+            width = other.width;
+            height = other.height;
+        }
+
+        void add(Unit unit) {
+            units.add(unit);
+            weight += unit.weight();
+            length = Math.max(length, unit.a());
+            width = Math.max(width, unit.b());
+            height += unit.c();
+        }
+
+        void remove(Unit unit) {
+            units.remove(unit);
+            weight = 0;
+            length = 0;
+            width = 0;
+            height = 0;
+            for (Unit remaining : units) {
+                weight += remaining.weight();
+                length = Math.max(length, remaining.a());
+                width = Math.max(width, remaining.b());
+                height += remaining.c();
+            }
+        }
+
+        boolean isEmpty() {
+            return units.isEmpty();
+        }
+
+        /**
+         * Item code -> units, in packing order
+         */
+        Map<String, Integer> counts() {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (Unit unit : units) {
+                counts.merge(unit.code(), 1, Integer::sum);
+            }
+            return counts;
+        }
+    }
+
+    private final int maxWeight;
+    private final int maxDimension;
+    private final int volumetricDivisor;
+
+    PackingPlanner(int maxWeight, int maxDimension, int volumetricDivisor) {
+        this.maxWeight = maxWeight;
+        this.maxDimension = maxDimension;
+        this.volumetricDivisor = volumetricDivisor;
+    }
+
+    /**
+     * Whether a single unit can be shipped at all
+     */
+    boolean fitsAlone(Unit unit) {
+        return unit.weight() <= maxWeight && unit.a() <= maxDimension;
+    }
+
+    int chargeableWeight(Parcel parcel) {
+        long volumetric = (long) parcel.length * parcel.width * parcel.height / volumetricDivisor;
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(parcel.weight, volumetric));
+    }
+
+    long estimate(List<Parcel> plan, IntToLongFunction fee) {
+        long total = 0;
+        for (Parcel parcel : plan) {
+            total += fee.applyAsLong(chargeableWeight(parcel));
+        }
+        return total;
+    }
+
+    /**
+     * First-fit decreasing plans for every (unit order, weight cap) pair, deduplicated
+     */
+    List<List<Parcel>> candidates(List<Unit> units, int[] weightCaps) {
+        List<Comparator<Unit>> orders = List.of(
+                Comparator.comparingInt(Unit::weight).reversed(),
+                Comparator.comparingLong(Unit::volume).reversed(),
+                Comparator.comparingInt(Unit::a).reversed().thenComparing(Comparator.comparingInt(Unit::weight).reversed()));
+
+        Map<String, List<Parcel>> distinct = new LinkedHashMap<>();
+        for (Comparator<Unit> order : orders) {
+            List<Unit> sorted = new ArrayList<>(units);
+            sorted.sort(order);
+            for (int cap : weightCaps) {
+                List<Parcel> plan = firstFit(sorted, Math.min(cap, maxWeight));
+                distinct.putIfAbsent(signature(plan), plan);
+            }
+            List<Parcel> plan = firstFit(sorted, maxWeight);
+            distinct.putIfAbsent(signature(plan), plan);
+        }
+        return new ArrayList<>(distinct.values());
+    }
+
+    /**
+     * Merge parcels, then move single units between parcels, while the estimate drops
+     * or until stopAtNanos
+     */
+    List<Parcel> improve(List<Parcel> plan, IntToLongFunction fee, long stopAtNanos) {
+        List<Parcel> current = new ArrayList<>();
+        for (Parcel parcel : plan) {
+            current.add(new Parcel(parcel));
+        }
+        boolean improved = true;
+        while (improved && System.nanoTime() - stopAtNanos < 0) {
+            improved = mergeOnce(current, fee) || moveOnce(current, fee);
+        }
+        return current;
+    }
+
+    /**
+     * Order-independent identity of a plan, to drop duplicates
+     */
+    static String signature(List<Parcel> plan) {
+        List<String> parcels = new ArrayList<>(plan.size());
+        for (Parcel parcel : plan) {
+            List<String> codes = new ArrayList<>(parcel.units.size());
+            for (Unit unit : parcel.units) {
+                codes.add(unit.code() + ":" + unit.weight() + ":" + unit.a() + "x" + unit.b() + "x" + unit.c());
+            }
+            codes.sort(null);
+            parcels.add(String.join(",", codes));
+        }
+        parcels.sort(null);
+        return String.join("|", parcels);
+    }
+
+    private List<Parcel> firstFit(List<Unit> sorted, int cap) {
+        List<Parcel> plan = new ArrayList<>();
+        for (Unit unit : sorted) {
+            Parcel target = null;
+            for (Parcel parcel : plan) {
+                if (fits(parcel, unit, cap)) {
+                    target = parcel;
+                    break;
+                }
+            }
+            if (target == null) {
+                target = new Parcel();
+                plan.add(target);
+            }
+            target.add(unit);
+        }
+        return plan;
+    }
+
+    private boolean fits(Parcel parcel, Unit unit, int cap) {
+        return parcel.weight + unit.weight() <= cap
+                && Math.max(parcel.length, unit.a()) <= maxDimension
+                && Math.max(parcel.width, unit.b()) <= maxDimension
+                && parcel.height + unit.c() <= maxDimension;
+    }
+
+    /**
+     * Apply the best merge of two parcels, if any lowers the estimate
+     */
+    private boolean mergeOnce(List<Parcel> plan, IntToLongFunction fee) {
+        long bestGain = 0;
+        int bestI = -1;
+        int bestJ = -1;
+        for (int i = 0; i < plan.size(); i++) {
+            for (int j = i + 1; j < plan.size(); j++) {
+                Parcel merged = merged(plan.get(i), plan.get(j));
+                if (merged == null) {
+                    continue;
+                }
+                long gain = fee.applyAsLong(chargeableWeight(plan.get(i))) + fee.applyAsLong(chargeableWeight(plan.get(j)))
+                        - fee.applyAsLong(chargeableWeight(merged));
+                if (gain > bestGain) {
+                    bestGain = gain;
+                    bestI = i;
+                    bestJ = j;
+                }
+            }
+        }
+        if (bestI < 0) {
+            return false;
+        }
+        Parcel merged = merged(plan.get(bestI), plan.get(bestJ));
+        plan.remove(bestJ);
+        plan.set(bestI, merged);
+        return true;
+    }
+
+    private Parcel merged(Parcel first, Parcel second) {
+        Parcel merged = new Parcel(first);
+        for (Unit unit : second.units) {
+            if (!fits(merged, unit, maxWeight)) {
+                return null;
+            }
+            merged.add(unit);
+        }
+        return merged;
+    }
+
+    /**
+     * Apply the first single-unit move that lowers the estimate
+     */
+    private boolean moveOnce(List<Parcel> plan, IntToLongFunction fee) {
+        for (int from = 0; from < plan.size(); from++) {
+            Parcel source = plan.get(from);
+            long sourceFee = fee.applyAsLong(chargeableWeight(source));
+            for (Unit unit : List.copyOf(source.units)) {
+                Parcel without = new Parcel(source);
+                without.remove(unit);
+                long withoutFee = without.isEmpty() ? 0 : fee.applyAsLong(chargeableWeight(without));
+                for (int to = 0; to < plan.size(); to++) {
+                    Parcel target = plan.get(to);
+                    if (to == from || !fits(target, unit, maxWeight)) {
+                        continue;
+                    }
+                    Parcel with = new Parcel(target);
+                    with.add(unit);
+                    long before = sourceFee + fee.applyAsLong(chargeableWeight(target));
+                    long after = withoutFee + fee.applyAsLong(chargeableWeight(with));
+                    if (after < before) {
+                        plan.set(to, with);
+                        if (without.isEmpty()) {
+                            plan.remove(from);
+                        } else {
+                            plan.set(from, without);
+                        }
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.shipping_fee.consolidation;
+
+/**
+ * Local fee estimate: base fee for the first weight step plus a fixed fee per further step,
+ * GHN's pricing shape for one destination and service. Calibrated from two live quotes.
+ */
+record StepFeeModel(long baseFee, long feePerStep, int stepGrams) {
+
+    /**
+     * Fit from the fee at one step and the fee at probeGrams (a multiple of stepGrams)
+     */
+    static StepFeeModel fit(int stepGrams, long firstStepFee, int probeGrams, long probeFee) {
+        int extraSteps = Math.max(1, steps(probeGrams, stepGrams));
+        return new StepFeeModel(firstStepFee, Math.max(0, (probeFee - firstStepFee) / extraSteps), stepGrams);
+    }
+
+    long estimate(int chargeableGrams) {
+        return baseFee + feePerStep * steps(chargeableGrams, stepGrams);
+    }
+
+    /**
+     * Steps above the first: 0 up to stepGrams, 1 up to 2 * stepGrams, ...
+     */
+    private static int steps(int grams, int stepGrams) {
+        return Math.max(0, (grams - 1) / stepGrams);
+    }
+}
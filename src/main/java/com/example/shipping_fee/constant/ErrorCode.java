@@ -0,0 +1,49 @@
+package com.example.shipping_fee.constant;
+
+/**
+ * Machine-readable error codes returned alongside the free-text message.
+ * Clients should branch on these (and {@link #isRetryable()}) instead of parsing messages.
+ */
+public enum ErrorCode {
+
+    // Request rejected by our own validation
+    VALIDATION_FAILED(false, false),
+    // GHN does not serve this route / service combination
+    ROUTE_NOT_SERVED(false, true),
+    // District or ward unknown to GHN
+    INVALID_ADDRESS(false, true),
+    // Any other request GHN refuses (4xx or non-200 code)
+    REJECTED_BY_CARRIER(false, true),
+    // GHN token / shop missing or refused; fixed by configuration, not by retrying
+    NOT_CONFIGURED(false, false),
+    // GHN throttled us (429)
+    RATE_LIMITED(true, false),
+    // GHN 5xx, I/O error or unreadable response
+    UPSTREAM_UNAVAILABLE(true, false),
+    // Request time budget ran out
+    DEADLINE_EXCEEDED(true, false),
+    // Shed by our own admission control under load; GHN was not asked
+    OVERLOADED(true, false);
+
+    private final boolean retryable;
+    private final boolean negativelyCacheable;
+
+    ErrorCode(boolean retryable, boolean negativelyCacheable) {
+        this.retryable = retryable;
+        this.negativelyCacheable = negativelyCacheable;
+    }
+
+    /**
+     * Whether the same request may succeed later
+     */
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+    /**
+     * Whether the answer depends only on the request, so it can be cached for a short while
+     */
+    public boolean isNegativelyCacheable() {
+        return negativelyCacheable;
+    }
+}
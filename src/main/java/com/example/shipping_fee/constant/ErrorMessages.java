@@ -37,14 +37,42 @@ public final class ErrorMessages {
     public static final String ERR_COD_VALUE_MAX_EXCEEDED = "COD value cannot exceed 5,000,000 VND";
     public static final String ERR_DIMENSION_NEGATIVE = "Dimension values cannot be negative";
     public static final String ERR_DIMENSION_MAX_EXCEEDED = "Dimension cannot exceed 200cm";
+    public static final String ERR_CLIENT_ORDER_CODE_REQUIRED = "Client order code is required";
+    public static final String ERR_TO_NAME_REQUIRED = "Recipient name is required";
+    public static final String ERR_TO_PHONE_REQUIRED = "Recipient phone is required";
+    public static final String ERR_TO_ADDRESS_REQUIRED = "Delivery address is required";
 
     // Success messages
     public static final String MSG_FEE_CALCULATION_SUCCESS = "Fee calculation successful";
     public static final String MSG_FEE_CALCULATION_SUCCESS_MOCK = "Fee calculation successful (Mock Data)";
+    public static final String MSG_QUOTES_SUCCESS = "Carrier quotes ranked";
+    public static final String MSG_CONSOLIDATION_SUCCESS = "Cheapest parcel split found";
+    public static final String MSG_ORDER_ACCEPTED = "Order accepted, submission to GHN is in progress";
+    public static final String MSG_ORDER_ALREADY_ACCEPTED = "Order with this client order code was already accepted";
 
     // General error messages
     public static final String ERR_VALIDATION_FAILED = "Validation failed";
     public static final String ERR_API_CALL_FAILED = "Failed to call GHN API";
+    public static final String ERR_OVERLOADED = "Service is overloaded, please retry later";
+    public static final String ERR_DEADLINE_EXCEEDED = "Request deadline exceeded before GHN responded";
+    public static final String ERR_MASTER_DATA_SYNC_DISABLED = "Master data sync is disabled";
+    public static final String ERR_BATCH_TOO_LARGE = "Too many requests in quote stream, stopped at the limit";
+    public static final String ERR_RANK_INVALID = "Rank must be price or eta";
+    public static final String ERR_NO_CARRIER_QUOTE = "No carrier could quote this package";
+    public static final String ERR_ORDERS_DISABLED = "Order submission is disabled";
+    public static final String ERR_ORDER_NOT_FOUND = "Order not found";
+    public static final String ERR_TRACKING_DISABLED = "Order tracking is disabled";
+    public static final String ERR_ORDER_NOT_DEAD_LETTER = "Order not found or not in dead letter state";
+    public static final String ERR_ORDER_OUTBOX_UNAVAILABLE = "Order could not be persisted, please retry";
+    public static final String ERR_BATCH_INVALID_ITEM = "Invalid request in quote stream, stopped reading";
+    public static final String ERR_CART_EMPTY = "Cart must contain at least one item";
+    public static final String ERR_CART_TOO_LARGE = "Cart has too many units to consolidate";
+    public static final String ERR_CART_ITEM_INVALID = "Item needs a weight greater than 0 and a positive quantity";
+    public static final String ERR_CART_ITEM_TOO_LARGE = "Item is too heavy or too long to ship as one parcel";
+    public static final String ERR_ADDRESS_SIDE_INVALID = "Side must be to or from";
+    public static final String ERR_ADDRESS_TREE_NOT_READY = "Address tree is still being built, please retry";
+    public static final String ERR_TRACING_DISABLED = "Request tracing is disabled";
+    public static final String ERR_TRACE_NOT_FOUND = "Trace not found, it was dropped by sampling or already evicted";
 
     // GHN token expired
     public static final String ERR_GHN_TOKEN_EXPIRED = "GHN token has expired. Please refresh the token.";
@@ -40,11 +40,17 @@ public final class GhnApiEndpoints {
     // Get available shipping services - Method: POST, Headers: Token, ShopId
     public static final String AVAILABLE_SERVICES = "/shiip/public-api/v2/shipping-order/available-services";
     
+    // Get expected delivery time - Method: POST, Headers: Token, ShopId
+    public static final String LEADTIME = "/shiip/public-api/v2/shipping-order/leadtime";
+    
     // Create shipping order - Method: POST, Headers: Token, ShopId
     public static final String CREATE_ORDER = "/shiip/public-api/v2/shipping-order/create";
     
     // Get order detail - Method: POST, Headers: Token
     public static final String ORDER_DETAIL = "/shiip/public-api/v2/shipping-order/detail";
+
+    // Get order detail by shop's client_order_code - Method: POST, Headers: Token
+    public static final String ORDER_DETAIL_BY_CLIENT_CODE = "/shiip/public-api/v2/shipping-order/detail-by-client-code";
     
     // Cancel order - Method: POST, Headers: Token, ShopId
     public static final String CANCEL_ORDER = "/shiip/public-api/v2/switch-status/cancel";
@@ -102,4 +108,54 @@ public final class GhnApiEndpoints {
     public static String getAvailableServicesUrl(String baseUrl) {
         return baseUrl + AVAILABLE_SERVICES;
     }
+
+    /**
+     * Build full URL for leadtime endpoint.
+     * 
+     * @param baseUrl the base URL (production or development)
+     * @return full URL for leadtime API
+     */
+    public static String getLeadtimeUrl(String baseUrl) {
+        return baseUrl + LEADTIME;
+    }
+
+    /**
+     * Build full URL for create order endpoint.
+     * 
+     * @param baseUrl the base URL (production or development)
+     * @return full URL for create order API
+     */
+    public static String getCreateOrderUrl(String baseUrl) {
+        return baseUrl + CREATE_ORDER;
+    }
+
+    /**
+     * Build full URL for order detail endpoint.
+     * 
+     * @param baseUrl the base URL (production or development)
+     * @return full URL for order detail API
+     */
+    public static String getOrderDetailUrl(String baseUrl) {
+        return baseUrl + ORDER_DETAIL;
+    }
+
+    /**
+     * Build full URL for order detail by client order code endpoint.
+     * 
+     * @param baseUrl the base URL (production or development)
+     * @return full URL for order detail by client code API
+     */
+    public static String getOrderDetailByClientCodeUrl(String baseUrl) {
+        return baseUrl + ORDER_DETAIL_BY_CLIENT_CODE;
+    }
+
+    /**
+     * Build full URL for cancel order endpoint.
+     * 
+     * @param baseUrl the base URL (production or development)
+     * @return full URL for cancel order API
+     */
+    public static String getCancelOrderUrl(String baseUrl) {
+        return baseUrl + CANCEL_ORDER;
+    }
 }
@@ -0,0 +1,119 @@
+package com.example.shipping_fee.controller;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.shipping_fee.constant.ErrorMessages;
+import com.example.shipping_fee.dto.AddressBootstrapDTO;
+import com.example.shipping_fee.dto.AddressTreeDTO;
+import com.example.shipping_fee.dto.ApiResponse;
+import com.example.shipping_fee.dto.ShippingRequest;
+import com.example.shipping_fee.masterdata.AddressDirectory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Composite address endpoints, so an address form loads with one call instead of
+ * provinces -> districts -> wards round trips
+ * Base URL: /api/shipping
+ *
+ * Endpoints:
+ * - GET  /address-bootstrap?provinceId=&districtId=&wardCode= : All lists for a selection
+ * - POST /address-bootstrap?side=to|from                      : All lists for a saved ShippingRequest address
+ * - GET  /address-tree                                        : Whole tree, compact encoding, ETag / 304
+ */
+@RestController
+@RequestMapping("/api/shipping")
+@Slf4j
+@CrossOrigin(originPatterns = "*")
+public class AddressController {
+
+    private final AddressDirectory addressDirectory;
+    private final long treeWaitMs;
+    private final long treeMaxAgeSeconds;
+
+    public AddressController(AddressDirectory addressDirectory,
+                             @Value("${shipping.address-bootstrap.tree-wait-ms:2000}") long treeWaitMs,
+                             @Value("${shipping.address-bootstrap.tree-max-age-seconds:3600}") long treeMaxAgeSeconds) {
+        this.addressDirectory = addressDirectory;
+        this.treeWaitMs = treeWaitMs;
+        this.treeMaxAgeSeconds = treeMaxAgeSeconds;
+    }
+
+    /**
+     * GET /api/shipping/address-bootstrap?districtId=1442&wardCode=20101
+     * provinceId may be omitted, it is resolved from districtId
+     */
+    @GetMapping("/address-bootstrap")
+    public ResponseEntity<ApiResponse<AddressBootstrapDTO>> bootstrap(
+            @RequestParam(required = false) Integer provinceId,
+            @RequestParam(required = false) Integer districtId,
+            @RequestParam(required = false) String wardCode) {
+        log.info("API called: GET /api/shipping/address-bootstrap?provinceId={}&districtId={}&wardCode={}",
+                provinceId, districtId, wardCode);
+
+        return ResponseEntity.ok(ApiResponse.success(addressDirectory.bootstrap(provinceId, districtId, wardCode)));
+    }
+
+    /**
+     * POST /api/shipping/address-bootstrap?side=to
+     * Body: the saved ShippingRequest; only the district / ward of the chosen side are used
+     */
+    @PostMapping("/address-bootstrap")
+    public ResponseEntity<ApiResponse<AddressBootstrapDTO>> bootstrapFor(
+            @RequestParam(defaultValue = "to") String side,
+            @RequestBody ShippingRequest request) {
+        log.info("API called: POST /api/shipping/address-bootstrap?side={}", side);
+
+        AddressBootstrapDTO bootstrap;
+        if ("to".equals(side)) {
+            bootstrap = addressDirectory.bootstrap(null, request.getToDistrictId(), request.getToWardCode());
+        } else if ("from".equals(side)) {
+            bootstrap = addressDirectory.bootstrap(null, request.getFromDistrictId(), request.getFromWardCode());
+        } else {
+            return ResponseEntity.badRequest().body(ApiResponse.error(ErrorMessages.ERR_ADDRESS_SIDE_INVALID));
+        }
+        return ResponseEntity.ok(ApiResponse.success(bootstrap));
+    }
+
+    /**
+     * GET /api/shipping/address-tree
+     * Clients keep the tree and revalidate with If-None-Match
+     */
+    @GetMapping("/address-tree")
+    public ResponseEntity<ApiResponse<AddressTreeDTO>> tree(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("API called: GET /api/shipping/address-tree");
+
+        AddressTreeDTO tree;
+        try {
+            tree = addressDirectory.getTree(treeWaitMs);
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, treeWaitMs / 1000)))
+                    .body(ApiResponse.error(ErrorMessages.ERR_ADDRESS_TREE_NOT_READY));
+        }
+
+        String etag = "\"" + tree.getVersion() + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(treeMaxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl)
+                .body(ApiResponse.success(tree, tree.getDistrictCount() + " districts, " + tree.getWardCount() + " wards"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.shipping_fee.controller;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.example.shipping_fee.dto.ApiResponse;
+import com.example.shipping_fee.dto.CompactDistrictListDTO;
+import com.example.shipping_fee.dto.CompactWardListDTO;
+import com.example.shipping_fee.dto.DistrictDTO;
+import com.example.shipping_fee.dto.ShippingResponse;
+import com.example.shipping_fee.dto.WardDTO;
+
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Compact wire format for /api/shipping responses.
+ *
+ * Selected with {@code Accept: application/vnd.shipping.compact+json} or {@code ?view=compact}
+ * (the query form also works with CBOR/Smile via Accept). In compact view:
+ * - District / ward lists hoist the shared parent ID and encode items as arrays
+ * - Fee results drop null and zero components and the duplicated success/message fields
+ *
+ * The default JSON format is unchanged.
+ */
+@ControllerAdvice(assignableTypes = ShippingController.class)
+public class CompactResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String COMPACT_JSON_VALUE = "application/vnd.shipping.compact+json";
+    public static final MediaType COMPACT_JSON = MediaType.parseMediaType(COMPACT_JSON_VALUE);
+    public static final String VIEW_PARAM = "view";
+    public static final String VIEW_COMPACT = "compact";
+
+    private final ObjectMapper objectMapper;
+
+    public CompactResponseAdvice(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof ApiResponse) || !isCompactRequested(selectedContentType, request)) {
+            return body;
+        }
+        ApiResponse<?> apiResponse = (ApiResponse<?>) body;
+        return new ApiResponse<>(apiResponse.isSuccess(), apiResponse.getMessage(), compact(apiResponse.getData()),
+                apiResponse.getErrorCode());
+    }
+
+    private boolean isCompactRequested(MediaType selectedContentType, ServerHttpRequest request) {
+        if (COMPACT_JSON.isCompatibleWith(selectedContentType)) {
+            return true;
+        }
+        if (request instanceof ServletServerHttpRequest) {
+            String view = ((ServletServerHttpRequest) request).getServletRequest().getParameter(VIEW_PARAM);
+            return VIEW_COMPACT.equals(view);
+        }
+        return false;
+    }
+
+    private Object compact(Object data) {
+        if (data instanceof ShippingResponse) {
+            return compactFee((ShippingResponse) data);
+        }
+        if (!(data instanceof List) || ((List<?>) data).isEmpty()) {
+            return data;
+        }
+        List<?> items = (List<?>) data;
+        Object first = items.get(0);
+        if (first instanceof WardDTO) {
+            return compactWards(items);
+        }
+        if (first instanceof DistrictDTO) {
+            return compactDistricts(items);
+        }
+        return data;
+    }
+
+    /**
+     * Hoist districtId when all wards share it (always true for /wards/{districtId})
+     */
+    private Object compactWards(List<?> items) {
+        Integer districtId = ((WardDTO) items.get(0)).getDistrictId();
+        List<String[]> wards = new ArrayList<>(items.size());
+        for (Object item : items) {
+            WardDTO ward = (WardDTO) item;
+            if (!Objects.equals(districtId, ward.getDistrictId())) {
+                return items;
+            }
+            wards.add(new String[] {ward.getWardCode(), ward.getName()});
+        }
+        return new CompactWardListDTO(districtId, wards);
+    }
+
+    /**
+     * Hoist provinceId when all districts share it (always true for /districts/{provinceId})
+     */
+    private Object compactDistricts(List<?> items) {
+        Integer provinceId = ((DistrictDTO) items.get(0)).getProvinceId();
+        List<Object[]> districts = new ArrayList<>(items.size());
+        for (Object item : items) {
+            DistrictDTO district = (DistrictDTO) item;
+            if (!Objects.equals(provinceId, district.getProvinceId())) {
+                return items;
+            }
+            districts.add(new Object[] {district.getId(), district.getName()});
+        }
+        return new CompactDistrictListDTO(provinceId, districts);
+    }
+
+    /**
+     * Keep only non-null, non-zero fields; success/message already live in the ApiResponse wrapper
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> compactFee(ShippingResponse fee) {
+        Map<String, Object> fields = objectMapper.convertValue(fee, Map.class);
+        Map<String, Object> compact = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : fields.entrySet()) {
+            Object value = entry.getValue();
+            if ("success".equals(entry.getKey()) || "message".equals(entry.getKey())) {
+                continue;
+            }
+            if (value == null || (value instanceof Number && ((Number) value).intValue() == 0)
+                    || (value instanceof List && ((List<?>) value).isEmpty())) {
+                continue;
+            }
+            compact.put(entry.getKey(), value);
+        }
+        return compact;
+    }
+}
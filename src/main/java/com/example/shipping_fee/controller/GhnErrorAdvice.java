@@ -0,0 +1,54 @@
+package com.example.shipping_fee.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.example.shipping_fee.constant.ErrorCode;
+import com.example.shipping_fee.dto.ApiResponse;
+import com.example.shipping_fee.service.GhnApiException;
+
+/**
+ * Turns GHN failures into {@link ApiResponse} with an {@link ErrorCode}:
+ * permanent rejections are 4xx (do not retry), transient ones 503 with Retry-After.
+ */
+@RestControllerAdvice
+public class GhnErrorAdvice {
+
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    @ExceptionHandler(GhnApiException.class)
+    public ResponseEntity<ApiResponse<Void>> handleGhnApiException(GhnApiException e) {
+        return respond(e.getErrorCode(), ApiResponse.error(e.getErrorCode(), e.getMessage()));
+    }
+
+    /**
+     * Status and Retry-After for a failed response carrying the given code
+     */
+    static <T> ResponseEntity<T> respond(ErrorCode errorCode, T body) {
+        if (errorCode == null) {
+            return ResponseEntity.badRequest().body(body);
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(statusOf(errorCode));
+        if (errorCode.isRetryable() && errorCode != ErrorCode.DEADLINE_EXCEEDED) {
+            builder.header("Retry-After", RETRY_AFTER_SECONDS);
+        }
+        return builder.body(body);
+    }
+
+    static HttpStatus statusOf(ErrorCode errorCode) {
+        switch (errorCode) {
+            case RATE_LIMITED:
+            case UPSTREAM_UNAVAILABLE:
+            case OVERLOADED:
+                return HttpStatus.SERVICE_UNAVAILABLE;
+            case DEADLINE_EXCEEDED:
+                return HttpStatus.GATEWAY_TIMEOUT;
+            case NOT_CONFIGURED:
+                return HttpStatus.INTERNAL_SERVER_ERROR;
+            default:
+                return HttpStatus.BAD_REQUEST;
+        }
+    }
+}
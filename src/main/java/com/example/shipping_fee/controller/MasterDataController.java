@@ -0,0 +1,77 @@
+package com.example.shipping_fee.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.shipping_fee.constant.ErrorMessages;
+import com.example.shipping_fee.dto.ApiResponse;
+import com.example.shipping_fee.dto.MasterDataChangesDTO;
+import com.example.shipping_fee.masterdata.MasterDataChangeFeed;
+import com.example.shipping_fee.masterdata.MasterDataSyncService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Master-data change feed, for clients that keep a local copy of provinces/districts/wards
+ * Base URL: /api/shipping/master-data
+ *
+ * Endpoints:
+ * - GET /changes?since={version} : Changes after a version (reset=true means reload the full lists)
+ * - GET /stream                  : Server-Sent Events, one "changes" event per sync cycle
+ */
+@RestController
+@RequestMapping("/api/shipping/master-data")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(originPatterns = "*")
+public class MasterDataController {
+
+    private static final int MAX_CHANGES_PER_PAGE = 1000;
+
+    private final MasterDataSyncService syncService;
+    private final MasterDataChangeFeed changeFeed;
+
+    /**
+     * GET /api/shipping/master-data/changes?since=42&limit=500
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<MasterDataChangesDTO>> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit) {
+        log.info("API called: GET /api/shipping/master-data/changes?since={}", since);
+
+        if (!syncService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(ErrorMessages.ERR_MASTER_DATA_SYNC_DISABLED));
+        }
+
+        MasterDataChangesDTO changes = changeFeed.changesSince(since,
+                Math.max(1, Math.min(limit, MAX_CHANGES_PER_PAGE)));
+        return ResponseEntity.ok(ApiResponse.success(changes,
+                changes.isReset() ? "Full reload required" : changes.getChanges().size() + " changes"));
+    }
+
+    /**
+     * GET /api/shipping/master-data/stream
+     * Reconnecting clients send Last-Event-ID and receive the changes they missed first.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        log.info("API called: GET /api/shipping/master-data/stream");
+
+        if (!syncService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(changeFeed.subscribe(lastEventId));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.shipping_fee.controller;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.shipping_fee.constant.ErrorMessages;
+import com.example.shipping_fee.dto.ApiResponse;
+import com.example.shipping_fee.dto.ErrorMessageDTO;
+import com.example.shipping_fee.dto.OrderRequest;
+import com.example.shipping_fee.dto.OrderSubmissionDTO;
+import com.example.shipping_fee.order.OrderOutboxService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * GHN order creation through the durable outbox
+ * Base URL: /api/shipping/orders
+ *
+ * Endpoints:
+ * - POST /                              : Accept an order (202), or return the existing one (200)
+ * - GET  /{clientOrderCode}             : Submission status (PENDING, SUBMITTED, DEAD_LETTER)
+ * - GET  /dead-letters                  : Orders that need an operator
+ * - POST /dead-letters/{code}/retry     : Requeue a dead-lettered order
+ */
+@RestController
+@RequestMapping("/api/shipping/orders")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(originPatterns = "*")
+public class OrderController {
+
+    private final OrderOutboxService outboxService;
+
+    /**
+     * POST /api/shipping/orders
+     * Returns once the order is on disk; GHN is called in the background.
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<?>> createOrder(@RequestBody OrderRequest order) {
+        log.info("API called: POST /api/shipping/orders - {}", order.getClientOrderCode());
+
+        if (!outboxService.isEnabled()) {
+            return disabled();
+        }
+
+        List<ErrorMessageDTO> errors = outboxService.validate(order);
+        if (!errors.isEmpty()) {
+            return ResponseEntity.badRequest().body(ApiResponse.<List<ErrorMessageDTO>>builder()
+                    .success(false)
+                    .message(ErrorMessages.ERR_VALIDATION_FAILED)
+                    .data(errors)
+                    .build());
+        }
+
+        try {
+            OrderOutboxService.Acceptance acceptance = outboxService.accept(order);
+            if (acceptance.created()) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(ApiResponse.success(acceptance.order(), ErrorMessages.MSG_ORDER_ACCEPTED));
+            }
+            return ResponseEntity.ok(ApiResponse.success(acceptance.order(), ErrorMessages.MSG_ORDER_ALREADY_ACCEPTED));
+        } catch (IOException e) {
+            log.error("Could not accept order {}: {}", order.getClientOrderCode(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(ErrorMessages.ERR_ORDER_OUTBOX_UNAVAILABLE));
+        }
+    }
+
+    /**
+     * GET /api/shipping/orders/dead-letters
+     */
+    @GetMapping("/dead-letters")
+    public ResponseEntity<ApiResponse<?>> getDeadLetters() {
+        log.info("API called: GET /api/shipping/orders/dead-letters");
+
+        if (!outboxService.isEnabled()) {
+            return disabled();
+        }
+        List<OrderSubmissionDTO> deadLetters = outboxService.getDeadLetters();
+        return ResponseEntity.ok(ApiResponse.success(deadLetters, deadLetters.size() + " dead letters"));
+    }
+
+    /**
+     * POST /api/shipping/orders/dead-letters/{clientOrderCode}/retry
+     */
+    @PostMapping("/dead-letters/{clientOrderCode}/retry")
+    public ResponseEntity<ApiResponse<?>> retryDeadLetter(@PathVariable String clientOrderCode) {
+        log.info("API called: POST /api/shipping/orders/dead-letters/{}/retry", clientOrderCode);
+
+        if (!outboxService.isEnabled()) {
+            return disabled();
+        }
+        OrderSubmissionDTO order = outboxService.requeue(clientOrderCode);
+        if (order == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(ErrorMessages.ERR_ORDER_NOT_DEAD_LETTER));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(order));
+    }
+
+    /**
+     * GET /api/shipping/orders/{clientOrderCode}
+     */
+    @GetMapping("/{clientOrderCode}")
+    public ResponseEntity<ApiResponse<?>> getOrder(@PathVariable String clientOrderCode) {
+        log.info("API called: GET /api/shipping/orders/{}", clientOrderCode);
+
+        if (!outboxService.isEnabled()) {
+            return disabled();
+        }
+        OrderSubmissionDTO order = outboxService.get(clientOrderCode);
+        if (order == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(ErrorMessages.ERR_ORDER_NOT_FOUND));
+        }
+        return ResponseEntity.ok(ApiResponse.success(order));
+    }
+
+    private ResponseEntity<ApiResponse<?>> disabled() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ApiResponse.error(ErrorMessages.ERR_ORDERS_DISABLED));
+    }
+}
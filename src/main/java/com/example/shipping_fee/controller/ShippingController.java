@@ -2,23 +2,52 @@ package com.example.shipping_fee.controller;
 
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.shipping_fee.carrier.QuoteOrchestrator;
+import com.example.shipping_fee.consolidation.ConsolidationOptimizer;
+import com.example.shipping_fee.constant.ErrorCode;
 import com.example.shipping_fee.constant.ErrorMessages;
+import com.example.shipping_fee.deadline.Deadline;
+import com.example.shipping_fee.deadline.DeadlineContext;
+import com.example.shipping_fee.deadline.DeadlineExceededException;
+import com.example.shipping_fee.deadline.DeadlinePolicy;
 import com.example.shipping_fee.dto.ApiResponse;
+import com.example.shipping_fee.dto.CarrierQuoteDTO;
+import com.example.shipping_fee.dto.ConsolidationPlanDTO;
+import com.example.shipping_fee.dto.ConsolidationRequest;
 import com.example.shipping_fee.dto.DistrictDTO;
+import com.example.shipping_fee.dto.ErrorMessageDTO;
+import com.example.shipping_fee.dto.MultiCarrierQuoteDTO;
 import com.example.shipping_fee.dto.ProvinceDTO;
+import com.example.shipping_fee.dto.QuoteHintRequest;
 import com.example.shipping_fee.dto.ShippingRequest;
 import com.example.shipping_fee.dto.ShippingResponse;
 import com.example.shipping_fee.dto.WardDTO;
+import com.example.shipping_fee.service.GhnApiException;
 import com.example.shipping_fee.service.GhtkService;
+import com.example.shipping_fee.service.QuoteStreamService;
+import com.example.shipping_fee.service.SpeculativeQuoteService;
+import com.example.shipping_fee.tracing.Span;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,6 +61,10 @@ import lombok.extern.slf4j.Slf4j;
  * - GET  /districts/{provinceId} : Get list of Districts by Province
  * - GET  /wards/{districtId}     : Get list of Wards by District
  * - POST /calculate              : Calculate shipping fee
+ * - POST /calculate/stream       : Calculate fees for a stream of requests (NDJSON / SSE)
+ * - POST /quotes?rank=price|eta  : Quote all enabled carriers, best first
+ * - POST /consolidate            : Split a cart into the cheapest set of parcels
+ * - POST /quote-hints            : Hint for speculative pre-quoting
  */
 @RestController
 @RequestMapping("/api/shipping")
@@ -41,6 +74,14 @@ import lombok.extern.slf4j.Slf4j;
 public class ShippingController {
 
     private final GhtkService ghtkService;
+    private final DeadlinePolicy deadlinePolicy;
+    private final SpeculativeQuoteService speculativeQuoteService;
+    private final QuoteStreamService quoteStreamService;
+    private final QuoteOrchestrator quoteOrchestrator;
+    private final ConsolidationOptimizer consolidationOptimizer;
+
+    @Qualifier("quoteExecutor")
+    private final ThreadPoolTaskExecutor quoteExecutor;
 
     /**
      * GET /api/shipping/provinces
@@ -98,6 +139,11 @@ public class ShippingController {
      *
      * Called by React when user clicks "Calculate" button
      *
+     * The request runs under a deadline taken from the X-Request-Timeout-Ms header
+     * (or the default budget). GHN timeouts are capped to what is left, and when the
+     * deadline passes or the client disconnects the upstream call is cancelled and
+     * 504 is returned.
+     *
      * Request Body (ShippingRequest):
      * {
      *   "toDistrictId": 1442,
@@ -108,27 +154,245 @@ public class ShippingController {
      * }
      */
     @PostMapping("/calculate")
-    public ResponseEntity<ApiResponse<ShippingResponse>> calculateFee(
-            @RequestBody ShippingRequest request) {
+    public WebAsyncTask<ResponseEntity<ApiResponse<ShippingResponse>>> calculateFee(
+            @RequestBody ShippingRequest request,
+            @RequestHeader(value = DeadlinePolicy.TIMEOUT_HEADER, required = false) String timeoutHeader) {
         log.info("API called: POST /api/shipping/calculate");
         log.info("Request: from_district={} -> to_district={}, to_ward={}, {}g",
                 request.getFromDistrictId(), request.getToDistrictId(),
                 request.getToWardCode(), request.getWeight());
 
-        // Validation is handled in service layer
-        ShippingResponse result = ghtkService.calculateFee(request);
+        Deadline deadline = deadlinePolicy.fromHeader(timeoutHeader);
+
+        WebAsyncTask<ResponseEntity<ApiResponse<ShippingResponse>>> task = new WebAsyncTask<>(
+                Math.max(1, deadline.remainingMillis()), quoteExecutor,
+                () -> DeadlineContext.callWith(deadline, () -> calculateWithinDeadline(request)));
+
+        // Budget exhausted or client disconnected: abort the GHN call
+        task.onTimeout(() -> {
+            deadline.cancel();
+            return deadlineExceeded();
+        });
+        task.onError(() -> {
+            deadline.cancel();
+            return deadlineExceeded();
+        });
+        return task;
+    }
+
+    private ResponseEntity<ApiResponse<ShippingResponse>> calculateWithinDeadline(ShippingRequest request) {
+        ShippingResponse result;
+        try (Span span = Span.start("calculate")) {
+            // Validation is handled in service layer
+            result = ghtkService.calculateFee(request);
+            span.attribute("success", result.isSuccess())
+                    .attribute("error_code", result.getErrorCode());
+        } catch (DeadlineExceededException e) {
+            return deadlineExceeded();
+        }
 
         if (result.isSuccess()) {
             return ResponseEntity.ok(ApiResponse.success(result, ErrorMessages.MSG_FEE_CALCULATION_SUCCESS));
         } else {
-            // Return result with errors list for field-level validation
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.<ShippingResponse>builder()
-                            .success(false)
-                            .message(result.getMessage())
-                            .data(result)
-                            .build());
+            // Return result with errors list for field-level validation; transient GHN failures get 503
+            return GhnErrorAdvice.respond(result.getErrorCode(), ApiResponse.<ShippingResponse>builder()
+                    .success(false)
+                    .message(result.getMessage())
+                    .errorCode(result.getErrorCode())
+                    .data(result)
+                    .build());
+        }
+    }
+
+    /**
+     * POST /api/shipping/calculate/stream
+     * Batch variant of /calculate: body is a stream of ShippingRequest objects
+     * (NDJSON, one per line, or a JSON array). Each result is written as soon as it is ready,
+     * tagged with the request's index:
+     * - Accept: text/event-stream -> SSE "quote" events, then a "done" event with the count
+     * - otherwise                 -> application/x-ndjson, one QuoteStreamItemDTO per line
+     *
+     * X-Request-Timeout-Ms applies to each item. Fan-out to GHN is bounded by
+     * shipping.batch.max-in-flight and paced by how fast the client reads.
+     */
+    @PostMapping("/calculate/stream")
+    public ResponseEntity<StreamingResponseBody> calculateFeeStream(
+            HttpServletRequest servletRequest,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = DeadlinePolicy.TIMEOUT_HEADER, required = false) String timeoutHeader) {
+        log.info("API called: POST /api/shipping/calculate/stream");
+
+        boolean sse = accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+        QuoteStreamService.Format format = sse ? QuoteStreamService.Format.SSE : QuoteStreamService.Format.NDJSON;
+
+        StreamingResponseBody body = out -> {
+            int count = quoteStreamService.stream(servletRequest.getInputStream(), out, format,
+                    () -> deadlinePolicy.fromHeader(timeoutHeader));
+            log.info("Quote stream finished: {} results", count);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(sse ? MediaType.TEXT_EVENT_STREAM : MediaType.APPLICATION_NDJSON)
+                .cacheControl(CacheControl.noStore())
+                // Tell reverse proxies not to buffer the stream
+                .header("X-Accel-Buffering", "no")
+                .body(body);
+    }
+
+    /**
+     * POST /api/shipping/quotes?rank=price|eta
+     * Quote the package with every enabled carrier concurrently and rank the answers
+     * (cheapest first, or earliest delivery first). Each carrier is cut off at its own
+     * timeout, and the whole request at the X-Request-Timeout-Ms deadline.
+     *
+     * Request Body: same as /calculate
+     */
+    @PostMapping("/quotes")
+    public WebAsyncTask<ResponseEntity<ApiResponse<?>>> quoteCarriers(
+            @RequestBody ShippingRequest request,
+            @RequestParam(defaultValue = "price") String rank,
+            @RequestHeader(value = DeadlinePolicy.TIMEOUT_HEADER, required = false) String timeoutHeader) {
+        log.info("API called: POST /api/shipping/quotes?rank={}", rank);
+
+        Deadline deadline = deadlinePolicy.fromHeader(timeoutHeader);
+
+        WebAsyncTask<ResponseEntity<ApiResponse<?>>> task = new WebAsyncTask<>(
+                Math.max(1, deadline.remainingMillis()), quoteExecutor,
+                () -> quoteWithinDeadline(request, QuoteOrchestrator.Rank.parse(rank), deadline));
+
+        task.onTimeout(() -> {
+            deadline.cancel();
+            return quotesDeadlineExceeded();
+        });
+        task.onError(() -> {
+            deadline.cancel();
+            return quotesDeadlineExceeded();
+        });
+        return task;
+    }
+
+    private ResponseEntity<ApiResponse<?>> quoteWithinDeadline(ShippingRequest request,
+                                                              QuoteOrchestrator.Rank rank, Deadline deadline) {
+        try (Span span = Span.start("quotes")) {
+            span.attribute("rank", rank);
+            return rankCarrierQuotes(request, rank, deadline);
+        }
+    }
+
+    private ResponseEntity<ApiResponse<?>> rankCarrierQuotes(ShippingRequest request,
+                                                            QuoteOrchestrator.Rank rank, Deadline deadline) {
+        if (rank == null) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(ErrorMessages.ERR_RANK_INVALID));
         }
+        List<ErrorMessageDTO> errors = ghtkService.validateRequest(request);
+        if (!errors.isEmpty()) {
+            return ResponseEntity.badRequest().body(ApiResponse.<List<ErrorMessageDTO>>builder()
+                    .success(false)
+                    .message(ErrorMessages.ERR_VALIDATION_FAILED)
+                    .errorCode(ErrorCode.VALIDATION_FAILED)
+                    .data(errors)
+                    .build());
+        }
+
+        MultiCarrierQuoteDTO quotes = quoteOrchestrator.quote(request, rank, deadline);
+        if (quotes.getWinner() != null) {
+            return ResponseEntity.ok(ApiResponse.success(quotes, ErrorMessages.MSG_QUOTES_SUCCESS));
+        }
+        boolean allTimedOut = quotes.getQuotes().stream()
+                .allMatch(quote -> quote.getStatus() == CarrierQuoteDTO.Status.TIMEOUT);
+        return ResponseEntity.status(allTimedOut ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.<MultiCarrierQuoteDTO>builder()
+                        .success(false)
+                        .message(allTimedOut ? ErrorMessages.ERR_DEADLINE_EXCEEDED : ErrorMessages.ERR_NO_CARRIER_QUOTE)
+                        .data(quotes)
+                        .build());
+    }
+
+    /**
+     * POST /api/shipping/consolidate
+     * Split a cart into parcels at the lowest total fee: candidate splits are ranked by a
+     * local fee model, then the best few are quoted live in parallel. Cut off at the
+     * X-Request-Timeout-Ms deadline like /quotes.
+     *
+     * Request Body: destination and service as in /calculate, plus items with weight and dimensions
+     */
+    @PostMapping("/consolidate")
+    public WebAsyncTask<ResponseEntity<ApiResponse<?>>> consolidate(
+            @RequestBody ConsolidationRequest request,
+            @RequestHeader(value = DeadlinePolicy.TIMEOUT_HEADER, required = false) String timeoutHeader) {
+        log.info("API called: POST /api/shipping/consolidate");
+
+        Deadline deadline = deadlinePolicy.fromHeader(timeoutHeader);
+
+        WebAsyncTask<ResponseEntity<ApiResponse<?>>> task = new WebAsyncTask<>(
+                Math.max(1, deadline.remainingMillis()), quoteExecutor,
+                () -> consolidateWithinDeadline(request, deadline));
+
+        task.onTimeout(() -> {
+            deadline.cancel();
+            return quotesDeadlineExceeded();
+        });
+        task.onError(() -> {
+            deadline.cancel();
+            return quotesDeadlineExceeded();
+        });
+        return task;
+    }
+
+    private ResponseEntity<ApiResponse<?>> consolidateWithinDeadline(ConsolidationRequest request, Deadline deadline) {
+        try (Span span = Span.start("consolidate")) {
+            return consolidateCart(request, deadline);
+        }
+    }
+
+    private ResponseEntity<ApiResponse<?>> consolidateCart(ConsolidationRequest request, Deadline deadline) {
+        List<ErrorMessageDTO> errors = consolidationOptimizer.validate(request);
+        if (!errors.isEmpty()) {
+            return ResponseEntity.badRequest().body(ApiResponse.<List<ErrorMessageDTO>>builder()
+                    .success(false)
+                    .message(ErrorMessages.ERR_VALIDATION_FAILED)
+                    .errorCode(ErrorCode.VALIDATION_FAILED)
+                    .data(errors)
+                    .build());
+        }
+        try {
+            ConsolidationPlanDTO plan = consolidationOptimizer.optimize(request, deadline);
+            return ResponseEntity.ok(ApiResponse.success(plan, ErrorMessages.MSG_CONSOLIDATION_SUCCESS));
+        } catch (GhnApiException e) {
+            return GhnErrorAdvice.respond(e.getErrorCode(), ApiResponse.error(e.getErrorCode(), e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<ApiResponse<?>> quotesDeadlineExceeded() {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                .body(ApiResponse.error(ErrorCode.DEADLINE_EXCEEDED, ErrorMessages.ERR_DEADLINE_EXCEEDED));
+    }
+
+    private ResponseEntity<ApiResponse<ShippingResponse>> deadlineExceeded() {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                .body(ApiResponse.error(ErrorCode.DEADLINE_EXCEEDED, ErrorMessages.ERR_DEADLINE_EXCEEDED));
+    }
+
+    /**
+     * POST /api/shipping/quote-hints
+     * Hint that the user selected a delivery ward, with the cart package.
+     * If speculation is enabled, likely quotes are computed in the background so the
+     * following /calculate is answered from cache. Always returns immediately.
+     *
+     * Header X-Client-Id identifies the checkout session; a new hint cancels the previous one.
+     */
+    @PostMapping("/quote-hints")
+    public ResponseEntity<ApiResponse<Integer>> quoteHint(
+            @RequestBody QuoteHintRequest hint,
+            @RequestHeader(value = "X-Client-Id", required = false) String clientId,
+            HttpServletRequest servletRequest) {
+        log.info("API called: POST /api/shipping/quote-hints");
+
+        String client = clientId != null && !clientId.isBlank() ? clientId : servletRequest.getRemoteAddr();
+        int scheduled = speculativeQuoteService.hint(client, hint);
+
+        return ResponseEntity.accepted().body(ApiResponse.success(scheduled,
+                "Scheduled " + scheduled + " speculative quotes"));
     }
 
     /**
@@ -0,0 +1,75 @@
+package com.example.shipping_fee.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.shipping_fee.constant.ErrorMessages;
+import com.example.shipping_fee.dto.ApiResponse;
+import com.example.shipping_fee.dto.TraceDTO;
+import com.example.shipping_fee.tracing.TraceCollector;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Request traces kept by tail sampling (failed, slow, or sampled requests)
+ * Base URL: /api/shipping/traces
+ *
+ * Endpoints:
+ * - GET /?minDurationMs=&limit= : Kept traces, newest first, without spans
+ * - GET /{traceId}              : One trace with its span tree (trace id from X-Trace-Id)
+ */
+@RestController
+@RequestMapping("/api/shipping/traces")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(originPatterns = "*")
+public class TraceController {
+
+    private static final int MAX_LIMIT = 200;
+
+    private final TraceCollector traceCollector;
+
+    /**
+     * GET /api/shipping/traces?minDurationMs=500&limit=20
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<TraceDTO>>> getTraces(
+            @RequestParam(defaultValue = "0") long minDurationMs,
+            @RequestParam(defaultValue = "50") int limit) {
+        log.debug("API called: GET /api/shipping/traces?minDurationMs={}&limit={}", minDurationMs, limit);
+
+        if (!traceCollector.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(ErrorMessages.ERR_TRACING_DISABLED));
+        }
+        int capped = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return ResponseEntity.ok(ApiResponse.success(traceCollector.recent(Math.max(0, minDurationMs), capped)));
+    }
+
+    /**
+     * GET /api/shipping/traces/{traceId}
+     */
+    @GetMapping("/{traceId}")
+    public ResponseEntity<ApiResponse<TraceDTO>> getTrace(@PathVariable String traceId) {
+        log.debug("API called: GET /api/shipping/traces/{}", traceId);
+
+        if (!traceCollector.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(ErrorMessages.ERR_TRACING_DISABLED));
+        }
+        TraceDTO trace = traceCollector.get(traceId);
+        if (trace == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(ErrorMessages.ERR_TRACE_NOT_FOUND));
+        }
+        return ResponseEntity.ok(ApiResponse.success(trace));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.shipping_fee.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.shipping_fee.constant.ErrorMessages;
+import com.example.shipping_fee.dto.ApiResponse;
+import com.example.shipping_fee.dto.OrderTrackingDTO;
+import com.example.shipping_fee.tracking.OrderTrackingService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Order status for customer service tools, served from the tracking cache
+ * Base URL: /api/shipping/tracking
+ *
+ * Endpoints:
+ * - GET /{orderCode} : Last known GHN status, with checked_at / next_check_at
+ */
+@RestController
+@RequestMapping("/api/shipping/tracking")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(originPatterns = "*")
+public class TrackingController {
+
+    private final OrderTrackingService trackingService;
+
+    /**
+     * GET /api/shipping/tracking/{orderCode}
+     */
+    @GetMapping("/{orderCode}")
+    public ResponseEntity<ApiResponse<OrderTrackingDTO>> getTracking(@PathVariable String orderCode) {
+        log.info("API called: GET /api/shipping/tracking/{}", orderCode);
+
+        if (!trackingService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(ErrorMessages.ERR_TRACKING_DISABLED));
+        }
+
+        try {
+            OrderTrackingDTO tracking = trackingService.get(orderCode);
+            if (tracking == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(ErrorMessages.ERR_ORDER_NOT_FOUND));
+            }
+            return ResponseEntity.ok(ApiResponse.success(tracking));
+        } catch (RuntimeException e) {
+            log.error("Error reading status of order {}: {}", orderCode, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(ErrorMessages.ERR_API_CALL_FAILED));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.shipping_fee.deadline;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * End-to-end time budget of one client request.
+ *
+ * Created by the controller from the client's timeout header (or the default budget)
+ * and carried to the GHN call through {@link DeadlineContext}. Upstream calls cap their
+ * timeouts to {@link #remainingMillis()} and register cancel hooks, so when the client
+ * gives up ({@link #cancel()}) in-flight HTTP requests are aborted instead of finishing
+ * for nobody.
+ */
+@Slf4j
+public final class Deadline {
+
+    private final long expiresAtNanos;
+    private final List<Runnable> cancelHooks = new CopyOnWriteArrayList<>();
+    private volatile boolean cancelled;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /**
+     * Deadline that expires after the given budget from now
+     */
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+
+    public long remainingMillis() {
+        return Math.max(0, (expiresAtNanos - System.nanoTime()) / 1_000_000);
+    }
+
+    public boolean isExpired() {
+        return cancelled || expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Check there is still budget left before starting work
+     * @throws DeadlineExceededException if the deadline has passed or was cancelled
+     */
+    public void check(String operation) {
+        if (isExpired()) {
+            throw new DeadlineExceededException(operation);
+        }
+    }
+
+    /**
+     * Register work to abort when the deadline is cancelled.
+     * Runs immediately if already cancelled.
+     */
+    public void onCancel(Runnable hook) {
+        cancelHooks.add(hook);
+        if (cancelled && cancelHooks.remove(hook)) {
+            hook.run();
+        }
+    }
+
+    public void removeCancelHook(Runnable hook) {
+        cancelHooks.remove(hook);
+    }
+
+    int cancelHookCount() {
+        return cancelHooks.size();
+    }
+
+    /**
+     * Cancel the request: client disconnected or budget exhausted.
+     * Runs every registered hook once.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (Runnable hook : cancelHooks) {
+            if (cancelHooks.remove(hook)) {
+                try {
+                    hook.run();
+                } catch (RuntimeException e) {
+                    log.debug("Deadline cancel hook failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
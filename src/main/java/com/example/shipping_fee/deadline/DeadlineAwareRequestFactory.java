@@ -0,0 +1,171 @@
+package com.example.shipping_fee.deadline;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+/**
+ * Request factory that applies the current {@link Deadline} to each outbound request:
+ * - pool wait and response timeouts are capped to the remaining budget
+ * - no request is started once the deadline has passed
+ * - cancelling the deadline aborts the in-flight request (closes the connection); the cancel
+ *   hook is removed again when the exchange completes, so retries do not pile up hooks
+ */
+public class DeadlineAwareRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+    // Hands the cancel hook from createHttpUriRequest to createRequest (same call, same thread)
+    private static final ThreadLocal<Runnable> REGISTERED_HOOK = new ThreadLocal<>();
+
+    private final long connectionRequestTimeoutMs;
+    private final long responseTimeoutMs;
+
+    public DeadlineAwareRequestFactory(HttpClient httpClient, long connectionRequestTimeoutMs,
+                                       long responseTimeoutMs) {
+        super(httpClient);
+        this.connectionRequestTimeoutMs = connectionRequestTimeoutMs;
+        this.responseTimeoutMs = responseTimeoutMs;
+        setConnectionRequestTimeout((int) connectionRequestTimeoutMs);
+        setReadTimeout((int) responseTimeoutMs);
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        REGISTERED_HOOK.remove();
+        ClientHttpRequest request = super.createRequest(uri, httpMethod);
+        Runnable hook = REGISTERED_HOOK.get();
+        if (hook == null) {
+            return request;
+        }
+        REGISTERED_HOOK.remove();
+        return new HookReleasingRequest(request, DeadlineContext.current(), hook);
+    }
+
+    @Override
+    protected ClassicHttpRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+        ClassicHttpRequest request = super.createHttpUriRequest(httpMethod, uri);
+        Deadline deadline = DeadlineContext.current();
+        if (deadline == null || !(request instanceof HttpUriRequestBase)) {
+            return request;
+        }
+
+        deadline.check(httpMethod + " " + uri.getPath());
+        long remaining = Math.max(1, deadline.remainingMillis());
+
+        HttpUriRequestBase cancellable = (HttpUriRequestBase) request;
+        cancellable.setConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Math.min(connectionRequestTimeoutMs, remaining), TimeUnit.MILLISECONDS)
+                .setResponseTimeout(Math.min(responseTimeoutMs, remaining), TimeUnit.MILLISECONDS)
+                .build());
+        Runnable hook = cancellable::cancel;
+        deadline.onCancel(hook);
+        REGISTERED_HOOK.set(hook);
+        return cancellable;
+    }
+
+    /**
+     * Removes the cancel hook once the response is closed or the request fails
+     */
+    private static final class HookReleasingRequest implements ClientHttpRequest {
+        private final ClientHttpRequest delegate;
+        private final Deadline deadline;
+        private final Runnable hook;
+
+        HookReleasingRequest(ClientHttpRequest delegate, Deadline deadline, Runnable hook) {
+            this.delegate = delegate;
+            this.deadline = deadline;
+            this.hook = hook;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            ClientHttpResponse response;
+            try {
+                response = delegate.execute();
+            } catch (IOException | RuntimeException e) {
+                deadline.removeCancelHook(hook);
+                throw e;
+            }
+            return new HookReleasingResponse(response, deadline, hook);
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return delegate.getMethod();
+        }
+
+        @Override
+        public URI getURI() {
+            return delegate.getURI();
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return delegate.getAttributes();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+    }
+
+    private static final class HookReleasingResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final Deadline deadline;
+        private final Runnable hook;
+
+        HookReleasingResponse(ClientHttpResponse delegate, Deadline deadline, Runnable hook) {
+            this.delegate = delegate;
+            this.deadline = deadline;
+            this.hook = hook;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                deadline.removeCancelHook(hook);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.shipping_fee.deadline;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the {@link Deadline} of the request being processed on the current thread.
+ * Code without a deadline (scheduled jobs, tests) simply sees {@code null}.
+ */
+public final class DeadlineContext {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private DeadlineContext() {
+        // Prevent instantiation
+    }
+
+    /**
+     * @return deadline of the current request, or null if none
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run work with the given deadline bound to the current thread
+     */
+    public static <T> T callWith(Deadline deadline, Supplier<T> work) {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
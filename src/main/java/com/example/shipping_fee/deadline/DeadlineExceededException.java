@@ -0,0 +1,11 @@
+package com.example.shipping_fee.deadline;
+
+/**
+ * Thrown when work is skipped or aborted because the request deadline has passed
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String operation) {
+        super("Deadline exceeded before " + operation);
+    }
+}
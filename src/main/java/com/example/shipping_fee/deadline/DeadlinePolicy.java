@@ -0,0 +1,48 @@
+package com.example.shipping_fee.deadline;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns the client's timeout header into a {@link Deadline}.
+ *
+ * The client sends its remaining budget in {@link #TIMEOUT_HEADER} (milliseconds).
+ * A small margin is kept back for writing the response, and budgets are clamped to
+ * [min, max] so a bad header cannot pin a thread forever.
+ */
+@Component
+public class DeadlinePolicy {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    @Value("${shipping.deadline.default-ms:3000}")
+    private long defaultBudgetMs;
+
+    @Value("${shipping.deadline.max-ms:10000}")
+    private long maxBudgetMs;
+
+    @Value("${shipping.deadline.min-ms:100}")
+    private long minBudgetMs;
+
+    @Value("${shipping.deadline.response-margin-ms:50}")
+    private long responseMarginMs;
+
+    /**
+     * @param headerValue raw header value, may be null or malformed
+     * @return deadline starting now
+     */
+    public Deadline fromHeader(String headerValue) {
+        long budget = defaultBudgetMs;
+        if (headerValue != null && !headerValue.isBlank()) {
+            try {
+                budget = Long.parseLong(headerValue.trim());
+            } catch (NumberFormatException e) {
+                budget = defaultBudgetMs;
+            }
+        }
+        budget = Math.min(Math.max(budget - responseMarginMs, minBudgetMs), maxBudgetMs);
+        return Deadline.after(Duration.ofMillis(budget));
+    }
+}
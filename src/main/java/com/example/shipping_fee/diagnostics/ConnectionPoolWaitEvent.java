@@ -0,0 +1,36 @@
+package com.example.shipping_fee.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Time spent waiting for a pooled GHN connection (lease), excluding connect
+ */
+@Name(ConnectionPoolWaitEvent.NAME)
+@Label("Connection Pool Wait")
+@Category({"Shipping Fee", "GHN"})
+@Description("Wait for a connection from the GHN HTTP connection pool")
+@StackTrace(false)
+public class ConnectionPoolWaitEvent extends Event {
+
+    public static final String NAME = "shipping_fee.ConnectionPoolWait";
+
+    @Label("Route")
+    String route;
+
+    @Label("Leased")
+    @Description("Connections in use when the lease started")
+    int leased;
+
+    @Label("Pending")
+    @Description("Requests already waiting when the lease started")
+    int pending;
+
+    @Label("Acquired")
+    @Description("False if the lease timed out or failed")
+    boolean acquired;
+}
@@ -0,0 +1,80 @@
+package com.example.shipping_fee.diagnostics;
+
+import java.net.URI;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One HTTP attempt against GHN (retries are separate events)
+ */
+@Name(GhnCallEvent.NAME)
+@Label("GHN Call")
+@Category({"Shipping Fee", "GHN"})
+@Description("HTTP request to the GHN API, one event per attempt")
+@StackTrace(false)
+public class GhnCallEvent extends Event {
+
+    public static final String NAME = "shipping_fee.GhnCall";
+
+    @Label("Endpoint")
+    @Description("Request path without query string")
+    String endpoint;
+
+    @Label("Method")
+    String method;
+
+    @Label("Attempt")
+    @Description("0 for the first try, 1.. for retries")
+    int attempt;
+
+    @Label("HTTP Status")
+    @Description("0 if no response was received")
+    int httpStatus;
+
+    @Label("GHN Code")
+    @Description("The code field of GHN's JSON envelope, 0 if absent")
+    int ghnCode;
+
+    @Label("Outcome")
+    @Description("ok, http_error, io_error or deadline")
+    String outcome;
+
+    /**
+     * Start timing a call; cheap when no recording has the event enabled
+     */
+    public static GhnCallEvent start(String method, int attempt) {
+        GhnCallEvent event = new GhnCallEvent();
+        event.method = method;
+        event.attempt = attempt;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Stop timing and commit if the recording wants this event (threshold, enabled)
+     */
+    public void finish(String url, int httpStatus, Object ghnCode, String outcome) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.endpoint = path(url);
+        this.httpStatus = httpStatus;
+        this.ghnCode = ghnCode instanceof Number ? ((Number) ghnCode).intValue() : 0;
+        this.outcome = outcome;
+        commit();
+    }
+
+    private static String path(String url) {
+        try {
+            return URI.create(url).getPath();
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.shipping_fee.diagnostics;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.HttpClientConnectionOperator;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import com.example.shipping_fee.tracing.Span;
+
+/**
+ * Pooling connection manager that emits a {@link ConnectionPoolWaitEvent} per lease, and
+ * http.pool.lease / http.connect spans inside a traced GHN call.
+ * Pool statistics are only read when a recording has the event enabled or the call is traced.
+ */
+public class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    public InstrumentedConnectionManager() {
+        super();
+    }
+
+    /**
+     * @param operator opens new connections (e.g. with traced DNS / TLS)
+     */
+    public InstrumentedConnectionManager(HttpClientConnectionOperator operator) {
+        super(operator, PoolConcurrencyPolicy.STRICT, PoolReusePolicy.LIFO, TimeValue.NEG_ONE_MILLISECOND, null);
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        LeaseRequest lease = super.lease(id, route, requestTimeout, state);
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                ConnectionPoolWaitEvent event = new ConnectionPoolWaitEvent();
+                try (Span span = Span.start("http.pool.lease")) {
+                    if (!event.isEnabled() && !span.isRecording()) {
+                        return lease.get(timeout);
+                    }
+                    PoolStats stats = getStats(route);
+                    event.route = route.getTargetHost().toHostString();
+                    event.leased = stats.getLeased();
+                    event.pending = stats.getPending();
+                    span.attribute("pool.leased", stats.getLeased()).attribute("pool.pending", stats.getPending());
+                    event.begin();
+                    try {
+                        ConnectionEndpoint endpoint = lease.get(timeout);
+                        event.acquired = true;
+                        span.attribute("reused", endpoint.isConnected());
+                        return endpoint;
+                    } catch (TimeoutException e) {
+                        span.error("pool wait timed out");
+                        throw e;
+                    } finally {
+                        event.commit();
+                    }
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return lease.cancel();
+            }
+        };
+    }
+
+    /**
+     * New connection: DNS, TCP connect and TLS handshake
+     */
+    @Override
+    public void connect(ConnectionEndpoint endpoint, TimeValue timeout, HttpContext context) throws IOException {
+        try (Span span = Span.start("http.connect")) {
+            try {
+                super.connect(endpoint, timeout, context);
+            } catch (IOException | RuntimeException e) {
+                span.error(e.toString());
+                throw e;
+            }
+        }
+    }
+}
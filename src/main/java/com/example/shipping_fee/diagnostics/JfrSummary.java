@@ -0,0 +1,142 @@
+package com.example.shipping_fee.diagnostics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Summarizes a .jfr recording into per-endpoint GHN latency, pool wait,
+ * quote cache and validation figures. Plain JDK, no Spring context.
+ * Usage: java -cp target/classes com.example.shipping_fee.diagnostics.JfrSummary rec.jfr
+ */
+public final class JfrSummary {
+
+    private JfrSummary() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: JfrSummary <recording.jfr>");
+            System.exit(2);
+        }
+        System.out.print(summarize(Path.of(args[0])));
+    }
+
+    public static String summarize(Path recording) throws IOException {
+        Map<String, Endpoint> endpoints = new TreeMap<>();
+        List<Long> poolWaits = new ArrayList<>();
+        int poolTimeouts = 0;
+        int cacheHits = 0;
+        int cacheMisses = 0;
+        int validations = 0;
+        int invalid = 0;
+        Map<String, Integer> failingFields = new TreeMap<>();
+
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                switch (event.getEventType().getName()) {
+                    case GhnCallEvent.NAME -> endpoints
+                            .computeIfAbsent(event.getString("method") + " " + event.getString("endpoint"), k -> new Endpoint())
+                            .add(event);
+                    case ConnectionPoolWaitEvent.NAME -> {
+                        poolWaits.add(micros(event.getDuration()));
+                        if (!event.getBoolean("acquired")) {
+                            poolTimeouts++;
+                        }
+                    }
+                    case QuoteCacheEvent.NAME -> {
+                        if (event.getBoolean("hit")) {
+                            cacheHits++;
+                        } else {
+                            cacheMisses++;
+                        }
+                    }
+                    case ValidationEvent.NAME -> {
+                        validations++;
+                        if (!event.getBoolean("valid")) {
+                            invalid++;
+                            for (String field : event.getString("fields").split(",")) {
+                                if (!field.isEmpty()) {
+                                    failingFields.merge(field, 1, Integer::sum);
+                                }
+                            }
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        StringBuilder out = new StringBuilder();
+        out.append("GHN calls (latency in ms)\n");
+        out.append(String.format("  %-60s %7s %7s %8s %8s %8s %8s  %s%n",
+                "endpoint", "count", "errors", "p50", "p95", "p99", "max", "status"));
+        endpoints.forEach((name, e) -> out.append(String.format("  %-60s %7d %7d %8.1f %8.1f %8.1f %8.1f  %s%n",
+                name, e.latencies.size(), e.errors,
+                ms(percentile(e.latencies, 50)), ms(percentile(e.latencies, 95)),
+                ms(percentile(e.latencies, 99)), ms(percentile(e.latencies, 100)), e.statuses)));
+
+        out.append(String.format("Connection pool wait: %d leases, %d failed, p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                poolWaits.size(), poolTimeouts,
+                ms(percentile(poolWaits, 50)), ms(percentile(poolWaits, 99)), ms(percentile(poolWaits, 100))));
+
+        int lookups = cacheHits + cacheMisses;
+        out.append(String.format("Quote cache: %d lookups, %d hits, hit ratio %.1f%%%n",
+                lookups, cacheHits, lookups == 0 ? 0.0 : 100.0 * cacheHits / lookups));
+
+        out.append(String.format("Validation: %d requests, %d invalid%n", validations, invalid));
+        failingFields.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(10)
+                .forEach(f -> out.append(String.format("  %-30s %d%n", f.getKey(), f.getValue())));
+        return out.toString();
+    }
+
+    private static long micros(Duration duration) {
+        return duration.toNanos() / 1_000;
+    }
+
+    private static double ms(long micros) {
+        return micros / 1_000.0;
+    }
+
+    /**
+     * Nearest-rank percentile; sorts the list in place
+     */
+    private static long percentile(List<Long> values, int p) {
+        if (values.isEmpty()) {
+            return 0;
+        }
+        Collections.sort(values);
+        int rank = (int) Math.ceil(p / 100.0 * values.size());
+        return values.get(Math.max(0, rank - 1));
+    }
+
+    private static final class Endpoint {
+        final List<Long> latencies = new ArrayList<>();
+        final Map<String, Integer> statuses = new TreeMap<>();
+        int errors;
+
+        void add(RecordedEvent event) {
+            latencies.add(micros(event.getDuration()));
+            int http = event.getInt("httpStatus");
+            int ghn = event.getInt("ghnCode");
+            String key = (http == 0 ? event.getString("outcome") : String.valueOf(http))
+                    + (ghn != 0 && ghn != http ? "/ghn" + ghn : "");
+            statuses.merge(key, 1, Integer::sum);
+            if (!"ok".equals(event.getString("outcome")) || (ghn != 0 && ghn != 200)) {
+                errors++;
+            }
+        }
+    }
+}
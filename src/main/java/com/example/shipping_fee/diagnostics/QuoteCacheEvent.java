@@ -0,0 +1,40 @@
+package com.example.shipping_fee.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Fee quote cache lookup (instant event)
+ */
+@Name(QuoteCacheEvent.NAME)
+@Label("Quote Cache Lookup")
+@Category({"Shipping Fee", "Cache"})
+@StackTrace(false)
+public class QuoteCacheEvent extends Event {
+
+    public static final String NAME = "shipping_fee.QuoteCache";
+
+    @Label("Hit")
+    boolean hit;
+
+    @Label("To District")
+    int toDistrictId;
+
+    @Label("Service Type")
+    int serviceTypeId;
+
+    public static void emit(boolean hit, Integer toDistrictId, Integer serviceTypeId) {
+        QuoteCacheEvent event = new QuoteCacheEvent();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.hit = hit;
+        event.toDistrictId = toDistrictId != null ? toDistrictId : 0;
+        event.serviceTypeId = serviceTypeId != null ? serviceTypeId : 0;
+        event.commit();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.shipping_fee.diagnostics;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.example.shipping_fee.dto.ErrorMessageDTO;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Validation of one fee request
+ */
+@Name(ValidationEvent.NAME)
+@Label("Request Validation")
+@Category({"Shipping Fee", "Validation"})
+@StackTrace(false)
+public class ValidationEvent extends Event {
+
+    public static final String NAME = "shipping_fee.Validation";
+
+    @Label("Valid")
+    boolean valid;
+
+    @Label("Error Count")
+    int errorCount;
+
+    @Label("Fields")
+    @Description("Comma-separated fields that failed, empty if valid")
+    String fields;
+
+    private static final EventType TYPE = EventType.getEventType(ValidationEvent.class);
+
+    /**
+     * @return the started event, or null while no recording enables it, so nothing is allocated
+     *         for validations nobody records
+     */
+    public static ValidationEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        ValidationEvent event = new ValidationEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(List<ErrorMessageDTO> errors) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        valid = errors.isEmpty();
+        errorCount = errors.size();
+        fields = errors.stream().map(ErrorMessageDTO::getField).collect(Collectors.joining(","));
+        commit();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.shipping_fee.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Every list an address form needs for one selection, in a single response.
+ * The selection is echoed back trimmed to its deepest valid level
+ * (e.g. a district that no longer belongs to the province comes back as null).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AddressBootstrapDTO {
+
+    private Integer provinceId;           // Selected province (resolved from the district if not given)
+    private Integer districtId;           // Selected district, null if none or invalid
+    private String wardCode;              // Selected ward, null if none or invalid
+
+    private List<ProvinceDTO> provinces;  // Always present
+    private List<DistrictDTO> districts;  // Districts of provinceId, null without a province
+    private List<WardDTO> wards;          // Wards of districtId, null without a district
+}
@@ -0,0 +1,28 @@
+package com.example.shipping_fee.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Whole province -> district -> ward tree in compact encoding, for clients that
+ * download it once instead of walking the dropdowns:
+ * province = [provinceId, name, code, districts], district = [districtId, name, wards],
+ * ward = [wardCode, name]
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AddressTreeDTO {
+
+    // Fingerprint of the tree, also sent as ETag
+    private String version;
+
+    private int districtCount;
+    private int wardCount;
+
+    // [provinceId, name, code, [[districtId, name, [[wardCode, name], ...]], ...]]
+    private List<Object[]> provinces;
+}
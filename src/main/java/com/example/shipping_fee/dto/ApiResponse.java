@@ -1,5 +1,8 @@
 package com.example.shipping_fee.dto;
 
+import com.example.shipping_fee.constant.ErrorCode;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,6 +22,10 @@ public class ApiResponse<T> {
     private String message;
     private T data;
 
+    // Machine-readable error, omitted on success
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ErrorCode errorCode;
+
     // Factory methods for quick response creation
     public static <T> ApiResponse<T> success(T data) {
         return ApiResponse.<T>builder()
@@ -43,5 +50,13 @@ public class ApiResponse<T> {
                 .data(null)
                 .build();
     }
+
+    public static <T> ApiResponse<T> error(ErrorCode errorCode, String message) {
+        return ApiResponse.<T>builder()
+                .success(false)
+                .message(message)
+                .errorCode(errorCode)
+                .build();
+    }
     
 }
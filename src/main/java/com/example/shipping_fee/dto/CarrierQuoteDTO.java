@@ -0,0 +1,42 @@
+package com.example.shipping_fee.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO Output - One carrier's answer in a multi-carrier quote
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CarrierQuoteDTO {
+
+    public enum Status {
+        OK, ERROR, TIMEOUT
+    }
+
+    // Carrier id, e.g. ghn, local
+    private String carrier;
+
+    private Status status;
+
+    // Total fee (VND), OK only
+    private Integer total;
+
+    // Expected delivery time (epoch seconds), null if the carrier did not say
+    private Long leadtime;
+
+    // Full fee breakdown, OK only
+    private ShippingResponse fee;
+
+    // Error message, ERROR / TIMEOUT only
+    private String message;
+
+    @JsonProperty("latency_ms")
+    private long latencyMs;
+
+}
@@ -0,0 +1,28 @@
+package com.example.shipping_fee.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO Output - Shipping service a carrier offers between two districts
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CarrierServiceDTO {
+
+    @JsonProperty("service_id")
+    private Integer serviceId;
+
+    @JsonProperty("short_name")
+    private String shortName;
+
+    // 1=Express, 2=Standard, 3=Economy
+    @JsonProperty("service_type_id")
+    private Integer serviceTypeId;
+
+}
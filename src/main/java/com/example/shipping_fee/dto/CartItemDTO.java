@@ -0,0 +1,24 @@
+package com.example.shipping_fee.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One cart line for package consolidation; quantity units of the same item
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartItemDTO {
+
+    private String code;                  // SKU, echoed back in the plan
+    private Integer quantity;             // Units, default 1
+    private Integer weight;               // Weight of one unit (gram, required)
+    private Integer length;               // Dimensions of one unit (cm), optional
+    private Integer width;
+    private Integer height;
+
+}
@@ -0,0 +1,23 @@
+package com.example.shipping_fee.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact district list: provinceId hoisted out of the items,
+ * each district encoded as [id, name]
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactDistrictListDTO {
+
+    // Province ID shared by all districts
+    private Integer provinceId;
+
+    // [districtId, districtName]
+    private List<Object[]> districts;
+}
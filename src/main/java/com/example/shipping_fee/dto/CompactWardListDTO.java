@@ -0,0 +1,23 @@
+package com.example.shipping_fee.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact ward list: districtId hoisted out of the items,
+ * each ward encoded as [wardCode, name]
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactWardListDTO {
+
+    // District ID shared by all wards
+    private Integer districtId;
+
+    // [wardCode, wardName]
+    private List<String[]> wards;
+}
@@ -0,0 +1,36 @@
+package com.example.shipping_fee.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO Output - Cheapest verified way to ship a cart
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConsolidationPlanDTO {
+
+    // Sum of the quoted parcel fees (VND)
+    private Integer total;
+
+    // What the local fee model predicted for this plan
+    @JsonProperty("estimated_total")
+    private Integer estimatedTotal;
+
+    private List<ParcelDTO> parcels;
+
+    // Distinct plans the search produced / plans verified with live quotes
+    private int candidates;
+    private int verified;
+
+    @JsonProperty("latency_ms")
+    private long latencyMs;
+
+}
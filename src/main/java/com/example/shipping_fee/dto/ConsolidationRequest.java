@@ -0,0 +1,45 @@
+package com.example.shipping_fee.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO Input - Cart to split into parcels at the lowest total fee (POST /api/shipping/consolidate)
+ * Destination, service and value fields mean the same as in {@link ShippingRequest};
+ * insurance and COD apply to the whole cart and are charged on one parcel.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConsolidationRequest {
+
+    @JsonProperty("from_district_id")
+    private Integer fromDistrictId;
+
+    @JsonProperty("from_ward_code")
+    private String fromWardCode;
+
+    @JsonProperty("to_district_id")
+    private Integer toDistrictId;         // Required
+
+    @JsonProperty("to_ward_code")
+    private String toWardCode;            // Required
+
+    @JsonProperty("service_type_id")
+    private Integer serviceTypeId;        // 1=Express, 2=Standard, 3=Economy
+
+    @JsonProperty("insurance_value")
+    private Integer insuranceValue;
+
+    @JsonProperty("cod_value")
+    private Integer codValue;
+
+    private List<CartItemDTO> items;      // Required, at least one
+
+}
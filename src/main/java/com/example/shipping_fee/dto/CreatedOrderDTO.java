@@ -0,0 +1,21 @@
+package com.example.shipping_fee.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Shipment created by GHN (data of create-order / detail-by-client-code)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CreatedOrderDTO {
+
+    private String orderCode;             // GHN order code, used for tracking
+    private Integer totalFee;             // Total shipping fee (VND)
+    private String expectedDeliveryTime;  // ISO-8601, as returned by GHN
+
+}
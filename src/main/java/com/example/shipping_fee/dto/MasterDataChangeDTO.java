@@ -0,0 +1,43 @@
+package com.example.shipping_fee.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of the master-data change feed.
+ *
+ * - PROVINCE / DISTRICT : data is the ProvinceDTO / DistrictDTO (null on DELETE)
+ * - WARDS               : data is the full ward list of district {@code id} (wards change as a set)
+ *
+ * Deleting a province or district implicitly deletes everything under it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MasterDataChangeDTO {
+
+    public enum Entity {
+        PROVINCE, DISTRICT, WARDS
+    }
+
+    public enum Action {
+        UPSERT, DELETE
+    }
+
+    // Monotonic change version, use as ?since= / Last-Event-ID
+    private long version;
+
+    private Entity entity;
+    private Action action;
+
+    // ProvinceID, DistrictID, or DistrictID of the ward list
+    private Integer id;
+
+    // Parent ID (provinceId of a district), null for provinces and ward lists
+    private Integer parentId;
+
+    private Object data;
+}
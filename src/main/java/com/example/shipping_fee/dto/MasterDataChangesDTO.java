@@ -0,0 +1,32 @@
+package com.example.shipping_fee.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response of GET /master-data/changes and payload of SSE "changes" events
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MasterDataChangesDTO {
+
+    // Version to send as ?since= next time
+    private long version;
+
+    // Fingerprint of the whole province/district/ward tree at {@code version}
+    private String fingerprint;
+
+    // true = the requested version is too old (or unknown): reload the full lists, then resume from version
+    private boolean reset;
+
+    // true = more changes are available after {@code version}
+    private boolean hasMore;
+
+    private List<MasterDataChangeDTO> changes;
+}
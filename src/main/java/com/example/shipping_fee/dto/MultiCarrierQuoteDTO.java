@@ -0,0 +1,28 @@
+package com.example.shipping_fee.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO Output - Quotes from every enabled carrier, best first
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MultiCarrierQuoteDTO {
+
+    // price or eta
+    private String rank;
+
+    // Best OK quote, null if no carrier answered in time
+    private CarrierQuoteDTO winner;
+
+    // All carriers: OK quotes in rank order, then errors and timeouts
+    private List<CarrierQuoteDTO> quotes;
+
+}
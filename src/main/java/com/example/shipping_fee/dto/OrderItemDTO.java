@@ -0,0 +1,23 @@
+package com.example.shipping_fee.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One item of a GHN shipping order
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderItemDTO {
+
+    private String name;                  // Item name (required)
+    private String code;                  // SKU
+    private Integer quantity;             // Quantity (required)
+    private Integer price;                // Unit price (VND)
+    private Integer weight;               // Weight (gram)
+
+}
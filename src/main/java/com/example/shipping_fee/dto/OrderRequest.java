@@ -0,0 +1,70 @@
+package com.example.shipping_fee.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO Input - Order to create as a GHN shipment (POST /api/shipping/orders)
+ * Docs: https://api.ghn.vn/home/docs/detail?id=122
+ *
+ * client_order_code is the idempotency key: submitting the same code again returns the
+ * existing order instead of creating a second shipment.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderRequest {
+
+    @JsonProperty("client_order_code")
+    private String clientOrderCode;       // Shop order ID, unique (required)
+
+    // Receiver - Required
+    @JsonProperty("to_name")
+    private String toName;
+
+    @JsonProperty("to_phone")
+    private String toPhone;
+
+    @JsonProperty("to_address")
+    private String toAddress;
+
+    @JsonProperty("to_ward_code")
+    private String toWardCode;
+
+    @JsonProperty("to_district_id")
+    private Integer toDistrictId;
+
+    // Service and payment
+    @JsonProperty("service_type_id")
+    private Integer serviceTypeId;        // 1=Express, 2=Standard, 3=Economy
+
+    @JsonProperty("payment_type_id")
+    private Integer paymentTypeId;        // 1=Shop pays, 2=Buyer pays
+
+    @JsonProperty("required_note")
+    private String requiredNote;          // CHOTHUHANG, CHOXEMHANGKHONGTHU, KHONGCHOXEMHANG
+
+    private String note;
+    private String content;
+
+    // Package information
+    private Integer weight;               // Weight (gram)
+    private Integer length;               // Length (cm)
+    private Integer width;                // Width (cm)
+    private Integer height;               // Height (cm)
+
+    @JsonProperty("cod_amount")
+    private Integer codAmount;            // COD amount (VND)
+
+    @JsonProperty("insurance_value")
+    private Integer insuranceValue;       // Goods value for insurance (VND)
+
+    private List<OrderItemDTO> items;
+
+}
@@ -0,0 +1,46 @@
+package com.example.shipping_fee.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO Output - State of an order in the submission outbox
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSubmissionDTO {
+
+    @JsonProperty("client_order_code")
+    private String clientOrderCode;
+
+    // PENDING, SUBMITTED or DEAD_LETTER
+    private String status;
+
+    // GHN submission attempts so far
+    private int attempts;
+
+    // Set once GHN accepted the order
+    @JsonProperty("order_code")
+    private String orderCode;
+
+    @JsonProperty("total_fee")
+    private Integer totalFee;
+
+    @JsonProperty("expected_delivery_time")
+    private String expectedDeliveryTime;
+
+    @JsonProperty("last_error")
+    private String lastError;
+
+    @JsonProperty("created_at")
+    private Long createdAt;
+
+    @JsonProperty("updated_at")
+    private Long updatedAt;
+
+}
@@ -0,0 +1,45 @@
+package com.example.shipping_fee.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO Output - Last known GHN status of a shipping order
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderTrackingDTO {
+
+    @JsonProperty("order_code")
+    private String orderCode;
+
+    @JsonProperty("client_order_code")
+    private String clientOrderCode;
+
+    // GHN status, e.g. ready_to_pick, transporting, delivering, delivered
+    private String status;
+
+    // Polling stage derived from status: AWAITING_PICKUP, IN_TRANSIT, OUT_FOR_DELIVERY, SETTLED
+    private String stage;
+
+    // GHN expected delivery time
+    private String leadtime;
+
+    // Last status change at GHN
+    @JsonProperty("updated_date")
+    private String updatedDate;
+
+    // When this status was read from GHN (epoch millis)
+    @JsonProperty("checked_at")
+    private Long checkedAt;
+
+    // Next scheduled poll (epoch millis), null once settled
+    @JsonProperty("next_check_at")
+    private Long nextCheckAt;
+
+}
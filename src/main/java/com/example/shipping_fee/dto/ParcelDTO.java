@@ -0,0 +1,34 @@
+package com.example.shipping_fee.dto;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO Output - One parcel of a consolidation plan
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ParcelDTO {
+
+    // Item code -> units packed in this parcel
+    private Map<String, Integer> items;
+
+    private Integer weight;               // Gram
+    private Integer length;               // cm
+    private Integer width;
+    private Integer height;
+
+    @JsonProperty("chargeable_weight")
+    private Integer chargeableWeight;     // max(weight, volumetric weight)
+
+    // Quoted fee breakdown for this parcel
+    private ShippingResponse fee;
+
+}
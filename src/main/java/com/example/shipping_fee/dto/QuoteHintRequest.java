@@ -0,0 +1,51 @@
+package com.example.shipping_fee.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO Input - Hint sent by React when the user picks a delivery ward,
+ * carrying the cart context needed to pre-compute likely fee quotes
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuoteHintRequest {
+
+    // Pickup address (optional, shop default if not provided)
+    @JsonProperty("from_district_id")
+    private Integer fromDistrictId;
+
+    @JsonProperty("from_ward_code")
+    private String fromWardCode;
+
+    // Selected delivery address
+    @JsonProperty("to_district_id")
+    private Integer toDistrictId;
+
+    @JsonProperty("to_ward_code")
+    private String toWardCode;
+
+    // Service types the checkout page may ask for (default: Standard)
+    @JsonProperty("service_type_ids")
+    private List<Integer> serviceTypeIds;
+
+    // Cart package
+    private Integer weight;
+    private Integer length;
+    private Integer width;
+    private Integer height;
+
+    @JsonProperty("insurance_value")
+    private Integer insuranceValue;
+
+    @JsonProperty("cod_value")
+    private Integer codValue;
+
+}
@@ -0,0 +1,22 @@
+package com.example.shipping_fee.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line (NDJSON) or event (SSE) of POST /calculate/stream.
+ * Results arrive in completion order, {@code index} is the position of the request in the input.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuoteStreamItemDTO {
+
+    // 0-based position in the request stream
+    private int index;
+
+    private ShippingResponse result;
+}
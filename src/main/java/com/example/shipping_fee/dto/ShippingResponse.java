@@ -1,5 +1,6 @@
 package com.example.shipping_fee.dto;
 
+import com.example.shipping_fee.constant.ErrorCode;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -21,6 +22,8 @@ public class ShippingResponse {
     private boolean success;          // Status: true = success, false = error
     private String message;           // Message (if error)
     private List<ErrorMessageDTO> errors;  // List of field-level errors
+    private ErrorCode errorCode;      // Machine-readable error (null on success)
+    private Boolean retryable;        // Whether the same request may succeed later (null on success)
 
     // Fee details from GHN API
     private Integer total;            // Total service fee (VND)
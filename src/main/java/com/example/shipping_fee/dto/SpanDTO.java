@@ -0,0 +1,33 @@
+package com.example.shipping_fee.dto;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO Output - One span of a trace
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SpanDTO {
+
+    private String spanId;
+    private String parentId;              // Remote parent for the root of a propagated trace
+    private String name;
+    private String kind;                  // SERVER, CLIENT or INTERNAL
+    private int depth;                    // 0 for the root, for indenting a waterfall
+
+    private double offsetMs;              // Start, relative to the root span
+    private Double durationMs;            // null if still open when the trace was read
+
+    private String error;
+    private Map<String, Object> attributes;
+
+}
@@ -0,0 +1,36 @@
+package com.example.shipping_fee.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO Output - One kept trace (GET /api/shipping/traces)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TraceDTO {
+
+    private String traceId;
+    private String name;                  // Root span, e.g. POST /api/shipping/calculate
+    private long startedAt;               // Epoch millis
+    private double durationMs;
+    private boolean error;
+
+    // Why tail sampling kept it: error, slow, upstream or sampled
+    private String keptBecause;
+
+    private int spanCount;
+    private int droppedSpans;             // Spans over the per-trace limit
+
+    // In start order; null in the trace list
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<SpanDTO> spans;
+
+}
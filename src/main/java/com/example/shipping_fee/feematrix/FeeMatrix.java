@@ -0,0 +1,261 @@
+package com.example.shipping_fee.feematrix;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.shipping_fee.constant.ErrorMessages;
+import com.example.shipping_fee.dto.ShippingRequest;
+import com.example.shipping_fee.dto.ShippingResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Precomputed fees from the configured origin to every destination ward, per service type and
+ * weight bracket (opt-in, shipping.fee-matrix.enabled). Built off-peak by {@link FeeMatrixRefresher}.
+ *
+ * A /calculate request is answered from the table only if it cannot differ from a live quote:
+ * same origin, a configured service type, no service_id / insurance / COD / coupon, and a
+ * chargeable weight (max of weight and volumetric weight) inside a bracket. Brackets must sit on
+ * GHN's weight-step boundaries; each cell is quoted at its bracket's upper bound.
+ * Tables older than max-age or built for another configuration are ignored.
+ */
+@Component
+@Slf4j
+public class FeeMatrix {
+
+    private final boolean enabled;
+    private final Path path;
+    private final Integer originDistrictId;
+    private final String originWardCode;
+    private final List<Integer> serviceTypeIds;
+    private final int[] brackets;
+    private final int volumetricDivisor;
+    private final long maxAgeMillis;
+    private final long configHash;
+
+    private volatile FeeTable table;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter ineligible;
+
+    @Autowired
+    public FeeMatrix(MeterRegistry meterRegistry,
+                     @Value("${shipping.fee-matrix.enabled:false}") boolean enabled,
+                     @Value("${shipping.fee-matrix.path:data/fee-matrix.bin}") String path,
+                     @Value("${shipping.fee-matrix.origin-district-id:#{null}}") Integer originDistrictId,
+                     @Value("${shipping.fee-matrix.origin-ward-code:#{null}}") String originWardCode,
+                     @Value("${shipping.fee-matrix.service-type-ids:2}") List<Integer> serviceTypeIds,
+                     @Value("${shipping.fee-matrix.weight-brackets-grams:500,1000,1500,2000,2500,3000}") int[] brackets,
+                     @Value("${shipping.fee-matrix.volumetric-divisor:5000}") int volumetricDivisor,
+                     @Value("${shipping.fee-matrix.max-age-hours:72}") long maxAgeHours) {
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.originDistrictId = originDistrictId;
+        this.originWardCode = originWardCode == null || originWardCode.isBlank() ? null : originWardCode;
+        this.serviceTypeIds = List.copyOf(serviceTypeIds);
+        this.brackets = brackets.clone();
+        Arrays.sort(this.brackets);
+        this.volumetricDivisor = volumetricDivisor;
+        this.maxAgeMillis = TimeUnit.HOURS.toMillis(maxAgeHours);
+        this.configHash = Objects.hash(this.originDistrictId, this.originWardCode, this.serviceTypeIds,
+                Arrays.hashCode(this.brackets), volumetricDivisor);
+
+        this.hits = Counter.builder("shipping.fee.matrix.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("shipping.fee.matrix.lookups").tag("result", "miss").register(meterRegistry);
+        this.ineligible = Counter.builder("shipping.fee.matrix.lookups").tag("result", "ineligible").register(meterRegistry);
+        Gauge.builder("shipping.fee.matrix.cells", this, m -> m.table != null ? m.table.getCells() : 0)
+                .register(meterRegistry);
+        Gauge.builder("shipping.fee.matrix.coverage", this, FeeMatrix::coverage).register(meterRegistry);
+        Gauge.builder("shipping.fee.matrix.age.seconds", this, FeeMatrix::ageSeconds).register(meterRegistry);
+    }
+
+    /**
+     * Matrix that never answers, for services built outside Spring
+     */
+    public static FeeMatrix disabled() {
+        return new FeeMatrix(new SimpleMeterRegistry(), false, "data/fee-matrix.bin", null, null,
+                List.of(2), new int[] {500}, 5000, 72);
+    }
+
+    /**
+     * Map the table left by the previous run, if it still matches the configuration
+     */
+    @PostConstruct
+    public void load() {
+        if (!enabled || !Files.exists(path)) {
+            return;
+        }
+        try {
+            FeeTable loaded = FeeTable.open(path);
+            if (loaded.getConfigHash() != configHash) {
+                log.info("Fee matrix {} was built for another configuration, ignoring it", path);
+                return;
+            }
+            table = loaded;
+            log.info("Mapped fee matrix {}: {} of {} cells", path, loaded.getCells(), loaded.getPlanned());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not map fee matrix {}: {}", path, e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the precomputed quote, or null if the request must go to GHN
+     */
+    public ShippingResponse lookup(ShippingRequest request) {
+        FeeTable current = table;
+        if (!enabled || current == null) {
+            return null;
+        }
+        int bracket = eligibleBracket(request);
+        if (bracket < 0) {
+            ineligible.increment();
+            return null;
+        }
+        if (System.currentTimeMillis() - current.getBuiltAtMillis() > maxAgeMillis) {
+            misses.increment();
+            return null;
+        }
+        int[] fees = current.get(request.getToDistrictId(), request.getToWardCode(), request.getServiceTypeId(), bracket);
+        if (fees == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return toResponse(fees);
+    }
+
+    /**
+     * Bracket index for a request the table can answer exactly, -1 otherwise
+     */
+    int eligibleBracket(ShippingRequest request) {
+        if (request.getServiceId() != null
+                || isSet(request.getInsuranceValue()) || isSet(request.getCodValue())
+                || (request.getCoupon() != null && !request.getCoupon().isBlank())
+                || !Objects.equals(request.getFromDistrictId(), originDistrictId)
+                || !Objects.equals(emptyToNull(request.getFromWardCode()), originWardCode)
+                || request.getServiceTypeId() == null || !serviceTypeIds.contains(request.getServiceTypeId())
+                || request.getToDistrictId() == null || request.getWeight() == null) {
+            return -1;
+        }
+        long chargeable = request.getWeight();
+        if (request.getLength() != null && request.getWidth() != null && request.getHeight() != null) {
+            chargeable = Math.max(chargeable,
+                    (long) request.getLength() * request.getWidth() * request.getHeight() / volumetricDivisor);
+        }
+        for (int i = 0; i < brackets.length; i++) {
+            if (chargeable <= brackets[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Request that quotes one cell: origin, destination, service type, bracket upper bound
+     */
+    ShippingRequest requestFor(int toDistrictId, String toWardCode, int serviceTypeId, int bracket) {
+        return ShippingRequest.builder()
+                .fromDistrictId(originDistrictId)
+                .fromWardCode(originWardCode)
+                .toDistrictId(toDistrictId)
+                .toWardCode(toWardCode)
+                .serviceTypeId(serviceTypeId)
+                .weight(brackets[bracket])
+                .build();
+    }
+
+    /**
+     * Write a freshly quoted table and switch lookups to it
+     */
+    void publish(List<FeeTable.Cell> cells, int planned) throws IOException {
+        FeeTable written = FeeTable.write(path, cells, planned, System.currentTimeMillis(), configHash);
+        table = written;
+        log.info("Published fee matrix {}: {} of {} cells", path, written.getCells(), planned);
+    }
+
+    static int[] toFees(ShippingResponse response) {
+        return new int[] {
+                orZero(response.getTotal()), orZero(response.getServiceFee()), orZero(response.getInsuranceFee()),
+                orZero(response.getPickStationFee()), orZero(response.getCouponValue()), orZero(response.getR2sFee()),
+                orZero(response.getDocumentReturn()), orZero(response.getDoubleCheck()), orZero(response.getCodFee()),
+                orZero(response.getPickRemoteAreasFee()), orZero(response.getDeliverRemoteAreasFee()),
+                orZero(response.getCodFailedFee())
+        };
+    }
+
+    private static ShippingResponse toResponse(int[] fees) {
+        return ShippingResponse.builder()
+                .success(true)
+                .message(ErrorMessages.MSG_FEE_CALCULATION_SUCCESS)
+                .total(fees[0])
+                .serviceFee(fees[1])
+                .insuranceFee(fees[2])
+                .pickStationFee(fees[3])
+                .couponValue(fees[4])
+                .r2sFee(fees[5])
+                .documentReturn(fees[6])
+                .doubleCheck(fees[7])
+                .codFee(fees[8])
+                .pickRemoteAreasFee(fees[9])
+                .deliverRemoteAreasFee(fees[10])
+                .codFailedFee(fees[11])
+                .build();
+    }
+
+    List<Integer> getServiceTypeIds() {
+        return serviceTypeIds;
+    }
+
+    int getBracketCount() {
+        return brackets.length;
+    }
+
+    /**
+     * Build time of the current table, 0 if none
+     */
+    long getBuiltAtMillis() {
+        FeeTable current = table;
+        return current != null ? current.getBuiltAtMillis() : 0;
+    }
+
+    private double coverage() {
+        FeeTable current = table;
+        return current == null || current.getPlanned() == 0 ? 0 : (double) current.getCells() / current.getPlanned();
+    }
+
+    private double ageSeconds() {
+        FeeTable current = table;
+        return current == null ? 0 : (System.currentTimeMillis() - current.getBuiltAtMillis()) / 1000.0;
+    }
+
+    private static boolean isSet(Integer value) {
+        return value != null && value != 0;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static int orZero(Integer value) {
+        return value != null ? value : 0;
+    }
+}
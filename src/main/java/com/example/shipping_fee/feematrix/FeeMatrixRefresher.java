@@ -0,0 +1,239 @@
+package com.example.shipping_fee.feematrix;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.shipping_fee.dto.DistrictDTO;
+import com.example.shipping_fee.dto.ProvinceDTO;
+import com.example.shipping_fee.dto.ShippingResponse;
+import com.example.shipping_fee.dto.WardDTO;
+import com.example.shipping_fee.service.GhnApiException;
+import com.example.shipping_fee.service.GhtkService;
+import com.example.shipping_fee.service.RateLimiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rebuilds the {@link FeeMatrix} during the off-peak window, at most max-per-second GHN calls.
+ *
+ * A pass first lists every destination ward (provinces, then districts, then wards), then quotes
+ * each ward x service type x weight bracket live. A pass that does not finish inside the window
+ * resumes in the next one; the table is published only when the pass is complete. Transient GHN
+ * errors pause the pass until the next tick; rejected cells (route not served) are left out and
+ * show up as missing coverage.
+ */
+@Service
+@Slf4j
+public class FeeMatrixRefresher {
+
+    private final FeeMatrix feeMatrix;
+    private final GhtkService ghtkService;
+    private final RateLimiter rateLimiter;
+    private final int offPeakStartHour;
+    private final int offPeakEndHour;
+    private final ZoneId zone;
+    private final long refreshIntervalMillis;
+    private final Clock clock;
+
+    // Current pass; only touched by the scheduler thread
+    private boolean running;
+    private final Deque<Integer> pendingProvinces = new ArrayDeque<>();
+    private final Deque<Integer> pendingDistricts = new ArrayDeque<>();
+    private final List<Destination> destinations = new ArrayList<>();
+    private final List<FeeTable.Cell> cells = new ArrayList<>();
+    private boolean provincesListed;
+    private boolean destinationsListed;
+    private int cursor;
+    private volatile int planned;
+    private volatile int done;
+    private volatile boolean stopping;
+
+    private final Counter quotes;
+    private final Counter rejected;
+    private final Counter failures;
+
+    private record Destination(int districtId, String wardCode) {
+    }
+
+    @Autowired
+    public FeeMatrixRefresher(FeeMatrix feeMatrix, GhtkService ghtkService, MeterRegistry meterRegistry,
+                              @Value("${shipping.fee-matrix.max-per-second:10}") double maxPerSecond,
+                              @Value("${shipping.fee-matrix.off-peak.start-hour:1}") int offPeakStartHour,
+                              @Value("${shipping.fee-matrix.off-peak.end-hour:5}") int offPeakEndHour,
+                              @Value("${shipping.fee-matrix.off-peak.zone:Asia/Ho_Chi_Minh}") String zone,
+                              @Value("${shipping.fee-matrix.refresh-interval-hours:20}") long refreshIntervalHours) {
+        this(feeMatrix, ghtkService, meterRegistry, maxPerSecond, offPeakStartHour, offPeakEndHour,
+                ZoneId.of(zone), TimeUnit.HOURS.toMillis(refreshIntervalHours), Clock.systemUTC());
+    }
+
+    FeeMatrixRefresher(FeeMatrix feeMatrix, GhtkService ghtkService, MeterRegistry meterRegistry,
+                       double maxPerSecond, int offPeakStartHour, int offPeakEndHour, ZoneId zone,
+                       long refreshIntervalMillis, Clock clock) {
+        this.feeMatrix = feeMatrix;
+        this.ghtkService = ghtkService;
+        this.rateLimiter = new RateLimiter(maxPerSecond, Math.max(1, (int) Math.ceil(maxPerSecond)));
+        this.offPeakStartHour = offPeakStartHour;
+        this.offPeakEndHour = offPeakEndHour;
+        this.zone = zone;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.clock = clock;
+        this.quotes = Counter.builder("shipping.fee.matrix.refresh.calls").tag("result", "ok").register(meterRegistry);
+        this.rejected = Counter.builder("shipping.fee.matrix.refresh.calls").tag("result", "rejected").register(meterRegistry);
+        this.failures = Counter.builder("shipping.fee.matrix.refresh.calls").tag("result", "failed").register(meterRegistry);
+        Gauge.builder("shipping.fee.matrix.refresh.progress", this,
+                r -> r.planned == 0 ? 0 : (double) r.done / r.planned).register(meterRegistry);
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        stopping = true;
+    }
+
+    @Scheduled(fixedDelayString = "${shipping.fee-matrix.tick-ms:1000}")
+    public void tick() {
+        if (!feeMatrix.isEnabled() || stopping || !isOffPeak()) {
+            return;
+        }
+        if (!running) {
+            if (clock.millis() - feeMatrix.getBuiltAtMillis() < refreshIntervalMillis) {
+                return;
+            }
+            startPass();
+        }
+        try {
+            while (running && !stopping && isOffPeak() && rateLimiter.tryAcquire()) {
+                if (!step()) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Fee matrix refresh paused: {}", e.getMessage());
+        }
+    }
+
+    boolean isOffPeak() {
+        int hour = LocalTime.now(clock.withZone(zone)).getHour();
+        return offPeakStartHour <= offPeakEndHour
+                ? hour >= offPeakStartHour && hour < offPeakEndHour
+                : hour >= offPeakStartHour || hour < offPeakEndHour;
+    }
+
+    private void startPass() {
+        running = true;
+        provincesListed = false;
+        destinationsListed = false;
+        pendingProvinces.clear();
+        pendingDistricts.clear();
+        destinations.clear();
+        cells.clear();
+        cursor = 0;
+        done = 0;
+        planned = 0;
+        log.info("Fee matrix refresh started");
+    }
+
+    /**
+     * One GHN call of the pass
+     * @return false if the pass should pause until the next tick
+     */
+    private boolean step() {
+        if (!destinationsListed) {
+            return listDestinations();
+        }
+        int perDestination = feeMatrix.getServiceTypeIds().size() * feeMatrix.getBracketCount();
+        if (cursor >= planned) {
+            finishPass();
+            return false;
+        }
+        Destination destination = destinations.get(cursor / perDestination);
+        int serviceTypeId = feeMatrix.getServiceTypeIds().get(cursor % perDestination / feeMatrix.getBracketCount());
+        int bracket = cursor % feeMatrix.getBracketCount();
+
+        ShippingResponse response = ghtkService.calculateFeeLive(
+                feeMatrix.requestFor(destination.districtId(), destination.wardCode(), serviceTypeId, bracket));
+        if (response.isSuccess()) {
+            cells.add(new FeeTable.Cell(destination.districtId(), destination.wardCode(), serviceTypeId, bracket,
+                    FeeMatrix.toFees(response)));
+            quotes.increment();
+        } else if (response.getRetryable() != null && response.getRetryable()) {
+            failures.increment();
+            return false;
+        } else {
+            rejected.increment();
+        }
+        cursor++;
+        done = cursor;
+        return true;
+    }
+
+    /**
+     * Walk the master-data tree one GHN call at a time; districts GHN rejects are skipped
+     */
+    private boolean listDestinations() {
+        if (!provincesListed) {
+            for (ProvinceDTO province : ghtkService.getProvinces()) {
+                pendingProvinces.add(province.getProvinceId());
+            }
+            provincesListed = true;
+            return true;
+        }
+        try {
+            if (!pendingProvinces.isEmpty()) {
+                for (DistrictDTO district : ghtkService.getDistricts(pendingProvinces.peek())) {
+                    pendingDistricts.add(district.getId());
+                }
+                pendingProvinces.poll();
+                return true;
+            }
+            if (!pendingDistricts.isEmpty()) {
+                for (WardDTO ward : ghtkService.getWards(pendingDistricts.peek())) {
+                    destinations.add(new Destination(ward.getDistrictId(), ward.getWardCode()));
+                }
+                pendingDistricts.poll();
+                return true;
+            }
+        } catch (GhnApiException e) {
+            if (e.getErrorCode().isRetryable()) {
+                throw e;
+            }
+            rejected.increment();
+            if (pendingProvinces.poll() == null) {
+                pendingDistricts.poll();
+            }
+            return true;
+        }
+        destinationsListed = true;
+        planned = destinations.size() * feeMatrix.getServiceTypeIds().size() * feeMatrix.getBracketCount();
+        log.info("Fee matrix refresh: {} destination wards, {} cells to quote", destinations.size(), planned);
+        return true;
+    }
+
+    private void finishPass() {
+        running = false;
+        try {
+            feeMatrix.publish(new ArrayList<>(cells), planned);
+        } catch (IOException e) {
+            log.error("Could not write fee matrix: {}", e.getMessage());
+        }
+        cells.clear();
+        destinations.clear();
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.shipping_fee.feematrix;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Memory-mapped open-addressing table of precomputed fees.
+ *
+ * File layout (big-endian):
+ * - header, {@value #HEADER_BYTES} bytes: magic, version, capacity, cells, planned, builtAt, configHash
+ * - capacity slots of {@value #SLOT_BYTES} bytes: districtId (0 = empty), serviceTypeId, bracket,
+ *   ward code packed into a long, then the {@value #FEE_COUNT} fee components
+ *
+ * Capacity is a power of two at most half full, so a lookup is a hash and a short linear probe.
+ * Immutable once written; a refresh writes a new file and swaps it in atomically.
+ */
+final class FeeTable {
+
+    static final int FEE_COUNT = 12;
+
+    private static final int MAGIC = 0x464D5831; // "FMX1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int SLOT_BYTES = 64;
+    private static final int FEES_OFFSET = 16;
+
+    private final MappedByteBuffer buffer;
+    private final int mask;
+    private final int cells;
+    private final int planned;
+    private final long builtAtMillis;
+    private final long configHash;
+
+    private FeeTable(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not a fee matrix file");
+        }
+        int capacity = buffer.getInt(8);
+        if (Integer.bitCount(capacity) != 1 || buffer.capacity() != HEADER_BYTES + (long) capacity * SLOT_BYTES) {
+            throw new IllegalStateException("Truncated fee matrix file");
+        }
+        this.mask = capacity - 1;
+        this.cells = buffer.getInt(12);
+        this.planned = buffer.getInt(16);
+        this.builtAtMillis = buffer.getLong(24);
+        this.configHash = buffer.getLong(32);
+    }
+
+    /**
+     * One precomputed quote
+     */
+    record Cell(int districtId, String wardCode, int serviceTypeId, int bracket, int[] fees) {
+    }
+
+    /**
+     * Map an existing table read-only
+     */
+    static FeeTable open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new FeeTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Write cells to a temp file, fsync and atomically replace path, then map the result.
+     * Cells whose ward code cannot be packed are skipped.
+     */
+    static FeeTable write(Path path, List<Cell> cells, int planned, long builtAtMillis, long configHash)
+            throws IOException {
+        int capacity = Integer.highestOneBit(Math.max(16, cells.size() * 2 - 1)) << 1;
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        int written = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_BYTES + (long) capacity * SLOT_BYTES);
+            for (Cell cell : cells) {
+                long ward = packWard(cell.wardCode());
+                if (ward == 0 || cell.districtId() == 0) {
+                    continue;
+                }
+                int slot = hash(cell.districtId(), ward, cell.serviceTypeId(), cell.bracket()) & (capacity - 1);
+                while (out.getInt(offset(slot)) != 0) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                int at = offset(slot);
+                out.putInt(at, cell.districtId());
+                out.put(at + 4, (byte) cell.serviceTypeId());
+                out.put(at + 5, (byte) cell.bracket());
+                out.putLong(at + 8, ward);
+                for (int i = 0; i < FEE_COUNT; i++) {
+                    out.putInt(at + FEES_OFFSET + i * 4, cell.fees()[i]);
+                }
+                written++;
+            }
+            out.putInt(0, MAGIC);
+            out.putInt(4, VERSION);
+            out.putInt(8, capacity);
+            out.putInt(12, written);
+            out.putInt(16, planned);
+            out.putLong(24, builtAtMillis);
+            out.putLong(32, configHash);
+            out.force();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return open(path);
+    }
+
+    /**
+     * @return the fee components, or null if the cell was not precomputed
+     */
+    int[] get(int districtId, String wardCode, int serviceTypeId, int bracket) {
+        long ward = packWard(wardCode);
+        if (ward == 0 || districtId == 0) {
+            return null;
+        }
+        int slot = hash(districtId, ward, serviceTypeId, bracket) & mask;
+        while (true) {
+            int at = offset(slot);
+            int storedDistrict = buffer.getInt(at);
+            if (storedDistrict == 0) {
+                return null;
+            }
+            if (storedDistrict == districtId && buffer.getLong(at + 8) == ward
+                    && buffer.get(at + 4) == (byte) serviceTypeId && buffer.get(at + 5) == (byte) bracket) {
+                int[] fees = new int[FEE_COUNT];
+                for (int i = 0; i < FEE_COUNT; i++) {
+                    fees[i] = buffer.getInt(at + FEES_OFFSET + i * 4);
+                }
+                return fees;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    int getCells() {
+        return cells;
+    }
+
+    int getPlanned() {
+        return planned;
+    }
+
+    long getBuiltAtMillis() {
+        return builtAtMillis;
+    }
+
+    long getConfigHash() {
+        return configHash;
+    }
+
+    /**
+     * Pack an ASCII ward code of up to 8 characters into a long (GHN codes are 4-7 characters);
+     * 0 if it does not fit
+     */
+    static long packWard(String wardCode) {
+        if (wardCode == null || wardCode.isEmpty() || wardCode.length() > 8) {
+            return 0;
+        }
+        long packed = 0;
+        for (int i = 0; i < wardCode.length(); i++) {
+            char c = wardCode.charAt(i);
+            if (c == 0 || c > 127) {
+                return 0;
+            }
+            packed = (packed << 8) | c;
+        }
+        return packed;
+    }
+
+    private static int offset(int slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+
+    private static int hash(int districtId, long ward, int serviceTypeId, int bracket) {
+        long h = ward * 0x9E3779B97F4A7C15L + districtId;
+        h = h * 0xC2B2AE3D27D4EB4FL + (serviceTypeId << 8 | bracket);
+        h ^= (h >>> 33);
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= (h >>> 33);
+        return (int) h;
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.shipping_fee.masterdata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.example.shipping_fee.dto.AddressBootstrapDTO;
+import com.example.shipping_fee.dto.AddressTreeDTO;
+import com.example.shipping_fee.dto.DistrictDTO;
+import com.example.shipping_fee.dto.ProvinceDTO;
+import com.example.shipping_fee.dto.WardDTO;
+import com.example.shipping_fee.service.GhnApiException;
+import com.example.shipping_fee.service.GhtkService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cached province / district / ward lists behind the composite address endpoints.
+ *
+ * Each list is kept for ttl-seconds, so a bootstrap for a known selection costs no GHN call.
+ * Every district list fetched also fills a district -> province index, which lets a saved
+ * address (district + ward only) be resolved to its province; the first lookup of an
+ * unindexed district loads the district lists not cached yet, once.
+ *
+ * The full tree is assembled from the same lists with bounded parallelism and served
+ * stale-while-revalidate: after the first build, an expired tree is returned while a
+ * single background rebuild runs.
+ */
+@Service
+@Slf4j
+public class AddressDirectory {
+
+    private final GhtkService ghtkService;
+    private final TaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final long ttlNanos;
+
+    private final AtomicReference<Cached<List<ProvinceDTO>>> provinces = new AtomicReference<>();
+    private final Map<Integer, Cached<List<DistrictDTO>>> districts = new ConcurrentHashMap<>();
+    private final Map<Integer, Cached<List<WardDTO>>> wards = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> provinceOfDistrict = new ConcurrentHashMap<>();
+
+    private volatile Cached<AddressTreeDTO> tree;
+    private final AtomicReference<CompletableFuture<AddressTreeDTO>> treeBuild = new AtomicReference<>();
+
+    private record Cached<T>(T value, long expiresAt) {
+        boolean isFresh() {
+            return System.nanoTime() - expiresAt < 0;
+        }
+    }
+
+    @Autowired
+    public AddressDirectory(GhtkService ghtkService,
+                            @Qualifier("addressExecutor") TaskExecutor executor,
+                            MeterRegistry meterRegistry,
+                            @Value("${shipping.address-bootstrap.ttl-seconds:3600}") long ttlSeconds) {
+        this.ghtkService = ghtkService;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    public List<ProvinceDTO> getProvinces() {
+        Cached<List<ProvinceDTO>> cached = provinces.get();
+        if (cached != null && cached.isFresh()) {
+            return hit("provinces", cached.value());
+        }
+        List<ProvinceDTO> loaded = load("provinces", ghtkService::getProvinces);
+        provinces.set(new Cached<>(loaded, System.nanoTime() + ttlNanos));
+        return loaded;
+    }
+
+    public List<DistrictDTO> getDistricts(Integer provinceId) {
+        Cached<List<DistrictDTO>> cached = districts.get(provinceId);
+        if (cached != null && cached.isFresh()) {
+            return hit("districts", cached.value());
+        }
+        List<DistrictDTO> loaded = load("districts", () -> ghtkService.getDistricts(provinceId));
+        for (DistrictDTO district : loaded) {
+            provinceOfDistrict.put(district.getId(), provinceId);
+        }
+        districts.put(provinceId, new Cached<>(loaded, System.nanoTime() + ttlNanos));
+        return loaded;
+    }
+
+    public List<WardDTO> getWards(Integer districtId) {
+        Cached<List<WardDTO>> cached = wards.get(districtId);
+        if (cached != null && cached.isFresh()) {
+            return hit("wards", cached.value());
+        }
+        List<WardDTO> loaded = load("wards", () -> ghtkService.getWards(districtId));
+        wards.put(districtId, new Cached<>(loaded, System.nanoTime() + ttlNanos));
+        return loaded;
+    }
+
+    /**
+     * Lists for a (partial) selection. provinceId may be omitted when districtId is given.
+     */
+    public AddressBootstrapDTO bootstrap(Integer provinceId, Integer districtId, String wardCode) {
+        List<ProvinceDTO> provinceList = getProvinces();
+        Integer province = provinceId != null ? provinceId
+                : districtId != null ? findProvinceOf(districtId, provinceList) : null;
+        if (province != null && provinceList.stream().noneMatch(p -> province.equals(p.getProvinceId()))) {
+            return selection(null, null, null, provinceList, null, null);
+        }
+
+        List<DistrictDTO> districtList = province != null ? getDistricts(province) : null;
+        if (districtList == null || districtId == null
+                || districtList.stream().noneMatch(d -> districtId.equals(d.getId()))) {
+            return selection(province, null, null, provinceList, districtList, null);
+        }
+
+        List<WardDTO> wardList = getWards(districtId);
+        boolean wardValid = wardCode != null && wardList.stream().anyMatch(w -> wardCode.equals(w.getWardCode()));
+        return selection(province, districtId, wardValid ? wardCode : null, provinceList, districtList, wardList);
+    }
+
+    /**
+     * Full tree; waits up to waitMillis for the first build
+     * @throws TimeoutException if no tree was built yet and the build did not finish in time
+     */
+    public AddressTreeDTO getTree(long waitMillis) throws TimeoutException {
+        Cached<AddressTreeDTO> current = tree;
+        if (current != null) {
+            if (!current.isFresh()) {
+                rebuildTree();
+            }
+            return current.value();
+        }
+        try {
+            return rebuildTree().get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("interrupted");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause()
+                    : new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Start a tree build unless one is running
+     */
+    private CompletableFuture<AddressTreeDTO> rebuildTree() {
+        CompletableFuture<AddressTreeDTO> build = new CompletableFuture<>();
+        if (!treeBuild.compareAndSet(null, build)) {
+            return treeBuild.get();
+        }
+        CompletableFuture.supplyAsync(this::buildTree, executor).whenComplete((built, error) -> {
+            if (error == null) {
+                tree = new Cached<>(built, System.nanoTime() + ttlNanos);
+                build.complete(built);
+            } else {
+                log.warn("Address tree build failed: {}", error.getMessage());
+                build.completeExceptionally(error instanceof CompletionException
+                        ? error.getCause() : error);
+            }
+            treeBuild.set(null);
+        });
+        return build;
+    }
+
+    private AddressTreeDTO buildTree() {
+        long started = System.nanoTime();
+        List<ProvinceDTO> provinceList = getProvinces();
+
+        List<CompletableFuture<List<DistrictDTO>>> districtFutures = new ArrayList<>();
+        for (ProvinceDTO province : provinceList) {
+            districtFutures.add(CompletableFuture.supplyAsync(() -> getDistricts(province.getProvinceId()), executor));
+        }
+        List<List<DistrictDTO>> districtLists = join(districtFutures);
+
+        Map<Integer, CompletableFuture<List<WardDTO>>> wardFutures = new ConcurrentHashMap<>();
+        for (List<DistrictDTO> districtList : districtLists) {
+            for (DistrictDTO district : districtList) {
+                wardFutures.put(district.getId(),
+                        CompletableFuture.supplyAsync(() -> getWards(district.getId()), executor));
+            }
+        }
+        join(new ArrayList<>(wardFutures.values()));
+
+        Fingerprint fingerprint = Fingerprint.start();
+        List<Object[]> encoded = new ArrayList<>(provinceList.size());
+        int districtCount = 0;
+        int wardCount = 0;
+        for (int p = 0; p < provinceList.size(); p++) {
+            ProvinceDTO province = provinceList.get(p);
+            fingerprint.add(province.getProvinceId()).add(province.getProvinceName()).add(province.getCode());
+            List<Object[]> encodedDistricts = new ArrayList<>();
+            for (DistrictDTO district : districtLists.get(p)) {
+                fingerprint.add(district.getId()).add(district.getName());
+                List<String[]> encodedWards = new ArrayList<>();
+                for (WardDTO ward : wardFutures.get(district.getId()).join()) {
+                    fingerprint.add(ward.getWardCode()).add(ward.getName());
+                    encodedWards.add(new String[] {ward.getWardCode(), ward.getName()});
+                }
+                encodedDistricts.add(new Object[] {district.getId(), district.getName(), encodedWards});
+                districtCount++;
+                wardCount += encodedWards.size();
+            }
+            encoded.add(new Object[] {province.getProvinceId(), province.getProvinceName(), province.getCode(),
+                    encodedDistricts});
+        }
+        log.info("Address tree built: {} provinces, {} districts, {} wards in {} ms", provinceList.size(),
+                districtCount, wardCount, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return new AddressTreeDTO(Fingerprint.hex(fingerprint.get()), districtCount, wardCount, encoded);
+    }
+
+    private static AddressBootstrapDTO selection(Integer provinceId, Integer districtId, String wardCode,
+                                                 List<ProvinceDTO> provinceList, List<DistrictDTO> districtList,
+                                                 List<WardDTO> wardList) {
+        return AddressBootstrapDTO.builder()
+                .provinceId(provinceId)
+                .districtId(districtId)
+                .wardCode(wardCode)
+                .provinces(provinceList)
+                .districts(districtList)
+                .wards(wardList)
+                .build();
+    }
+
+    /**
+     * Province of a district from the index, walking province lists (cached) if needed
+     */
+    private Integer findProvinceOf(Integer districtId, List<ProvinceDTO> provinceList) {
+        Integer known = provinceOfDistrict.get(districtId);
+        if (known != null) {
+            return known;
+        }
+        for (ProvinceDTO province : provinceList) {
+            if (!districts.containsKey(province.getProvinceId())) {
+                try {
+                    getDistricts(province.getProvinceId());
+                } catch (GhnApiException e) {
+                    if (e.getErrorCode().isRetryable()) {
+                        throw e;
+                    }
+                    continue;
+                }
+            }
+            known = provinceOfDistrict.get(districtId);
+            if (known != null) {
+                return known;
+            }
+        }
+        return null;
+    }
+
+    private <T> List<T> join(List<CompletableFuture<T>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    private <T> List<T> hit(String list, List<T> value) {
+        meterRegistry.counter("shipping.address.lists", "list", list, "source", "cache").increment();
+        return value;
+    }
+
+    private <T> List<T> load(String list, Supplier<List<T>> loader) {
+        meterRegistry.counter("shipping.address.lists", "list", list, "source", "ghn").increment();
+        List<T> loaded = loader.get();
+        return loaded != null ? List.copyOf(loaded) : List.of();
+    }
+}
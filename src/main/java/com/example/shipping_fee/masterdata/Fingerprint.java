@@ -0,0 +1,49 @@
+package com.example.shipping_fee.masterdata;
+
+/**
+ * 64-bit FNV-1a fingerprints for master-data subtrees.
+ * Stable across JVMs and restarts, so clients can compare the value they synced against.
+ */
+public final class Fingerprint {
+
+    private static final long OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long PRIME = 0x100000001B3L;
+
+    private long hash = OFFSET_BASIS;
+
+    public static Fingerprint start() {
+        return new Fingerprint();
+    }
+
+    public Fingerprint add(Object value) {
+        String text = value == null ? "\u0000" : value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            mix(c & 0xFF);
+            mix(c >>> 8);
+        }
+        // Field separator so ("ab", "c") != ("a", "bc")
+        mix(0x1F);
+        return this;
+    }
+
+    public Fingerprint add(long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            mix((int) (value >>> shift) & 0xFF);
+        }
+        return this;
+    }
+
+    public long get() {
+        return hash;
+    }
+
+    public static String hex(long fingerprint) {
+        return String.format("%016x", fingerprint);
+    }
+
+    private void mix(int octet) {
+        hash ^= octet;
+        hash *= PRIME;
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.shipping_fee.masterdata;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.shipping_fee.dto.MasterDataChangeDTO;
+import com.example.shipping_fee.dto.MasterDataChangesDTO;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Versioned, bounded log of master-data changes plus the SSE subscribers that follow it.
+ *
+ * Every change gets the next version. The first full load is not logged: it sets the baseline,
+ * and clients older than the baseline (or older than the oldest retained change) get
+ * {@code reset=true} and must reload the full lists.
+ */
+@Component
+@Slf4j
+public class MasterDataChangeFeed {
+
+    public static final String EVENT_CHANGES = "changes";
+    public static final String EVENT_RESET = "reset";
+
+    private final int maxEntries;
+    private final long streamTimeoutMs;
+
+    private final Deque<MasterDataChangeDTO> entries = new ArrayDeque<>();
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    // Keeps pushes in version order without holding the feed's monitor while sending
+    private final Object deliveryLock = new Object();
+
+    private long version;
+    // Smallest ?since= that can still be answered incrementally, -1 = no baseline yet
+    private long oldestServable = -1;
+    private String fingerprint;
+
+    @Autowired
+    public MasterDataChangeFeed(@Value("${shipping.master-data.sync.max-log-entries:5000}") int maxEntries,
+                                @Value("${shipping.master-data.sync.stream-timeout-ms:1800000}") long streamTimeoutMs) {
+        this.maxEntries = maxEntries;
+        this.streamTimeoutMs = streamTimeoutMs;
+    }
+
+    /**
+     * Mark the end of the initial full load
+     */
+    public void baseline(long treeFingerprint) {
+        synchronized (deliveryLock) {
+            MasterDataChangesDTO payload;
+            List<SseEmitter> targets;
+            synchronized (this) {
+                version++;
+                oldestServable = version;
+                fingerprint = Fingerprint.hex(treeFingerprint);
+                entries.clear();
+                payload = snapshot(true, Collections.emptyList(), false);
+                targets = List.copyOf(subscribers);
+            }
+            broadcast(targets, EVENT_RESET, payload);
+        }
+    }
+
+    /**
+     * Append one sync cycle's changes (versions are assigned here) and push them to subscribers
+     */
+    public void publish(List<MasterDataChangeDTO> changes, long treeFingerprint) {
+        synchronized (deliveryLock) {
+            MasterDataChangesDTO payload;
+            List<SseEmitter> targets;
+            synchronized (this) {
+                fingerprint = Fingerprint.hex(treeFingerprint);
+                if (changes.isEmpty()) {
+                    return;
+                }
+                for (MasterDataChangeDTO change : changes) {
+                    change.setVersion(++version);
+                    entries.addLast(change);
+                }
+                while (entries.size() > maxEntries) {
+                    oldestServable = entries.removeFirst().getVersion();
+                }
+                payload = snapshot(false, changes, false);
+                targets = List.copyOf(subscribers);
+            }
+            broadcast(targets, EVENT_CHANGES, payload);
+        }
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public synchronized boolean hasBaseline() {
+        return oldestServable >= 0;
+    }
+
+    /**
+     * Changes after {@code since}, at most {@code limit}
+     */
+    public synchronized MasterDataChangesDTO changesSince(long since, int limit) {
+        if (oldestServable < 0 || since < oldestServable || since > version) {
+            return snapshot(true, Collections.emptyList(), false);
+        }
+        List<MasterDataChangeDTO> result = new ArrayList<>();
+        boolean hasMore = false;
+        for (MasterDataChangeDTO change : entries) {
+            if (change.getVersion() <= since) {
+                continue;
+            }
+            if (result.size() == limit) {
+                hasMore = true;
+                break;
+            }
+            result.add(change);
+        }
+        MasterDataChangesDTO response = snapshot(false, result, hasMore);
+        if (hasMore) {
+            response.setVersion(result.get(result.size() - 1).getVersion());
+        }
+        return response;
+    }
+
+    /**
+     * Open an SSE stream. With Last-Event-ID the missed changes are replayed first, under the
+     * monitor publish() holds while it assigns versions and picks its recipients, so nothing is
+     * lost or duplicated in between.
+     */
+    public synchronized SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+
+        if (lastEventId != null) {
+            MasterDataChangesDTO missed = changesSince(lastEventId, Integer.MAX_VALUE);
+            if (!send(emitter, missed.isReset() ? EVENT_RESET : EVENT_CHANGES, missed)) {
+                return emitter;
+            }
+        }
+        subscribers.add(emitter);
+        return emitter;
+    }
+
+    /**
+     * Close streams when shutdown starts (before the web server's graceful shutdown,
+     * which would otherwise wait for them)
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void close() {
+        for (SseEmitter emitter : subscribers) {
+            emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private MasterDataChangesDTO snapshot(boolean reset, List<MasterDataChangeDTO> changes, boolean hasMore) {
+        return MasterDataChangesDTO.builder()
+                .version(version)
+                .fingerprint(fingerprint)
+                .reset(reset)
+                .hasMore(hasMore)
+                .changes(changes)
+                .build();
+    }
+
+    /**
+     * Runs outside the feed's monitor, so a subscriber with a full TCP buffer only delays
+     * other deliveries, never readers of /changes
+     */
+    private void broadcast(List<SseEmitter> targets, String event, MasterDataChangesDTO payload) {
+        for (SseEmitter emitter : targets) {
+            if (!send(emitter, event, payload)) {
+                subscribers.remove(emitter);
+            }
+        }
+    }
+
+    private boolean send(SseEmitter emitter, String event, MasterDataChangesDTO payload) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(payload.getVersion()))
+                    .name(event)
+                    .data(payload));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping master-data subscriber: {}", e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
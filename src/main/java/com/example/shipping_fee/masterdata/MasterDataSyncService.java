@@ -0,0 +1,346 @@
+package com.example.shipping_fee.masterdata;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.shipping_fee.dto.DistrictDTO;
+import com.example.shipping_fee.dto.MasterDataChangeDTO;
+import com.example.shipping_fee.dto.MasterDataChangeDTO.Action;
+import com.example.shipping_fee.dto.MasterDataChangeDTO.Entity;
+import com.example.shipping_fee.dto.ProvinceDTO;
+import com.example.shipping_fee.dto.WardDTO;
+import com.example.shipping_fee.service.GhtkService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Incremental GHN master-data sync (opt-in, shipping.master-data.sync.enabled).
+ *
+ * Keeps a fingerprinted copy of the province -> district -> ward tree. GHN has no change API,
+ * so each cycle:
+ * - fetches the province list (1 call)
+ * - refetches district lists only for new/changed provinces plus a rotating slice of the rest
+ * - refetches ward lists only for new/changed districts plus a rotating slice of the rest
+ * A subtree whose fingerprint is unchanged produces no change; the whole tree is re-verified
+ * every ceil(count / per-cycle) cycles instead of being downloaded blindly on a TTL.
+ *
+ * Detected changes go to {@link MasterDataChangeFeed}. A failed fetch keeps the old subtree.
+ */
+@Service
+@Slf4j
+public class MasterDataSyncService {
+
+    private final GhtkService ghtkService;
+    private final MasterDataChangeFeed changeFeed;
+    private final boolean enabled;
+    private final int provincesPerCycle;
+    private final int districtsPerCycle;
+
+    private final Map<Integer, ProvinceNode> provinces = new LinkedHashMap<>();
+    private int provinceCursor;
+    private int districtCursor;
+    private volatile boolean stopping;
+
+    private final Timer syncTimer;
+    private final Counter ghnCalls;
+    private final Counter changeCounter;
+
+    @Autowired
+    public MasterDataSyncService(GhtkService ghtkService,
+                                 MasterDataChangeFeed changeFeed,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${shipping.master-data.sync.enabled:false}") boolean enabled,
+                                 @Value("${shipping.master-data.sync.provinces-per-cycle:8}") int provincesPerCycle,
+                                 @Value("${shipping.master-data.sync.districts-per-cycle:64}") int districtsPerCycle) {
+        this.ghtkService = ghtkService;
+        this.changeFeed = changeFeed;
+        this.enabled = enabled;
+        this.provincesPerCycle = provincesPerCycle;
+        this.districtsPerCycle = districtsPerCycle;
+        this.syncTimer = Timer.builder("shipping.master.data.sync").register(meterRegistry);
+        this.ghnCalls = Counter.builder("shipping.master.data.ghn.calls").register(meterRegistry);
+        this.changeCounter = Counter.builder("shipping.master.data.changes").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Scheduled(initialDelayString = "${shipping.master-data.sync.initial-delay-ms:5000}",
+            fixedDelayString = "${shipping.master-data.sync.interval-ms:3600000}")
+    public void scheduledSync() {
+        if (!enabled || stopping) {
+            return;
+        }
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            log.warn("Master data sync failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Abandon a running cycle at shutdown instead of holding up the scheduler
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        stopping = true;
+    }
+
+    /**
+     * Run one sync cycle
+     * @return changes detected (0 on the initial full load)
+     */
+    public synchronized int sync() {
+        return syncTimer.record(() -> {
+            boolean initial = !changeFeed.hasBaseline();
+            List<MasterDataChangeDTO> changes = new ArrayList<>();
+
+            List<ProvinceDTO> fetched = call(ghtkService::getProvinces);
+            if (fetched.isEmpty()) {
+                // Never wipe the tree because GHN answered with nothing
+                log.warn("GHN returned no provinces, keeping current master data");
+                return 0;
+            }
+
+            Set<Integer> toRefresh = diffProvinces(fetched, changes);
+            toRefresh.addAll(rotate(new ArrayList<>(provinces.keySet()), provincesPerCycle, true));
+            Set<Integer> districtsToRefresh = new HashSet<>();
+            for (Integer provinceId : toRefresh) {
+                ProvinceNode node = provinces.get(provinceId);
+                if (node != null) {
+                    refreshDistricts(node, changes, districtsToRefresh);
+                }
+            }
+
+            List<DistrictNode> allDistricts = new ArrayList<>();
+            for (ProvinceNode province : provinces.values()) {
+                allDistricts.addAll(province.districts.values());
+            }
+            Set<Integer> rotation = rotate(ids(allDistricts), districtsPerCycle, false);
+            for (DistrictNode district : allDistricts) {
+                if (districtsToRefresh.contains(district.record.getId()) || rotation.contains(district.record.getId())) {
+                    refreshWards(district, changes);
+                }
+            }
+
+            long fingerprint = treeFingerprint();
+            if (initial) {
+                changeFeed.baseline(fingerprint);
+                log.info("Master data loaded: {} provinces, {} districts", provinces.size(), allDistricts.size());
+                return 0;
+            }
+            changeFeed.publish(changes, fingerprint);
+            changeCounter.increment(changes.size());
+            if (!changes.isEmpty()) {
+                log.info("Master data sync found {} changes, now at version {}", changes.size(), changeFeed.getVersion());
+            }
+            return changes.size();
+        });
+    }
+
+    /**
+     * Fingerprint of the whole tree, hex-encoded
+     */
+    public synchronized String getFingerprint() {
+        return Fingerprint.hex(treeFingerprint());
+    }
+
+    /**
+     * Apply the province list; returns provinces whose district list must be fetched (new or changed)
+     */
+    private Set<Integer> diffProvinces(List<ProvinceDTO> fetched, List<MasterDataChangeDTO> changes) {
+        Set<Integer> toRefresh = new HashSet<>();
+        Set<Integer> seen = new HashSet<>();
+        for (ProvinceDTO province : fetched) {
+            seen.add(province.getProvinceId());
+            long hash = Fingerprint.start().add(province.getProvinceId()).add(province.getProvinceName())
+                    .add(province.getCode()).get();
+            ProvinceNode node = provinces.get(province.getProvinceId());
+            if (node == null) {
+                node = new ProvinceNode();
+                provinces.put(province.getProvinceId(), node);
+            } else if (node.hash == hash) {
+                continue;
+            }
+            node.record = province;
+            node.hash = hash;
+            toRefresh.add(province.getProvinceId());
+            changes.add(change(Entity.PROVINCE, Action.UPSERT, province.getProvinceId(), null, province));
+        }
+        for (Iterator<Integer> it = provinces.keySet().iterator(); it.hasNext(); ) {
+            Integer provinceId = it.next();
+            if (!seen.contains(provinceId)) {
+                it.remove();
+                changes.add(change(Entity.PROVINCE, Action.DELETE, provinceId, null, null));
+            }
+        }
+        return toRefresh;
+    }
+
+    private void refreshDistricts(ProvinceNode province, List<MasterDataChangeDTO> changes, Set<Integer> newDistricts) {
+        Integer provinceId = province.record.getProvinceId();
+        checkNotStopping();
+        List<DistrictDTO> fetched;
+        try {
+            fetched = call(() -> ghtkService.getDistricts(provinceId));
+        } catch (RuntimeException e) {
+            log.warn("Skipping districts of province {}: {}", provinceId, e.getMessage());
+            return;
+        }
+
+        Fingerprint listHash = Fingerprint.start();
+        for (DistrictDTO district : fetched) {
+            listHash.add(district.getId()).add(district.getName());
+        }
+        if (province.districtListHash == listHash.get() && province.districtListLoaded) {
+            return;
+        }
+        province.districtListHash = listHash.get();
+        province.districtListLoaded = true;
+
+        Set<Integer> seen = new HashSet<>();
+        for (DistrictDTO district : fetched) {
+            seen.add(district.getId());
+            long hash = Fingerprint.start().add(district.getId()).add(district.getName()).get();
+            DistrictNode node = province.districts.get(district.getId());
+            if (node == null) {
+                node = new DistrictNode();
+                province.districts.put(district.getId(), node);
+                newDistricts.add(district.getId());
+            } else if (node.hash == hash) {
+                continue;
+            }
+            node.record = district;
+            node.hash = hash;
+            changes.add(change(Entity.DISTRICT, Action.UPSERT, district.getId(), provinceId, district));
+        }
+        for (Iterator<Integer> it = province.districts.keySet().iterator(); it.hasNext(); ) {
+            Integer districtId = it.next();
+            if (!seen.contains(districtId)) {
+                it.remove();
+                changes.add(change(Entity.DISTRICT, Action.DELETE, districtId, provinceId, null));
+            }
+        }
+    }
+
+    private void refreshWards(DistrictNode district, List<MasterDataChangeDTO> changes) {
+        Integer districtId = district.record.getId();
+        checkNotStopping();
+        List<WardDTO> fetched;
+        try {
+            fetched = call(() -> ghtkService.getWards(districtId));
+        } catch (RuntimeException e) {
+            log.warn("Skipping wards of district {}: {}", districtId, e.getMessage());
+            return;
+        }
+
+        Fingerprint hash = Fingerprint.start();
+        for (WardDTO ward : fetched) {
+            hash.add(ward.getWardCode()).add(ward.getName());
+        }
+        if (district.wardsLoaded && district.wardsHash == hash.get()) {
+            return;
+        }
+        district.wards = Collections.unmodifiableList(new ArrayList<>(fetched));
+        district.wardsHash = hash.get();
+        district.wardsLoaded = true;
+        changes.add(change(Entity.WARDS, Action.UPSERT, districtId, null, district.wards));
+    }
+
+    /**
+     * Next {@code count} IDs after the cursor, wrapping around
+     */
+    private Set<Integer> rotate(List<Integer> ids, int count, boolean provinceLevel) {
+        Set<Integer> slice = new HashSet<>();
+        if (ids.isEmpty() || count <= 0) {
+            return slice;
+        }
+        int cursor = provinceLevel ? provinceCursor : districtCursor;
+        int take = Math.min(count, ids.size());
+        for (int i = 0; i < take; i++) {
+            slice.add(ids.get((cursor + i) % ids.size()));
+        }
+        cursor = (cursor + take) % ids.size();
+        if (provinceLevel) {
+            provinceCursor = cursor;
+        } else {
+            districtCursor = cursor;
+        }
+        return slice;
+    }
+
+    private void checkNotStopping() {
+        if (stopping) {
+            throw new IllegalStateException("Application is shutting down");
+        }
+    }
+
+    private long treeFingerprint() {
+        Fingerprint root = Fingerprint.start();
+        for (ProvinceNode province : provinces.values()) {
+            root.add(province.hash);
+            for (DistrictNode district : province.districts.values()) {
+                root.add(district.hash).add(district.wardsHash);
+            }
+        }
+        return root.get();
+    }
+
+    private <T> List<T> call(Supplier<List<T>> fetch) {
+        ghnCalls.increment();
+        List<T> result = fetch.get();
+        return result != null ? result : Collections.emptyList();
+    }
+
+    private List<Integer> ids(List<DistrictNode> districts) {
+        List<Integer> ids = new ArrayList<>(districts.size());
+        for (DistrictNode district : districts) {
+            ids.add(district.record.getId());
+        }
+        return ids;
+    }
+
+    private MasterDataChangeDTO change(Entity entity, Action action, Integer id, Integer parentId, Object data) {
+        return MasterDataChangeDTO.builder()
+                .entity(entity)
+                .action(action)
+                .id(id)
+                .parentId(parentId)
+                .data(data)
+                .build();
+    }
+
+    private static final class ProvinceNode {
+        ProvinceDTO record;
+        long hash;
+        long districtListHash;
+        boolean districtListLoaded;
+        final Map<Integer, DistrictNode> districts = new LinkedHashMap<>();
+    }
+
+    private static final class DistrictNode {
+        DistrictDTO record;
+        long hash;
+        List<WardDTO> wards = Collections.emptyList();
+        long wardsHash;
+        boolean wardsLoaded;
+    }
+}
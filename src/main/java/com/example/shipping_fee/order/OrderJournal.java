@@ -0,0 +1,216 @@
+package com.example.shipping_fee.order;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Append-only JSON-lines journal backing the order outbox.
+ *
+ * Appends use group commit: callers enqueue a record and wait; a single writer thread writes
+ * everything queued so far and forces it to disk once, so many concurrent orders share one
+ * fsync. A torn last line (crash mid-write) is skipped on replay.
+ */
+@Slf4j
+class OrderJournal {
+
+    private static final int MAX_BATCH = 512;
+    private static final PendingWrite STOP = new PendingWrite(new byte[0], null);
+
+    private final Path path;
+    private final boolean fsync;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private final Timer commitTimer;
+    private final DistributionSummary batchSize;
+
+    private FileChannel channel;
+    private Thread writer;
+    private volatile boolean closed;
+
+    OrderJournal(Path path, boolean fsync, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.path = path;
+        this.fsync = fsync;
+        this.objectMapper = objectMapper;
+        this.commitTimer = Timer.builder("shipping.orders.outbox.commit").register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("shipping.orders.outbox.batch").register(meterRegistry);
+    }
+
+    /**
+     * Read every record written so far (call before {@link #open()})
+     */
+    List<OutboxRecord> replay() throws IOException {
+        List<OutboxRecord> records = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return records;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    records.add(objectMapper.readValue(line, OutboxRecord.class));
+                } catch (JacksonException e) {
+                    log.warn("Skipping unreadable outbox line {} in {}: {}", lineNumber, path, e.getOriginalMessage());
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Replace the journal with {@code records} (compaction), atomically
+     */
+    void rewrite(List<OutboxRecord> records) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (OutboxRecord record : records) {
+                out.write(ByteBuffer.wrap(line(record)));
+            }
+            out.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Open for appending and start the writer thread
+     */
+    void open() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        writer = new Thread(this::writeLoop, "order-outbox-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queue a record; the future completes once it is on disk
+     */
+    CompletableFuture<Void> append(OutboxRecord record) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (closed) {
+            done.completeExceptionally(new IOException("Order outbox is closed"));
+            return done;
+        }
+        queue.add(new PendingWrite(line(record), done));
+        return done;
+    }
+
+    /**
+     * Flush what is queued and close the file
+     */
+    void close() {
+        closed = true;
+        if (writer == null) {
+            return;
+        }
+        queue.add(STOP);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Error closing order outbox: {}", e.getMessage());
+        }
+        // Raced with close(): never written
+        for (PendingWrite write = queue.poll(); write != null; write = queue.poll()) {
+            if (write != STOP) {
+                write.done.completeExceptionally(new IOException("Order outbox is closed"));
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            boolean stop = batch.remove(STOP);
+            if (!batch.isEmpty()) {
+                commit(batch);
+            }
+            batch.clear();
+            if (stop) {
+                queue.drainTo(batch);
+                if (!batch.isEmpty()) {
+                    commit(batch);
+                }
+                return;
+            }
+        }
+    }
+
+    private void commit(List<PendingWrite> batch) {
+        long started = System.nanoTime();
+        try {
+            ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                buffers[i] = ByteBuffer.wrap(batch.get(i).line);
+            }
+            long remaining = 0;
+            for (ByteBuffer buffer : buffers) {
+                remaining += buffer.remaining();
+            }
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+            for (PendingWrite write : batch) {
+                write.done.complete(null);
+            }
+        } catch (IOException e) {
+            log.error("Order outbox write failed: {}", e.getMessage());
+            for (PendingWrite write : batch) {
+                write.done.completeExceptionally(e);
+            }
+        }
+        commitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        batchSize.record(batch.size());
+    }
+
+    private byte[] line(OutboxRecord record) {
+        byte[] json = objectMapper.writeValueAsBytes(record);
+        byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = '\n';
+        return line;
+    }
+
+    private record PendingWrite(byte[] line, CompletableFuture<Void> done) {
+    }
+}
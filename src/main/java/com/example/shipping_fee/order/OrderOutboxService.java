@@ -0,0 +1,603 @@
+package com.example.shipping_fee.order;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.example.shipping_fee.constant.ErrorMessages;
+import com.example.shipping_fee.dto.CreatedOrderDTO;
+import com.example.shipping_fee.dto.ErrorMessageDTO;
+import com.example.shipping_fee.dto.OrderRequest;
+import com.example.shipping_fee.dto.OrderSubmissionDTO;
+import com.example.shipping_fee.service.GhtkService;
+import com.example.shipping_fee.service.RateLimiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Asynchronous GHN order creation through a durable outbox (opt-in, shipping.orders.enabled).
+ *
+ * accept() validates the order, appends it to the {@link OrderJournal} (fsync, group commit)
+ * and returns; GHN latency never reaches the order API. A dispatcher claims due orders in
+ * batches, paced by a rate limiter, and hands them to the orderExecutor worker pool.
+ *
+ * - Idempotency: client_order_code is the key. A repeated accept returns the existing order;
+ *   a GHN rejection is checked against detail-by-client-code first, so an order created by an
+ *   attempt whose response was lost is recovered instead of being created twice.
+ * - Retries: I/O errors, 5xx, 429 and GHN error codes back off exponentially with jitter.
+ * - Dead letters: 4xx rejections and orders out of attempts stop until requeued by an operator.
+ *
+ * On restart the journal is replayed; pending orders resume and the file is compacted.
+ * Accepted orders are announced as {@link OrderSubmittedEvent}.
+ */
+@Service
+@Slf4j
+public class OrderOutboxService {
+
+    private final GhtkService ghtkService;
+    private final TaskExecutor executor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+    private final long retentionMs;
+    private final long acceptTimeoutMs;
+
+    private final OrderJournal journal;
+    private final RateLimiter rateLimiter;
+    private final Map<String, OrderEntry> entries = new ConcurrentHashMap<>();
+    private final DelayQueue<OrderEntry> ready = new DelayQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger deadLetters = new AtomicInteger();
+    private volatile boolean stopping;
+
+    private final MeterRegistry meterRegistry;
+    private final Timer submitTimer;
+
+    @Autowired
+    public OrderOutboxService(GhtkService ghtkService,
+                              @Qualifier("orderExecutor") TaskExecutor executor,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${shipping.orders.enabled:false}") boolean enabled,
+                              @Value("${shipping.orders.outbox.path:data/order-outbox.jsonl}") String path,
+                              @Value("${shipping.orders.outbox.fsync:true}") boolean fsync,
+                              @Value("${shipping.orders.max-per-second:20}") double maxPerSecond,
+                              @Value("${shipping.orders.batch-size:32}") int batchSize,
+                              @Value("${shipping.orders.max-attempts:8}") int maxAttempts,
+                              @Value("${shipping.orders.backoff-ms:1000}") long baseBackoffMs,
+                              @Value("${shipping.orders.max-backoff-ms:300000}") long maxBackoffMs,
+                              @Value("${shipping.orders.retention-hours:72}") long retentionHours,
+                              @Value("${shipping.orders.accept-timeout-ms:2000}") long acceptTimeoutMs) {
+        this.ghtkService = ghtkService;
+        this.executor = executor;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.retentionMs = TimeUnit.HOURS.toMillis(retentionHours);
+        this.acceptTimeoutMs = acceptTimeoutMs;
+        this.journal = new OrderJournal(Path.of(path), fsync, objectMapper, meterRegistry);
+        this.rateLimiter = new RateLimiter(maxPerSecond, Math.max(1, (int) Math.ceil(maxPerSecond)));
+        this.meterRegistry = meterRegistry;
+        this.submitTimer = Timer.builder("shipping.orders.submit").register(meterRegistry);
+
+        Gauge.builder("shipping.orders.backlog", this, service -> service.ready.size() + service.inFlight.get())
+                .register(meterRegistry);
+        Gauge.builder("shipping.orders.in.flight", inFlight, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("shipping.orders.dead.letters", deadLetters, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("shipping.orders.oldest.pending.seconds", this, OrderOutboxService::oldestPendingSeconds)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        List<OutboxRecord> records = journal.replay();
+        for (OutboxRecord record : records) {
+            apply(record);
+        }
+        compact(records.size());
+        journal.open();
+
+        int pending = 0;
+        for (OrderEntry entry : entries.values()) {
+            if (entry.status == OrderStatus.PENDING) {
+                ready.add(entry);
+                pending++;
+            } else if (entry.status == OrderStatus.DEAD_LETTER) {
+                deadLetters.incrementAndGet();
+            }
+        }
+        log.info("Order outbox ready: {} orders, {} pending, {} dead letters", entries.size(), pending, deadLetters.get());
+    }
+
+    /**
+     * Announce orders submitted before the restart (e.g. so their status is tracked again)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void announceSubmitted() {
+        for (OrderEntry entry : entries.values()) {
+            if (entry.status == OrderStatus.SUBMITTED) {
+                eventPublisher.publishEvent(new OrderSubmittedEvent(entry.key, entry.orderCode));
+            }
+        }
+    }
+
+    /**
+     * Stop claiming new work when shutdown starts; in-flight submissions finish with the executor
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        stopping = true;
+    }
+
+    @PreDestroy
+    public void close() {
+        journal.close();
+    }
+
+    /**
+     * Validate an order
+     * @return List of validation errors (empty if valid)
+     */
+    public List<ErrorMessageDTO> validate(OrderRequest order) {
+        List<ErrorMessageDTO> errors = new ArrayList<>();
+        if (isBlank(order.getClientOrderCode())) {
+            errors.add(new ErrorMessageDTO("clientOrderCode", ErrorMessages.ERR_CLIENT_ORDER_CODE_REQUIRED));
+        }
+        if (isBlank(order.getToName())) {
+            errors.add(new ErrorMessageDTO("toName", ErrorMessages.ERR_TO_NAME_REQUIRED));
+        }
+        if (isBlank(order.getToPhone())) {
+            errors.add(new ErrorMessageDTO("toPhone", ErrorMessages.ERR_TO_PHONE_REQUIRED));
+        }
+        if (isBlank(order.getToAddress())) {
+            errors.add(new ErrorMessageDTO("toAddress", ErrorMessages.ERR_TO_ADDRESS_REQUIRED));
+        }
+        if (order.getToDistrictId() == null) {
+            errors.add(new ErrorMessageDTO("toDistrictId", ErrorMessages.ERR_TO_DISTRICT_REQUIRED));
+        }
+        if (isBlank(order.getToWardCode())) {
+            errors.add(new ErrorMessageDTO("toWardCode", ErrorMessages.ERR_TO_WARD_REQUIRED));
+        }
+        if (order.getWeight() == null || order.getWeight() <= 0) {
+            errors.add(new ErrorMessageDTO("weight", ErrorMessages.ERR_WEIGHT_INVALID));
+        }
+        return errors;
+    }
+
+    /**
+     * Durably accept an order (caller validated it)
+     *
+     * The order is known as soon as it is claimed, but only counts as accepted once its
+     * journal write lands: a repeat waits for that write, and a failed write forgets the
+     * order for every caller. A write that is merely slow is not undone; its caller gets an
+     * error and a retry sees the order as already accepted once the write completes.
+     * @return the order's state; {@code created=false} if the client_order_code was already known
+     * @throws IOException if the outbox could not persist it in time
+     */
+    public Acceptance accept(OrderRequest order) throws IOException {
+        long now = System.currentTimeMillis();
+        OrderEntry entry = new OrderEntry(order.getClientOrderCode(), order, now);
+        OrderEntry existing = entries.putIfAbsent(entry.key, entry);
+        if (existing != null) {
+            count("duplicate");
+            awaitPersisted(existing);
+            return new Acceptance(existing.toDto(), false);
+        }
+
+        journal.append(OutboxRecord.builder().type(OutboxRecord.Type.ACCEPTED).key(entry.key).at(now).order(order).build())
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        entries.remove(entry.key, entry);
+                        entry.persisted.completeExceptionally(error);
+                        return;
+                    }
+                    ready.add(entry);
+                    count("accepted");
+                    entry.persisted.complete(null);
+                });
+        awaitPersisted(entry);
+        return new Acceptance(entry.toDto(), true);
+    }
+
+    private void awaitPersisted(OrderEntry entry) throws IOException {
+        try {
+            entry.persisted.get(acceptTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while persisting order", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Order outbox write failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IOException("Order outbox write still pending after " + acceptTimeoutMs + "ms", e);
+        }
+    }
+
+    /**
+     * @return the order, or null if it is unknown or its acceptance is not yet persisted
+     */
+    public OrderSubmissionDTO get(String clientOrderCode) {
+        OrderEntry entry = entries.get(clientOrderCode);
+        return entry != null && entry.isPersisted() ? entry.toDto() : null;
+    }
+
+    public List<OrderSubmissionDTO> getDeadLetters() {
+        List<OrderSubmissionDTO> result = new ArrayList<>();
+        for (OrderEntry entry : entries.values()) {
+            if (entry.status == OrderStatus.DEAD_LETTER) {
+                result.add(entry.toDto());
+            }
+        }
+        result.sort(Comparator.comparing(OrderSubmissionDTO::getUpdatedAt));
+        return result;
+    }
+
+    /**
+     * Move a dead-lettered order back to the queue with a fresh attempt budget
+     * @return the order, or null if it is unknown or not dead-lettered
+     */
+    public OrderSubmissionDTO requeue(String clientOrderCode) {
+        OrderEntry entry = entries.get(clientOrderCode);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (entry) {
+            if (entry.status != OrderStatus.DEAD_LETTER) {
+                return null;
+            }
+            entry.status = OrderStatus.PENDING;
+            entry.attempts = 0;
+            entry.nextAttemptAt = now;
+            entry.updatedAt = now;
+        }
+        persist(OutboxRecord.builder().type(OutboxRecord.Type.REQUEUED).key(entry.key).at(now).build());
+        deadLetters.decrementAndGet();
+        ready.add(entry);
+        count("requeued");
+        return entry.toDto();
+    }
+
+    /**
+     * Claim due orders (up to the free worker slots) and submit them, paced by the rate limit
+     */
+    @Scheduled(fixedDelayString = "${shipping.orders.dispatch-interval-ms:100}")
+    public void dispatch() {
+        if (!enabled || stopping) {
+            return;
+        }
+        int slots = batchSize - inFlight.get();
+        for (int i = 0; i < slots; i++) {
+            OrderEntry head = ready.peek();
+            if (head == null || head.getDelay(TimeUnit.NANOSECONDS) > 0 || !rateLimiter.tryAcquire()) {
+                return;
+            }
+            OrderEntry entry = ready.poll();
+            if (entry == null) {
+                return;
+            }
+            inFlight.incrementAndGet();
+            try {
+                executor.execute(() -> submit(entry));
+            } catch (TaskRejectedException e) {
+                inFlight.decrementAndGet();
+                ready.add(entry);
+                return;
+            }
+        }
+    }
+
+    private void submit(OrderEntry entry) {
+        try {
+            CreatedOrderDTO created = submitTimer.record(() -> ghtkService.createOrder(entry.order));
+            submitted(entry, created, "submitted");
+        } catch (HttpClientErrorException e) {
+            if (e instanceof HttpClientErrorException.TooManyRequests) {
+                retry(entry, "GHN rate limit: " + e.getMessage());
+                return;
+            }
+            rejected(entry, e.getResponseBodyAsString().isEmpty() ? e.getMessage() : e.getResponseBodyAsString());
+        } catch (RuntimeException e) {
+            retry(entry, e.getMessage());
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * GHN rejected the order. It may have been created by an earlier attempt whose
+     * response was lost (GHN rejects the duplicate client_order_code): recover it.
+     */
+    private void rejected(OrderEntry entry, String error) {
+        CreatedOrderDTO existing;
+        try {
+            existing = ghtkService.findOrderByClientCode(entry.key);
+        } catch (RuntimeException e) {
+            retry(entry, error);
+            return;
+        }
+        if (existing != null) {
+            submitted(entry, existing, "recovered");
+            return;
+        }
+        deadLetter(entry, error, entry.attempts + 1);
+    }
+
+    private void submitted(OrderEntry entry, CreatedOrderDTO created, String outcome) {
+        long now = System.currentTimeMillis();
+        synchronized (entry) {
+            entry.status = OrderStatus.SUBMITTED;
+            entry.attempts++;
+            entry.orderCode = created.getOrderCode();
+            entry.totalFee = created.getTotalFee();
+            entry.expectedDeliveryTime = created.getExpectedDeliveryTime();
+            entry.lastError = null;
+            entry.updatedAt = now;
+        }
+        persist(OutboxRecord.builder().type(OutboxRecord.Type.SUBMITTED).key(entry.key).at(now)
+                .attempt(entry.attempts).orderCode(created.getOrderCode()).totalFee(created.getTotalFee())
+                .expectedDeliveryTime(created.getExpectedDeliveryTime()).build());
+        count(outcome);
+        log.info("Order {} created at GHN as {}", entry.key, created.getOrderCode());
+        eventPublisher.publishEvent(new OrderSubmittedEvent(entry.key, created.getOrderCode()));
+    }
+
+    private void retry(OrderEntry entry, String error) {
+        int attempt = entry.attempts + 1;
+        if (attempt >= maxAttempts) {
+            deadLetter(entry, error, attempt);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        // Exponential backoff with full jitter
+        long cap = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 20));
+        long next = now + ThreadLocalRandom.current().nextLong(cap / 2, cap + 1);
+        synchronized (entry) {
+            entry.attempts = attempt;
+            entry.lastError = error;
+            entry.nextAttemptAt = next;
+            entry.updatedAt = now;
+        }
+        persist(OutboxRecord.builder().type(OutboxRecord.Type.RETRY).key(entry.key).at(now)
+                .attempt(attempt).error(error).nextAttemptAt(next).build());
+        ready.add(entry);
+        count("retried");
+        log.warn("Order {} attempt {} failed, retrying in {}ms: {}", entry.key, attempt, next - now, error);
+    }
+
+    private void deadLetter(OrderEntry entry, String error, int attempt) {
+        long now = System.currentTimeMillis();
+        synchronized (entry) {
+            entry.status = OrderStatus.DEAD_LETTER;
+            entry.attempts = attempt;
+            entry.lastError = error;
+            entry.updatedAt = now;
+        }
+        persist(OutboxRecord.builder().type(OutboxRecord.Type.DEAD).key(entry.key).at(now)
+                .attempt(attempt).error(error).build());
+        deadLetters.incrementAndGet();
+        count("dead_lettered");
+        log.error("Order {} dead-lettered after {} attempts: {}", entry.key, attempt, error);
+    }
+
+    /**
+     * Write a state change; the in-memory state is already updated, so a failure only means
+     * the change is redone after a restart (GHN-side idempotency covers resubmission)
+     */
+    private void persist(OutboxRecord record) {
+        try {
+            journal.append(record).get(acceptTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.error("Could not persist {} for order {}: {}", record.getType(), record.getKey(), e.getMessage());
+        }
+    }
+
+    /**
+     * Fold one journal record into the in-memory state (replay)
+     */
+    private void apply(OutboxRecord record) {
+        if (record.getType() == OutboxRecord.Type.ACCEPTED) {
+            OrderEntry entry = new OrderEntry(record.getKey(), record.getOrder(), record.getAt());
+            entry.persisted.complete(null);
+            entries.putIfAbsent(record.getKey(), entry);
+            return;
+        }
+        OrderEntry entry = entries.get(record.getKey());
+        if (entry == null) {
+            return;
+        }
+        entry.updatedAt = record.getAt();
+        switch (record.getType()) {
+            case RETRY:
+                entry.attempts = record.getAttempt();
+                entry.lastError = record.getError();
+                entry.nextAttemptAt = record.getNextAttemptAt();
+                break;
+            case SUBMITTED:
+                entry.status = OrderStatus.SUBMITTED;
+                entry.attempts = record.getAttempt() != null ? record.getAttempt() : entry.attempts;
+                entry.orderCode = record.getOrderCode();
+                entry.totalFee = record.getTotalFee();
+                entry.expectedDeliveryTime = record.getExpectedDeliveryTime();
+                entry.lastError = null;
+                break;
+            case DEAD:
+                entry.status = OrderStatus.DEAD_LETTER;
+                entry.attempts = record.getAttempt();
+                entry.lastError = record.getError();
+                break;
+            case REQUEUED:
+                entry.status = OrderStatus.PENDING;
+                entry.attempts = 0;
+                entry.nextAttemptAt = record.getAt();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Rewrite the journal as one ACCEPTED (+ latest state) record per live order,
+     * dropping submitted orders older than the retention period
+     */
+    private void compact(int replayedRecords) throws IOException {
+        long cutoff = System.currentTimeMillis() - retentionMs;
+        entries.values().removeIf(entry -> entry.status == OrderStatus.SUBMITTED && entry.updatedAt < cutoff);
+
+        List<OutboxRecord> compacted = new ArrayList<>();
+        for (OrderEntry entry : entries.values()) {
+            compacted.add(OutboxRecord.builder().type(OutboxRecord.Type.ACCEPTED).key(entry.key)
+                    .at(entry.createdAt).order(entry.order).build());
+            OutboxRecord state = entry.stateRecord();
+            if (state != null) {
+                compacted.add(state);
+            }
+        }
+        if (replayedRecords > 0 && compacted.size() * 2 <= replayedRecords) {
+            journal.rewrite(compacted);
+            log.info("Order outbox compacted from {} to {} records", replayedRecords, compacted.size());
+        }
+    }
+
+    private double oldestPendingSeconds() {
+        long oldest = Long.MAX_VALUE;
+        for (OrderEntry entry : ready) {
+            oldest = Math.min(oldest, entry.createdAt);
+        }
+        return oldest == Long.MAX_VALUE ? 0 : (System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    private void count(String outcome) {
+        Counter.builder("shipping.orders").tag("outcome", outcome).register(meterRegistry).increment();
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Result of accept(): {@code created=false} for a repeated client_order_code
+     */
+    public record Acceptance(OrderSubmissionDTO order, boolean created) {
+    }
+
+    /**
+     * In-memory state of one order, ordered in the ready queue by next attempt time
+     */
+    private static final class OrderEntry implements Delayed {
+        final String key;
+        final OrderRequest order;
+        final long createdAt;
+        /** Completes when the ACCEPTED record is durable, exceptionally if its write failed */
+        final CompletableFuture<Void> persisted = new CompletableFuture<>();
+        volatile OrderStatus status = OrderStatus.PENDING;
+        int attempts;
+        long nextAttemptAt;
+        long updatedAt;
+        String orderCode;
+        Integer totalFee;
+        String expectedDeliveryTime;
+        String lastError;
+
+        OrderEntry(String key, OrderRequest order, long createdAt) {
+            this.key = key;
+            this.order = order;
+            this.createdAt = createdAt;
+            this.updatedAt = createdAt;
+            this.nextAttemptAt = createdAt;
+        }
+
+        boolean isPersisted() {
+            return persisted.isDone() && !persisted.isCompletedExceptionally();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(nextAttemptAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(nextAttemptAt, ((OrderEntry) other).nextAttemptAt);
+        }
+
+        synchronized OrderSubmissionDTO toDto() {
+            return OrderSubmissionDTO.builder()
+                    .clientOrderCode(key)
+                    .status(status.name())
+                    .attempts(attempts)
+                    .orderCode(orderCode)
+                    .totalFee(totalFee)
+                    .expectedDeliveryTime(expectedDeliveryTime)
+                    .lastError(lastError)
+                    .createdAt(createdAt)
+                    .updatedAt(updatedAt)
+                    .build();
+        }
+
+        /**
+         * Latest state as a single journal record (compaction), null if just accepted
+         */
+        OutboxRecord stateRecord() {
+            OutboxRecord.OutboxRecordBuilder record = OutboxRecord.builder().key(key).at(updatedAt).attempt(attempts);
+            switch (status) {
+                case SUBMITTED:
+                    return record.type(OutboxRecord.Type.SUBMITTED).orderCode(orderCode).totalFee(totalFee)
+                            .expectedDeliveryTime(expectedDeliveryTime).build();
+                case DEAD_LETTER:
+                    return record.type(OutboxRecord.Type.DEAD).error(lastError).build();
+                default:
+                    return attempts > 0
+                            ? record.type(OutboxRecord.Type.RETRY).error(lastError).nextAttemptAt(nextAttemptAt).build()
+                            : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.shipping_fee.order;
+
+/**
+ * Lifecycle of an order in the outbox
+ */
+public enum OrderStatus {
+
+    // Accepted and durable, waiting for (another) GHN attempt
+    PENDING,
+
+    // GHN created the shipment
+    SUBMITTED,
+
+    // Rejected by GHN or out of attempts, needs a manual retry
+    DEAD_LETTER
+}
@@ -0,0 +1,8 @@
+package com.example.shipping_fee.order;
+
+/**
+ * Published when GHN has accepted an outbox order (also replayed at startup for
+ * orders submitted within the outbox retention period)
+ */
+public record OrderSubmittedEvent(String clientOrderCode, String orderCode) {
+}
@@ -0,0 +1,46 @@
+package com.example.shipping_fee.order;
+
+import com.example.shipping_fee.dto.OrderRequest;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the outbox journal. The journal is append-only; the state of an order is
+ * its ACCEPTED record folded with every later record for the same key.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OutboxRecord {
+
+    public enum Type {
+        ACCEPTED, RETRY, SUBMITTED, DEAD, REQUEUED
+    }
+
+    private Type type;
+
+    // client_order_code
+    private String key;
+
+    // Epoch millis
+    private long at;
+
+    // ACCEPTED only
+    private OrderRequest order;
+
+    // RETRY / DEAD: attempts made so far and the last error
+    private Integer attempt;
+    private String error;
+    private Long nextAttemptAt;
+
+    // SUBMITTED only
+    private String orderCode;
+    private Integer totalFee;
+    private String expectedDeliveryTime;
+}
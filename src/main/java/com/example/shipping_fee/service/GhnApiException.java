@@ -0,0 +1,25 @@
+package com.example.shipping_fee.service;
+
+import com.example.shipping_fee.constant.ErrorCode;
+
+/**
+ * GHN call failed; {@link #getErrorCode()} tells whether retrying can help
+ */
+public class GhnApiException extends RuntimeException {
+
+    private final ErrorCode errorCode;
+
+    public GhnApiException(ErrorCode errorCode, String message) {
+        super(message);
+        this.errorCode = errorCode;
+    }
+
+    public GhnApiException(ErrorCode errorCode, String message, Throwable cause) {
+        super(message, cause);
+        this.errorCode = errorCode;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+}
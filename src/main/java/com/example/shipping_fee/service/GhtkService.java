@@ -1,39 +1,56 @@
 package com.example.shipping_fee.service;
 
+import com.example.shipping_fee.carrier.CarrierProvider;
+import com.example.shipping_fee.constant.ErrorCode;
 import com.example.shipping_fee.constant.ErrorMessages;
+import com.example.shipping_fee.constant.GhnApiEndpoints;
+import com.example.shipping_fee.deadline.Deadline;
+import com.example.shipping_fee.deadline.DeadlineContext;
+import com.example.shipping_fee.deadline.DeadlineExceededException;
+import com.example.shipping_fee.diagnostics.GhnCallEvent;
+import com.example.shipping_fee.diagnostics.QuoteCacheEvent;
+import com.example.shipping_fee.diagnostics.ValidationEvent;
 import com.example.shipping_fee.dto.*;
+import com.example.shipping_fee.feematrix.FeeMatrix;
+import com.example.shipping_fee.tracing.HttpClientTracing;
+import com.example.shipping_fee.tracing.Span;
+import com.example.shipping_fee.tracing.TraceContext;
+import com.example.shipping_fee.validation.ShippingRequestValidator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
  * Service for GHN API business logic
  * - Get address lists (Province, District, Ward)
- * - Calculate shipping fee
+ * - Calculate shipping fee, available services and leadtime
+ * - Create shipping orders
+ * - Get shipping order status
+ *
+ * Also the GHN {@link CarrierProvider} for multi-carrier quotes.
  */
 @Service
 @Slf4j
-public class GhtkService {
+public class GhtkService implements CarrierProvider {
 
     // API response codes
     private static final int API_SUCCESS_CODE = 200;
 
-    // Validation limits
-    private static final int MAX_WEIGHT_GRAMS = 50000;
-    private static final int MAX_INSURANCE_VALUE = 5000000;
-    private static final int MAX_COD_VALUE = 5000000;
-    private static final int MAX_DIMENSION_CM = 200;
-    private static final int MIN_SERVICE_TYPE = 1;
-    private static final int MAX_SERVICE_TYPE = 3;
-
     // Error message for missing token
     private static final String ERR_TOKEN_NOT_CONFIGURED = "GHN API token is not configured";
 
@@ -46,14 +63,43 @@ public class GhtkService {
     @Value("${ghtk.api.base-url:https://dev-online-gateway.ghn.vn}")
     private String ghtkBaseUrl;
 
+    // Retries for transient failures (I/O, 5xx, 429), skipped when the deadline cannot fit one more attempt
+    @Value("${ghtk.api.max-retries:1}")
+    private int maxRetries;
+
+    @Value("${ghtk.api.retry-backoff-ms:50}")
+    private long retryBackoffMs;
+
+    // Multi-carrier quoting (/quotes)
+    @Value("${shipping.carriers.ghn.enabled:true}")
+    private boolean carrierEnabled;
+
+    @Value("${shipping.carriers.ghn.timeout-ms:2000}")
+    private long quoteTimeoutMs;
+
     private final RestTemplate restTemplate;
+    private final ShippingRequestValidator validator;
+    private final QuoteCache quoteCache;
+    private final NegativeCache negativeCache;
+    private final FeeMatrix feeMatrix;
 
     public GhtkService() {
-        this.restTemplate = new RestTemplate();
+        this(new RestTemplate());
     }
 
     public GhtkService(RestTemplate restTemplate) {
+        this(restTemplate, ShippingRequestValidator.defaults(), QuoteCache.disabled(), NegativeCache.disabled(),
+                FeeMatrix.disabled());
+    }
+
+    @Autowired
+    public GhtkService(RestTemplate restTemplate, ShippingRequestValidator validator, QuoteCache quoteCache,
+                       NegativeCache negativeCache, FeeMatrix feeMatrix) {
         this.restTemplate = restTemplate;
+        this.validator = validator;
+        this.quoteCache = quoteCache;
+        this.negativeCache = negativeCache;
+        this.feeMatrix = feeMatrix;
     }
 
     /**
@@ -77,10 +123,12 @@ public class GhtkService {
     /**
      * Get list of Provinces/Cities from GHN
      * API: GET /shiip/public-api/master-data/province
-     * @return List of provinces or empty list with error logged
+     * @return List of provinces
      * @throws IllegalStateException if token is not configured
+     * @throws GhnApiException if GHN fails or rejects the request
      */
     @SuppressWarnings("unchecked")
+    @Override
     public List<ProvinceDTO> getProvinces() {
         if (!isTokenConfigured()) {
             log.error(ERR_TOKEN_NOT_CONFIGURED);
@@ -91,26 +139,21 @@ public class GhtkService {
             String url = ghtkBaseUrl + "/shiip/public-api/master-data/province";
             HttpEntity<String> entity = new HttpEntity<>(createHeaders());
 
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                    url, HttpMethod.GET, entity, (Class<Map<String, Object>>) (Class<?>) Map.class);
+            ResponseEntity<Map<String, Object>> response = exchange(url, HttpMethod.GET, entity);
 
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                Map<String, Object> body = response.getBody();
-                Integer code = parseInteger(body.get("code"));
-
-                if (code != null && code == API_SUCCESS_CODE) {
-                    List<Map<String, Object>> data = (List<Map<String, Object>>) body.get("data");
-                    return parseProvinces(data);
-                }
+            Map<String, Object> body = response.getBody();
+            if (response.getStatusCode() == HttpStatus.OK && body != null
+                    && Integer.valueOf(API_SUCCESS_CODE).equals(parseInteger(body.get("code")))) {
+                List<Map<String, Object>> data = (List<Map<String, Object>>) body.get("data");
+                return parseProvinces(data);
             }
-        } catch (IllegalStateException e) {
+            throw rejection(null, null, body);
+        } catch (IllegalStateException | DeadlineExceededException | GhnApiException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error calling GHN API to get province list: {}", e.getMessage());
-            throw new RuntimeException(ErrorMessages.ERR_API_CALL_FAILED, e);
+            throw failure(null, null, e);
         }
-
-        return Collections.emptyList();
     }
 
     /**
@@ -133,38 +176,39 @@ public class GhtkService {
      * @param provinceId Province ID to get districts for
      * @return List of districts in the province
      * @throws IllegalStateException if token is not configured
+     * @throws GhnApiException if GHN fails or rejects the request
      */
     @SuppressWarnings("unchecked")
+    @Override
     public List<DistrictDTO> getDistricts(Integer provinceId) {
         if (!isTokenConfigured()) {
             log.error(ERR_TOKEN_NOT_CONFIGURED);
             throw new IllegalStateException(ERR_TOKEN_NOT_CONFIGURED);
         }
+        NegativeCache.Rejection rejected = negativeCache.get(NegativeCache.SCOPE_DISTRICTS, provinceId);
+        if (rejected != null) {
+            throw new GhnApiException(rejected.errorCode(), rejected.message());
+        }
 
         try {
             String url = ghtkBaseUrl + "/shiip/public-api/master-data/district?province_id=" + provinceId;
             HttpEntity<String> entity = new HttpEntity<>(createHeaders());
 
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                    url, HttpMethod.GET, entity, (Class<Map<String, Object>>) (Class<?>) Map.class);
+            ResponseEntity<Map<String, Object>> response = exchange(url, HttpMethod.GET, entity);
 
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                Map<String, Object> body = response.getBody();
-                Integer code = parseInteger(body.get("code"));
-
-                if (code != null && code == API_SUCCESS_CODE) {
-                    List<Map<String, Object>> data = (List<Map<String, Object>>) body.get("data");
-                    return parseDistricts(data, provinceId);
-                }
+            Map<String, Object> body = response.getBody();
+            if (response.getStatusCode() == HttpStatus.OK && body != null
+                    && Integer.valueOf(API_SUCCESS_CODE).equals(parseInteger(body.get("code")))) {
+                List<Map<String, Object>> data = (List<Map<String, Object>>) body.get("data");
+                return parseDistricts(data, provinceId);
             }
-        } catch (IllegalStateException e) {
+            throw rejection(NegativeCache.SCOPE_DISTRICTS, provinceId, body);
+        } catch (IllegalStateException | DeadlineExceededException | GhnApiException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error calling GHN API to get district list: {}", e.getMessage());
-            throw new RuntimeException(ErrorMessages.ERR_API_CALL_FAILED, e);
+            throw failure(NegativeCache.SCOPE_DISTRICTS, provinceId, e);
         }
-
-        return Collections.emptyList();
     }
 
     /**
@@ -187,38 +231,39 @@ public class GhtkService {
      * @param districtId District ID to get wards for
      * @return List of wards in the district
      * @throws IllegalStateException if token is not configured
+     * @throws GhnApiException if GHN fails or rejects the request
      */
     @SuppressWarnings("unchecked")
+    @Override
     public List<WardDTO> getWards(Integer districtId) {
         if (!isTokenConfigured()) {
             log.error(ERR_TOKEN_NOT_CONFIGURED);
             throw new IllegalStateException(ERR_TOKEN_NOT_CONFIGURED);
         }
+        NegativeCache.Rejection rejected = negativeCache.get(NegativeCache.SCOPE_WARDS, districtId);
+        if (rejected != null) {
+            throw new GhnApiException(rejected.errorCode(), rejected.message());
+        }
 
         try {
             String url = ghtkBaseUrl + "/shiip/public-api/master-data/ward?district_id=" + districtId;
             HttpEntity<String> entity = new HttpEntity<>(createHeaders());
 
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                    url, HttpMethod.GET, entity, (Class<Map<String, Object>>) (Class<?>) Map.class);
+            ResponseEntity<Map<String, Object>> response = exchange(url, HttpMethod.GET, entity);
 
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                Map<String, Object> body = response.getBody();
-                Integer code = parseInteger(body.get("code"));
-
-                if (code != null && code == API_SUCCESS_CODE) {
-                    List<Map<String, Object>> data = (List<Map<String, Object>>) body.get("data");
-                    return parseWards(data, districtId);
-                }
+            Map<String, Object> body = response.getBody();
+            if (response.getStatusCode() == HttpStatus.OK && body != null
+                    && Integer.valueOf(API_SUCCESS_CODE).equals(parseInteger(body.get("code")))) {
+                List<Map<String, Object>> data = (List<Map<String, Object>>) body.get("data");
+                return parseWards(data, districtId);
             }
-        } catch (IllegalStateException e) {
+            throw rejection(NegativeCache.SCOPE_WARDS, districtId, body);
+        } catch (IllegalStateException | DeadlineExceededException | GhnApiException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error calling GHN API to get ward list: {}", e.getMessage());
-            throw new RuntimeException(ErrorMessages.ERR_API_CALL_FAILED, e);
+            throw failure(NegativeCache.SCOPE_WARDS, districtId, e);
         }
-
-        return Collections.emptyList();
     }
 
     /**
@@ -241,141 +286,356 @@ public class GhtkService {
     /**
      * Validate shipping request and collect all field errors
      * Note: fromDistrictId and fromWardCode are optional - GHN API uses shop's default address if not provided
+     * Rules come from shipping.validation.* (see {@link ShippingRequestValidator})
      * @param request Shipping request to validate
      * @return List of validation errors (empty if valid)
      */
     public List<ErrorMessageDTO> validateRequest(ShippingRequest request) {
-        List<ErrorMessageDTO> errors = new ArrayList<>();
-
-        validateRequiredFields(request, errors);
-        validateWeight(request, errors);
-        validateServiceType(request, errors);
-        validateMonetaryValues(request, errors);
-        validateDimensions(request, errors);
-
+        ValidationEvent event = ValidationEvent.start();
+        List<ErrorMessageDTO> errors = validator.validate(request);
+        if (event != null) {
+            event.finish(errors);
+        }
+        // Too short for a span of its own: noted on the span of the request being validated
+        Span parent = TraceContext.current();
+        if (parent != null) {
+            parent.attribute("validation.errors", errors.size());
+        }
         return errors;
     }
 
     /**
-     * Validate required destination fields
+     * Calculate shipping fee via GHN API
+     * API: POST /shiip/public-api/v2/shipping-order/fee
+     * Requests matching a cell of the precomputed {@link FeeMatrix} are answered from it.
+     * Successful quotes are served from {@link QuoteCache} until they expire, permanent
+     * rejections (e.g. route not served) from {@link NegativeCache} for a shorter while.
+     * @param request Shipping request with destination and package info
+     * @return Shipping fee calculation result
      */
-    private void validateRequiredFields(ShippingRequest request, List<ErrorMessageDTO> errors) {
-        if (request.getToDistrictId() == null) {
-            errors.add(new ErrorMessageDTO(ErrorMessages.FIELD_TO_DISTRICT_ID, ErrorMessages.ERR_TO_DISTRICT_REQUIRED));
+    @Override
+    public ShippingResponse calculateFee(ShippingRequest request) {
+        ShippingResponse invalid = checkFeeRequest(request);
+        if (invalid != null) {
+            return invalid;
+        }
+        ShippingResponse precomputed;
+        try (Span span = Span.start("fee_matrix.lookup")) {
+            precomputed = feeMatrix.lookup(request);
+            span.attribute("hit", precomputed != null);
+        }
+        if (precomputed != null) {
+            return precomputed;
+        }
+
+        QuoteKey key = QuoteKey.of(request);
+        ShippingResponse cached;
+        NegativeCache.Rejection rejected = null;
+        try (Span span = Span.start("quote_cache.lookup")) {
+            cached = quoteCache.get(key);
+            QuoteCacheEvent.emit(cached != null, request.getToDistrictId(), request.getServiceTypeId());
+            if (cached == null) {
+                rejected = negativeCache.get(NegativeCache.SCOPE_FEE, key);
+            }
+            span.attribute("hit", cached != null).attribute("negative_hit", rejected != null);
+        }
+        if (cached != null) {
+            log.debug("Quote cache hit for district {} ward {}", request.getToDistrictId(), request.getToWardCode());
+            return cached;
+        }
+        if (rejected != null) {
+            log.debug("Negative cache hit for district {} ward {}", request.getToDistrictId(), request.getToWardCode());
+            return buildErrorResponse(rejected.errorCode(), rejected.message());
         }
 
-        if (request.getToWardCode() == null || request.getToWardCode().trim().isEmpty()) {
-            errors.add(new ErrorMessageDTO(ErrorMessages.FIELD_TO_WARD_CODE, ErrorMessages.ERR_TO_WARD_REQUIRED));
+        try {
+            ShippingResponse response = callGhnFeeApi(request);
+            if (response.isSuccess()) {
+                quoteCache.put(key, response);
+            } else {
+                negativeCache.put(NegativeCache.SCOPE_FEE, key, response.getErrorCode(), response.getMessage());
+            }
+            return response;
+        } catch (DeadlineExceededException e) {
+            log.warn("Fee calculation abandoned: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Error calling GHN API to calculate fee: {}", e.getMessage());
+            GhnApiException failure = failure(NegativeCache.SCOPE_FEE, key, e);
+            return buildErrorResponse(failure.getErrorCode(), failure.getMessage());
         }
     }
 
     /**
-     * Validate weight field
+     * Calculate shipping fee straight from GHN, bypassing the fee matrix and both caches
+     * (used to build the fee matrix, so it must not read from or flood the caches)
      */
-    private void validateWeight(ShippingRequest request, List<ErrorMessageDTO> errors) {
-        if (request.getWeight() == null) {
-            errors.add(new ErrorMessageDTO(ErrorMessages.FIELD_WEIGHT, ErrorMessages.ERR_WEIGHT_REQUIRED));
-        } else if (request.getWeight() <= 0) {
-            errors.add(new ErrorMessageDTO(ErrorMessages.FIELD_WEIGHT, ErrorMessages.ERR_WEIGHT_INVALID));
-        } else if (request.getWeight() > MAX_WEIGHT_GRAMS) {
-            errors.add(new ErrorMessageDTO(ErrorMessages.FIELD_WEIGHT, ErrorMessages.ERR_WEIGHT_MAX_EXCEEDED));
+    public ShippingResponse calculateFeeLive(ShippingRequest request) {
+        ShippingResponse invalid = checkFeeRequest(request);
+        if (invalid != null) {
+            return invalid;
+        }
+        try {
+            return callGhnFeeApi(request);
+        } catch (DeadlineExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            GhnApiException failure = failure(null, null, e);
+            return buildErrorResponse(failure.getErrorCode(), failure.getMessage());
         }
     }
 
     /**
-     * Validate service type field
+     * Validation and configuration checks shared by the fee calls
+     * @return the error response, or null if the request can be quoted
      */
-    private void validateServiceType(ShippingRequest request, List<ErrorMessageDTO> errors) {
-        if (request.getServiceTypeId() != null) {
-            int serviceType = request.getServiceTypeId();
-            if (serviceType < MIN_SERVICE_TYPE || serviceType > MAX_SERVICE_TYPE) {
-                errors.add(new ErrorMessageDTO(ErrorMessages.FIELD_SERVICE_TYPE_ID, ErrorMessages.ERR_SERVICE_TYPE_INVALID));
-            }
+    private ShippingResponse checkFeeRequest(ShippingRequest request) {
+        List<ErrorMessageDTO> errors = validateRequest(request);
+        if (!errors.isEmpty()) {
+            log.warn("Validation failed with {} errors", errors.size());
+            return buildValidationErrorResponse(errors);
+        }
+        if (!isTokenConfigured()) {
+            log.error(ERR_TOKEN_NOT_CONFIGURED);
+            return buildErrorResponse(ErrorCode.NOT_CONFIGURED, ERR_TOKEN_NOT_CONFIGURED);
         }
+        return null;
+    }
+
+    @Override
+    public String getId() {
+        return "ghn";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return carrierEnabled;
+    }
+
+    @Override
+    public long getQuoteTimeoutMs() {
+        return quoteTimeoutMs;
     }
 
     /**
-     * Validate monetary values (insurance and COD)
+     * Get shipping services GHN offers between two districts
+     * API: POST /shiip/public-api/v2/shipping-order/available-services
+     * @return List of services or empty list with error logged
      */
-    private void validateMonetaryValues(ShippingRequest request, List<ErrorMessageDTO> errors) {
-        validateMonetaryValue(request.getInsuranceValue(), ErrorMessages.FIELD_INSURANCE_VALUE,
-                ErrorMessages.ERR_INSURANCE_VALUE_NEGATIVE, ErrorMessages.ERR_INSURANCE_VALUE_MAX_EXCEEDED,
-                MAX_INSURANCE_VALUE, errors);
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<CarrierServiceDTO> getAvailableServices(Integer fromDistrictId, Integer toDistrictId) {
+        if (!isTokenConfigured()) {
+            throw new IllegalStateException(ERR_TOKEN_NOT_CONFIGURED);
+        }
+        String url = GhnApiEndpoints.getAvailableServicesUrl(ghtkBaseUrl);
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("shop_id", shopId);
+        addIfNotNull(requestBody, "from_district", fromDistrictId);
+        requestBody.put("to_district", toDistrictId);
 
-        validateMonetaryValue(request.getCodValue(), ErrorMessages.FIELD_COD_VALUE,
-                ErrorMessages.ERR_COD_VALUE_NEGATIVE, ErrorMessages.ERR_COD_VALUE_MAX_EXCEEDED,
-                MAX_COD_VALUE, errors);
+        try {
+            ResponseEntity<Map<String, Object>> response = exchange(url, HttpMethod.POST,
+                    new HttpEntity<>(requestBody, createHeaders()));
+            Map<String, Object> body = response.getBody();
+            if (body != null && parseInteger(body.get("code")) == API_SUCCESS_CODE && body.get("data") != null) {
+                List<CarrierServiceDTO> services = new ArrayList<>();
+                for (Map<String, Object> service : (List<Map<String, Object>>) body.get("data")) {
+                    services.add(CarrierServiceDTO.builder()
+                            .serviceId(parseInteger(service.get("service_id")))
+                            .shortName((String) service.get("short_name"))
+                            .serviceTypeId(parseInteger(service.get("service_type_id")))
+                            .build());
+                }
+                return services;
+            }
+        } catch (DeadlineExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error calling GHN API to get available services: {}", e.getMessage());
+        }
+        return new ArrayList<>();
     }
 
     /**
-     * Validate a single monetary value
+     * Get expected delivery time from GHN
+     * API: POST /shiip/public-api/v2/shipping-order/leadtime (service_id from available-services)
+     * @return epoch seconds, or null if GHN could not tell
      */
-    private void validateMonetaryValue(Integer value, String fieldName, String negativeError,
-                                       String maxExceededError, int maxValue, List<ErrorMessageDTO> errors) {
-        if (value != null) {
-            if (value < 0) {
-                errors.add(new ErrorMessageDTO(fieldName, negativeError));
-            } else if (value > maxValue) {
-                errors.add(new ErrorMessageDTO(fieldName, maxExceededError));
+    @Override
+    public Long getLeadtime(ShippingRequest request) {
+        if (!isTokenConfigured()) {
+            throw new IllegalStateException(ERR_TOKEN_NOT_CONFIGURED);
+        }
+        String url = GhnApiEndpoints.getLeadtimeUrl(ghtkBaseUrl);
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("to_district_id", request.getToDistrictId());
+        requestBody.put("to_ward_code", request.getToWardCode());
+        addIfNotNull(requestBody, "from_district_id", request.getFromDistrictId());
+        addIfNotNull(requestBody, "from_ward_code", request.getFromWardCode());
+        addIfNotNull(requestBody, "service_id", request.getServiceId());
+        addIfNotNull(requestBody, "service_type_id", request.getServiceTypeId());
+
+        try {
+            ResponseEntity<Map<String, Object>> response = exchange(url, HttpMethod.POST,
+                    new HttpEntity<>(requestBody, createHeaders()));
+            Map<String, Object> body = response.getBody();
+            if (body != null && parseInteger(body.get("code")) == API_SUCCESS_CODE && body.get("data") != null) {
+                Object leadtime = ((Map<?, ?>) body.get("data")).get("leadtime");
+                return leadtime instanceof Number ? ((Number) leadtime).longValue() : null;
             }
+        } catch (DeadlineExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            log.warn("Error calling GHN API to get leadtime: {}", e.getMessage());
         }
+        return null;
     }
 
     /**
-     * Validate package dimensions (length, width, height)
+     * Create a GHN shipping order
+     * API: POST /shiip/public-api/v2/shipping-order/create
+     * Unlike the read APIs, errors are not swallowed: the order outbox decides whether to retry.
+     * @return created order
+     * @throws RestClientException on HTTP errors (4xx = rejected, 5xx/I/O = transient)
+     * @throws IllegalStateException if the token is not configured or GHN answers with an error code
      */
-    private void validateDimensions(ShippingRequest request, List<ErrorMessageDTO> errors) {
-        validateDimension(request.getLength(), ErrorMessages.FIELD_LENGTH, errors);
-        validateDimension(request.getWidth(), ErrorMessages.FIELD_WIDTH, errors);
-        validateDimension(request.getHeight(), ErrorMessages.FIELD_HEIGHT, errors);
+    @SuppressWarnings("unchecked")
+    public CreatedOrderDTO createOrder(OrderRequest order) {
+        if (!isTokenConfigured()) {
+            throw new IllegalStateException(ERR_TOKEN_NOT_CONFIGURED);
+        }
+        String url = GhnApiEndpoints.getCreateOrderUrl(ghtkBaseUrl);
+        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(buildCreateOrderBody(order), createHeaders());
+        log.info("Calling GHN API: POST {} for client_order_code {}", url, order.getClientOrderCode());
+
+        ResponseEntity<Map<String, Object>> response = exchange(url, HttpMethod.POST, entity);
+        Map<String, Object> body = response.getBody();
+        if (body == null || parseInteger(body.get("code")) != API_SUCCESS_CODE) {
+            throw new IllegalStateException(body != null ? (String) body.get("message") : ErrorMessages.ERR_API_CALL_FAILED);
+        }
+        return parseCreatedOrder((Map<String, Object>) body.get("data"));
     }
 
     /**
-     * Validate a single dimension value
+     * Look up an order by the shop's client_order_code (used to recover orders that GHN
+     * created although the response was lost)
+     * API: POST /shiip/public-api/v2/shipping-order/detail-by-client-code
+     * @return the order, or null if GHN does not know the code
      */
-    private void validateDimension(Integer value, String fieldName, List<ErrorMessageDTO> errors) {
-        if (value != null) {
-            if (value < 0) {
-                errors.add(new ErrorMessageDTO(fieldName, ErrorMessages.ERR_DIMENSION_NEGATIVE));
-            } else if (value > MAX_DIMENSION_CM) {
-                errors.add(new ErrorMessageDTO(fieldName, ErrorMessages.ERR_DIMENSION_MAX_EXCEEDED));
+    @SuppressWarnings("unchecked")
+    public CreatedOrderDTO findOrderByClientCode(String clientOrderCode) {
+        if (!isTokenConfigured()) {
+            throw new IllegalStateException(ERR_TOKEN_NOT_CONFIGURED);
+        }
+        String url = GhnApiEndpoints.getOrderDetailByClientCodeUrl(ghtkBaseUrl);
+        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(
+                Collections.singletonMap("client_order_code", clientOrderCode), createHeaders());
+        try {
+            ResponseEntity<Map<String, Object>> response = exchange(url, HttpMethod.POST, entity);
+            Map<String, Object> body = response.getBody();
+            if (body != null && parseInteger(body.get("code")) == API_SUCCESS_CODE && body.get("data") != null) {
+                return parseCreatedOrder((Map<String, Object>) body.get("data"));
             }
+        } catch (HttpClientErrorException e) {
+            if (e instanceof HttpClientErrorException.TooManyRequests) {
+                throw e;
+            }
+            log.debug("GHN has no order {}: {}", clientOrderCode, e.getMessage());
         }
+        return null;
     }
 
     /**
-     * Calculate shipping fee via GHN API
-     * API: POST /shiip/public-api/v2/shipping-order/fee
-     * @param request Shipping request with destination and package info
-     * @return Shipping fee calculation result
+     * Get the current status of a GHN order
+     * API: POST /shiip/public-api/v2/shipping-order/detail
+     * @return status fields only (order_code, client_order_code, status, leadtime, updated_date),
+     *         or null if GHN does not know the order
+     * @throws RestClientException on transient HTTP errors (5xx, 429, I/O)
      */
     @SuppressWarnings("unchecked")
-    public ShippingResponse calculateFee(ShippingRequest request) {
-        List<ErrorMessageDTO> errors = validateRequest(request);
-        if (!errors.isEmpty()) {
-            log.warn("Validation failed with {} errors", errors.size());
-            return buildValidationErrorResponse(errors);
-        }
-
+    public OrderTrackingDTO getOrderDetail(String orderCode) {
         if (!isTokenConfigured()) {
-            log.error(ERR_TOKEN_NOT_CONFIGURED);
-            return ShippingResponse.builder()
-                    .success(false)
-                    .message(ERR_TOKEN_NOT_CONFIGURED)
-                    .build();
+            throw new IllegalStateException(ERR_TOKEN_NOT_CONFIGURED);
         }
-
+        String url = GhnApiEndpoints.getOrderDetailUrl(ghtkBaseUrl);
+        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(
+                Collections.singletonMap("order_code", orderCode), createHeaders());
         try {
-            return callGhnFeeApi(request);
-        } catch (Exception e) {
-            log.error("Error calling GHN API to calculate fee: {}", e.getMessage());
-            return ShippingResponse.builder()
-                    .success(false)
-                    .message(ErrorMessages.ERR_API_CALL_FAILED + ": " + e.getMessage())
+            ResponseEntity<Map<String, Object>> response = exchange(url, HttpMethod.POST, entity);
+            Map<String, Object> body = response.getBody();
+            if (body == null || parseInteger(body.get("code")) != API_SUCCESS_CODE || body.get("data") == null) {
+                return null;
+            }
+            Map<String, Object> data = (Map<String, Object>) body.get("data");
+            return OrderTrackingDTO.builder()
+                    .orderCode((String) data.get("order_code"))
+                    .clientOrderCode((String) data.get("client_order_code"))
+                    .status((String) data.get("status"))
+                    .leadtime(data.get("leadtime") != null ? String.valueOf(data.get("leadtime")) : null)
+                    .updatedDate(data.get("updated_date") != null ? String.valueOf(data.get("updated_date")) : null)
                     .build();
+        } catch (HttpClientErrorException e) {
+            if (e instanceof HttpClientErrorException.TooManyRequests) {
+                throw e;
+            }
+            log.debug("GHN has no order {}: {}", orderCode, e.getMessage());
+            return null;
         }
     }
 
+    /**
+     * Build request body for GHN create order API
+     */
+    private Map<String, Object> buildCreateOrderBody(OrderRequest order) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("client_order_code", order.getClientOrderCode());
+        body.put("to_name", order.getToName());
+        body.put("to_phone", order.getToPhone());
+        body.put("to_address", order.getToAddress());
+        body.put("to_ward_code", order.getToWardCode());
+        body.put("to_district_id", order.getToDistrictId());
+        body.put("service_type_id", order.getServiceTypeId() != null ? order.getServiceTypeId() : 2);
+        body.put("payment_type_id", order.getPaymentTypeId() != null ? order.getPaymentTypeId() : 1);
+        body.put("required_note", order.getRequiredNote() != null ? order.getRequiredNote() : "KHONGCHOXEMHANG");
+        body.put("weight", order.getWeight());
+
+        // Optional fields
+        if (order.getNote() != null) body.put("note", order.getNote());
+        if (order.getContent() != null) body.put("content", order.getContent());
+        if (order.getLength() != null) body.put("length", order.getLength());
+        if (order.getWidth() != null) body.put("width", order.getWidth());
+        if (order.getHeight() != null) body.put("height", order.getHeight());
+        if (order.getCodAmount() != null) body.put("cod_amount", order.getCodAmount());
+        if (order.getInsuranceValue() != null) body.put("insurance_value", order.getInsuranceValue());
+        if (order.getItems() != null) {
+            List<Map<String, Object>> items = new ArrayList<>();
+            for (OrderItemDTO item : order.getItems()) {
+                Map<String, Object> map = new HashMap<>();
+                map.put("name", item.getName());
+                map.put("quantity", item.getQuantity() != null ? item.getQuantity() : 1);
+                if (item.getCode() != null) map.put("code", item.getCode());
+                if (item.getPrice() != null) map.put("price", item.getPrice());
+                if (item.getWeight() != null) map.put("weight", item.getWeight());
+                items.add(map);
+            }
+            body.put("items", items);
+        }
+        return body;
+    }
+
+    private CreatedOrderDTO parseCreatedOrder(Map<String, Object> data) {
+        if (data == null) {
+            throw new IllegalStateException(ErrorMessages.ERR_API_CALL_FAILED);
+        }
+        Object expected = data.get("expected_delivery_time");
+        return CreatedOrderDTO.builder()
+                .orderCode((String) data.get("order_code"))
+                .totalFee(parseInteger(data.get("total_fee")))
+                .expectedDeliveryTime(expected != null ? String.valueOf(expected) : null)
+                .build();
+    }
+
     /**
      * Build validation error response
      */
@@ -383,10 +643,104 @@ public class GhtkService {
         return ShippingResponse.builder()
                 .success(false)
                 .message(ErrorMessages.ERR_VALIDATION_FAILED)
+                .errorCode(ErrorCode.VALIDATION_FAILED)
+                .retryable(false)
                 .errors(errors)
                 .build();
     }
 
+    /**
+     * Build failed fee response with a machine-readable code
+     */
+    private ShippingResponse buildErrorResponse(ErrorCode errorCode, String message) {
+        return ShippingResponse.builder()
+                .success(false)
+                .message(message)
+                .errorCode(errorCode)
+                .retryable(errorCode.isRetryable())
+                .build();
+    }
+
+    /**
+     * Classify a failed GHN call and remember permanent rejections under the given scope.
+     * Permanent errors carry GHN's own message; transient ones keep the generic one.
+     */
+    private GhnApiException failure(String scope, Object key, Exception e) {
+        if (!(e instanceof HttpStatusCodeException)) {
+            return new GhnApiException(ErrorCode.UPSTREAM_UNAVAILABLE,
+                    ErrorMessages.ERR_API_CALL_FAILED + ": " + e.getMessage(), e);
+        }
+        HttpStatusCodeException statusError = (HttpStatusCodeException) e;
+        Map<?, ?> body = errorBody(statusError);
+        String ghnMessage = body.get("message") != null ? String.valueOf(body.get("message")) : statusError.getStatusText();
+        ErrorCode errorCode = classify(statusError.getStatusCode().value(), ghnMessage, body.get("code_message"));
+        if (errorCode.isRetryable()) {
+            return new GhnApiException(errorCode, ErrorMessages.ERR_API_CALL_FAILED + ": " + e.getMessage(), e);
+        }
+        return rejected(scope, key, errorCode, ghnMessage, e);
+    }
+
+    /**
+     * Same as {@link #failure} for a 200 response whose envelope carries a GHN error code
+     * (or no usable envelope at all, which counts as an upstream failure)
+     */
+    private GhnApiException rejection(String scope, Object key, Map<String, Object> body) {
+        Integer code = envelopeCode(body);
+        if (code == null) {
+            return new GhnApiException(ErrorCode.UPSTREAM_UNAVAILABLE, ErrorMessages.ERR_API_CALL_FAILED);
+        }
+        String ghnMessage = body.get("message") != null ? String.valueOf(body.get("message")) : ErrorMessages.ERR_API_CALL_FAILED;
+        ErrorCode errorCode = classify(code, ghnMessage, body.get("code_message"));
+        if (errorCode.isRetryable()) {
+            return new GhnApiException(errorCode, ErrorMessages.ERR_API_CALL_FAILED + ": " + ghnMessage);
+        }
+        return rejected(scope, key, errorCode, ghnMessage, null);
+    }
+
+    private GhnApiException rejected(String scope, Object key, ErrorCode errorCode, String ghnMessage, Exception cause) {
+        if (scope != null) {
+            negativeCache.put(scope, key, errorCode, ghnMessage);
+        }
+        return new GhnApiException(errorCode, ghnMessage, cause);
+    }
+
+    /**
+     * Map a GHN error (HTTP status or envelope code, message, code_message) to an {@link ErrorCode}.
+     * GHN uses 400 for every kind of rejection, so the message decides route vs. address.
+     */
+    static ErrorCode classify(int status, String message, Object codeMessage) {
+        if (status == 429) {
+            return ErrorCode.RATE_LIMITED;
+        }
+        if (status >= 500) {
+            return ErrorCode.UPSTREAM_UNAVAILABLE;
+        }
+        if (status == 401 || status == 403) {
+            return ErrorCode.NOT_CONFIGURED;
+        }
+        String text = ((message != null ? message : "") + " " + (codeMessage != null ? codeMessage : ""))
+                .toLowerCase(Locale.ROOT);
+        if (text.contains("route")) {
+            return ErrorCode.ROUTE_NOT_SERVED;
+        }
+        if (text.contains("district") || text.contains("ward") || text.contains("province")) {
+            return ErrorCode.INVALID_ADDRESS;
+        }
+        return ErrorCode.REJECTED_BY_CARRIER;
+    }
+
+    /**
+     * GHN's JSON error envelope, or an empty map if the body is not JSON
+     */
+    private Map<?, ?> errorBody(HttpStatusCodeException e) {
+        try {
+            Map<?, ?> body = e.getResponseBodyAs(Map.class);
+            return body != null ? body : Collections.emptyMap();
+        } catch (RuntimeException ignored) {
+            return Collections.emptyMap();
+        }
+    }
+
     /**
      * Call GHN API to calculate shipping fee
      */
@@ -398,28 +752,104 @@ public class GhtkService {
         log.info("Calling GHN API: POST {} with body: {}", url, requestBody);
 
         HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, createHeaders());
-        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                url, HttpMethod.POST, entity, (Class<Map<String, Object>>) (Class<?>) Map.class);
+        ResponseEntity<Map<String, Object>> response = exchange(url, HttpMethod.POST, entity);
 
         if (response.getBody() != null) {
             Map<String, Object> body = response.getBody();
-            Integer code = parseInteger(body.get("code"));
+            Integer code = envelopeCode(body);
 
-            if (code != null && code == API_SUCCESS_CODE) {
+            if (code == null) {
+                return buildErrorResponse(ErrorCode.UPSTREAM_UNAVAILABLE, ErrorMessages.ERR_API_CALL_FAILED);
+            } else if (code == API_SUCCESS_CODE) {
                 Map<String, Object> data = (Map<String, Object>) body.get("data");
                 return buildSuccessResponse(data);
             } else {
-                return ShippingResponse.builder()
-                        .success(false)
-                        .message((String) body.get("message"))
-                        .build();
+                String message = (String) body.get("message");
+                return buildErrorResponse(classify(code, message, body.get("code_message")), message);
             }
         }
 
-        return ShippingResponse.builder()
-                .success(false)
-                .message(ErrorMessages.ERR_API_CALL_FAILED)
-                .build();
+        return buildErrorResponse(ErrorCode.UPSTREAM_UNAVAILABLE, ErrorMessages.ERR_API_CALL_FAILED);
+    }
+
+    /**
+     * Call GHN with retries for transient failures, honouring the current request deadline.
+     * A retry is only attempted if the remaining budget can fit another attempt as slow as the last one.
+     * @throws DeadlineExceededException if the deadline passed or the client went away
+     */
+    @SuppressWarnings("unchecked")
+    private ResponseEntity<Map<String, Object>> exchange(String url, HttpMethod method, HttpEntity<?> entity) {
+        Deadline deadline = DeadlineContext.current();
+        int attempt = 0;
+        while (true) {
+            if (deadline != null) {
+                deadline.check(method + " " + url);
+            }
+            long started = System.nanoTime();
+            GhnCallEvent event = GhnCallEvent.start(method.name(), attempt);
+            Span span = Span.start("ghn " + url.substring(url.lastIndexOf('/') + 1).split("\\?")[0], Span.Kind.CLIENT)
+                    .attribute("http.method", method.name())
+                    .attribute("http.url", url)
+                    .attribute("attempt", attempt);
+            long backoff;
+            try {
+                ResponseEntity<Map<String, Object>> response =
+                        restTemplate.exchange(url, method, entity, (Class<Map<String, Object>>) (Class<?>) Map.class);
+                HttpClientTracing.recordPhases(span);
+                Map<String, Object> body = response.getBody();
+                event.finish(url, response.getStatusCode().value(), body != null ? body.get("code") : null, "ok");
+                span.attribute("http.status_code", response.getStatusCode().value())
+                        .attribute("ghn.code", body != null ? body.get("code") : null);
+                return response;
+            } catch (RestClientException e) {
+                HttpClientTracing.recordPhases(span);
+                span.error(e.getMessage());
+                if (deadline != null && deadline.isExpired()) {
+                    event.finish(url, 0, null, "deadline");
+                    throw new DeadlineExceededException(method + " " + url);
+                }
+                if (e instanceof HttpStatusCodeException statusError) {
+                    event.finish(url, statusError.getStatusCode().value(), null, "http_error");
+                    span.attribute("http.status_code", statusError.getStatusCode().value());
+                } else {
+                    event.finish(url, 0, null, "io_error");
+                }
+                long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+                if (attempt >= maxRetries || !isTransient(e)) {
+                    throw e;
+                }
+                backoff = retryBackoffMs * (attempt + 1);
+                if (deadline != null && deadline.remainingMillis() < elapsedMs + backoff) {
+                    log.debug("Skipping retry of {} {}: {}ms left, last attempt took {}ms",
+                            method, url, deadline.remainingMillis(), elapsedMs);
+                    throw e;
+                }
+                attempt++;
+                log.warn("Transient GHN failure on {} {} ({}), retry {}/{}", method, url, e.getMessage(), attempt, maxRetries);
+            } finally {
+                span.close();
+            }
+            // Back off outside the attempt's span, so its duration is the call alone
+            sleep(backoff);
+        }
+    }
+
+    /**
+     * I/O errors, 5xx and 429 are worth retrying; other 4xx are not
+     */
+    private boolean isTransient(RestClientException e) {
+        return e instanceof ResourceAccessException
+                || e instanceof HttpServerErrorException
+                || e instanceof HttpClientErrorException.TooManyRequests;
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException("retry");
+        }
     }
 
     /**
@@ -485,6 +915,25 @@ public class GhtkService {
                 .build();
     }
 
+    /**
+     * GHN envelope code, null if the body has none or it is not a number (unlike parseInteger,
+     * which would turn both into 0 and make an unreadable answer look like a rejection)
+     */
+    private Integer envelopeCode(Map<String, Object> body) {
+        Object code = body != null ? body.get("code") : null;
+        if (code instanceof Number) {
+            return ((Number) code).intValue();
+        }
+        if (code instanceof String) {
+            try {
+                return Integer.parseInt(((String) code).trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
     /**
      * Helper: Parse Integer from Object
      */
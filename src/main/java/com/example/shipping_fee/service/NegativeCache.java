@@ -0,0 +1,126 @@
+package com.example.shipping_fee.service;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.shipping_fee.constant.ErrorCode;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Short-lived cache of permanent GHN rejections ("route not found", unknown district),
+ * so hopeless requests are answered without another round trip.
+ *
+ * Only codes that are {@link ErrorCode#isNegativelyCacheable()} are stored. Keys are scoped
+ * (fee, wards, ...) so one instance serves every endpoint. The TTL is kept short because
+ * GHN may start serving a route at any time. A TTL of 0 disables the cache.
+ */
+@Component
+public class NegativeCache {
+
+    public static final String SCOPE_FEE = "fee";
+    public static final String SCOPE_DISTRICTS = "districts";
+    public static final String SCOPE_WARDS = "wards";
+
+    private final Map<List<Object>, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public NegativeCache(@Value("${shipping.negative-cache.ttl-seconds:60}") long ttlSeconds,
+                         @Value("${shipping.negative-cache.max-entries:10000}") int maxEntries,
+                         MeterRegistry meterRegistry) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("shipping.negative.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Cache that stores nothing, for services built outside Spring
+     */
+    public static NegativeCache disabled() {
+        return new NegativeCache(0, 0, new SimpleMeterRegistry());
+    }
+
+    public boolean isEnabled() {
+        return ttlNanos > 0 && maxEntries > 0;
+    }
+
+    /**
+     * @return the cached rejection, or null if none or expired
+     */
+    public Rejection get(String scope, Object key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        List<Object> cacheKey = List.of(scope, key);
+        Entry entry = entries.get(cacheKey);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(cacheKey, entry);
+            return null;
+        }
+        meterRegistry.counter("shipping.negative.cache", "scope", scope, "result", "hit").increment();
+        return entry.rejection;
+    }
+
+    /**
+     * Remember a rejection; ignored for codes that may succeed on retry
+     */
+    public void put(String scope, Object key, ErrorCode errorCode, String message) {
+        if (!isEnabled() || !errorCode.isNegativelyCacheable()) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            purgeExpired();
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(List.of(scope, key), new Entry(new Rejection(errorCode, message), System.nanoTime() + ttlNanos));
+        meterRegistry.counter("shipping.negative.cache", "scope", scope, "result", "stored").increment();
+    }
+
+    private void purgeExpired() {
+        long now = System.nanoTime();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isExpired(now)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * A permanent GHN error as returned to clients
+     */
+    public record Rejection(ErrorCode errorCode, String message) {
+    }
+
+    private static final class Entry {
+        final Rejection rejection;
+        final long expiresAt;
+
+        Entry(Rejection rejection, long expiresAt) {
+            this.rejection = rejection;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.shipping_fee.service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.shipping_fee.dto.ShippingResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * In-memory cache of successful fee quotes, keyed by {@link QuoteKey}.
+ *
+ * Entries expire after a TTL (GHN prices change rarely within minutes). When full, expired
+ * entries are purged first; if still full the new quote is simply not cached.
+ * A TTL of 0 disables the cache.
+ */
+@Component
+public class QuoteCache {
+
+    private final Map<QuoteKey, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public QuoteCache(@Value("${shipping.quote-cache.ttl-seconds:300}") long ttlSeconds,
+                      @Value("${shipping.quote-cache.max-entries:10000}") int maxEntries,
+                      MeterRegistry meterRegistry) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("shipping.quote.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("shipping.quote.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("shipping.quote.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Cache that stores nothing, for services built outside Spring
+     */
+    public static QuoteCache disabled() {
+        return new QuoteCache(0, 0, new SimpleMeterRegistry());
+    }
+
+    public boolean isEnabled() {
+        return ttlNanos > 0 && maxEntries > 0;
+    }
+
+    /**
+     * @return cached quote, or null if absent or expired
+     */
+    public ShippingResponse get(QuoteKey key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null || entry.isExpired(System.nanoTime())) {
+            if (entry != null) {
+                entries.remove(key, entry);
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.response;
+    }
+
+    /**
+     * Check presence without counting a hit or miss (used by speculation to skip known quotes)
+     */
+    public boolean contains(QuoteKey key) {
+        Entry entry = entries.get(key);
+        return entry != null && !entry.isExpired(System.nanoTime());
+    }
+
+    public void put(QuoteKey key, ShippingResponse response) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            purgeExpired();
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(key, new Entry(response, System.nanoTime() + ttlNanos));
+    }
+
+    private void purgeExpired() {
+        long now = System.nanoTime();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isExpired(now)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+        final ShippingResponse response;
+        final long expiresAt;
+
+        Entry(ShippingResponse response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
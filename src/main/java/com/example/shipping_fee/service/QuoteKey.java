@@ -0,0 +1,42 @@
+package com.example.shipping_fee.service;
+
+import com.example.shipping_fee.dto.ShippingRequest;
+
+/**
+ * Immutable cache key for a fee quote: every request field that can change the GHN price.
+ * ShippingRequest itself is mutable, so it is never used as a key directly.
+ */
+public record QuoteKey(
+        Integer fromDistrictId,
+        String fromWardCode,
+        Integer toDistrictId,
+        String toWardCode,
+        Integer serviceId,
+        Integer serviceTypeId,
+        Integer weight,
+        Integer length,
+        Integer width,
+        Integer height,
+        Integer insuranceValue,
+        Integer codValue,
+        Integer codFailedAmount,
+        String coupon) {
+
+    public static QuoteKey of(ShippingRequest request) {
+        return new QuoteKey(
+                request.getFromDistrictId(),
+                request.getFromWardCode(),
+                request.getToDistrictId(),
+                request.getToWardCode() != null ? request.getToWardCode().trim() : null,
+                request.getServiceId(),
+                request.getServiceTypeId(),
+                request.getWeight(),
+                request.getLength(),
+                request.getWidth(),
+                request.getHeight(),
+                request.getInsuranceValue(),
+                request.getCodValue(),
+                request.getCodFailedAmount(),
+                request.getCoupon());
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.shipping_fee.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import com.example.shipping_fee.constant.ErrorCode;
+import com.example.shipping_fee.constant.ErrorMessages;
+import com.example.shipping_fee.deadline.Deadline;
+import com.example.shipping_fee.deadline.DeadlineContext;
+import com.example.shipping_fee.deadline.DeadlineExceededException;
+import com.example.shipping_fee.dto.QuoteStreamItemDTO;
+import com.example.shipping_fee.dto.ShippingRequest;
+import com.example.shipping_fee.dto.ShippingResponse;
+
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Streams fee quotes for a stream of requests (POST /calculate/stream).
+ *
+ * Requests are read one at a time (NDJSON or a JSON array) and quoted concurrently; each
+ * result is written as soon as it completes. At most {@code window} quotes are in flight or
+ * waiting to be written: a slot is only freed after its result has been written and flushed,
+ * so a slow client stops further reads and GHN calls instead of growing a buffer.
+ *
+ * Everything except the GHN calls runs on the calling (response-writing) thread.
+ */
+@Service
+@Slf4j
+public class QuoteStreamService {
+
+    public enum Format {
+        NDJSON, SSE
+    }
+
+    private final GhtkService ghtkService;
+    private final TaskExecutor executor;
+    private final ObjectMapper objectMapper;
+    private final int window;
+    private final int maxItems;
+
+    @Autowired
+    public QuoteStreamService(GhtkService ghtkService,
+                              @Qualifier("quoteExecutor") TaskExecutor executor,
+                              ObjectMapper objectMapper,
+                              @Value("${shipping.batch.max-in-flight:8}") int window,
+                              @Value("${shipping.batch.max-items:1000}") int maxItems) {
+        this.ghtkService = ghtkService;
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+        this.window = window;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Quote every request from {@code in} and write results to {@code out}
+     * @param deadlines budget for each item, started when the item is submitted
+     * @return number of results written
+     * @throws IOException if the client went away (in-flight GHN calls are cancelled)
+     */
+    public int stream(InputStream in, OutputStream out, Format format, Supplier<Deadline> deadlines)
+            throws IOException {
+        BlockingQueue<QuoteStreamItemDTO> completed = new LinkedBlockingQueue<>();
+        Map<Integer, Deadline> inFlight = new ConcurrentHashMap<>();
+        int submitted = 0;
+        int written = 0;
+        String stopReason = null;
+
+        try {
+            try (MappingIterator<ShippingRequest> requests = objectMapper.readerFor(ShippingRequest.class).readValues(in)) {
+                while (requests.hasNextValue()) {
+                    if (submitted == maxItems) {
+                        stopReason = ErrorMessages.ERR_BATCH_TOO_LARGE + " (" + maxItems + ")";
+                        break;
+                    }
+                    // Window full: wait for a result and write it before reading further
+                    while (submitted - written >= window) {
+                        written += write(out, format, take(completed));
+                    }
+                    submit(submitted, requests.next(), deadlines.get(), completed, inFlight);
+                    submitted++;
+                }
+            } catch (JacksonException e) {
+                log.warn("Invalid item in quote stream after {} requests: {}", submitted, e.getOriginalMessage());
+                stopReason = ErrorMessages.ERR_BATCH_INVALID_ITEM;
+            }
+
+            while (written < submitted) {
+                written += write(out, format, take(completed));
+            }
+            if (stopReason != null) {
+                written += write(out, format, errorItem(submitted, stopReason));
+            }
+            if (format == Format.SSE) {
+                out.write(("event: done\ndata: " + written + "\n\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+            return written;
+        } catch (IOException | RuntimeException e) {
+            // Client went away: stop paying for quotes nobody will read
+            cancelAll(inFlight);
+            throw e;
+        }
+    }
+
+    private void submit(int index, ShippingRequest request, Deadline deadline,
+                        BlockingQueue<QuoteStreamItemDTO> completed, Map<Integer, Deadline> inFlight) {
+        inFlight.put(index, deadline);
+        Runnable quote = () -> {
+            ShippingResponse result;
+            try {
+                result = DeadlineContext.callWith(deadline, () -> ghtkService.calculateFee(request));
+            } catch (DeadlineExceededException e) {
+                result = failed(ErrorCode.DEADLINE_EXCEEDED, ErrorMessages.ERR_DEADLINE_EXCEEDED);
+            } catch (GhnApiException e) {
+                result = failed(e.getErrorCode(), e.getMessage());
+            } catch (RuntimeException e) {
+                result = failed(ErrorCode.UPSTREAM_UNAVAILABLE, ErrorMessages.ERR_API_CALL_FAILED + ": " + e.getMessage());
+            }
+            inFlight.remove(index);
+            completed.add(new QuoteStreamItemDTO(index, result));
+        };
+        try {
+            executor.execute(quote);
+        } catch (TaskRejectedException e) {
+            // Executor saturated: quote inline, which also slows down reading
+            quote.run();
+        }
+    }
+
+    private QuoteStreamItemDTO take(BlockingQueue<QuoteStreamItemDTO> completed) throws IOException {
+        try {
+            return completed.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for quotes", e);
+        }
+    }
+
+    private int write(OutputStream out, Format format, QuoteStreamItemDTO item) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(item);
+        if (format == Format.SSE) {
+            out.write(("id: " + item.getIndex() + "\nevent: quote\ndata: ").getBytes(StandardCharsets.UTF_8));
+            out.write(json);
+            out.write("\n\n".getBytes(StandardCharsets.UTF_8));
+        } else {
+            out.write(json);
+            out.write('\n');
+        }
+        out.flush();
+        return 1;
+    }
+
+    private QuoteStreamItemDTO errorItem(int index, String message) {
+        return new QuoteStreamItemDTO(index, failed(ErrorCode.VALIDATION_FAILED, message));
+    }
+
+    /**
+     * Failed result carrying the same error code and retry hint /calculate would return
+     */
+    private ShippingResponse failed(ErrorCode errorCode, String message) {
+        return ShippingResponse.builder()
+                .success(false)
+                .message(message)
+                .errorCode(errorCode)
+                .retryable(errorCode.isRetryable())
+                .build();
+    }
+
+    private void cancelAll(Map<Integer, Deadline> inFlight) {
+        for (Deadline deadline : inFlight.values()) {
+            deadline.cancel();
+        }
+    }
+}
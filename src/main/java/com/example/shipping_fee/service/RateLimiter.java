@@ -0,0 +1,46 @@
+package com.example.shipping_fee.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free non-blocking rate limiter (GCRA / virtual scheduling).
+ * Allows {@code permitsPerSecond} on average with bursts of up to {@code burst} permits.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+
+    public RateLimiter(double permitsPerSecond, int burst) {
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstNanos = intervalNanos * Math.max(1, burst);
+    }
+
+    /**
+     * Take one permit if available, never blocks
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrival.get();
+            long newTat = Math.max(tat, now) + intervalNanos;
+            if (newTat - now > burstNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Nanoseconds until the next permit is available (0 if available now)
+     */
+    public long nanosUntilNextPermit() {
+        long now = System.nanoTime();
+        long newTat = Math.max(theoreticalArrival.get(), now) + intervalNanos;
+        return Math.max(0, newTat - now - burstNanos);
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.shipping_fee.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.example.shipping_fee.admission.AdmissionController;
+import com.example.shipping_fee.admission.RequestPriority;
+import com.example.shipping_fee.deadline.Deadline;
+import com.example.shipping_fee.deadline.DeadlineContext;
+import com.example.shipping_fee.dto.QuoteHintRequest;
+import com.example.shipping_fee.dto.ShippingRequest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Speculative pre-quoting (opt-in, shipping.speculation.enabled).
+ *
+ * When the user picks a delivery ward, the client sends a hint with its cart; the likely
+ * /calculate requests (one per service type) are quoted in the background and land in
+ * {@link QuoteCache}, so the real /calculate answers from memory.
+ *
+ * Speculation never competes with real traffic:
+ * - a global rate limit and a small dedicated executor bound upstream calls
+ * - nothing is started while checkout traffic is queueing or above the load threshold
+ * - each speculative call has its own short deadline
+ * - a new hint from the same client cancels that client's previous speculation
+ */
+@Service
+@Slf4j
+public class SpeculativeQuoteService {
+
+    private static final int DEFAULT_SERVICE_TYPE = 2;
+
+    private final GhtkService ghtkService;
+    private final QuoteCache quoteCache;
+    private final AdmissionController admissionController;
+    private final ThreadPoolTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final RateLimiter rateLimiter;
+    private final Map<String, Batch> inFlightByClient = new ConcurrentHashMap<>();
+
+    @Value("${shipping.speculation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${shipping.speculation.budget-ms:2000}")
+    private long budgetMs;
+
+    // Skip speculation when in-flight requests exceed this share of admission capacity
+    @Value("${shipping.speculation.max-load-ratio:0.5}")
+    private double maxLoadRatio;
+
+    @Value("${shipping.speculation.max-service-types:3}")
+    private int maxServiceTypes;
+
+    public SpeculativeQuoteService(GhtkService ghtkService,
+                                   QuoteCache quoteCache,
+                                   AdmissionController admissionController,
+                                   @Qualifier("speculationExecutor") ThreadPoolTaskExecutor executor,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${shipping.speculation.max-per-second:5}") double maxPerSecond) {
+        this.ghtkService = ghtkService;
+        this.quoteCache = quoteCache;
+        this.admissionController = admissionController;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.rateLimiter = new RateLimiter(maxPerSecond, (int) Math.ceil(maxPerSecond));
+    }
+
+    public boolean isEnabled() {
+        return enabled && quoteCache.isEnabled();
+    }
+
+    /**
+     * Schedule speculative quotes for a hint
+     * @param clientId caller identity, used to cancel superseded speculation
+     * @return number of quotes scheduled
+     */
+    public int hint(String clientId, QuoteHintRequest hint) {
+        if (!isEnabled()) {
+            return 0;
+        }
+        // Register before submitting so finished tasks always find their batch, replacing
+        // (and cancelling) the client's previous speculation in one step
+        Batch batch = new Batch();
+        cancelAll(inFlightByClient.put(clientId, batch));
+        try {
+            return schedule(clientId, hint, batch);
+        } finally {
+            batch.scheduling = false;
+            release(clientId, batch);
+        }
+    }
+
+    private int schedule(String clientId, QuoteHintRequest hint, Batch batch) {
+        if (isUnderPressure()) {
+            count("skipped_load");
+            return 0;
+        }
+
+        int scheduled = 0;
+        for (ShippingRequest request : expand(hint)) {
+            if (!ghtkService.validateRequest(request).isEmpty()) {
+                count("skipped_invalid");
+                continue;
+            }
+            if (quoteCache.contains(QuoteKey.of(request))) {
+                count("skipped_cached");
+                continue;
+            }
+            if (!rateLimiter.tryAcquire()) {
+                count("skipped_budget");
+                break;
+            }
+
+            Speculation speculation = new Speculation(Deadline.after(Duration.ofMillis(budgetMs)), batch);
+            batch.speculations.add(speculation);
+            try {
+                speculation.future = executor.submit(() -> run(clientId, request, speculation));
+                scheduled++;
+                count("scheduled");
+            } catch (TaskRejectedException e) {
+                batch.speculations.remove(speculation);
+                count("skipped_queue_full");
+                break;
+            }
+        }
+
+        log.debug("Scheduled {} speculative quotes for client {}", scheduled, clientId);
+        return scheduled;
+    }
+
+    /**
+     * Cancel a client's pending speculation (aborts in-flight GHN calls)
+     */
+    public void cancel(String clientId) {
+        cancelAll(inFlightByClient.remove(clientId));
+    }
+
+    /**
+     * Clients with speculation still registered (tests)
+     */
+    int getTrackedClients() {
+        return inFlightByClient.size();
+    }
+
+    private void cancelAll(Batch batch) {
+        if (batch == null) {
+            return;
+        }
+        for (Speculation speculation : batch.speculations) {
+            speculation.deadline.cancel();
+            if (speculation.future != null) {
+                speculation.future.cancel(true);
+            }
+            count("cancelled");
+        }
+    }
+
+    /**
+     * Drop the client's entry once its batch is fully scheduled and every task has finished.
+     * Only this batch is removed, never one that replaced it.
+     */
+    private void release(String clientId, Batch batch) {
+        inFlightByClient.computeIfPresent(clientId, (key, current) ->
+                current == batch && !batch.scheduling && batch.speculations.isEmpty() ? null : current);
+    }
+
+    private void run(String clientId, ShippingRequest request, Speculation speculation) {
+        try {
+            if (speculation.deadline.isExpired() || isUnderPressure()) {
+                count("skipped_load");
+                return;
+            }
+            DeadlineContext.callWith(speculation.deadline, () -> ghtkService.calculateFee(request));
+            count("completed");
+        } catch (RuntimeException e) {
+            log.debug("Speculative quote failed: {}", e.getMessage());
+            count("failed");
+        } finally {
+            speculation.batch.speculations.remove(speculation);
+            release(clientId, speculation.batch);
+        }
+    }
+
+    /**
+     * Real checkout traffic is queueing or close to capacity
+     */
+    private boolean isUnderPressure() {
+        return admissionController.isDropping(RequestPriority.CHECKOUT_QUOTE)
+                || admissionController.getInFlight() >= admissionController.getMaxConcurrent() * maxLoadRatio;
+    }
+
+    /**
+     * One /calculate request per hinted service type, as the checkout page will send it
+     */
+    private List<ShippingRequest> expand(QuoteHintRequest hint) {
+        List<Integer> serviceTypes = hint.getServiceTypeIds() == null || hint.getServiceTypeIds().isEmpty()
+                ? Collections.singletonList(DEFAULT_SERVICE_TYPE)
+                : hint.getServiceTypeIds();
+
+        List<ShippingRequest> requests = new ArrayList<>();
+        for (Integer serviceType : serviceTypes.subList(0, Math.min(serviceTypes.size(), maxServiceTypes))) {
+            requests.add(ShippingRequest.builder()
+                    .fromDistrictId(hint.getFromDistrictId())
+                    .fromWardCode(hint.getFromWardCode())
+                    .toDistrictId(hint.getToDistrictId())
+                    .toWardCode(hint.getToWardCode())
+                    .serviceTypeId(serviceType)
+                    .weight(hint.getWeight())
+                    .length(hint.getLength())
+                    .width(hint.getWidth())
+                    .height(hint.getHeight())
+                    .insuranceValue(hint.getInsuranceValue())
+                    .codValue(hint.getCodValue())
+                    .build());
+        }
+        return requests;
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("shipping.speculation", "outcome", outcome).increment();
+    }
+
+    private static final class Speculation {
+        final Deadline deadline;
+        final Batch batch;
+        volatile Future<?> future;
+
+        Speculation(Deadline deadline, Batch batch) {
+            this.deadline = deadline;
+            this.batch = batch;
+        }
+    }
+
+    /**
+     * Speculation of one hint; kept registered while hint() is still submitting
+     */
+    private static final class Batch {
+        final Set<Speculation> speculations = ConcurrentHashMap.newKeySet();
+        volatile boolean scheduling = true;
+    }
+}
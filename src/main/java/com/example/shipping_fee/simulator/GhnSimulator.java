@@ -0,0 +1,483 @@
+package com.example.shipping_fee.simulator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.example.shipping_fee.constant.GhnApiEndpoints;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Embeddable GHN API simulator for offline performance work.
+ *
+ * Serves the endpoints declared in {@link GhnApiEndpoints} (province, district, ward, fee,
+ * available-services, leadtime) from {@link GhnSyntheticData}, using the same JSON envelope as GHN:
+ * {@code {"code": 200, "message": "Success", "data": ...}}.
+ * Orders (create, detail, detail-by-client-code) are kept in memory; like GHN, a repeated
+ * client_order_code is rejected with HTTP 400 (or HTTP 200 carrying code 400, see
+ * {@link GhnSimulatorSettings#isEnvelopeErrors()}). An order's status moves one step through
+ * {@link #ORDER_STATUSES} every {@link #ORDER_STATUS_STEP_MS}, ending at delivered.
+ *
+ * Fault injection (per request, in this order):
+ * - rate limit / throttle rate : HTTP 429
+ * - timeout rate               : hang for timeoutMs, then HTTP 504
+ * - error rate                 : HTTP 500
+ * - malformed rate             : HTTP 200 without the GHN envelope
+ * - latency                    : sleep a sample from the endpoint's {@link LatencySpec}
+ *
+ * Usage:
+ * <pre>
+ * GhnSimulator simulator = new GhnSimulator(GhnSimulatorSettings.builder().build());
+ * simulator.start();
+ * String baseUrl = simulator.getBaseUrl(); // use as ghtk.api.base-url
+ * ...
+ * simulator.stop();
+ * </pre>
+ */
+@Slf4j
+public class GhnSimulator {
+
+    // Endpoint names used for latency settings and request counters
+    public static final String ENDPOINT_PROVINCE = "province";
+    public static final String ENDPOINT_DISTRICT = "district";
+    public static final String ENDPOINT_WARD = "ward";
+    public static final String ENDPOINT_FEE = "fee";
+    public static final String ENDPOINT_AVAILABLE_SERVICES = "available-services";
+    public static final String ENDPOINT_LEADTIME = "leadtime";
+    public static final String ENDPOINT_CREATE_ORDER = "create-order";
+    public static final String ENDPOINT_ORDER_DETAIL = "order-detail";
+    public static final String ENDPOINT_ORDER_DETAIL_BY_CLIENT_CODE = "order-detail-by-client-code";
+
+    // Simulated order lifecycle
+    public static final List<String> ORDER_STATUSES = List.of("ready_to_pick", "picking", "picked", "storing",
+            "transporting", "sorting", "delivering", "delivered");
+    public static final long ORDER_STATUS_STEP_MS = 15_000;
+
+    private static final int GHN_SUCCESS = 200;
+
+    private final GhnSimulatorSettings settings;
+    private final GhnSyntheticData data;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private final AtomicLong requestSequence = new AtomicLong();
+    private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+    private final Map<String, String> lastTraceParents = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Object>> ordersByClientCode = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Object>> ordersByCode = new ConcurrentHashMap<>();
+    private final AtomicLong orderSequence = new AtomicLong();
+
+    // Fixed one-second window for maxRequestsPerSecond
+    private final AtomicLong windowStartMs = new AtomicLong();
+    private final AtomicInteger windowCount = new AtomicInteger();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public GhnSimulator(GhnSimulatorSettings settings) {
+        this.settings = settings;
+        this.data = new GhnSyntheticData(settings);
+    }
+
+    /**
+     * Start listening. Safe to call once.
+     */
+    public synchronized void start() {
+        if (server != null) {
+            return;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", settings.getPort()), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot start GHN simulator on port " + settings.getPort(), e);
+        }
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(settings.getWorkerThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "ghn-sim-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+
+        register(GhnApiEndpoints.PROVINCE, ENDPOINT_PROVINCE);
+        register(GhnApiEndpoints.DISTRICT, ENDPOINT_DISTRICT);
+        register(GhnApiEndpoints.WARD, ENDPOINT_WARD);
+        register(GhnApiEndpoints.CALCULATE_FEE, ENDPOINT_FEE);
+        register(GhnApiEndpoints.AVAILABLE_SERVICES, ENDPOINT_AVAILABLE_SERVICES);
+        register(GhnApiEndpoints.LEADTIME, ENDPOINT_LEADTIME);
+        register(GhnApiEndpoints.CREATE_ORDER, ENDPOINT_CREATE_ORDER);
+        register(GhnApiEndpoints.ORDER_DETAIL, ENDPOINT_ORDER_DETAIL);
+        register(GhnApiEndpoints.ORDER_DETAIL_BY_CLIENT_CODE, ENDPOINT_ORDER_DETAIL_BY_CLIENT_CODE);
+
+        server.start();
+        log.info("GHN simulator started at {}", getBaseUrl());
+    }
+
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        log.info("GHN simulator stopped");
+    }
+
+    /**
+     * Base URL to configure as ghtk.api.base-url
+     */
+    public String getBaseUrl() {
+        if (server == null) {
+            throw new IllegalStateException("GHN simulator is not started");
+        }
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public GhnSyntheticData getData() {
+        return data;
+    }
+
+    /**
+     * Number of requests received by an endpoint (including failed ones)
+     */
+    public long getRequestCount(String endpoint) {
+        AtomicLong count = requestCounts.get(endpoint);
+        return count != null ? count.get() : 0;
+    }
+
+    public void resetRequestCounts() {
+        requestCounts.clear();
+    }
+
+    /**
+     * W3C traceparent header of the last request to an endpoint, null if it had none
+     */
+    public String getLastTraceParent(String endpoint) {
+        return lastTraceParents.get(endpoint);
+    }
+
+    /**
+     * Number of orders created so far
+     */
+    public int getOrderCount() {
+        return ordersByClientCode.size();
+    }
+
+    private void register(String path, String endpoint) {
+        server.createContext(path, exchange -> {
+            try {
+                handle(exchange, endpoint);
+            } catch (Exception e) {
+                log.debug("GHN simulator failed to answer {}: {}", endpoint, e.getMessage());
+            } finally {
+                exchange.close();
+            }
+        });
+    }
+
+    private void handle(HttpExchange exchange, String endpoint) throws IOException, InterruptedException {
+        requestCounts.computeIfAbsent(endpoint, key -> new AtomicLong()).incrementAndGet();
+        String traceParent = exchange.getRequestHeaders().getFirst("traceparent");
+        if (traceParent != null) {
+            lastTraceParents.put(endpoint, traceParent);
+        } else {
+            lastTraceParents.remove(endpoint);
+        }
+        SplittableRandom random = new SplittableRandom(settings.getSeed() ^ requestSequence.incrementAndGet());
+        // Read body before sleeping so the client is never blocked on write
+        byte[] body = readBody(exchange.getRequestBody());
+
+        if (isRateLimited() || roll(random, settings.getThrottleRate())) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            send(exchange, 429, error(429, "Too many requests"));
+            return;
+        }
+        if (roll(random, settings.getTimeoutRate())) {
+            TimeUnit.MILLISECONDS.sleep(settings.getTimeoutMs());
+            send(exchange, 504, error(504, "Gateway timeout"));
+            return;
+        }
+        if (roll(random, settings.getErrorRate())) {
+            send(exchange, 500, error(500, "Internal server error"));
+            return;
+        }
+        if (roll(random, settings.getMalformedRate())) {
+            send(exchange, 200, Map.of("status", "ok"));
+            return;
+        }
+
+        long latency = settings.latencyFor(endpoint).sample(random);
+        if (latency > 0) {
+            TimeUnit.MILLISECONDS.sleep(latency);
+        }
+
+        String token = settings.getToken();
+        if (token != null && !token.isEmpty() && !token.equals(exchange.getRequestHeaders().getFirst("Token"))) {
+            send(exchange, 401, error(401, "Token is not valid!"));
+            return;
+        }
+
+        switch (endpoint) {
+            case ENDPOINT_PROVINCE:
+                send(exchange, 200, success(data.getProvinces()));
+                break;
+            case ENDPOINT_DISTRICT:
+                handleDistricts(exchange);
+                break;
+            case ENDPOINT_WARD:
+                handleWards(exchange);
+                break;
+            case ENDPOINT_FEE:
+                handleFee(exchange, parseJson(body));
+                break;
+            case ENDPOINT_AVAILABLE_SERVICES:
+                send(exchange, 200, success(data.getAvailableServices()));
+                break;
+            case ENDPOINT_LEADTIME:
+                handleLeadtime(exchange, parseJson(body));
+                break;
+            case ENDPOINT_CREATE_ORDER:
+                handleCreateOrder(exchange, parseJson(body));
+                break;
+            case ENDPOINT_ORDER_DETAIL:
+                handleOrderDetail(exchange, ordersByCode.get(String.valueOf(parseJson(body).get("order_code"))));
+                break;
+            case ENDPOINT_ORDER_DETAIL_BY_CLIENT_CODE:
+                handleOrderDetail(exchange, ordersByClientCode.get(String.valueOf(parseJson(body).get("client_order_code"))));
+                break;
+            default:
+                send(exchange, 404, error(404, "Not found"));
+        }
+    }
+
+    private void handleDistricts(HttpExchange exchange) throws IOException {
+        Integer provinceId = toInteger(queryParam(exchange.getRequestURI(), "province_id"));
+        List<Map<String, Object>> districts = data.getDistricts(provinceId);
+        send(exchange, 200, success(districts != null ? districts : Collections.emptyList()));
+    }
+
+    private void handleWards(HttpExchange exchange) throws IOException {
+        Integer districtId = toInteger(queryParam(exchange.getRequestURI(), "district_id"));
+        List<Map<String, Object>> wards = data.getWards(districtId);
+        if (wards == null) {
+            reject(exchange, "district_id is invalid");
+            return;
+        }
+        send(exchange, 200, success(wards));
+    }
+
+    private void handleFee(HttpExchange exchange, Map<String, Object> request) throws IOException {
+        Integer toDistrictId = toInteger(request.get("to_district_id"));
+        Object toWardCode = request.get("to_ward_code");
+        if (toDistrictId == null || toWardCode == null) {
+            reject(exchange, "to_district_id and to_ward_code are required");
+            return;
+        }
+        if (!data.hasWard(toDistrictId, String.valueOf(toWardCode))) {
+            reject(exchange, "Route not found service");
+            return;
+        }
+
+        Map<String, Object> fee = data.calculateFee(
+                toInteger(request.get("from_district_id")),
+                toDistrictId,
+                String.valueOf(toWardCode),
+                intOrZero(request.get("service_type_id")),
+                intOrZero(request.get("weight")),
+                intOrZero(request.get("length")),
+                intOrZero(request.get("width")),
+                intOrZero(request.get("height")),
+                intOrZero(request.get("insurance_value")),
+                intOrZero(request.get("cod_value")));
+        send(exchange, 200, success(fee));
+    }
+
+    private void handleLeadtime(HttpExchange exchange, Map<String, Object> request) throws IOException {
+        Integer toDistrictId = toInteger(request.get("to_district_id"));
+        Object toWardCode = request.get("to_ward_code");
+        if (toDistrictId == null || toWardCode == null || !data.hasWard(toDistrictId, String.valueOf(toWardCode))) {
+            reject(exchange, "Route not found service");
+            return;
+        }
+        // Real GHN wants service_id; accept either, Standard by default
+        int serviceTypeId = intOrZero(request.get("service_type_id"));
+        Integer serviceId = toInteger(request.get("service_id"));
+        for (int type = 1; serviceId != null && type < GhnSyntheticData.SERVICE_IDS.length; type++) {
+            if (GhnSyntheticData.SERVICE_IDS[type] == serviceId) {
+                serviceTypeId = type;
+            }
+        }
+        int days = data.leadtimeDays(toInteger(request.get("from_district_id")), toDistrictId, serviceTypeId);
+
+        Map<String, Object> leadtime = new LinkedHashMap<>();
+        leadtime.put("leadtime", Instant.now().plus(Duration.ofDays(days)).getEpochSecond());
+        leadtime.put("order_date", Instant.now().getEpochSecond());
+        send(exchange, 200, success(leadtime));
+    }
+
+    private void handleCreateOrder(HttpExchange exchange, Map<String, Object> request) throws IOException {
+        Integer toDistrictId = toInteger(request.get("to_district_id"));
+        Object toWardCode = request.get("to_ward_code");
+        Object clientOrderCode = request.get("client_order_code");
+        if (toDistrictId == null || toWardCode == null || !data.hasWard(toDistrictId, String.valueOf(toWardCode))) {
+            reject(exchange, "Route not found service");
+            return;
+        }
+
+        Map<String, Object> fee = data.calculateFee(
+                toInteger(request.get("from_district_id")),
+                toDistrictId,
+                String.valueOf(toWardCode),
+                intOrZero(request.get("service_type_id")),
+                intOrZero(request.get("weight")),
+                intOrZero(request.get("length")),
+                intOrZero(request.get("width")),
+                intOrZero(request.get("height")),
+                intOrZero(request.get("insurance_value")),
+                intOrZero(request.get("cod_amount")));
+        Map<String, Object> order = new LinkedHashMap<>();
+        order.put("order_code", "SIM" + orderSequence.incrementAndGet());
+        order.put("client_order_code", clientOrderCode);
+        order.put("total_fee", fee.get("total"));
+        order.put("expected_delivery_time", Instant.now().plus(Duration.ofDays(3)).toString());
+        order.put("created_date", Instant.now().toString());
+
+        if (clientOrderCode != null && ordersByClientCode.putIfAbsent(String.valueOf(clientOrderCode), order) != null) {
+            reject(exchange, "Client order code already exists");
+            return;
+        }
+        ordersByCode.put((String) order.get("order_code"), order);
+        send(exchange, 200, success(order));
+    }
+
+    private void handleOrderDetail(HttpExchange exchange, Map<String, Object> order) throws IOException {
+        if (order == null) {
+            reject(exchange, "Order not found");
+            return;
+        }
+        Instant created = Instant.parse((String) order.get("created_date"));
+        int step = (int) Math.min(ORDER_STATUSES.size() - 1,
+                Duration.between(created, Instant.now()).toMillis() / ORDER_STATUS_STEP_MS);
+
+        Map<String, Object> detail = new LinkedHashMap<>(order);
+        detail.put("status", ORDER_STATUSES.get(step));
+        detail.put("leadtime", order.get("expected_delivery_time"));
+        detail.put("updated_date", created.plusMillis(step * ORDER_STATUS_STEP_MS).toString());
+        send(exchange, 200, success(detail));
+    }
+
+    private boolean isRateLimited() {
+        int limit = settings.getMaxRequestsPerSecond();
+        if (limit <= 0) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        long start = windowStartMs.get();
+        if (now - start >= 1000 && windowStartMs.compareAndSet(start, now)) {
+            windowCount.set(0);
+        }
+        return windowCount.incrementAndGet() > limit;
+    }
+
+    private boolean roll(SplittableRandom random, double rate) {
+        return rate > 0 && random.nextDouble() < rate;
+    }
+
+    private Map<String, Object> success(Object payload) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("code", GHN_SUCCESS);
+        response.put("message", "Success");
+        response.put("data", payload);
+        return response;
+    }
+
+    /**
+     * GHN rejection (code 400), over HTTP 400 or inside an HTTP 200 envelope
+     */
+    private void reject(HttpExchange exchange, String message) throws IOException {
+        send(exchange, settings.isEnvelopeErrors() ? 200 : 400, error(400, message));
+    }
+
+    private Map<String, Object> error(int code, String message) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("code", code);
+        response.put("message", message);
+        response.put("data", null);
+        return response;
+    }
+
+    private void send(HttpExchange exchange, int status, Map<String, Object> payload) throws IOException {
+        byte[] bytes = jsonMapper.writeValueAsBytes(payload);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private byte[] readBody(InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> parseJson(byte[] body) {
+        if (body.length == 0) {
+            return Collections.emptyMap();
+        }
+        try {
+            return jsonMapper.readValue(body, Map.class);
+        } catch (RuntimeException e) {
+            return Collections.emptyMap();
+        }
+    }
+
+    private String queryParam(URI uri, String name) {
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return pair.substring(eq + 1);
+            }
+        }
+        return null;
+    }
+
+    private Integer toInteger(Object value) {
+        if (value == null) return null;
+        if (value instanceof Number) return ((Number) value).intValue();
+        try {
+            return Integer.parseInt(value.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private int intOrZero(Object value) {
+        Integer parsed = toInteger(value);
+        return parsed != null ? parsed : 0;
+    }
+}
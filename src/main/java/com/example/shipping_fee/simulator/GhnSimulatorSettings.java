@@ -0,0 +1,92 @@
+package com.example.shipping_fee.simulator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings for the embedded GHN simulator.
+ * Bound from {@code ghn.simulator.*} when running the {@code ghn-stub} profile,
+ * or built directly in tests and benchmarks.
+ *
+ * All rates are probabilities in [0, 1] applied independently per request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GhnSimulatorSettings {
+
+    // Listen port, 0 = pick a free port
+    @Builder.Default
+    private int port = 0;
+
+    // Token expected in the "Token" header, empty = accept anything
+    @Builder.Default
+    private String token = "";
+
+    // Seed for synthetic data and fault injection
+    @Builder.Default
+    private long seed = 42L;
+
+    // Synthetic master data size
+    @Builder.Default
+    private int provinces = 63;
+
+    @Builder.Default
+    private int districtsPerProvince = 12;
+
+    @Builder.Default
+    private int wardsPerDistrict = 15;
+
+    // Latency used when an endpoint has no specific entry
+    @Builder.Default
+    private LatencySpec defaultLatency = LatencySpec.none();
+
+    // Per-endpoint latency, keyed by GhnSimulator.ENDPOINT_* names
+    @Builder.Default
+    private Map<String, LatencySpec> latency = new HashMap<>();
+
+    // Probability of HTTP 500 with a GHN error body
+    @Builder.Default
+    private double errorRate = 0.0;
+
+    // Probability of HTTP 200 whose body has no GHN envelope (code/message/data)
+    @Builder.Default
+    private double malformedRate = 0.0;
+
+    // Probability of hanging for timeoutMs before answering
+    @Builder.Default
+    private double timeoutRate = 0.0;
+
+    @Builder.Default
+    private long timeoutMs = 30_000;
+
+    // Probability of HTTP 429 regardless of load
+    @Builder.Default
+    private double throttleRate = 0.0;
+
+    // Answer rejections with HTTP 200 and the GHN error code only in the envelope
+    @Builder.Default
+    private boolean envelopeErrors = false;
+
+    // Requests per second before answering HTTP 429, 0 = unlimited
+    @Builder.Default
+    private int maxRequestsPerSecond = 0;
+
+    // Handler threads of the embedded HTTP server
+    @Builder.Default
+    private int workerThreads = 64;
+
+    /**
+     * Resolve latency for an endpoint
+     */
+    public LatencySpec latencyFor(String endpoint) {
+        LatencySpec spec = latency != null ? latency.get(endpoint) : null;
+        return spec != null ? spec : defaultLatency;
+    }
+}
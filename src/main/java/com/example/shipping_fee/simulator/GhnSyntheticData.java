@@ -0,0 +1,184 @@
+package com.example.shipping_fee.simulator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deterministic synthetic GHN data set.
+ * Same settings (size + seed) always produce the same provinces, districts, wards and fees,
+ * so benchmark runs are comparable across machines.
+ *
+ * ID scheme (keeps IDs in the same ranges GHN uses):
+ * - Province : 201 + index
+ * - District : 1000 + provinceIndex * districtsPerProvince + index
+ * - Ward     : districtId * 100 + index (as String)
+ */
+public class GhnSyntheticData {
+
+    public static final int FIRST_PROVINCE_ID = 201;
+    public static final int FIRST_DISTRICT_ID = 1000;
+
+    // Service IDs returned by available-services, indexed by service type 1..3
+    public static final int[] SERVICE_IDS = {0, 53319, 53320, 53321};
+    private static final String[] SERVICE_NAMES = {"", "Nhanh", "Chuẩn", "Tiết kiệm"};
+
+    // Fee model (VND)
+    private static final int[] BASE_FEE_BY_SERVICE_TYPE = {0, 30000, 22000, 16000};
+    private static final int WEIGHT_STEP_GRAMS = 500;
+    private static final int FEE_PER_STEP = 5000;
+    private static final int VOLUMETRIC_DIVISOR = 5000;
+    private static final int REMOTE_AREA_FEE = 10000;
+    private static final int DISTANCE_FEE_STEP = 2000;
+    private static final int[] LEADTIME_DAYS_BY_SERVICE_TYPE = {0, 1, 2, 4};
+
+    private final List<Map<String, Object>> provinces;
+    private final Map<Integer, List<Map<String, Object>>> districtsByProvince;
+    private final List<Map<String, Object>> allDistricts;
+    private final Map<Integer, List<Map<String, Object>>> wardsByDistrict;
+    private final long seed;
+
+    public GhnSyntheticData(GhnSimulatorSettings settings) {
+        this.seed = settings.getSeed();
+        this.provinces = new ArrayList<>();
+        this.districtsByProvince = new LinkedHashMap<>();
+        this.allDistricts = new ArrayList<>();
+        this.wardsByDistrict = new LinkedHashMap<>();
+
+        for (int p = 0; p < settings.getProvinces(); p++) {
+            int provinceId = FIRST_PROVINCE_ID + p;
+            Map<String, Object> province = new LinkedHashMap<>();
+            province.put("ProvinceID", provinceId);
+            province.put("ProvinceName", "Tỉnh " + (p + 1));
+            province.put("Code", String.valueOf(10 + p));
+            provinces.add(province);
+
+            List<Map<String, Object>> districts = new ArrayList<>();
+            for (int d = 0; d < settings.getDistrictsPerProvince(); d++) {
+                int districtId = FIRST_DISTRICT_ID + p * settings.getDistrictsPerProvince() + d;
+                Map<String, Object> district = new LinkedHashMap<>();
+                district.put("DistrictID", districtId);
+                district.put("ProvinceID", provinceId);
+                district.put("DistrictName", "Quận " + (d + 1) + " - Tỉnh " + (p + 1));
+                districts.add(district);
+                allDistricts.add(district);
+
+                List<Map<String, Object>> wards = new ArrayList<>();
+                for (int w = 0; w < settings.getWardsPerDistrict(); w++) {
+                    Map<String, Object> ward = new LinkedHashMap<>();
+                    ward.put("WardCode", String.valueOf(districtId * 100 + w));
+                    ward.put("DistrictID", districtId);
+                    ward.put("WardName", "Phường " + (w + 1));
+                    wards.add(ward);
+                }
+                wardsByDistrict.put(districtId, Collections.unmodifiableList(wards));
+            }
+            districtsByProvince.put(provinceId, Collections.unmodifiableList(districts));
+        }
+    }
+
+    public List<Map<String, Object>> getProvinces() {
+        return Collections.unmodifiableList(provinces);
+    }
+
+    /**
+     * Districts of a province, or all districts when provinceId is null (same as GHN)
+     */
+    public List<Map<String, Object>> getDistricts(Integer provinceId) {
+        if (provinceId == null) {
+            return Collections.unmodifiableList(allDistricts);
+        }
+        return districtsByProvince.get(provinceId);
+    }
+
+    public List<Map<String, Object>> getWards(Integer districtId) {
+        return wardsByDistrict.get(districtId);
+    }
+
+    public boolean hasDistrict(Integer districtId) {
+        return districtId != null && wardsByDistrict.containsKey(districtId);
+    }
+
+    public boolean hasWard(Integer districtId, String wardCode) {
+        List<Map<String, Object>> wards = wardsByDistrict.get(districtId);
+        if (wards == null || wardCode == null) {
+            return false;
+        }
+        for (Map<String, Object> ward : wards) {
+            if (wardCode.equals(ward.get("WardCode"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Services available between two districts (all three types everywhere)
+     */
+    public List<Map<String, Object>> getAvailableServices() {
+        List<Map<String, Object>> services = new ArrayList<>();
+        for (int type = 1; type < SERVICE_IDS.length; type++) {
+            Map<String, Object> service = new LinkedHashMap<>();
+            service.put("service_id", SERVICE_IDS[type]);
+            service.put("short_name", SERVICE_NAMES[type]);
+            service.put("service_type_id", type);
+            services.add(service);
+        }
+        return services;
+    }
+
+    /**
+     * Compute fee breakdown in GHN "data" format.
+     * Chargeable weight = max(actual, L*W*H/5000), priced in 500g steps.
+     */
+    public Map<String, Object> calculateFee(Integer fromDistrictId, Integer toDistrictId, String toWardCode,
+                                            int serviceTypeId, int weight, int length, int width, int height,
+                                            int insuranceValue, int codValue) {
+        int type = serviceTypeId >= 1 && serviceTypeId < BASE_FEE_BY_SERVICE_TYPE.length ? serviceTypeId : 2;
+
+        int volumetric = length * width * height / VOLUMETRIC_DIVISOR;
+        int chargeable = Math.max(weight, volumetric);
+        int steps = Math.max(0, (chargeable - 1) / WEIGHT_STEP_GRAMS);
+
+        int distance = (int) (Math.floorMod(mix(fromDistrictId == null ? 0 : fromDistrictId, toDistrictId), 6));
+        int serviceFee = BASE_FEE_BY_SERVICE_TYPE[type] + steps * FEE_PER_STEP + distance * DISTANCE_FEE_STEP;
+        int insuranceFee = insuranceValue > 1_000_000 ? insuranceValue / 200 : 0;
+        int codFee = codValue > 0 ? Math.max(codValue / 100, 5000) : 0;
+        int remoteFee = Math.floorMod(mix(toDistrictId, toWardCode.hashCode()), 10) == 0 ? REMOTE_AREA_FEE : 0;
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("total", serviceFee + insuranceFee + codFee + remoteFee);
+        data.put("service_fee", serviceFee);
+        data.put("insurance_fee", insuranceFee);
+        data.put("pick_station_fee", 0);
+        data.put("coupon_value", 0);
+        data.put("r2s_fee", 0);
+        data.put("return_again", 0);
+        data.put("document_return", 0);
+        data.put("double_check", 0);
+        data.put("cod_fee", codFee);
+        data.put("pick_remote_areas_fee", 0);
+        data.put("deliver_remote_areas_fee", remoteFee);
+        data.put("cod_failed_fee", 0);
+        return data;
+    }
+
+    /**
+     * Delivery days: 1 (Express) / 2 (Standard) / 4 (Economy), plus 0-2 days by distance
+     */
+    public int leadtimeDays(Integer fromDistrictId, Integer toDistrictId, int serviceTypeId) {
+        int type = serviceTypeId >= 1 && serviceTypeId < BASE_FEE_BY_SERVICE_TYPE.length ? serviceTypeId : 2;
+        int distance = (int) Math.floorMod(mix(fromDistrictId == null ? 0 : fromDistrictId, toDistrictId), 6);
+        return LEADTIME_DAYS_BY_SERVICE_TYPE[type] + distance / 2;
+    }
+
+    private long mix(int a, int b) {
+        long h = seed ^ (a * 0x9E3779B97F4A7C15L) ^ (b * 0xC2B2AE3D27D4EB4FL);
+        h ^= (h >>> 33);
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= (h >>> 33);
+        return h;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.shipping_fee.simulator;
+
+import java.util.random.RandomGenerator;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Latency distribution used by the GHN simulator for one endpoint.
+ *
+ * - FIXED      : always {@code medianMs}
+ * - UNIFORM    : uniform in [{@code minMs}, {@code maxMs}]
+ * - LOG_NORMAL : median {@code medianMs}, spread {@code sigma}, clamped to {@code maxMs}
+ *
+ * Log-normal is the closest match for real gateway latency (long right tail).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LatencySpec {
+
+    public enum Type {
+        FIXED, UNIFORM, LOG_NORMAL
+    }
+
+    @Builder.Default
+    private Type type = Type.FIXED;
+
+    @Builder.Default
+    private long minMs = 0;
+
+    @Builder.Default
+    private long medianMs = 0;
+
+    @Builder.Default
+    private long maxMs = 0;
+
+    @Builder.Default
+    private double sigma = 0.5;
+
+    public static LatencySpec none() {
+        return LatencySpec.builder().build();
+    }
+
+    public static LatencySpec fixed(long millis) {
+        return LatencySpec.builder().type(Type.FIXED).medianMs(millis).build();
+    }
+
+    public static LatencySpec uniform(long minMs, long maxMs) {
+        return LatencySpec.builder().type(Type.UNIFORM).minMs(minMs).maxMs(maxMs).build();
+    }
+
+    public static LatencySpec logNormal(long medianMs, double sigma, long maxMs) {
+        return LatencySpec.builder().type(Type.LOG_NORMAL).medianMs(medianMs).sigma(sigma).maxMs(maxMs).build();
+    }
+
+    /**
+     * Draw one latency sample in milliseconds
+     */
+    public long sample(RandomGenerator random) {
+        switch (type) {
+            case UNIFORM:
+                if (maxMs <= minMs) {
+                    return minMs;
+                }
+                return minMs + random.nextLong(maxMs - minMs + 1);
+            case LOG_NORMAL:
+                if (medianMs <= 0) {
+                    return 0;
+                }
+                double value = medianMs * Math.exp(sigma * random.nextGaussian());
+                long millis = Math.max(minMs, Math.round(value));
+                return maxMs > 0 ? Math.min(millis, maxMs) : millis;
+            case FIXED:
+            default:
+                return medianMs;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.shipping_fee.tracing;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.util.List;
+
+import javax.net.ssl.SSLSocket;
+
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.ssl.TlsSocketStrategy;
+import org.apache.hc.core5.http.HttpRequestInterceptor;
+import org.apache.hc.core5.http.HttpResponseInterceptor;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+/**
+ * Spans for the phases of an outbound GHN call, as children of the current CLIENT span:
+ * - http.dns, http.tls          : wrappers for the connection operator (new connections only)
+ * - http.server                 : request written -> response headers (network + GHN processing)
+ * - http.decode                 : response headers -> body read and JSON decoded
+ * The request interceptor also propagates the trace to GHN with a traceparent header.
+ * Pool wait and connect spans come from the connection manager.
+ */
+public final class HttpClientTracing {
+
+    static final String REQUEST_SENT = "request.sent";
+    static final String RESPONSE_HEADERS = "response.headers";
+
+    private HttpClientTracing() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Adds traceparent and timestamps the send; runs after the connection is established
+     */
+    public static final HttpRequestInterceptor REQUEST = (request, entity, context) -> {
+        Span span = TraceContext.current();
+        if (span != null && span.isRecording()) {
+            request.setHeader(TraceParent.HEADER, span.traceparent());
+            span.event(REQUEST_SENT);
+        }
+    };
+
+    public static final HttpResponseInterceptor RESPONSE = (response, entity, context) -> {
+        Span span = TraceContext.current();
+        if (span != null) {
+            span.event(RESPONSE_HEADERS);
+        }
+    };
+
+    /**
+     * Record http.server and http.decode under a CLIENT span once its call returned
+     */
+    public static void recordPhases(Span clientSpan) {
+        if (!clientSpan.isRecording()) {
+            return;
+        }
+        Long sent = clientSpan.eventNanos(REQUEST_SENT);
+        Long headers = clientSpan.eventNanos(RESPONSE_HEADERS);
+        if (sent != null && headers != null) {
+            clientSpan.child("http.server", sent, headers);
+            clientSpan.child("http.decode", headers, System.nanoTime());
+        }
+    }
+
+    public static DnsResolver dnsResolver(DnsResolver delegate) {
+        return new DnsResolver() {
+            @Override
+            public InetAddress[] resolve(String host) throws UnknownHostException {
+                try (Span span = Span.start("http.dns")) {
+                    span.attribute("host", host);
+                    return delegate.resolve(host);
+                }
+            }
+
+            @Override
+            public List<InetSocketAddress> resolve(String host, int port) throws UnknownHostException {
+                try (Span span = Span.start("http.dns")) {
+                    span.attribute("host", host);
+                    return delegate.resolve(host, port);
+                }
+            }
+
+            @Override
+            public String resolveCanonicalHostname(String host) throws UnknownHostException {
+                return delegate.resolveCanonicalHostname(host);
+            }
+        };
+    }
+
+    public static TlsSocketStrategy tlsStrategy(TlsSocketStrategy delegate) {
+        return (Socket socket, String target, int port, Object attachment, HttpContext context) -> {
+            try (Span span = Span.start("http.tls")) {
+                span.attribute("host", target);
+                try {
+                    SSLSocket upgraded = delegate.upgrade(socket, target, port, attachment, context);
+                    span.attribute("protocol", upgraded.getSession().getProtocol());
+                    return upgraded;
+                } catch (IOException | RuntimeException e) {
+                    span.error(e.toString());
+                    throw e;
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.shipping_fee.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One timed operation of a trace, modelled on OpenTelemetry spans (name, kind, parent,
+ * attributes, error status, timestamped events).
+ *
+ * Spans are opened as children of the current span and stay current until closed:
+ * <pre>
+ * try (Span span = Span.start("quote_cache.lookup")) {
+ *     span.attribute("hit", cached != null);
+ * }
+ * </pre>
+ * Outside a traced request {@link #start} returns a no-op span, so instrumented code needs no
+ * checks and costs next to nothing when tracing is off.
+ */
+public final class Span implements AutoCloseable {
+
+    public enum Kind {
+        SERVER, CLIENT, INTERNAL
+    }
+
+    static final Span NOOP = new Span(null, null, null, "noop", Kind.INTERNAL, 0);
+
+    private final Trace trace;
+    private final String spanId;
+    private final String parentId;
+    private final String name;
+    private final Kind kind;
+    private final long startNanos;
+    private final long startEpochMicros;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private Map<String, Long> events;
+    private volatile long endNanos;
+    private volatile String error;
+    private Span previous;
+
+    Span(Trace trace, String spanId, String parentId, String name, Kind kind, long startNanos) {
+        this.trace = trace;
+        this.spanId = spanId;
+        this.parentId = parentId;
+        this.name = name;
+        this.kind = kind;
+        this.startNanos = startNanos;
+        this.startEpochMicros = trace != null ? System.currentTimeMillis() * 1000 : 0;
+    }
+
+    public static Span start(String name) {
+        return start(name, Kind.INTERNAL);
+    }
+
+    /**
+     * Open a child of the current span and make it current until {@link #close()}
+     */
+    public static Span start(String name, Kind kind) {
+        Span parent = TraceContext.current();
+        if (parent == null || !parent.isRecording()) {
+            return NOOP;
+        }
+        Span span = parent.newChild(name, kind, System.nanoTime());
+        span.previous = TraceContext.swap(span);
+        return span;
+    }
+
+    /**
+     * Record an already finished child, e.g. a phase measured from event timestamps.
+     * The child is not made current.
+     */
+    public Span child(String name, long startNanos, long endNanos) {
+        if (!isRecording()) {
+            return NOOP;
+        }
+        Span span = newChild(name, Kind.INTERNAL, startNanos);
+        span.endAt(endNanos);
+        return span;
+    }
+
+    public boolean isRecording() {
+        return trace != null;
+    }
+
+    public Span attribute(String key, Object value) {
+        if (isRecording() && value != null) {
+            synchronized (attributes) {
+                attributes.put(key, value);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Mark the span failed; failed traces are always kept
+     */
+    public Span error(String message) {
+        if (isRecording()) {
+            this.error = message != null ? message : "error";
+        }
+        return this;
+    }
+
+    /**
+     * Timestamp a point inside the span (first occurrence wins)
+     */
+    public void event(String event) {
+        if (isRecording()) {
+            synchronized (attributes) {
+                if (events == null) {
+                    events = new LinkedHashMap<>();
+                }
+                events.putIfAbsent(event, System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * @return nanoTime of the event, or null if it did not happen
+     */
+    public Long eventNanos(String event) {
+        synchronized (attributes) {
+            return events != null ? events.get(event) : null;
+        }
+    }
+
+    /**
+     * End the span without touching the thread's current span (spans ended on another thread)
+     */
+    public void end() {
+        endAt(System.nanoTime());
+    }
+
+    /**
+     * End the span and restore the span that was current when it started
+     */
+    @Override
+    public void close() {
+        if (!isRecording()) {
+            return;
+        }
+        end();
+        if (TraceContext.current() == this) {
+            TraceContext.swap(previous);
+        }
+    }
+
+    /**
+     * traceparent header naming this span as the parent of an outbound call
+     */
+    public String traceparent() {
+        return isRecording() ? TraceParent.format(trace.getTraceId(), spanId, true) : null;
+    }
+
+    public String getTraceId() {
+        return isRecording() ? trace.getTraceId() : null;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    String getParentId() {
+        return parentId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    long getStartEpochMicros() {
+        return startEpochMicros;
+    }
+
+    /**
+     * @return duration in nanoseconds, or -1 while the span is open
+     */
+    long getDurationNanos() {
+        long end = endNanos;
+        return end != 0 ? end - startNanos : -1;
+    }
+
+    String getError() {
+        return error;
+    }
+
+    Map<String, Object> getAttributes() {
+        synchronized (attributes) {
+            return new LinkedHashMap<>(attributes);
+        }
+    }
+
+    private Span newChild(String name, Kind kind, long startNanos) {
+        return new Span(trace, TraceParent.newSpanId(), spanId, name, kind, startNanos);
+    }
+
+    private void endAt(long nanos) {
+        if (!isRecording() || endNanos != 0) {
+            return;
+        }
+        endNanos = nanos != 0 ? nanos : 1;
+        trace.ended(this);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.shipping_fee.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spans of one request, buffered until its root span ends and the collector decides
+ * whether to keep the trace. Spans ending after a drop decision are discarded.
+ */
+final class Trace {
+
+    private final String traceId;
+    private final boolean sampledUpstream;
+    private final TraceCollector collector;
+    private final int maxSpans;
+    private final List<Span> spans = new ArrayList<>();
+    private int droppedSpans;
+    private Span root;
+    private volatile boolean failed;
+    private volatile boolean decided;
+    private volatile String keptBecause;
+
+    Trace(String traceId, boolean sampledUpstream, TraceCollector collector, int maxSpans) {
+        this.traceId = traceId;
+        this.sampledUpstream = sampledUpstream;
+        this.collector = collector;
+        this.maxSpans = maxSpans;
+    }
+
+    void setRoot(Span root) {
+        this.root = root;
+    }
+
+    void ended(Span span) {
+        synchronized (this) {
+            if (decided && keptBecause == null) {
+                return;
+            }
+            if (spans.size() < maxSpans) {
+                spans.add(span);
+            } else {
+                droppedSpans++;
+            }
+        }
+        if (span.getError() != null) {
+            failed = true;
+        }
+        if (span == root) {
+            collector.finish(this);
+        }
+    }
+
+    void decide(String reason) {
+        keptBecause = reason;
+        decided = true;
+        if (reason == null) {
+            synchronized (this) {
+                spans.clear();
+            }
+        }
+    }
+
+    synchronized List<Span> getSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    synchronized int getDroppedSpans() {
+        return droppedSpans;
+    }
+
+    String getTraceId() {
+        return traceId;
+    }
+
+    boolean isSampledUpstream() {
+        return sampledUpstream;
+    }
+
+    Span getRoot() {
+        return root;
+    }
+
+    boolean isFailed() {
+        return failed;
+    }
+
+    String getKeptBecause() {
+        return keptBecause;
+    }
+}
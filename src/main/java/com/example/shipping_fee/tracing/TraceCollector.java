@@ -0,0 +1,213 @@
+package com.example.shipping_fee.tracing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.shipping_fee.dto.SpanDTO;
+import com.example.shipping_fee.dto.TraceDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Starts request traces and keeps the interesting ones in memory (no external collector).
+ *
+ * Sampling is tail-based: every request is traced, and the decision is taken when its root
+ * span ends. A trace is kept if any span failed, if it took at least slow-threshold-ms, if the
+ * caller's traceparent was sampled, or with probability sample-rate; everything else is dropped.
+ * The last max-traces kept traces are served by GET /api/shipping/traces.
+ */
+@Component
+@Slf4j
+public class TraceCollector {
+
+    public static final String KEPT_ERROR = "error";
+    public static final String KEPT_SLOW = "slow";
+    public static final String KEPT_UPSTREAM = "upstream";
+    public static final String KEPT_SAMPLED = "sampled";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+    private final int maxTraces;
+    private final int maxSpansPerTrace;
+
+    private final Deque<Trace> kept = new ArrayDeque<>();
+
+    @Autowired
+    public TraceCollector(MeterRegistry meterRegistry,
+                          @Value("${shipping.tracing.enabled:true}") boolean enabled,
+                          @Value("${shipping.tracing.slow-threshold-ms:500}") long slowThresholdMs,
+                          @Value("${shipping.tracing.sample-rate:0.01}") double sampleRate,
+                          @Value("${shipping.tracing.max-traces:200}") int maxTraces,
+                          @Value("${shipping.tracing.max-spans-per-trace:256}") int maxSpansPerTrace) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.slowThresholdNanos = slowThresholdMs * 1_000_000;
+        this.sampleRate = sampleRate;
+        this.maxTraces = maxTraces;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+    }
+
+    /**
+     * Collector that traces nothing (tests, tools)
+     */
+    public static TraceCollector disabled() {
+        return new TraceCollector(new SimpleMeterRegistry(), false, 0, 0, 0, 0);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Root span of a request, continuing the caller's trace if traceparent is valid.
+     * The caller makes it current ({@link #activate}) and ends it when the request completes.
+     */
+    public Span startRoot(String name, String traceparent) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        TraceParent parent = TraceParent.parse(traceparent);
+        Trace trace = new Trace(parent != null ? parent.traceId() : TraceParent.newTraceId(),
+                parent != null && parent.sampled(), this, maxSpansPerTrace);
+        Span root = new Span(trace, TraceParent.newSpanId(), parent != null ? parent.parentId() : null,
+                name, Span.Kind.SERVER, System.nanoTime());
+        trace.setRoot(root);
+        return root;
+    }
+
+    /**
+     * Make span current on this thread
+     * @return the previously current span, to pass back when done
+     */
+    public static Span activate(Span span) {
+        return TraceContext.swap(span.isRecording() ? span : null);
+    }
+
+    public static void restore(Span previous) {
+        TraceContext.swap(previous);
+    }
+
+    /**
+     * Tail sampling decision, called when the root span ends
+     */
+    void finish(Trace trace) {
+        long duration = trace.getRoot().getDurationNanos();
+        String reason;
+        if (trace.isFailed()) {
+            reason = KEPT_ERROR;
+        } else if (duration >= slowThresholdNanos) {
+            reason = KEPT_SLOW;
+        } else if (trace.isSampledUpstream()) {
+            reason = KEPT_UPSTREAM;
+        } else if (ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            reason = KEPT_SAMPLED;
+        } else {
+            reason = null;
+        }
+        trace.decide(reason);
+        meterRegistry.counter("shipping.tracing.traces", "decision", reason != null ? reason : "dropped").increment();
+        if (reason == null) {
+            return;
+        }
+
+        synchronized (kept) {
+            kept.addLast(trace);
+            while (kept.size() > maxTraces) {
+                kept.removeFirst();
+            }
+        }
+        if (KEPT_SLOW.equals(reason)) {
+            log.info("Slow request {} took {} ms, trace {}", trace.getRoot().getName(), duration / 1_000_000,
+                    trace.getTraceId());
+        }
+    }
+
+    /**
+     * Kept traces, newest first, without their spans
+     */
+    public List<TraceDTO> recent(long minDurationMs, int limit) {
+        List<TraceDTO> traces = new ArrayList<>();
+        synchronized (kept) {
+            Iterator<Trace> newestFirst = kept.descendingIterator();
+            while (newestFirst.hasNext() && traces.size() < limit) {
+                Trace trace = newestFirst.next();
+                if (trace.getRoot().getDurationNanos() >= minDurationMs * 1_000_000) {
+                    traces.add(toDTO(trace, false));
+                }
+            }
+        }
+        return traces;
+    }
+
+    /**
+     * @return kept trace with its spans, or null if unknown or already evicted
+     */
+    public TraceDTO get(String traceId) {
+        synchronized (kept) {
+            for (Trace trace : kept) {
+                if (trace.getTraceId().equals(traceId)) {
+                    return toDTO(trace, true);
+                }
+            }
+        }
+        return null;
+    }
+
+    private TraceDTO toDTO(Trace trace, boolean withSpans) {
+        Span root = trace.getRoot();
+        List<Span> spans = trace.getSpans();
+        TraceDTO.TraceDTOBuilder builder = TraceDTO.builder()
+                .traceId(trace.getTraceId())
+                .name(root.getName())
+                .startedAt(root.getStartEpochMicros() / 1000)
+                .durationMs(millis(root.getDurationNanos()))
+                .error(trace.isFailed())
+                .keptBecause(trace.getKeptBecause())
+                .spanCount(spans.size())
+                .droppedSpans(trace.getDroppedSpans());
+        if (!withSpans) {
+            return builder.build();
+        }
+
+        spans.sort(Comparator.comparingLong(Span::getStartNanos));
+        Map<String, Integer> depths = new HashMap<>();
+        depths.put(root.getSpanId(), 0);
+        List<SpanDTO> spanDTOs = new ArrayList<>(spans.size());
+        for (Span span : spans) {
+            int depth = span == root ? 0 : depths.getOrDefault(span.getParentId(), 0) + 1;
+            depths.put(span.getSpanId(), depth);
+            long duration = span.getDurationNanos();
+            spanDTOs.add(SpanDTO.builder()
+                    .spanId(span.getSpanId())
+                    .parentId(span.getParentId())
+                    .name(span.getName())
+                    .kind(span.getKind().name())
+                    .depth(depth)
+                    .offsetMs(millis(span.getStartNanos() - root.getStartNanos()))
+                    .durationMs(duration >= 0 ? millis(duration) : null)
+                    .error(span.getError())
+                    .attributes(span.getAttributes().isEmpty() ? null : span.getAttributes())
+                    .build());
+        }
+        return builder.spans(spanDTOs).build();
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
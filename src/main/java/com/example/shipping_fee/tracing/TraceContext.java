@@ -0,0 +1,54 @@
+package com.example.shipping_fee.tracing;
+
+/**
+ * Holds the current {@link Span} of the thread, like DeadlineContext holds the deadline.
+ * Executors on the request path carry it to their worker threads with {@link #wrap(Runnable)}
+ * as their TaskDecorator, so spans opened there become children of the request.
+ */
+public final class TraceContext {
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private TraceContext() {
+        // Prevent instantiation
+    }
+
+    /**
+     * @return current span, or null outside a traced request
+     */
+    public static Span current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run a task with the submitting thread's span as its current span
+     */
+    public static Runnable wrap(Runnable task) {
+        Span span = CURRENT.get();
+        if (span == null) {
+            return task;
+        }
+        return () -> {
+            Span previous = swap(span);
+            try {
+                task.run();
+            } finally {
+                swap(previous);
+            }
+        };
+    }
+
+    /**
+     * Make span current (null clears it)
+     * @return the span that was current before
+     */
+    static Span swap(Span span) {
+        Span previous = CURRENT.get();
+        if (span != null) {
+            CURRENT.set(span);
+        } else {
+            CURRENT.remove();
+        }
+        return previous;
+    }
+}
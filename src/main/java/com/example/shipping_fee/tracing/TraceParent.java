@@ -0,0 +1,58 @@
+package com.example.shipping_fee.tracing;
+
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * W3C Trace Context {@code traceparent} header: {@code 00-<trace-id>-<parent-id>-<flags>}
+ * @see <a href="https://www.w3.org/TR/trace-context/">W3C Trace Context</a>
+ */
+public record TraceParent(String traceId, String parentId, boolean sampled) {
+
+    public static final String HEADER = "traceparent";
+
+    private static final String INVALID_TRACE_ID = "0".repeat(32);
+    private static final String INVALID_PARENT_ID = "0".repeat(16);
+
+    /**
+     * @return parsed header, or null if missing or malformed (the request starts a new trace)
+     */
+    public static TraceParent parse(String header) {
+        if (header == null) {
+            return null;
+        }
+        String[] parts = header.trim().split("-");
+        if (parts.length < 4 || !"00".equals(parts[0]) || parts[3].length() != 2
+                || !isHex(parts[1], 32) || INVALID_TRACE_ID.equals(parts[1])
+                || !isHex(parts[2], 16) || INVALID_PARENT_ID.equals(parts[2]) || !isHex(parts[3], 2)) {
+            return null;
+        }
+        return new TraceParent(parts[1], parts[2], (HexFormat.fromHexDigits(parts[3]) & 0x01) != 0);
+    }
+
+    public static String format(String traceId, String spanId, boolean sampled) {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return HexFormat.of().toHexDigits(random.nextLong()) + HexFormat.of().toHexDigits(random.nextLong() | 1);
+    }
+
+    static String newSpanId() {
+        return HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextLong() | 1);
+    }
+
+    private static boolean isHex(String value, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.shipping_fee.tracing;
+
+import java.io.IOException;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Opens the server span of every /api/shipping request, continuing the caller's W3C
+ * traceparent, and returns the trace id in X-Trace-Id. Runs before admission control so shed
+ * requests are traced too. For async requests (/calculate) the span ends when the async work
+ * completes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class TracingFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    private static final String API_PREFIX = "/api/shipping";
+
+    // Long-lived streams would always look slow; the trace endpoint would trace itself
+    private static final String MASTER_DATA_STREAM = API_PREFIX + "/master-data/stream";
+    private static final String TRACES = API_PREFIX + "/traces";
+
+    private final TraceCollector collector;
+
+    public TracingFilter(TraceCollector collector) {
+        this.collector = collector;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !collector.isEnabled()
+                || !uri.startsWith(API_PREFIX)
+                || uri.equals(MASTER_DATA_STREAM)
+                || uri.startsWith(TRACES);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Span root = collector.startRoot(request.getMethod() + " " + request.getRequestURI(),
+                request.getHeader(TraceParent.HEADER));
+        root.attribute("http.method", request.getMethod())
+                .attribute("http.target", request.getRequestURI());
+        response.setHeader(TRACE_ID_HEADER, root.getTraceId());
+
+        Span previous = TraceCollector.activate(root);
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new EndOnComplete(root));
+                async = true;
+            }
+        } catch (IOException | ServletException | RuntimeException e) {
+            root.error(e.toString());
+            throw e;
+        } finally {
+            TraceCollector.restore(previous);
+            if (!async) {
+                end(root, response);
+            }
+        }
+    }
+
+    private static void end(Span root, ServletResponse response) {
+        int status = ((HttpServletResponse) response).getStatus();
+        root.attribute("http.status_code", status);
+        if (status >= 500) {
+            root.error("HTTP " + status);
+        }
+        root.end();
+    }
+
+    /**
+     * Ends the server span when an async request finishes
+     */
+    private static final class EndOnComplete implements AsyncListener {
+        private final Span root;
+
+        EndOnComplete(Span root) {
+            this.root = root;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            end(root, event.getSuppliedResponse());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            root.error("async timeout");
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            root.error(event.getThrowable() != null ? event.getThrowable().toString() : "async error");
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Not needed
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.example.shipping_fee.tracking;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.shipping_fee.dto.OrderTrackingDTO;
+import com.example.shipping_fee.order.OrderSubmittedEvent;
+import com.example.shipping_fee.service.GhtkService;
+import com.example.shipping_fee.service.RateLimiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Order status tracking (opt-in, shipping.tracking.enabled).
+ *
+ * Keeps the last GHN status of every tracked order in memory and refreshes it in the
+ * background, so status reads cost no GHN call: upstream load is orders x poll rate,
+ * independent of how often customer service looks.
+ *
+ * - Orders are tracked when the outbox submits them, or on the first read of an unknown code.
+ * - Poll interval follows the {@link TrackingStage}; settled orders are no longer polled and
+ *   are dropped after the retention period.
+ * - Every next poll is jittered and the first one is spread uniformly over the interval, and a
+ *   rate limiter caps polls per second, so orders created together never poll together.
+ */
+@Service
+@Slf4j
+public class OrderTrackingService {
+
+    private final GhtkService ghtkService;
+    private final TaskExecutor executor;
+    private final boolean enabled;
+    private final Map<TrackingStage, Long> intervalsMs = new EnumMap<>(TrackingStage.class);
+    private final double jitter;
+    private final long errorRetryMs;
+    private final int maxOrders;
+    private final int maxInFlight;
+    private final long readTimeoutMs;
+
+    private final RateLimiter rateLimiter;
+    private final Map<String, TrackedOrder> orders = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<TrackedOrder>> loading = new ConcurrentHashMap<>();
+    private final DelayQueue<TrackedOrder> due = new DelayQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean stopping;
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public OrderTrackingService(GhtkService ghtkService,
+                                @Qualifier("trackingExecutor") TaskExecutor executor,
+                                MeterRegistry meterRegistry,
+                                @Value("${shipping.tracking.enabled:false}") boolean enabled,
+                                @Value("${shipping.tracking.interval.awaiting-pickup-ms:900000}") long awaitingPickupMs,
+                                @Value("${shipping.tracking.interval.in-transit-ms:1800000}") long inTransitMs,
+                                @Value("${shipping.tracking.interval.out-for-delivery-ms:300000}") long outForDeliveryMs,
+                                @Value("${shipping.tracking.settled-retention-ms:86400000}") long settledRetentionMs,
+                                @Value("${shipping.tracking.jitter:0.2}") double jitter,
+                                @Value("${shipping.tracking.error-retry-ms:60000}") long errorRetryMs,
+                                @Value("${shipping.tracking.max-per-second:10}") double maxPerSecond,
+                                @Value("${shipping.tracking.max-in-flight:8}") int maxInFlight,
+                                @Value("${shipping.tracking.max-orders:200000}") int maxOrders,
+                                @Value("${shipping.tracking.read-timeout-ms:3000}") long readTimeoutMs) {
+        this.ghtkService = ghtkService;
+        this.executor = executor;
+        this.enabled = enabled;
+        intervalsMs.put(TrackingStage.AWAITING_PICKUP, awaitingPickupMs);
+        intervalsMs.put(TrackingStage.IN_TRANSIT, inTransitMs);
+        intervalsMs.put(TrackingStage.OUT_FOR_DELIVERY, outForDeliveryMs);
+        intervalsMs.put(TrackingStage.SETTLED, settledRetentionMs);
+        this.jitter = jitter;
+        this.errorRetryMs = errorRetryMs;
+        this.maxOrders = maxOrders;
+        this.maxInFlight = maxInFlight;
+        this.readTimeoutMs = readTimeoutMs;
+        this.rateLimiter = new RateLimiter(maxPerSecond, Math.max(1, (int) Math.ceil(maxPerSecond)));
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("shipping.tracking.orders", orders, Map::size).register(meterRegistry);
+        Gauge.builder("shipping.tracking.lag.seconds", this, OrderTrackingService::lagSeconds).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        stopping = true;
+    }
+
+    /**
+     * Start tracking an order GHN has just accepted
+     */
+    @EventListener
+    public void onOrderSubmitted(OrderSubmittedEvent event) {
+        if (!enabled || event.orderCode() == null) {
+            return;
+        }
+        if (orders.size() >= maxOrders) {
+            count("shipping.tracking.rejected", "reason", "full");
+            return;
+        }
+        TrackedOrder order = new TrackedOrder(event.orderCode(), event.clientOrderCode());
+        if (orders.putIfAbsent(order.orderCode, order) == null) {
+            // First poll anywhere within the interval, so a burst of orders does not poll as a burst
+            long interval = intervalsMs.get(TrackingStage.AWAITING_PICKUP);
+            order.dueAt = System.currentTimeMillis() + ThreadLocalRandom.current().nextLong(interval + 1);
+            due.add(order);
+        }
+    }
+
+    /**
+     * Last known status of an order, from memory. An unknown order is read from GHN once
+     * (concurrent readers share the call) and tracked from then on.
+     * @return status, or null if GHN does not know the order
+     * @throws RuntimeException if the order is unknown and GHN could not be reached
+     */
+    public OrderTrackingDTO get(String orderCode) {
+        TrackedOrder order = orders.get(orderCode);
+        if (order != null && order.status != null) {
+            count("shipping.tracking.reads", "source", "memory");
+            return order.toDto();
+        }
+
+        CompletableFuture<TrackedOrder> load = new CompletableFuture<>();
+        CompletableFuture<TrackedOrder> running = loading.putIfAbsent(orderCode, load);
+        if (running != null) {
+            TrackedOrder loaded = await(running);
+            return loaded != null ? loaded.toDto() : null;
+        }
+        try {
+            count("shipping.tracking.reads", "source", "upstream");
+            OrderTrackingDTO status = ghtkService.getOrderDetail(orderCode);
+            TrackedOrder loaded = status != null ? track(orderCode, status) : null;
+            load.complete(loaded);
+            return loaded != null ? loaded.toDto() : status;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(orderCode, load);
+        }
+    }
+
+    /**
+     * Claim due orders (up to max-in-flight) and poll them, paced by the rate limit
+     */
+    @Scheduled(fixedDelayString = "${shipping.tracking.dispatch-interval-ms:200}")
+    public void dispatch() {
+        if (!enabled || stopping) {
+            return;
+        }
+        while (inFlight.get() < maxInFlight) {
+            TrackedOrder head = due.peek();
+            if (head == null || head.getDelay(TimeUnit.MILLISECONDS) > 0) {
+                return;
+            }
+            if (head.stage == TrackingStage.SETTLED) {
+                // Retention is over: forget it (no GHN call, no permit needed)
+                if (due.remove(head)) {
+                    orders.remove(head.orderCode, head);
+                }
+                continue;
+            }
+            if (!rateLimiter.tryAcquire()) {
+                return;
+            }
+            TrackedOrder order = due.poll();
+            if (order == null) {
+                return;
+            }
+            inFlight.incrementAndGet();
+            try {
+                executor.execute(() -> poll(order));
+            } catch (TaskRejectedException e) {
+                inFlight.decrementAndGet();
+                due.add(order);
+                return;
+            }
+        }
+    }
+
+    private void poll(TrackedOrder order) {
+        try {
+            OrderTrackingDTO status = ghtkService.getOrderDetail(order.orderCode);
+            if (status == null) {
+                count("shipping.tracking.polls", "result", "not_found");
+                if (order.status == null) {
+                    // Never seen at GHN: stop tracking
+                    orders.remove(order.orderCode, order);
+                    return;
+                }
+                schedule(order, intervalsMs.get(order.stage));
+                return;
+            }
+            boolean changed = order.status != null && !Objects.equals(order.status.getStatus(), status.getStatus());
+            update(order, status);
+            count("shipping.tracking.polls", "result", changed ? "changed" : "unchanged");
+            if (changed) {
+                log.debug("Order {} is now {}", order.orderCode, status.getStatus());
+            }
+            schedule(order, intervalsMs.get(order.stage));
+        } catch (RuntimeException e) {
+            count("shipping.tracking.polls", "result", "error");
+            log.warn("Polling order {} failed: {}", order.orderCode, e.getMessage());
+            schedule(order, errorRetryMs);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Store a status read on a user request; schedule the order if it is new
+     */
+    private TrackedOrder track(String orderCode, OrderTrackingDTO status) {
+        TrackedOrder order = orders.get(orderCode);
+        if (order != null) {
+            // Already queued (e.g. from the outbox): keep its slot in the schedule
+            update(order, status);
+            return order;
+        }
+        order = new TrackedOrder(orderCode, status.getClientOrderCode());
+        update(order, status);
+        if (orders.size() >= maxOrders) {
+            count("shipping.tracking.rejected", "reason", "full");
+            return order;
+        }
+        if (orders.putIfAbsent(orderCode, order) == null) {
+            schedule(order, intervalsMs.get(order.stage));
+        }
+        return order;
+    }
+
+    private void update(TrackedOrder order, OrderTrackingDTO status) {
+        order.stage = TrackingStage.of(status.getStatus());
+        order.checkedAt = System.currentTimeMillis();
+        order.status = status;
+    }
+
+    /**
+     * Re-queue after a jittered delay; settled orders are queued once more, for eviction
+     */
+    private void schedule(TrackedOrder order, long delayMs) {
+        double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        order.dueAt = System.currentTimeMillis() + (long) (delayMs * factor);
+        due.add(order);
+    }
+
+    private TrackedOrder await(CompletableFuture<TrackedOrder> load) {
+        try {
+            return load.get(readTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading order status", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                    : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for GHN order status", e);
+        }
+    }
+
+    /**
+     * How far the oldest due poll is behind schedule (0 when the poller keeps up)
+     */
+    private double lagSeconds() {
+        TrackedOrder head = due.peek();
+        if (head == null || head.stage == TrackingStage.SETTLED) {
+            return 0;
+        }
+        return Math.max(0, System.currentTimeMillis() - head.dueAt) / 1000.0;
+    }
+
+    private void count(String name, String tag, String value) {
+        Counter.builder(name).tag(tag, value).register(meterRegistry).increment();
+    }
+
+    /**
+     * One tracked order, ordered in the due queue by its next poll time.
+     * dueAt only changes while the order is out of the queue.
+     */
+    private static final class TrackedOrder implements Delayed {
+        final String orderCode;
+        final String clientOrderCode;
+        volatile OrderTrackingDTO status;
+        volatile TrackingStage stage = TrackingStage.AWAITING_PICKUP;
+        volatile long checkedAt;
+        volatile long dueAt;
+
+        TrackedOrder(String orderCode, String clientOrderCode) {
+            this.orderCode = orderCode;
+            this.clientOrderCode = clientOrderCode;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAt, ((TrackedOrder) other).dueAt);
+        }
+
+        OrderTrackingDTO toDto() {
+            OrderTrackingDTO current = status;
+            TrackingStage currentStage = stage;
+            return OrderTrackingDTO.builder()
+                    .orderCode(orderCode)
+                    .clientOrderCode(current != null && current.getClientOrderCode() != null
+                            ? current.getClientOrderCode() : clientOrderCode)
+                    .status(current != null ? current.getStatus() : null)
+                    .stage(currentStage.name())
+                    .leadtime(current != null ? current.getLeadtime() : null)
+                    .updatedDate(current != null ? current.getUpdatedDate() : null)
+                    .checkedAt(checkedAt > 0 ? checkedAt : null)
+                    .nextCheckAt(currentStage != TrackingStage.SETTLED ? dueAt : null)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.shipping_fee.tracking;
+
+import java.util.Set;
+
+/**
+ * Lifecycle stage of a GHN order, which decides how often its status is polled
+ */
+public enum TrackingStage {
+
+    // Created, waiting for the shipper to pick it up
+    AWAITING_PICKUP,
+
+    // Picked up, moving between hubs (also returns in transit)
+    IN_TRANSIT,
+
+    // With the delivery shipper: status changes within minutes
+    OUT_FOR_DELIVERY,
+
+    // Final status, no more polling
+    SETTLED;
+
+    private static final Set<String> PICKUP = Set.of("ready_to_pick", "picking", "money_collect_picking");
+    private static final Set<String> DELIVERY = Set.of("delivering", "money_collect_delivering", "delivery_fail",
+            "returning");
+    private static final Set<String> FINAL = Set.of("delivered", "returned", "cancel", "lost", "damage");
+
+    /**
+     * Stage of a GHN status; unknown statuses are polled as in transit
+     */
+    public static TrackingStage of(String ghnStatus) {
+        if (ghnStatus == null) {
+            return AWAITING_PICKUP;
+        }
+        if (PICKUP.contains(ghnStatus)) {
+            return AWAITING_PICKUP;
+        }
+        if (DELIVERY.contains(ghnStatus)) {
+            return OUT_FOR_DELIVERY;
+        }
+        if (FINAL.contains(ghnStatus)) {
+            return SETTLED;
+        }
+        return IN_TRANSIT;
+    }
+}
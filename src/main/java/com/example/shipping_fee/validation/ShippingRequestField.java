@@ -0,0 +1,84 @@
+package com.example.shipping_fee.validation;
+
+import com.example.shipping_fee.constant.ErrorMessages;
+import com.example.shipping_fee.dto.ShippingRequest;
+
+/**
+ * Fields of {@link ShippingRequest} that validation rules can target.
+ * Reads go through a switch on the constant rather than a functional accessor,
+ * so the JIT sees direct getter calls it can inline.
+ */
+enum ShippingRequestField {
+
+    FROM_DISTRICT_ID(ErrorMessages.FIELD_FROM_DISTRICT_ID, false),
+    FROM_WARD_CODE(ErrorMessages.FIELD_FROM_WARD_CODE, true),
+    TO_DISTRICT_ID(ErrorMessages.FIELD_TO_DISTRICT_ID, false),
+    TO_WARD_CODE(ErrorMessages.FIELD_TO_WARD_CODE, true),
+    SERVICE_ID("serviceId", false),
+    SERVICE_TYPE_ID(ErrorMessages.FIELD_SERVICE_TYPE_ID, false),
+    WEIGHT(ErrorMessages.FIELD_WEIGHT, false),
+    LENGTH(ErrorMessages.FIELD_LENGTH, false),
+    WIDTH(ErrorMessages.FIELD_WIDTH, false),
+    HEIGHT(ErrorMessages.FIELD_HEIGHT, false),
+    INSURANCE_VALUE(ErrorMessages.FIELD_INSURANCE_VALUE, false),
+    COD_VALUE(ErrorMessages.FIELD_COD_VALUE, false),
+    COD_FAILED_AMOUNT("codFailedAmount", false),
+    COUPON("coupon", true);
+
+    private final String fieldName;
+    private final boolean text;
+
+    ShippingRequestField(String fieldName, boolean text) {
+        this.fieldName = fieldName;
+        this.text = text;
+    }
+
+    String fieldName() {
+        return fieldName;
+    }
+
+    boolean isText() {
+        return text;
+    }
+
+    /**
+     * Numeric field value, or null if absent. Only valid when !isText().
+     */
+    Integer readNumber(ShippingRequest request) {
+        switch (this) {
+            case FROM_DISTRICT_ID: return request.getFromDistrictId();
+            case TO_DISTRICT_ID: return request.getToDistrictId();
+            case SERVICE_ID: return request.getServiceId();
+            case SERVICE_TYPE_ID: return request.getServiceTypeId();
+            case WEIGHT: return request.getWeight();
+            case LENGTH: return request.getLength();
+            case WIDTH: return request.getWidth();
+            case HEIGHT: return request.getHeight();
+            case INSURANCE_VALUE: return request.getInsuranceValue();
+            case COD_VALUE: return request.getCodValue();
+            case COD_FAILED_AMOUNT: return request.getCodFailedAmount();
+            default: throw new IllegalStateException(fieldName + " is not numeric");
+        }
+    }
+
+    /**
+     * Text field value, or null if absent. Only valid when isText().
+     */
+    String readText(ShippingRequest request) {
+        switch (this) {
+            case FROM_WARD_CODE: return request.getFromWardCode();
+            case TO_WARD_CODE: return request.getToWardCode();
+            case COUPON: return request.getCoupon();
+            default: throw new IllegalStateException(fieldName + " is not text");
+        }
+    }
+
+    static ShippingRequestField byName(String name) {
+        for (ShippingRequestField field : values()) {
+            if (field.fieldName.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalStateException("Unknown validation field: " + name);
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.shipping_fee.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.example.shipping_fee.constant.ErrorMessages;
+import com.example.shipping_fee.dto.ErrorMessageDTO;
+import com.example.shipping_fee.dto.ShippingRequest;
+
+/**
+ * Single-pass validator compiled from {@link ValidationRule}s at startup.
+ *
+ * - Rules are resolved once into a flat array of field checks (unknown fields or
+ *   inconsistent limits fail startup, not requests)
+ * - Valid requests allocate nothing: no list, no error objects
+ * - Invalid requests reuse one immutable error instance per (field, failure)
+ *
+ * Shared by every quoting path (single, batch, streaming) so they apply identical rules.
+ */
+public final class ShippingRequestValidator {
+
+    private static final long MAX_WEIGHT_GRAMS = 50000;
+    private static final long MAX_INSURANCE_VALUE = 5000000;
+    private static final long MAX_COD_VALUE = 5000000;
+    private static final long MAX_DIMENSION_CM = 200;
+    private static final long MIN_SERVICE_TYPE = 1;
+    private static final long MAX_SERVICE_TYPE = 3;
+
+    private final CompiledRule[] rules;
+
+    private ShippingRequestValidator(CompiledRule[] rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Compile rules over {@link #defaultRules()}: a configured rule replaces the built-in rule
+     * of its field (keeping its position), rules for other fields are appended, and every
+     * other built-in rule stays in force.
+     * A configured rule without a message takes the built-in message of its field,
+     * as long as it keeps the built-in limit that message describes.
+     * @throws IllegalStateException if a rule targets an unknown field or has min > max
+     */
+    public static ShippingRequestValidator compile(List<ValidationRule> rules) {
+        Map<String, ValidationRule> builtIn = new HashMap<>();
+        Map<String, ValidationRule> merged = new LinkedHashMap<>();
+        for (ValidationRule rule : defaultRules()) {
+            builtIn.put(rule.getField(), rule);
+            merged.put(rule.getField(), rule);
+        }
+        if (rules != null) {
+            for (ValidationRule rule : rules) {
+                merged.put(rule.getField(), withBuiltInMessages(rule, builtIn.get(rule.getField())));
+            }
+        }
+        CompiledRule[] compiled = new CompiledRule[merged.size()];
+        int i = 0;
+        for (ValidationRule rule : merged.values()) {
+            compiled[i++] = CompiledRule.of(rule);
+        }
+        return new ShippingRequestValidator(compiled);
+    }
+
+    public static ShippingRequestValidator defaults() {
+        return compile(defaultRules());
+    }
+
+    /**
+     * Validate and collect all field errors
+     * Note: fromDistrictId and fromWardCode are optional - GHN API uses shop's default address if not provided
+     * @return errors in rule order, or an empty immutable list if valid
+     */
+    public List<ErrorMessageDTO> validate(ShippingRequest request) {
+        List<ErrorMessageDTO> errors = null;
+        for (CompiledRule rule : rules) {
+            ErrorMessageDTO error = rule.check(request);
+            if (error != null) {
+                if (errors == null) {
+                    errors = new ArrayList<>(4);
+                }
+                errors.add(error);
+            }
+        }
+        return errors == null ? Collections.emptyList() : errors;
+    }
+
+    /**
+     * Built-in GHN rules, same as the carrier limits documented in ErrorMessages
+     */
+    public static List<ValidationRule> defaultRules() {
+        List<ValidationRule> rules = new ArrayList<>();
+        rules.add(ValidationRule.builder().field(ErrorMessages.FIELD_TO_DISTRICT_ID)
+                .required(true).requiredMessage(ErrorMessages.ERR_TO_DISTRICT_REQUIRED).build());
+        rules.add(ValidationRule.builder().field(ErrorMessages.FIELD_TO_WARD_CODE)
+                .required(true).requiredMessage(ErrorMessages.ERR_TO_WARD_REQUIRED).build());
+        rules.add(ValidationRule.builder().field(ErrorMessages.FIELD_WEIGHT)
+                .required(true).requiredMessage(ErrorMessages.ERR_WEIGHT_REQUIRED)
+                .min(1L).minMessage(ErrorMessages.ERR_WEIGHT_INVALID)
+                .max(MAX_WEIGHT_GRAMS).maxMessage(ErrorMessages.ERR_WEIGHT_MAX_EXCEEDED).build());
+        rules.add(ValidationRule.builder().field(ErrorMessages.FIELD_SERVICE_TYPE_ID)
+                .min(MIN_SERVICE_TYPE).minMessage(ErrorMessages.ERR_SERVICE_TYPE_INVALID)
+                .max(MAX_SERVICE_TYPE).maxMessage(ErrorMessages.ERR_SERVICE_TYPE_INVALID).build());
+        rules.add(ValidationRule.builder().field(ErrorMessages.FIELD_INSURANCE_VALUE)
+                .min(0L).minMessage(ErrorMessages.ERR_INSURANCE_VALUE_NEGATIVE)
+                .max(MAX_INSURANCE_VALUE).maxMessage(ErrorMessages.ERR_INSURANCE_VALUE_MAX_EXCEEDED).build());
+        rules.add(ValidationRule.builder().field(ErrorMessages.FIELD_COD_VALUE)
+                .min(0L).minMessage(ErrorMessages.ERR_COD_VALUE_NEGATIVE)
+                .max(MAX_COD_VALUE).maxMessage(ErrorMessages.ERR_COD_VALUE_MAX_EXCEEDED).build());
+        for (String dimension : new String[] {ErrorMessages.FIELD_LENGTH, ErrorMessages.FIELD_WIDTH,
+                ErrorMessages.FIELD_HEIGHT}) {
+            rules.add(ValidationRule.builder().field(dimension)
+                    .min(0L).minMessage(ErrorMessages.ERR_DIMENSION_NEGATIVE)
+                    .max(MAX_DIMENSION_CM).maxMessage(ErrorMessages.ERR_DIMENSION_MAX_EXCEEDED).build());
+        }
+        return rules;
+    }
+
+    private static ValidationRule withBuiltInMessages(ValidationRule rule, ValidationRule builtIn) {
+        if (builtIn == null || rule == builtIn) {
+            return rule;
+        }
+        return rule.toBuilder()
+                .requiredMessage(rule.getRequiredMessage() != null ? rule.getRequiredMessage()
+                        : builtIn.getRequiredMessage())
+                .minMessage(rule.getMinMessage() != null || !Objects.equals(rule.getMin(), builtIn.getMin())
+                        ? rule.getMinMessage() : builtIn.getMinMessage())
+                .maxMessage(rule.getMaxMessage() != null || !Objects.equals(rule.getMax(), builtIn.getMax())
+                        ? rule.getMaxMessage() : builtIn.getMaxMessage())
+                .build();
+    }
+
+    /**
+     * One field check with its pre-built error instances
+     */
+    private static final class CompiledRule {
+        final ShippingRequestField field;
+        final boolean text;
+        final boolean required;
+        final long min;
+        final long max;
+        final ErrorMessageDTO requiredError;
+        final ErrorMessageDTO minError;
+        final ErrorMessageDTO maxError;
+
+        private CompiledRule(ShippingRequestField field, ValidationRule rule) {
+            this.field = field;
+            this.text = field.isText();
+            this.required = rule.isRequired();
+            this.min = rule.getMin() != null ? rule.getMin() : Long.MIN_VALUE;
+            this.max = rule.getMax() != null ? rule.getMax() : Long.MAX_VALUE;
+            if (min > max) {
+                throw new IllegalStateException("Validation rule for " + rule.getField() + " has min > max");
+            }
+            String name = field.fieldName();
+            this.requiredError = intern(name, rule.getRequiredMessage(), name + " is required", rule);
+            this.minError = intern(name, rule.getMinMessage(), name + " must be at least {min}", rule);
+            this.maxError = intern(name, rule.getMaxMessage(), name + " cannot exceed {max}", rule);
+        }
+
+        static CompiledRule of(ValidationRule rule) {
+            return new CompiledRule(ShippingRequestField.byName(rule.getField()), rule);
+        }
+
+        ErrorMessageDTO check(ShippingRequest request) {
+            if (text) {
+                String value = field.readText(request);
+                return required && isBlank(value) ? requiredError : null;
+            }
+            Integer value = field.readNumber(request);
+            if (value == null) {
+                return required ? requiredError : null;
+            }
+            int number = value;
+            if (number < min) {
+                return minError;
+            }
+            if (number > max) {
+                return maxError;
+            }
+            return null;
+        }
+
+        /**
+         * Same as value.trim().isEmpty() without allocating the trimmed copy
+         */
+        private static boolean isBlank(String value) {
+            if (value == null) {
+                return true;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) > ' ') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static ErrorMessageDTO intern(String field, String message, String fallback, ValidationRule rule) {
+            String text = message != null ? message : fallback;
+            text = text.replace("{min}", String.valueOf(rule.getMin()))
+                    .replace("{max}", String.valueOf(rule.getMax()));
+            return new InternedError(field, text);
+        }
+    }
+
+    /**
+     * Shared error instance: setters are disabled so one caller cannot corrupt another's response
+     */
+    private static final class InternedError extends ErrorMessageDTO {
+
+        InternedError(String field, String message) {
+            super(field, message);
+        }
+
+        @Override
+        public void setField(String field) {
+            throw new UnsupportedOperationException("Interned validation error is immutable");
+        }
+
+        @Override
+        public void setMessage(String message) {
+            throw new UnsupportedOperationException("Interned validation error is immutable");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.shipping_fee.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Carrier rules for shipping requests ({@code shipping.validation.*}).
+ * When no rules are configured the built-in defaults are used.
+ */
+@Data
+public class ValidationProperties {
+
+    private List<ValidationRule> rules = new ArrayList<>();
+}
@@ -0,0 +1,37 @@
+package com.example.shipping_fee.validation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One declarative constraint on a {@link com.example.shipping_fee.dto.ShippingRequest} field,
+ * bound from {@code shipping.validation.rules[*]}.
+ *
+ * Checks run in this order and stop at the first failure for the field:
+ * - required : null (or blank for text fields) fails with requiredMessage
+ * - min      : numeric value below min fails with minMessage
+ * - max      : numeric value above max fails with maxMessage
+ *
+ * Messages may use {min} and {max} placeholders, resolved once at startup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ValidationRule {
+
+    // Field name as reported in errors, e.g. "weight", "toWardCode"
+    private String field;
+
+    @Builder.Default
+    private boolean required = false;
+
+    private Long min;
+    private Long max;
+
+    private String requiredMessage;
+    private String minMessage;
+    private String maxMessage;
+}
@@ -0,0 +1,72 @@
+package com.example.shipping_fee.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdmissionControllerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private AdmissionController controller(int maxConcurrent, long intervalMs) {
+        return new AdmissionController(registry, maxConcurrent, 16, intervalMs,
+                20, 500, 10, 200, 5, 50);
+    }
+
+    @Test
+    void freedSlotGoesToCheckoutBeforeMasterData() throws Exception {
+        AdmissionController controller = controller(1, 100);
+        AdmissionController.Permit running = controller.acquire(RequestPriority.MASTER_DATA);
+
+        CompletableFuture<AdmissionController.Permit> masterData =
+                CompletableFuture.supplyAsync(() -> acquireQuietly(controller, RequestPriority.MASTER_DATA));
+        TimeUnit.MILLISECONDS.sleep(20);
+        CompletableFuture<AdmissionController.Permit> checkout =
+                CompletableFuture.supplyAsync(() -> acquireQuietly(controller, RequestPriority.CHECKOUT_QUOTE));
+        TimeUnit.MILLISECONDS.sleep(20);
+
+        running.release();
+
+        assertThat(checkout.get(1, TimeUnit.SECONDS)).isNotNull();
+        assertThat(masterData.isDone()).isFalse();
+    }
+
+    @Test
+    void standingQueueSwitchesClassToFastRejection() throws Exception {
+        AdmissionController controller = controller(1, 10);
+        controller.acquire(RequestPriority.CHECKOUT_QUOTE);
+
+        // Master data waits past its max wait twice, longer than one interval above target
+        assertThatThrownBy(() -> controller.acquire(RequestPriority.MASTER_DATA))
+                .isInstanceOf(AdmissionRejectedException.class);
+        CompletableFuture<AdmissionController.Permit> queued =
+                CompletableFuture.supplyAsync(() -> acquireQuietly(controller, RequestPriority.MASTER_DATA));
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertThatThrownBy(() -> controller.acquire(RequestPriority.MASTER_DATA))
+                .isInstanceOf(AdmissionRejectedException.class);
+
+        assertThat(controller.isDropping(RequestPriority.MASTER_DATA)).isTrue();
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> controller.acquire(RequestPriority.MASTER_DATA))
+                .isInstanceOf(AdmissionRejectedException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(50);
+        assertThat(queued.get(1, TimeUnit.SECONDS)).isNull();
+
+        assertThat(registry.get("shipping.admission.decisions")
+                .tag("outcome", AdmissionController.OUTCOME_SHED_CODEL).counter().count()).isPositive();
+    }
+
+    private static AdmissionController.Permit acquireQuietly(AdmissionController controller, RequestPriority priority) {
+        try {
+            return controller.acquire(priority);
+        } catch (AdmissionRejectedException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.shipping_fee.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.shipping_fee.constant.ErrorCode;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+class AdmissionFilterTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void shedRequestCarriesOverloadCodeAndRetryAfter() throws Exception {
+        AdmissionController controller = new AdmissionController(new SimpleMeterRegistry(), 1, 16, 10,
+                20, 500, 10, 20, 5, 50);
+        controller.acquire(RequestPriority.CHECKOUT_QUOTE);
+        AdmissionFilter filter = new AdmissionFilter(controller, jsonMapper);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "retryAfterSeconds", 2);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean reachedController = new AtomicBoolean();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/shipping/provinces"), response,
+                (req, res) -> reachedController.set(true));
+
+        assertThat(reachedController).isFalse();
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        JsonNode body = jsonMapper.readTree(response.getContentAsByteArray());
+        assertThat(body.get("success").asBoolean()).isFalse();
+        assertThat(body.get("errorCode").asString()).isEqualTo(ErrorCode.OVERLOADED.name());
+    }
+}
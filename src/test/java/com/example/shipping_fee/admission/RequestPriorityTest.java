@@ -0,0 +1,22 @@
+package com.example.shipping_fee.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class RequestPriorityTest {
+
+    @Test
+    void onlyCheckoutPostsOutrankMasterData() {
+        assertThat(RequestPriority.forRequest("POST", "/api/shipping/calculate")).isEqualTo(RequestPriority.CHECKOUT_QUOTE);
+        assertThat(RequestPriority.forRequest("POST", "/api/shipping/quotes")).isEqualTo(RequestPriority.CHECKOUT_QUOTE);
+        assertThat(RequestPriority.forRequest("POST", "/api/shipping/orders")).isEqualTo(RequestPriority.CHECKOUT_QUOTE);
+
+        assertThat(RequestPriority.forRequest("GET", "/api/shipping/orders/SHOP-1")).isEqualTo(RequestPriority.MASTER_DATA);
+        assertThat(RequestPriority.forRequest("GET", "/api/shipping/orders/dead-letters")).isEqualTo(RequestPriority.MASTER_DATA);
+        assertThat(RequestPriority.forRequest("POST", "/api/shipping/orders/dead-letters/SHOP-1/retry"))
+                .isEqualTo(RequestPriority.MASTER_DATA);
+        assertThat(RequestPriority.forRequest("GET", "/api/shipping/tracking/GHN-1")).isEqualTo(RequestPriority.MASTER_DATA);
+        assertThat(RequestPriority.forRequest("GET", "/api/shipping/health")).isEqualTo(RequestPriority.HEALTH);
+    }
+}
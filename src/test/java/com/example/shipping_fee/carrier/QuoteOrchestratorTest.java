@@ -0,0 +1,170 @@
+package com.example.shipping_fee.carrier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.shipping_fee.deadline.Deadline;
+import com.example.shipping_fee.dto.CarrierQuoteDTO;
+import com.example.shipping_fee.dto.CarrierServiceDTO;
+import com.example.shipping_fee.dto.DistrictDTO;
+import com.example.shipping_fee.dto.MultiCarrierQuoteDTO;
+import com.example.shipping_fee.dto.ProvinceDTO;
+import com.example.shipping_fee.dto.ShippingRequest;
+import com.example.shipping_fee.dto.ShippingResponse;
+import com.example.shipping_fee.dto.WardDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class QuoteOrchestratorTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final ShippingRequest request = ShippingRequest.builder()
+            .toDistrictId(1442)
+            .toWardCode("20314")
+            .weight(1000)
+            .build();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void ranksByPriceOrEta() {
+        QuoteOrchestrator orchestrator = orchestrator(
+                new FakeCarrier("cheap", 20000, 5, 0, 1000),
+                new FakeCarrier("fast", 35000, 1, 0, 1000),
+                new FakeCarrier("off", 1000, 1, 0, 1000).disabled());
+
+        MultiCarrierQuoteDTO byPrice = orchestrator.quote(request, QuoteOrchestrator.Rank.PRICE, deadline(3000));
+        assertThat(byPrice.getWinner().getCarrier()).isEqualTo("cheap");
+        assertThat(byPrice.getQuotes()).extracting(CarrierQuoteDTO::getCarrier).containsExactly("cheap", "fast");
+
+        MultiCarrierQuoteDTO byEta = orchestrator.quote(request, QuoteOrchestrator.Rank.ETA, deadline(3000));
+        assertThat(byEta.getWinner().getCarrier()).isEqualTo("fast");
+        assertThat(byEta.getWinner().getTotal()).isEqualTo(35000);
+    }
+
+    @Test
+    void slowCarrierIsCutOffAtItsTimeout() {
+        QuoteOrchestrator orchestrator = orchestrator(
+                new FakeCarrier("slow", 10000, 1, 5000, 200),
+                new FakeCarrier("quick", 30000, 3, 10, 1000));
+
+        long started = System.nanoTime();
+        MultiCarrierQuoteDTO quotes = orchestrator.quote(request, QuoteOrchestrator.Rank.PRICE, deadline(3000));
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        assertThat(elapsedMs).isLessThan(1000);
+        assertThat(quotes.getWinner().getCarrier()).isEqualTo("quick");
+        assertThat(quotes.getQuotes().get(1).getCarrier()).isEqualTo("slow");
+        assertThat(quotes.getQuotes().get(1).getStatus()).isEqualTo(CarrierQuoteDTO.Status.TIMEOUT);
+    }
+
+    @Test
+    void noWinnerWhenEveryCarrierFails() {
+        FakeCarrier failing = new FakeCarrier("broken", 0, 1, 0, 1000);
+        failing.fail = true;
+        MultiCarrierQuoteDTO quotes = orchestrator(failing).quote(request, QuoteOrchestrator.Rank.PRICE, deadline(1000));
+
+        assertThat(quotes.getWinner()).isNull();
+        assertThat(quotes.getQuotes().get(0).getStatus()).isEqualTo(CarrierQuoteDTO.Status.ERROR);
+        assertThat(quotes.getQuotes().get(0).getMessage()).isEqualTo("Route not found service");
+    }
+
+    private QuoteOrchestrator orchestrator(CarrierProvider... carriers) {
+        return new QuoteOrchestrator(List.of(carriers), executor, new SimpleMeterRegistry());
+    }
+
+    private Deadline deadline(long millis) {
+        return Deadline.after(Duration.ofMillis(millis));
+    }
+
+    /**
+     * Carrier with a fixed fee, delivery days and latency (the latency ignores cancellation,
+     * like a stuck upstream call)
+     */
+    private static class FakeCarrier implements CarrierProvider {
+        final String id;
+        final int total;
+        final int etaDays;
+        final long latencyMs;
+        final long timeoutMs;
+        boolean enabled = true;
+        boolean fail;
+
+        FakeCarrier(String id, int total, int etaDays, long latencyMs, long timeoutMs) {
+            this.id = id;
+            this.total = total;
+            this.etaDays = etaDays;
+            this.latencyMs = latencyMs;
+            this.timeoutMs = timeoutMs;
+        }
+
+        FakeCarrier disabled() {
+            enabled = false;
+            return this;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        @Override
+        public long getQuoteTimeoutMs() {
+            return timeoutMs;
+        }
+
+        @Override
+        public List<ProvinceDTO> getProvinces() {
+            return List.of();
+        }
+
+        @Override
+        public List<DistrictDTO> getDistricts(Integer provinceId) {
+            return List.of();
+        }
+
+        @Override
+        public List<WardDTO> getWards(Integer districtId) {
+            return List.of();
+        }
+
+        @Override
+        public ShippingResponse calculateFee(ShippingRequest request) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (fail) {
+                return ShippingResponse.builder().success(false).message("Route not found service").build();
+            }
+            return ShippingResponse.builder().success(true).total(total).build();
+        }
+
+        @Override
+        public List<CarrierServiceDTO> getAvailableServices(Integer fromDistrictId, Integer toDistrictId) {
+            return List.of();
+        }
+
+        @Override
+        public Long getLeadtime(ShippingRequest request) {
+            return 1_800_000_000L + etaDays * 86_400L;
+        }
+    }
+}
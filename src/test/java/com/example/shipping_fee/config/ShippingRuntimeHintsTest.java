@@ -0,0 +1,26 @@
+package com.example.shipping_fee.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import com.example.shipping_fee.dto.CompactWardListDTO;
+import com.example.shipping_fee.dto.ErrorMessageDTO;
+import com.example.shipping_fee.dto.ShippingResponse;
+
+class ShippingRuntimeHintsTest {
+
+    @Test
+    void dtosAreRegisteredForBinding() {
+        RuntimeHints hints = new RuntimeHints();
+        new ShippingRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection().onType(ShippingResponse.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(CompactWardListDTO.class)).accepts(hints);
+        // Nested types are reached through the parent's getters
+        assertThat(RuntimeHintsPredicates.reflection().onType(ErrorMessageDTO.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("application-ghn-stub.yaml")).accepts(hints);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.shipping_fee.consolidation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import com.example.shipping_fee.constant.ErrorCode;
+import com.example.shipping_fee.deadline.Deadline;
+import com.example.shipping_fee.dto.CartItemDTO;
+import com.example.shipping_fee.dto.ConsolidationPlanDTO;
+import com.example.shipping_fee.dto.ConsolidationRequest;
+import com.example.shipping_fee.dto.ParcelDTO;
+import com.example.shipping_fee.feematrix.FeeMatrix;
+import com.example.shipping_fee.service.GhnApiException;
+import com.example.shipping_fee.service.GhtkService;
+import com.example.shipping_fee.service.NegativeCache;
+import com.example.shipping_fee.service.QuoteCache;
+import com.example.shipping_fee.simulator.GhnSimulator;
+import com.example.shipping_fee.simulator.GhnSimulatorSettings;
+import com.example.shipping_fee.simulator.SimulatedGhn;
+import com.example.shipping_fee.validation.ShippingRequestValidator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConsolidationOptimizerTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private GhnSimulator simulator;
+    private ConsolidationOptimizer optimizer;
+
+    @BeforeEach
+    void setUp() {
+        simulator = SimulatedGhn.start(GhnSimulatorSettings.builder()
+                .provinces(1).districtsPerProvince(2).wardsPerDistrict(3).build());
+
+        GhtkService service = new GhtkService(new RestTemplate(), ShippingRequestValidator.defaults(),
+                QuoteCache.disabled(), NegativeCache.disabled(), FeeMatrix.disabled());
+        SimulatedGhn.connect(service, simulator);
+
+        optimizer = new ConsolidationOptimizer(service, executor, new SimpleMeterRegistry(), 500, 50000, 200, 5000,
+                500, 10000, new int[] {2000, 5000, 10000, 20000, 30000}, 3, 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        simulator.stop();
+        executor.shutdownNow();
+    }
+
+    private static ConsolidationRequest cart(int toDistrictId, String toWardCode, CartItemDTO... items) {
+        return ConsolidationRequest.builder()
+                .toDistrictId(toDistrictId)
+                .toWardCode(toWardCode)
+                .serviceTypeId(2)
+                .items(List.of(items))
+                .build();
+    }
+
+    private static CartItemDTO item(String code, int quantity, int weight, int length, int width, int height) {
+        return new CartItemDTO(code, quantity, weight, length, width, height);
+    }
+
+    private static Deadline deadline() {
+        return Deadline.after(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void largeCartIsPlannedWithFewQuotesAndVerifiedFees() {
+        ConsolidationRequest request = cart(1001, "100101",
+                item("TSHIRT", 40, 250, 30, 25, 2),
+                item("MUG", 12, 400, 12, 10, 10),
+                item("KETTLE", 4, 1800, 25, 20, 20));
+        assertThat(optimizer.validate(request)).isEmpty();
+
+        ConsolidationPlanDTO plan = optimizer.optimize(request, deadline());
+
+        int units = plan.getParcels().stream().mapToInt(p -> p.getItems().values().stream().mapToInt(Integer::intValue).sum()).sum();
+        assertThat(units).isEqualTo(56);
+        assertThat(plan.getTotal()).isEqualTo(plan.getParcels().stream().mapToInt(p -> p.getFee().getTotal()).sum());
+        // The simulator prices by GHN's step rule, so the calibrated model is exact
+        assertThat(plan.getEstimatedTotal()).isEqualTo(plan.getTotal());
+        assertThat(plan.getVerified()).isPositive();
+        // 2 calibration quotes, then at most every parcel of the verified plans
+        assertThat(simulator.getRequestCount(GhnSimulator.ENDPOINT_FEE))
+                .isLessThanOrEqualTo(2 + (long) plan.getVerified() * 10);
+    }
+
+    @Test
+    void boxesThatCannotBeStackedAreSplit() {
+        ConsolidationRequest request = cart(1001, "100101", item("CABINET", 3, 5000, 100, 90, 80));
+
+        ConsolidationPlanDTO plan = optimizer.optimize(request, deadline());
+
+        assertThat(plan.getParcels()).hasSize(2);
+        for (ParcelDTO parcel : plan.getParcels()) {
+            assertThat(parcel.getHeight()).isLessThanOrEqualTo(200);
+            assertThat(parcel.getChargeableWeight()).isEqualTo(
+                    Math.max(parcel.getWeight(), parcel.getLength() * parcel.getWidth() * parcel.getHeight() / 5000));
+        }
+    }
+
+    @Test
+    void invalidCartsAndUnservedRoutesAreRejected() {
+        assertThat(optimizer.validate(cart(1001, "100101"))).extracting("field").contains("items");
+        List<CartItemDTO> tooMany = new ArrayList<>();
+        tooMany.add(item("PIN", 501, 10, 0, 0, 0));
+        tooMany.add(item("HUGE", 1, 60000, 10, 10, 10));
+        assertThat(optimizer.validate(cart(1001, "100101", tooMany.toArray(new CartItemDTO[0]))))
+                .extracting("field").containsExactly("items[1]", "items");
+
+        assertThatThrownBy(() -> optimizer.optimize(cart(1, "1", item("MUG", 1, 400, 12, 10, 10)), deadline()))
+                .isInstanceOfSatisfying(GhnApiException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.ROUTE_NOT_SERVED));
+    }
+}
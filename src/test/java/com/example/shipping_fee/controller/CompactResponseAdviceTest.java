@@ -0,0 +1,195 @@
+package com.example.shipping_fee.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.shipping_fee.admission.AdmissionFilter;
+import com.example.shipping_fee.carrier.QuoteOrchestrator;
+import com.example.shipping_fee.consolidation.ConsolidationOptimizer;
+import com.example.shipping_fee.deadline.DeadlinePolicy;
+import com.example.shipping_fee.dto.DistrictDTO;
+import com.example.shipping_fee.dto.ShippingRequest;
+import com.example.shipping_fee.dto.ShippingResponse;
+import com.example.shipping_fee.dto.WardDTO;
+import com.example.shipping_fee.service.GhtkService;
+import com.example.shipping_fee.service.QuoteStreamService;
+import com.example.shipping_fee.service.SpeculativeQuoteService;
+import com.example.shipping_fee.tracing.TracingFilter;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+@WebMvcTest(controllers = ShippingController.class, excludeFilters = @ComponentScan.Filter(
+        type = FilterType.ASSIGNABLE_TYPE, classes = {AdmissionFilter.class, TracingFilter.class}))
+@Import({DeadlinePolicy.class, CompactResponseAdviceTest.Executors.class})
+class CompactResponseAdviceTest {
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @TestConfiguration
+    static class Executors {
+        @Bean
+        ThreadPoolTaskExecutor quoteExecutor() {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(1);
+            executor.initialize();
+            return executor;
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private GhtkService ghtkService;
+
+    @MockitoBean
+    private SpeculativeQuoteService speculativeQuoteService;
+
+    @MockitoBean
+    private QuoteStreamService quoteStreamService;
+
+    @MockitoBean
+    private QuoteOrchestrator quoteOrchestrator;
+
+    @MockitoBean
+    private ConsolidationOptimizer consolidationOptimizer;
+
+    @Test
+    void defaultJsonIsUnchanged() throws Exception {
+        when(ghtkService.getDistricts(201)).thenReturn(List.of(new DistrictDTO(1201, "Quan 1", 201)));
+
+        mockMvc.perform(get("/api/shipping/districts/201").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data[0].id").value(1201))
+                .andExpect(jsonPath("$.data[0].name").value("Quan 1"))
+                .andExpect(jsonPath("$.data[0].provinceId").value(201));
+
+        when(ghtkService.calculateFee(any(ShippingRequest.class))).thenReturn(fee());
+        mockMvc.perform(asyncDispatch(calculate(null, MediaType.APPLICATION_JSON)))
+                .andExpect(jsonPath("$.data.success").value(true))
+                .andExpect(jsonPath("$.data.total").value(33000))
+                .andExpect(jsonPath("$.data.insurance_fee").value(0))
+                .andExpect(jsonPath("$.data.cod_fee").isEmpty());
+    }
+
+    @Test
+    void acceptHeaderAndViewParamSelectCompactLists() throws Exception {
+        when(ghtkService.getDistricts(201)).thenReturn(List.of(
+                new DistrictDTO(1201, "Quan 1", 201), new DistrictDTO(1202, "Quan 3", 201)));
+        when(ghtkService.getWards(1201)).thenReturn(List.of(
+                new WardDTO("120101", "Ben Nghe", 1201), new WardDTO("120102", "Ben Thanh", 1201)));
+
+        mockMvc.perform(get("/api/shipping/districts/201").accept(CompactResponseAdvice.COMPACT_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CompactResponseAdvice.COMPACT_JSON))
+                .andExpect(jsonPath("$.data.provinceId").value(201))
+                .andExpect(jsonPath("$.data.districts[1][0]").value(1202))
+                .andExpect(jsonPath("$.data.districts[1][1]").value("Quan 3"));
+
+        mockMvc.perform(get("/api/shipping/wards/1201").param("view", "compact"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.districtId").value(1201))
+                .andExpect(jsonPath("$.data.wards[0][0]").value("120101"))
+                .andExpect(jsonPath("$.data.wards[0][1]").value("Ben Nghe"));
+    }
+
+    @Test
+    void mixedParentsFallBackToFullItems() throws Exception {
+        when(ghtkService.getDistricts(201)).thenReturn(List.of(
+                new DistrictDTO(1201, "Quan 1", 201), new DistrictDTO(1301, "Ba Dinh", 202)));
+        when(ghtkService.getWards(1201)).thenReturn(List.of(
+                new WardDTO("120101", "Ben Nghe", 1201), new WardDTO("130101", "Phuc Xa", 1301)));
+
+        mockMvc.perform(get("/api/shipping/districts/201").param("view", "compact"))
+                .andExpect(jsonPath("$.data[1].id").value(1301))
+                .andExpect(jsonPath("$.data[1].provinceId").value(202));
+        mockMvc.perform(get("/api/shipping/wards/1201").param("view", "compact"))
+                .andExpect(jsonPath("$.data[1].wardCode").value("130101"))
+                .andExpect(jsonPath("$.data[1].districtId").value(1301));
+    }
+
+    @Test
+    void compactFeeDropsZeroAndNullComponents() throws Exception {
+        when(ghtkService.calculateFee(any(ShippingRequest.class))).thenReturn(fee());
+
+        mockMvc.perform(asyncDispatch(calculate("compact", MediaType.APPLICATION_JSON)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.total").value(33000))
+                .andExpect(jsonPath("$.data.service_fee").value(33000))
+                .andExpect(jsonPath("$.data.success").doesNotExist())
+                .andExpect(jsonPath("$.data.message").doesNotExist())
+                .andExpect(jsonPath("$.data.insurance_fee").doesNotExist())
+                .andExpect(jsonPath("$.data.cod_fee").doesNotExist());
+    }
+
+    @Test
+    void cborAndSmileAreNegotiated() throws Exception {
+        when(ghtkService.getWards(1201)).thenReturn(List.of(new WardDTO("120101", "Ben Nghe", 1201)));
+
+        byte[] cbor = mockMvc.perform(get("/api/shipping/wards/1201").accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode cborBody = new CBORMapper().readTree(cbor);
+        assertThat(cborBody.at("/data/0/wardCode").asString()).isEqualTo("120101");
+
+        byte[] smile = mockMvc.perform(get("/api/shipping/wards/1201").param("view", "compact").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode smileBody = new SmileMapper().readTree(smile);
+        assertThat(smileBody.at("/data/districtId").asInt()).isEqualTo(1201);
+        assertThat(smileBody.at("/data/wards/0/1").asString()).isEqualTo("Ben Nghe");
+    }
+
+    private MvcResult calculate(String view, MediaType accept) throws Exception {
+        var builder = post("/api/shipping/calculate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(accept)
+                .content("{\"to_district_id\":1201,\"to_ward_code\":\"120101\",\"weight\":500}");
+        if (view != null) {
+            builder.param("view", view);
+        }
+        return mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private static ShippingResponse fee() {
+        return ShippingResponse.builder()
+                .success(true)
+                .message("OK")
+                .total(33000)
+                .serviceFee(33000)
+                .insuranceFee(0)
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.shipping_fee.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.shipping_fee.simulator.GhnSimulator;
+import com.example.shipping_fee.simulator.GhnSimulatorSettings;
+import com.example.shipping_fee.simulator.LatencySpec;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ShippingControllerDeadlineTest {
+
+    private static final GhnSimulator SIMULATOR = new GhnSimulator(GhnSimulatorSettings.builder()
+            .latency(Map.of(GhnSimulator.ENDPOINT_FEE, LatencySpec.fixed(2000)))
+            .build());
+
+    static {
+        SIMULATOR.start();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void ghnProperties(DynamicPropertyRegistry registry) {
+        registry.add("ghtk.api.base-url", SIMULATOR::getBaseUrl);
+        registry.add("ghtk.api.token", () -> "test-token");
+    }
+
+    @AfterAll
+    static void stopSimulator() {
+        SIMULATOR.stop();
+    }
+
+    @Test
+    void slowUpstreamIsAbandonedWhenClientBudgetRunsOut() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        // Warm up dispatcher and JSON mapping so only the deadline is measured
+        client.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/shipping/health")).build(),
+                HttpResponse.BodyHandlers.discarding());
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/shipping/calculate"))
+                .header("Content-Type", "application/json")
+                .header("X-Request-Timeout-Ms", "400")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"to_district_id\":1000,\"to_ward_code\":\"100000\",\"weight\":500}"))
+                .build();
+
+        long started = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        assertThat(response.statusCode()).isEqualTo(504);
+        assertThat(elapsedMs).isLessThan(1800);
+        assertThat(SIMULATOR.getRequestCount(GhnSimulator.ENDPOINT_FEE)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.shipping_fee.deadline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.example.shipping_fee.constant.GhnApiEndpoints;
+import com.example.shipping_fee.simulator.GhnSimulator;
+import com.example.shipping_fee.simulator.GhnSimulatorSettings;
+import com.example.shipping_fee.simulator.SimulatedGhn;
+
+class DeadlineAwareRequestFactoryTest {
+
+    @Test
+    void cancelHookIsRemovedWhenTheExchangeCompletes() throws Exception {
+        GhnSimulator simulator = SimulatedGhn.start(GhnSimulatorSettings.builder()
+                .provinces(1).districtsPerProvince(1).wardsPerDistrict(1).build());
+        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+            RestTemplate restTemplate = new RestTemplate(new DeadlineAwareRequestFactory(httpClient, 1000, 5000));
+            Deadline deadline = Deadline.after(Duration.ofSeconds(5));
+
+            // Several calls under one deadline, as with retries: one succeeds, one is rejected
+            DeadlineContext.callWith(deadline, () ->
+                    restTemplate.getForObject(simulator.getBaseUrl() + GhnApiEndpoints.PROVINCE, String.class));
+            assertThatThrownBy(() -> DeadlineContext.callWith(deadline, () ->
+                    restTemplate.getForObject(simulator.getBaseUrl() + "/unknown", String.class)))
+                    .isInstanceOf(HttpClientErrorException.class);
+
+            assertThat(deadline.cancelHookCount()).isZero();
+        } finally {
+            simulator.stop();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.shipping_fee.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.shipping_fee.constant.ErrorMessages;
+import com.example.shipping_fee.constant.GhnApiEndpoints;
+import com.example.shipping_fee.dto.ShippingRequest;
+import com.example.shipping_fee.service.GhtkService;
+import com.example.shipping_fee.simulator.GhnSimulator;
+import com.example.shipping_fee.simulator.GhnSimulatorSettings;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+@SpringBootTest
+class JfrEventsTest {
+
+    private static final GhnSimulator SIMULATOR = new GhnSimulator(GhnSimulatorSettings.builder().build());
+
+    static {
+        SIMULATOR.start();
+    }
+
+    @Autowired
+    private GhtkService ghtkService;
+
+    @TempDir
+    Path tempDir;
+
+    @DynamicPropertySource
+    static void ghnProperties(DynamicPropertyRegistry registry) {
+        registry.add("ghtk.api.base-url", SIMULATOR::getBaseUrl);
+        registry.add("ghtk.api.token", () -> "test-token");
+    }
+
+    @AfterAll
+    static void stopSimulator() {
+        SIMULATOR.stop();
+    }
+
+    @Test
+    void shippingProfileRecordsCallsCacheValidationAndPoolWaits() throws Exception {
+        ShippingRequest request = ShippingRequest.builder()
+                .toDistrictId(1001)
+                .toWardCode("100103")
+                .serviceTypeId(2)
+                .weight(700)
+                .build();
+        ShippingRequest invalid = ShippingRequest.builder()
+                .serviceTypeId(2)
+                .weight(700)
+                .build();
+
+        Path dump = tempDir.resolve("rec.jfr");
+        try (Recording recording = new Recording(Configuration.create(Path.of("jfr/shipping.jfc")))) {
+            recording.start();
+            assertThat(ghtkService.calculateFee(request).isSuccess()).isTrue();
+            assertThat(ghtkService.calculateFee(request).isSuccess()).isTrue();
+            assertThat(ghtkService.calculateFee(invalid).isSuccess()).isFalse();
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertThat(events).anySatisfy(e -> {
+            assertThat(e.getEventType().getName()).isEqualTo(GhnCallEvent.NAME);
+            assertThat(e.getString("endpoint")).isEqualTo(GhnApiEndpoints.CALCULATE_FEE);
+            assertThat(e.getInt("httpStatus")).isEqualTo(200);
+            assertThat(e.getInt("ghnCode")).isEqualTo(200);
+        });
+        assertThat(events).anySatisfy(e -> {
+            assertThat(e.getEventType().getName()).isEqualTo(ConnectionPoolWaitEvent.NAME);
+            assertThat(e.getBoolean("acquired")).isTrue();
+        });
+        assertThat(events).filteredOn(e -> e.getEventType().getName().equals(QuoteCacheEvent.NAME))
+                .extracting(e -> e.getBoolean("hit"))
+                .containsExactly(false, true);
+        assertThat(events).anySatisfy(e -> {
+            assertThat(e.getEventType().getName()).isEqualTo(ValidationEvent.NAME);
+            assertThat(e.getBoolean("valid")).isFalse();
+            assertThat(e.getString("fields")).contains(ErrorMessages.FIELD_TO_DISTRICT_ID);
+        });
+
+        String summary = JfrSummary.summarize(dump);
+        assertThat(summary).contains("POST " + GhnApiEndpoints.CALCULATE_FEE);
+        assertThat(summary).contains("Quote cache: 2 lookups, 1 hits, hit ratio 50.0%");
+        assertThat(summary).contains("Validation: 3 requests, 1 invalid");
+        assertThat(Files.size(dump)).isPositive();
+    }
+}
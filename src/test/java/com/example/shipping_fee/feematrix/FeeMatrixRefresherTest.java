@@ -0,0 +1,129 @@
+package com.example.shipping_fee.feematrix;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.client.RestTemplate;
+
+import com.example.shipping_fee.dto.DistrictDTO;
+import com.example.shipping_fee.dto.ShippingRequest;
+import com.example.shipping_fee.dto.ShippingResponse;
+import com.example.shipping_fee.dto.WardDTO;
+import com.example.shipping_fee.service.GhtkService;
+import com.example.shipping_fee.service.NegativeCache;
+import com.example.shipping_fee.service.QuoteCache;
+import com.example.shipping_fee.simulator.GhnSimulator;
+import com.example.shipping_fee.simulator.GhnSimulatorSettings;
+import com.example.shipping_fee.simulator.SimulatedGhn;
+import com.example.shipping_fee.validation.ShippingRequestValidator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FeeMatrixRefresherTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+    // 02:00 in Ho Chi Minh City
+    private static final Clock OFF_PEAK = Clock.fixed(Instant.parse("2026-03-02T19:00:00Z"), ZONE);
+    private static final Clock PEAK = Clock.fixed(Instant.parse("2026-03-02T05:00:00Z"), ZONE);
+
+    @TempDir
+    Path tempDir;
+
+    private GhnSimulator simulator;
+
+    @AfterEach
+    void stopSimulator() {
+        if (simulator != null) {
+            simulator.stop();
+        }
+    }
+
+    private FeeMatrix matrix(int... brackets) {
+        FeeMatrix matrix = new FeeMatrix(new SimpleMeterRegistry(), true, tempDir.resolve("fee-matrix.bin").toString(),
+                null, null, List.of(2), brackets, 5000, 72);
+        matrix.load();
+        return matrix;
+    }
+
+    private GhtkService service(FeeMatrix matrix) {
+        GhtkService service = new GhtkService(new RestTemplate(), ShippingRequestValidator.defaults(),
+                QuoteCache.disabled(), NegativeCache.disabled(), matrix);
+        SimulatedGhn.connect(service, simulator);
+        return service;
+    }
+
+    private void startSimulator() {
+        simulator = SimulatedGhn.start(GhnSimulatorSettings.builder()
+                .provinces(1).districtsPerProvince(2).wardsPerDistrict(3).build());
+    }
+
+    private static ShippingRequest request(int toDistrictId, String toWardCode, int weight, Integer codValue) {
+        return ShippingRequest.builder()
+                .toDistrictId(toDistrictId)
+                .toWardCode(toWardCode)
+                .serviceTypeId(2)
+                .weight(weight)
+                .codValue(codValue)
+                .build();
+    }
+
+    private void refresh(FeeMatrixRefresher refresher, FeeMatrix matrix) {
+        for (int i = 0; i < 1000 && matrix.getBuiltAtMillis() == 0; i++) {
+            refresher.tick();
+        }
+        assertThat(matrix.getBuiltAtMillis()).isPositive();
+    }
+
+    @Test
+    void offPeakPassAnswersMatchingRequestsWithoutGhn() {
+        startSimulator();
+        FeeMatrix matrix = matrix(500, 1000);
+        GhtkService service = service(matrix);
+        refresh(new FeeMatrixRefresher(matrix, service, new SimpleMeterRegistry(), 10_000, 1, 5, ZONE,
+                3_600_000, OFF_PEAK), matrix);
+
+        DistrictDTO district = service.getDistricts(service.getProvinces().get(0).getProvinceId()).get(1);
+        WardDTO ward = service.getWards(district.getId()).get(2);
+        ShippingRequest request = request(district.getId(), ward.getWardCode(), 800, null);
+        ShippingResponse live = service.calculateFeeLive(request);
+
+        long feeCalls = simulator.getRequestCount(GhnSimulator.ENDPOINT_FEE);
+        ShippingResponse precomputed = service.calculateFee(request);
+
+        assertThat(precomputed.isSuccess()).isTrue();
+        assertThat(precomputed.getTotal()).isEqualTo(live.getTotal());
+        assertThat(precomputed.getDeliverRemoteAreasFee()).isEqualTo(live.getDeliverRemoteAreasFee());
+        assertThat(simulator.getRequestCount(GhnSimulator.ENDPOINT_FEE)).isEqualTo(feeCalls);
+
+        // COD changes the fee, heavier parcels fall outside the brackets: both go live
+        service.calculateFee(request(district.getId(), ward.getWardCode(), 800, 200_000));
+        service.calculateFee(request(district.getId(), ward.getWardCode(), 1200, null));
+        assertThat(simulator.getRequestCount(GhnSimulator.ENDPOINT_FEE)).isEqualTo(feeCalls + 2);
+
+        // The mapped file survives a restart, but not a change of brackets
+        assertThat(matrix(500, 1000).lookup(request)).isNotNull();
+        assertThat(matrix(500, 1000, 1500).lookup(request)).isNull();
+    }
+
+    @Test
+    void nothingIsQuotedOutsideTheOffPeakWindow() {
+        startSimulator();
+        FeeMatrix matrix = matrix(500);
+        FeeMatrixRefresher refresher = new FeeMatrixRefresher(matrix, service(matrix), new SimpleMeterRegistry(),
+                10_000, 1, 5, ZONE, 3_600_000, PEAK);
+
+        refresher.tick();
+
+        assertThat(refresher.isOffPeak()).isFalse();
+        assertThat(simulator.getRequestCount(GhnSimulator.ENDPOINT_PROVINCE)).isZero();
+        assertThat(matrix.getBuiltAtMillis()).isZero();
+    }
+}
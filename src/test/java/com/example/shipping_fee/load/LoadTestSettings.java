@@ -0,0 +1,51 @@
+package com.example.shipping_fee.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Load test settings and SLOs from load-test.properties, overridable with system properties
+ */
+final class LoadTestSettings {
+
+    private static final String RESOURCE = "/load-test.properties";
+
+    private final Properties properties = new Properties();
+
+    private LoadTestSettings() {
+    }
+
+    static LoadTestSettings load() {
+        LoadTestSettings settings = new LoadTestSettings();
+        try (InputStream in = LoadTestSettings.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException(RESOURCE + " not found on test classpath");
+            }
+            settings.properties.load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + RESOURCE, e);
+        }
+        return settings;
+    }
+
+    String get(String key) {
+        String value = System.getProperty(key, properties.getProperty(key));
+        if (value == null) {
+            throw new IllegalStateException("Missing load test setting: " + key);
+        }
+        return value.trim();
+    }
+
+    int getInt(String key) {
+        return Integer.parseInt(get(key));
+    }
+
+    long getLong(String key) {
+        return Long.parseLong(get(key));
+    }
+
+    double getDouble(String key) {
+        return Double.parseDouble(get(key));
+    }
+}
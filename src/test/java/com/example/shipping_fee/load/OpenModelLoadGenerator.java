@@ -0,0 +1,149 @@
+package com.example.shipping_fee.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Open-model load generator.
+ *
+ * Requests are issued on a Poisson arrival schedule that does not wait for earlier responses,
+ * so a slow server keeps receiving the same offered load (closed-loop generators back off and
+ * hide latency collapse). Latency is measured from the intended start time, which also
+ * accounts for any delay in the generator itself (coordinated omission).
+ */
+final class OpenModelLoadGenerator {
+
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    /**
+     * One kind of request in the traffic mix
+     */
+    static final class Scenario {
+        final String name;
+        final int weight;
+        final Function<SplittableRandom, HttpRequest> requestFactory;
+
+        Scenario(String name, int weight, Function<SplittableRandom, HttpRequest> requestFactory) {
+            this.name = name;
+            this.weight = weight;
+            this.requestFactory = requestFactory;
+        }
+    }
+
+    /**
+     * Per-scenario outcome of one run
+     */
+    static final class ScenarioResult {
+        final Histogram latencyNanos = new ConcurrentHistogram(MAX_TRACKABLE_NANOS, 3);
+        final AtomicLong ok = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+
+        long total() {
+            return ok.get() + errors.get();
+        }
+    }
+
+    private final HttpClient client;
+    private final ExecutorService clientExecutor;
+    private final List<Scenario> scenarios;
+    private final int totalWeight;
+    // One sequence across runs, so the measured run does not replay the warm-up's requests
+    private final SplittableRandom random;
+
+    OpenModelLoadGenerator(List<Scenario> scenarios, long seed) {
+        this.scenarios = new ArrayList<>(scenarios);
+        this.totalWeight = scenarios.stream().mapToInt(s -> s.weight).sum();
+        this.random = new SplittableRandom(seed);
+        this.clientExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "load-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+    }
+
+    /**
+     * Offer load at {@code ratePerSecond} for {@code duration} and wait for all responses
+     */
+    Map<String, ScenarioResult> run(double ratePerSecond, Duration duration) {
+        Map<String, ScenarioResult> results = new LinkedHashMap<>();
+        for (Scenario scenario : scenarios) {
+            results.put(scenario.name, new ScenarioResult());
+        }
+
+        Phaser inFlight = new Phaser(1);
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long intendedStart = start;
+
+        while (true) {
+            intendedStart += (long) (-Math.log(1.0 - random.nextDouble()) * meanIntervalNanos);
+            if (intendedStart >= end) {
+                break;
+            }
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Scenario scenario = pick(random);
+            ScenarioResult result = results.get(scenario.name);
+            HttpRequest request = scenario.requestFactory.apply(random);
+            long scheduled = intendedStart;
+
+            inFlight.register();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long latency = Math.min(System.nanoTime() - scheduled, MAX_TRACKABLE_NANOS);
+                        result.latencyNanos.recordValue(latency);
+                        if (error == null && response.statusCode() / 100 == 2) {
+                            result.ok.incrementAndGet();
+                        } else {
+                            result.errors.incrementAndGet();
+                        }
+                        inFlight.arriveAndDeregister();
+                    });
+        }
+
+        inFlight.arriveAndAwaitAdvance();
+        return results;
+    }
+
+    void close() {
+        clientExecutor.shutdownNow();
+    }
+
+    private Scenario pick(SplittableRandom random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            ticket -= scenario.weight;
+            if (ticket < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+}
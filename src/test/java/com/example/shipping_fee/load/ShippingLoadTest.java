@@ -0,0 +1,169 @@
+package com.example.shipping_fee.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.shipping_fee.load.OpenModelLoadGenerator.Scenario;
+import com.example.shipping_fee.load.OpenModelLoadGenerator.ScenarioResult;
+import com.example.shipping_fee.simulator.GhnSimulator;
+import com.example.shipping_fee.simulator.GhnSimulatorSettings;
+import com.example.shipping_fee.simulator.GhnSyntheticData;
+import com.example.shipping_fee.simulator.LatencySpec;
+
+/**
+ * Open-model load test for all ShippingController endpoints against the GHN simulator.
+ * Fails when p99 latency, throughput or error-rate SLOs from load-test.properties are violated.
+ *
+ * Run: ./mvnw test -Pload-test
+ * Percentile distributions are written to target/load-test/*.hgrm
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ShippingLoadTest {
+
+    private static final LoadTestSettings SETTINGS = LoadTestSettings.load();
+    private static final GhnSimulator SIMULATOR = startSimulator();
+    private static final Path REPORT_DIR = Path.of("target", "load-test");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void ghnProperties(DynamicPropertyRegistry registry) {
+        registry.add("ghtk.api.base-url", SIMULATOR::getBaseUrl);
+        registry.add("ghtk.api.token", () -> "load-test-token");
+        registry.add("ghtk.api.shop-id", () -> 1);
+        registry.add("logging.level.com.example.shipping_fee", () -> "WARN");
+    }
+
+    @AfterAll
+    static void stopSimulator() {
+        SIMULATOR.stop();
+    }
+
+    private static GhnSimulator startSimulator() {
+        long masterMedian = SETTINGS.getLong("load.upstream.master-data-median-ms");
+        long feeMedian = SETTINGS.getLong("load.upstream.fee-median-ms");
+        GhnSimulator simulator = new GhnSimulator(GhnSimulatorSettings.builder()
+                .seed(SETTINGS.getLong("load.seed"))
+                .defaultLatency(LatencySpec.logNormal(masterMedian, 0.4, masterMedian * 20))
+                .latency(Map.of(GhnSimulator.ENDPOINT_FEE, LatencySpec.logNormal(feeMedian, 0.5, feeMedian * 20)))
+                .build());
+        simulator.start();
+        return simulator;
+    }
+
+    @Test
+    void endpointsMeetLatencyAndThroughputSlos() throws IOException {
+        double rate = SETTINGS.getDouble("load.arrival-rate");
+        OpenModelLoadGenerator generator = new OpenModelLoadGenerator(scenarios(), SETTINGS.getLong("load.seed"));
+        Map<String, ScenarioResult> results;
+        try {
+            generator.run(rate, Duration.ofSeconds(SETTINGS.getLong("load.warmup-seconds")));
+            results = generator.run(rate, Duration.ofSeconds(SETTINGS.getLong("load.duration-seconds")));
+        } finally {
+            generator.close();
+        }
+
+        report(results);
+
+        double seconds = SETTINGS.getDouble("load.duration-seconds");
+        long ok = results.values().stream().mapToLong(r -> r.ok.get()).sum();
+        long total = results.values().stream().mapToLong(ScenarioResult::total).sum();
+        long errors = total - ok;
+
+        SoftAssertions softly = new SoftAssertions();
+        for (Map.Entry<String, ScenarioResult> entry : results.entrySet()) {
+            long p99Ms = entry.getValue().latencyNanos.getValueAtPercentile(99.0) / 1_000_000;
+            softly.assertThat(p99Ms)
+                    .as("p99 latency (ms) of %s", entry.getKey())
+                    .isLessThanOrEqualTo(SETTINGS.getLong("slo.p99-ms." + entry.getKey()));
+        }
+        softly.assertThat(ok / seconds)
+                .as("throughput (successful requests/s)")
+                .isGreaterThanOrEqualTo(rate * SETTINGS.getDouble("slo.min-throughput-ratio"));
+        softly.assertThat(total == 0 ? 1.0 : (double) errors / total)
+                .as("error ratio")
+                .isLessThanOrEqualTo(SETTINGS.getDouble("slo.max-error-ratio"));
+        softly.assertAll();
+    }
+
+    private List<Scenario> scenarios() {
+        GhnSyntheticData data = SIMULATOR.getData();
+        List<Map<String, Object>> provinces = data.getProvinces();
+        List<Map<String, Object>> districts = data.getDistricts(null);
+        String baseUrl = "http://127.0.0.1:" + port + "/api/shipping";
+
+        List<Scenario> scenarios = new ArrayList<>();
+        scenarios.add(new Scenario("provinces", SETTINGS.getInt("load.mix.provinces"),
+                random -> get(baseUrl + "/provinces")));
+        scenarios.add(new Scenario("districts", SETTINGS.getInt("load.mix.districts"),
+                random -> get(baseUrl + "/districts/" + pick(provinces, random).get("ProvinceID"))));
+        scenarios.add(new Scenario("wards", SETTINGS.getInt("load.mix.wards"),
+                random -> get(baseUrl + "/wards/" + pick(districts, random).get("DistrictID"))));
+        scenarios.add(new Scenario("calculate", SETTINGS.getInt("load.mix.calculate"), random -> {
+            Object districtId = pick(districts, random).get("DistrictID");
+            Object wardCode = pick(data.getWards((Integer) districtId), random).get("WardCode");
+            String body = "{\"to_district_id\":" + districtId
+                    + ",\"to_ward_code\":\"" + wardCode + "\""
+                    + ",\"weight\":" + (100 + random.nextInt(5000))
+                    + ",\"service_type_id\":" + (1 + random.nextInt(3)) + "}";
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/calculate"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }));
+        return scenarios;
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private static <T> T pick(List<T> items, SplittableRandom random) {
+        return items.get(random.nextInt(items.size()));
+    }
+
+    private void report(Map<String, ScenarioResult> results) throws IOException {
+        Files.createDirectories(REPORT_DIR);
+        System.out.printf("%n%-10s %8s %8s %9s %9s %9s %9s%n",
+                "endpoint", "ok", "errors", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)");
+        for (Map.Entry<String, ScenarioResult> entry : results.entrySet()) {
+            ScenarioResult result = entry.getValue();
+            System.out.printf("%-10s %8d %8d %9.1f %9.1f %9.1f %9.1f%n",
+                    entry.getKey(), result.ok.get(), result.errors.get(),
+                    result.latencyNanos.getValueAtPercentile(50) / 1e6,
+                    result.latencyNanos.getValueAtPercentile(90) / 1e6,
+                    result.latencyNanos.getValueAtPercentile(99) / 1e6,
+                    result.latencyNanos.getMaxValue() / 1e6);
+            try (PrintStream out = new PrintStream(new FileOutputStream(
+                    REPORT_DIR.resolve(entry.getKey() + ".hgrm").toFile()))) {
+                result.latencyNanos.outputPercentileDistribution(out, 1e6);
+            }
+        }
+        assertThat(results).isNotEmpty();
+    }
+}
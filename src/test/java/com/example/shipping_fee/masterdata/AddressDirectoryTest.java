@@ -0,0 +1,89 @@
+package com.example.shipping_fee.masterdata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.RestTemplate;
+
+import com.example.shipping_fee.dto.AddressBootstrapDTO;
+import com.example.shipping_fee.dto.AddressTreeDTO;
+import com.example.shipping_fee.service.GhtkService;
+import com.example.shipping_fee.simulator.GhnSimulator;
+import com.example.shipping_fee.simulator.GhnSimulatorSettings;
+import com.example.shipping_fee.simulator.SimulatedGhn;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AddressDirectoryTest {
+
+    private GhnSimulator simulator;
+    private ThreadPoolTaskExecutor executor;
+    private AddressDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        simulator = SimulatedGhn.start(GhnSimulatorSettings.builder()
+                .provinces(2).districtsPerProvince(2).wardsPerDistrict(3).build());
+
+        GhtkService service = new GhtkService(new RestTemplate());
+        SimulatedGhn.connect(service, simulator);
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+        directory = new AddressDirectory(service, executor, new SimpleMeterRegistry(), 3600);
+    }
+
+    @AfterEach
+    void tearDown() {
+        simulator.stop();
+        executor.shutdown();
+    }
+
+    @Test
+    void savedAddressResolvesProvinceAndIsServedFromCacheAfterwards() {
+        // Second province: districts 1002 / 1003
+        int districtId = 1003;
+        String wardCode = "100301";
+
+        AddressBootstrapDTO bootstrap = directory.bootstrap(null, districtId, wardCode);
+
+        assertThat(bootstrap.getProvinceId()).isEqualTo(202);
+        assertThat(bootstrap.getDistrictId()).isEqualTo(districtId);
+        assertThat(bootstrap.getWardCode()).isEqualTo(wardCode);
+        assertThat(bootstrap.getProvinces()).hasSize(2);
+        assertThat(bootstrap.getDistricts()).hasSize(2);
+        assertThat(bootstrap.getWards()).hasSize(3);
+
+        simulator.resetRequestCounts();
+        directory.bootstrap(null, districtId, wardCode);
+        assertThat(simulator.getRequestCount(GhnSimulator.ENDPOINT_PROVINCE)
+                + simulator.getRequestCount(GhnSimulator.ENDPOINT_DISTRICT)
+                + simulator.getRequestCount(GhnSimulator.ENDPOINT_WARD)).isZero();
+    }
+
+    @Test
+    void invalidSelectionIsTrimmedToDeepestValidLevel() {
+        // District 1002 belongs to province 202
+        AddressBootstrapDTO bootstrap = directory.bootstrap(201, 1002, "100200");
+
+        assertThat(bootstrap.getProvinceId()).isEqualTo(201);
+        assertThat(bootstrap.getDistrictId()).isNull();
+        assertThat(bootstrap.getWardCode()).isNull();
+        assertThat(bootstrap.getDistricts()).hasSize(2);
+        assertThat(bootstrap.getWards()).isNull();
+    }
+
+    @Test
+    void treeHoldsEveryWardAndKeepsItsVersion() throws Exception {
+        AddressTreeDTO tree = directory.getTree(10_000);
+
+        assertThat(tree.getProvinces()).hasSize(2);
+        assertThat(tree.getDistrictCount()).isEqualTo(4);
+        assertThat(tree.getWardCount()).isEqualTo(12);
+        assertThat(directory.getTree(10_000).getVersion()).isEqualTo(tree.getVersion());
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.shipping_fee.masterdata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.shipping_fee.dto.DistrictDTO;
+import com.example.shipping_fee.dto.MasterDataChangeDTO;
+import com.example.shipping_fee.dto.MasterDataChangeDTO.Action;
+import com.example.shipping_fee.dto.MasterDataChangeDTO.Entity;
+import com.example.shipping_fee.dto.MasterDataChangesDTO;
+import com.example.shipping_fee.dto.ProvinceDTO;
+import com.example.shipping_fee.dto.WardDTO;
+import com.example.shipping_fee.service.GhtkService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MasterDataSyncServiceTest {
+
+    private final FakeGhn ghn = new FakeGhn();
+    private final MasterDataChangeFeed feed = new MasterDataChangeFeed(100, 60_000);
+
+    @Test
+    void onlyChangedSubtreesAreRefetchedAndPublished() {
+        ghn.addDistrict(201, 1001, "100101", "100102");
+        ghn.addDistrict(201, 1002, "100201");
+        ghn.addDistrict(202, 1101, "110101");
+        // Every district list each cycle, no ward rotation
+        MasterDataSyncService sync = new MasterDataSyncService(ghn, feed, new SimpleMeterRegistry(), true, 10, 0);
+
+        assertThat(sync.sync()).isZero();
+        long baseline = feed.getVersion();
+        String fingerprint = sync.getFingerprint();
+        assertThat(ghn.wardCalls.get()).isEqualTo(3);
+
+        // Nothing changed upstream: same fingerprint, no ward refetch
+        assertThat(sync.sync()).isZero();
+        assertThat(sync.getFingerprint()).isEqualTo(fingerprint);
+        assertThat(ghn.wardCalls.get()).isEqualTo(3);
+
+        // Reorganization: new district in 202, district 1002 removed
+        ghn.addDistrict(202, 1102, "110201");
+        ghn.districts.get(201).removeIf(d -> d.getId() == 1002);
+        assertThat(sync.sync()).isEqualTo(3);
+        assertThat(ghn.wardCalls.get()).isEqualTo(4);
+        assertThat(sync.getFingerprint()).isNotEqualTo(fingerprint);
+
+        MasterDataChangesDTO changes = feed.changesSince(baseline, 100);
+        assertThat(changes.isReset()).isFalse();
+        assertThat(changes.getChanges())
+                .extracting(MasterDataChangeDTO::getEntity, MasterDataChangeDTO::getAction, MasterDataChangeDTO::getId)
+                .containsExactlyInAnyOrder(
+                        tuple(Entity.DISTRICT, Action.DELETE, 1002),
+                        tuple(Entity.DISTRICT, Action.UPSERT, 1102),
+                        tuple(Entity.WARDS, Action.UPSERT, 1102));
+
+        // Clients from before the baseline must reload
+        assertThat(feed.changesSince(baseline - 1, 100).isReset()).isTrue();
+        assertThat(feed.changesSince(changes.getVersion(), 100).getChanges()).isEmpty();
+    }
+
+    @Test
+    void rotatingSliceEventuallyDetectsWardChanges() {
+        for (int d = 0; d < 4; d++) {
+            ghn.addDistrict(201, 1000 + d, (1000 + d) + "00");
+        }
+        MasterDataSyncService sync = new MasterDataSyncService(ghn, feed, new SimpleMeterRegistry(), true, 1, 1);
+        sync.sync();
+
+        ghn.wards.get(1003).add(ward(1003, "100301"));
+        int found = 0;
+        for (int cycle = 0; cycle < 4; cycle++) {
+            found += sync.sync();
+        }
+        assertThat(found).isEqualTo(1);
+    }
+
+    private static WardDTO ward(int districtId, String code) {
+        return new WardDTO(code, "Phường " + code, districtId);
+    }
+
+    /**
+     * In-memory GHN master data with call counters
+     */
+    private static class FakeGhn extends GhtkService {
+        final Map<Integer, List<DistrictDTO>> districts = new LinkedHashMap<>();
+        final Map<Integer, List<WardDTO>> wards = new LinkedHashMap<>();
+        final AtomicInteger wardCalls = new AtomicInteger();
+
+        void addDistrict(int provinceId, int districtId, String... wardCodes) {
+            districts.computeIfAbsent(provinceId, id -> new ArrayList<>())
+                    .add(new DistrictDTO(districtId, "Quận " + districtId, provinceId));
+            List<WardDTO> list = new ArrayList<>();
+            for (String code : wardCodes) {
+                list.add(ward(districtId, code));
+            }
+            wards.put(districtId, list);
+        }
+
+        @Override
+        public List<ProvinceDTO> getProvinces() {
+            List<ProvinceDTO> provinces = new ArrayList<>();
+            for (Integer id : districts.keySet()) {
+                provinces.add(new ProvinceDTO(id, "Tỉnh " + id, String.valueOf(id)));
+            }
+            return provinces;
+        }
+
+        @Override
+        public List<DistrictDTO> getDistricts(Integer provinceId) {
+            return new ArrayList<>(districts.getOrDefault(provinceId, List.of()));
+        }
+
+        @Override
+        public List<WardDTO> getWards(Integer districtId) {
+            wardCalls.incrementAndGet();
+            return new ArrayList<>(wards.getOrDefault(districtId, List.of()));
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.shipping_fee.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.example.shipping_fee.dto.CreatedOrderDTO;
+import com.example.shipping_fee.dto.OrderRequest;
+import com.example.shipping_fee.service.GhtkService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+class OrderOutboxServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final FakeGhn ghn = new FakeGhn();
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+    private OrderOutboxService outbox;
+
+    @AfterEach
+    void closeOutbox() {
+        if (outbox != null) {
+            outbox.close();
+        }
+    }
+
+    @Test
+    void acceptedOrderIsSubmittedOnceAndRepeatsAreIdempotent() throws Exception {
+        outbox = start(3);
+
+        OrderOutboxService.Acceptance first = outbox.accept(order("SHOP-1"));
+        OrderOutboxService.Acceptance repeat = outbox.accept(order("SHOP-1"));
+        assertThat(first.created()).isTrue();
+        assertThat(first.order().getStatus()).isEqualTo("PENDING");
+        assertThat(repeat.created()).isFalse();
+
+        outbox.dispatch();
+        outbox.dispatch();
+
+        assertThat(ghn.createCalls.get()).isEqualTo(1);
+        assertThat(outbox.get("SHOP-1").getStatus()).isEqualTo("SUBMITTED");
+        assertThat(outbox.get("SHOP-1").getOrderCode()).isEqualTo("GHN-SHOP-1");
+        assertThat(outbox.accept(order("SHOP-1")).order().getOrderCode()).isEqualTo("GHN-SHOP-1");
+        assertThat(events).containsExactly(new OrderSubmittedEvent("SHOP-1", "GHN-SHOP-1"));
+    }
+
+    @Test
+    void transientFailuresRetryThenDeadLetterUntilRequeued() throws Exception {
+        outbox = start(3);
+        ghn.failures.add(new ResourceAccessException("connect timed out"));
+        ghn.failures.add(new ResourceAccessException("connect timed out"));
+        ghn.failures.add(new ResourceAccessException("connect timed out"));
+
+        outbox.accept(order("SHOP-2"));
+        dispatchUntilSettled();
+
+        assertThat(ghn.createCalls.get()).isEqualTo(3);
+        assertThat(outbox.get("SHOP-2").getStatus()).isEqualTo("DEAD_LETTER");
+        assertThat(outbox.getDeadLetters()).hasSize(1);
+
+        assertThat(outbox.requeue("SHOP-2")).isNotNull();
+        dispatchUntilSettled();
+
+        assertThat(outbox.get("SHOP-2").getStatus()).isEqualTo("SUBMITTED");
+        assertThat(outbox.getDeadLetters()).isEmpty();
+        assertThat(outbox.requeue("SHOP-2")).isNull();
+    }
+
+    @Test
+    void rejectedDuplicateIsRecoveredFromGhn() throws Exception {
+        outbox = start(3);
+        // First attempt created the order but the response was lost; GHN rejects the retry
+        ghn.orders.put("SHOP-3", new CreatedOrderDTO("GHN-SHOP-3", 25000, null));
+        ghn.failures.add(HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", HttpHeaders.EMPTY,
+                "{\"code\":400,\"message\":\"Client order code already exists\"}".getBytes(StandardCharsets.UTF_8),
+                StandardCharsets.UTF_8));
+
+        outbox.accept(order("SHOP-3"));
+        dispatchUntilSettled();
+
+        assertThat(outbox.get("SHOP-3").getStatus()).isEqualTo("SUBMITTED");
+        assertThat(outbox.get("SHOP-3").getOrderCode()).isEqualTo("GHN-SHOP-3");
+    }
+
+    @Test
+    void pendingOrdersSurviveRestart() throws Exception {
+        outbox = start(3);
+        outbox.accept(order("SHOP-4"));
+        outbox.accept(order("SHOP-5"));
+        outbox.dispatch();
+        outbox.stop();
+        outbox.accept(order("SHOP-6"));
+        outbox.close();
+        assertThat(ghn.createCalls.get()).isEqualTo(2);
+
+        outbox = start(3);
+        assertThat(outbox.get("SHOP-4").getStatus()).isEqualTo("SUBMITTED");
+        assertThat(outbox.get("SHOP-6").getStatus()).isEqualTo("PENDING");
+
+        dispatchUntilSettled();
+        assertThat(ghn.createCalls.get()).isEqualTo(3);
+        assertThat(outbox.get("SHOP-6").getOrderCode()).isEqualTo("GHN-SHOP-6");
+    }
+
+    @Test
+    void slowWriteIsResolvedByItsOutcomeAndRepeatsWaitForIt() throws Exception {
+        outbox = start(3, 50);
+        outbox.close();
+        HeldJournal journal = new HeldJournal();
+        ReflectionTestUtils.setField(outbox, "journal", journal);
+
+        // The write outlives the caller's timeout: neither the caller nor a repeat sees success
+        assertThatThrownBy(() -> outbox.accept(order("SHOP-7"))).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> outbox.accept(order("SHOP-7"))).isInstanceOf(IOException.class);
+        assertThat(outbox.get("SHOP-7")).isNull();
+
+        // ...but it still lands, so the order is kept and a retry finds it
+        journal.writes.poll().complete(null);
+        OrderOutboxService.Acceptance retry = outbox.accept(order("SHOP-7"));
+        assertThat(retry.created()).isFalse();
+        assertThat(retry.order().getStatus()).isEqualTo("PENDING");
+        outbox.dispatch();
+        assertThat(ghn.createCalls.get()).isEqualTo(1);
+        journal.writes.clear();
+
+        // A write that fails forgets the order, so a retry creates it afresh
+        assertThatThrownBy(() -> outbox.accept(order("SHOP-8"))).isInstanceOf(IOException.class);
+        journal.writes.poll().completeExceptionally(new IOException("disk full"));
+        assertThat(outbox.get("SHOP-8")).isNull();
+        CompletableFuture.runAsync(() -> journal.awaitWrite().complete(null));
+        assertThat(outbox.accept(order("SHOP-8")).created()).isTrue();
+    }
+
+    private OrderOutboxService start(int maxAttempts) throws Exception {
+        return start(maxAttempts, 1000);
+    }
+
+    private OrderOutboxService start(int maxAttempts, long acceptTimeoutMs) throws Exception {
+        OrderOutboxService service = new OrderOutboxService(ghn, new SyncTaskExecutor(), JsonMapper.builder().build(),
+                new SimpleMeterRegistry(), events::add, true, dir.resolve("outbox.jsonl").toString(), false,
+                1000, 8, maxAttempts, 1, 2, 72, acceptTimeoutMs);
+        service.start();
+        return service;
+    }
+
+    private void dispatchUntilSettled() throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            outbox.dispatch();
+            Thread.sleep(5);
+        }
+    }
+
+    private static OrderRequest order(String clientOrderCode) {
+        return OrderRequest.builder()
+                .clientOrderCode(clientOrderCode)
+                .toName("Nguyễn Văn A")
+                .toPhone("0900000000")
+                .toAddress("1 Lê Lợi")
+                .toDistrictId(1442)
+                .toWardCode("20109")
+                .weight(500)
+                .build();
+    }
+
+    /**
+     * Journal whose writes complete only when the test says so
+     */
+    private class HeldJournal extends OrderJournal {
+        final BlockingQueue<CompletableFuture<Void>> writes = new LinkedBlockingQueue<>();
+
+        HeldJournal() {
+            super(dir.resolve("held.jsonl"), false, JsonMapper.builder().build(), new SimpleMeterRegistry());
+        }
+
+        @Override
+        CompletableFuture<Void> append(OutboxRecord record) {
+            CompletableFuture<Void> write = new CompletableFuture<>();
+            writes.add(write);
+            return write;
+        }
+
+        CompletableFuture<Void> awaitWrite() {
+            try {
+                return writes.take();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * GHN order API that fails with queued exceptions first
+     */
+    private static class FakeGhn extends GhtkService {
+        final Map<String, CreatedOrderDTO> orders = new ConcurrentHashMap<>();
+        final Deque<RuntimeException> failures = new ArrayDeque<>();
+        final AtomicInteger createCalls = new AtomicInteger();
+
+        @Override
+        public CreatedOrderDTO createOrder(OrderRequest order) {
+            createCalls.incrementAndGet();
+            RuntimeException failure = failures.poll();
+            if (failure != null) {
+                throw failure;
+            }
+            CreatedOrderDTO created = new CreatedOrderDTO("GHN-" + order.getClientOrderCode(), 25000, null);
+            orders.put(order.getClientOrderCode(), created);
+            return created;
+        }
+
+        @Override
+        public CreatedOrderDTO findOrderByClientCode(String clientOrderCode) {
+            return orders.get(clientOrderCode);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.shipping_fee.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import com.example.shipping_fee.constant.ErrorCode;
+import com.example.shipping_fee.dto.ShippingRequest;
+import com.example.shipping_fee.dto.ShippingResponse;
+import com.example.shipping_fee.feematrix.FeeMatrix;
+import com.example.shipping_fee.simulator.GhnSimulator;
+import com.example.shipping_fee.simulator.GhnSimulatorSettings;
+import com.example.shipping_fee.simulator.SimulatedGhn;
+import com.example.shipping_fee.validation.ShippingRequestValidator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class NegativeCacheTest {
+
+    private GhnSimulator simulator;
+
+    @AfterEach
+    void stopSimulator() {
+        if (simulator != null) {
+            simulator.stop();
+        }
+    }
+
+    private GhtkService startWith(GhnSimulatorSettings settings) {
+        simulator = SimulatedGhn.start(settings);
+
+        GhtkService service = new GhtkService(new RestTemplate(), ShippingRequestValidator.defaults(),
+                QuoteCache.disabled(), new NegativeCache(60, 100, new SimpleMeterRegistry()),
+                FeeMatrix.disabled());
+        SimulatedGhn.connect(service, simulator);
+        return service;
+    }
+
+    @Test
+    void unservedRouteIsClassifiedAndNotAskedAgain() {
+        GhtkService service = startWith(GhnSimulatorSettings.builder().build());
+        ShippingRequest request = ShippingRequest.builder()
+                .toDistrictId(1)
+                .toWardCode("1")
+                .weight(500)
+                .build();
+
+        ShippingResponse first = service.calculateFee(request);
+        ShippingResponse second = service.calculateFee(request);
+
+        assertThat(first.isSuccess()).isFalse();
+        assertThat(first.getErrorCode()).isEqualTo(ErrorCode.ROUTE_NOT_SERVED);
+        assertThat(first.getRetryable()).isFalse();
+        assertThat(first.getMessage()).isEqualTo("Route not found service");
+        assertThat(second.getErrorCode()).isEqualTo(ErrorCode.ROUTE_NOT_SERVED);
+        assertThat(simulator.getRequestCount(GhnSimulator.ENDPOINT_FEE)).isEqualTo(1);
+    }
+
+    @Test
+    void unknownDistrictWardLookupIsCached() {
+        GhtkService service = startWith(GhnSimulatorSettings.builder().build());
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> service.getWards(1))
+                    .isInstanceOf(GhnApiException.class)
+                    .satisfies(e -> assertThat(((GhnApiException) e).getErrorCode()).isEqualTo(ErrorCode.INVALID_ADDRESS));
+        }
+        assertThat(simulator.getRequestCount(GhnSimulator.ENDPOINT_WARD)).isEqualTo(1);
+    }
+
+    @Test
+    void rejectionInsideSuccessfulResponseIsClassifiedAndCached() {
+        GhtkService service = startWith(GhnSimulatorSettings.builder().envelopeErrors(true).build());
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> service.getWards(1))
+                    .isInstanceOf(GhnApiException.class)
+                    .hasMessage("district_id is invalid")
+                    .satisfies(e -> assertThat(((GhnApiException) e).getErrorCode()).isEqualTo(ErrorCode.INVALID_ADDRESS));
+        }
+        assertThat(simulator.getRequestCount(GhnSimulator.ENDPOINT_WARD)).isEqualTo(1);
+    }
+
+    @Test
+    void successfulResponseWithoutEnvelopeIsRetryableAndNotCached() {
+        GhtkService service = startWith(GhnSimulatorSettings.builder().malformedRate(1.0).build());
+        ShippingRequest request = ShippingRequest.builder()
+                .toDistrictId(1001)
+                .toWardCode("100103")
+                .weight(500)
+                .build();
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> service.getWards(1001))
+                    .isInstanceOf(GhnApiException.class)
+                    .satisfies(e -> assertThat(((GhnApiException) e).getErrorCode()).isEqualTo(ErrorCode.UPSTREAM_UNAVAILABLE));
+        }
+        ShippingResponse fee = service.calculateFee(request);
+        service.calculateFee(request);
+
+        assertThat(fee.getErrorCode()).isEqualTo(ErrorCode.UPSTREAM_UNAVAILABLE);
+        assertThat(fee.getRetryable()).isTrue();
+        assertThat(simulator.getRequestCount(GhnSimulator.ENDPOINT_WARD)).isEqualTo(2);
+        assertThat(simulator.getRequestCount(GhnSimulator.ENDPOINT_FEE)).isEqualTo(2);
+    }
+
+    @Test
+    void upstreamFailuresAreRetryableAndNotCached() {
+        GhtkService service = startWith(GhnSimulatorSettings.builder().errorRate(1.0).build());
+        ShippingRequest request = ShippingRequest.builder()
+                .toDistrictId(1001)
+                .toWardCode("100103")
+                .weight(500)
+                .build();
+
+        ShippingResponse first = service.calculateFee(request);
+        service.calculateFee(request);
+
+        assertThat(first.getErrorCode()).isEqualTo(ErrorCode.UPSTREAM_UNAVAILABLE);
+        assertThat(first.getRetryable()).isTrue();
+        assertThat(simulator.getRequestCount(GhnSimulator.ENDPOINT_FEE)).isEqualTo(2);
+    }
+}
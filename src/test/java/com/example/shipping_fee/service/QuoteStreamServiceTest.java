@@ -0,0 +1,135 @@
+package com.example.shipping_fee.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+
+import com.example.shipping_fee.constant.ErrorCode;
+import com.example.shipping_fee.deadline.Deadline;
+import com.example.shipping_fee.deadline.DeadlineExceededException;
+import com.example.shipping_fee.dto.ShippingRequest;
+import com.example.shipping_fee.dto.ShippingResponse;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+class QuoteStreamServiceTest {
+
+    private static final int WINDOW = 4;
+
+    private final AtomicInteger ghnCalls = new AtomicInteger();
+    private final TaskExecutor executor = Executors.newFixedThreadPool(8)::execute;
+    private final QuoteStreamService service = new QuoteStreamService(new CountingGhtkService(), executor,
+            JsonMapper.builder().build(), WINDOW, 1000);
+
+    @Test
+    void streamsEveryResultAsNdjsonLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int written = service.stream(ndjson(20), out, QuoteStreamService.Format.NDJSON,
+                () -> Deadline.after(Duration.ofSeconds(2)));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(written).isEqualTo(20);
+        assertThat(lines).hasSize(20).allMatch(line -> line.startsWith("{\"index\":"));
+    }
+
+    @Test
+    void slowClientThrottlesUpstreamCalls() throws Exception {
+        CountDownLatch clientReads = new CountDownLatch(1);
+        OutputStream stalledClient = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                try {
+                    clientReads.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+        };
+
+        Future<Integer> streaming = Executors.newSingleThreadExecutor().submit(() -> service.stream(
+                ndjson(100), stalledClient, QuoteStreamService.Format.SSE, () -> Deadline.after(Duration.ofSeconds(5))));
+
+        Thread.sleep(300);
+        // Only one window of quotes is started while the first write is stuck
+        assertThat(ghnCalls.get()).isEqualTo(WINDOW);
+
+        clientReads.countDown();
+        assertThat(streaming.get(5, TimeUnit.SECONDS)).isEqualTo(100);
+        assertThat(ghnCalls.get()).isEqualTo(100);
+    }
+
+    @Test
+    void failedItemsCarryErrorCodeAndRetryHint() throws IOException {
+        QuoteStreamService failing = new QuoteStreamService(new FailingGhtkService(), executor,
+                JsonMapper.builder().build(), WINDOW, 1000);
+        String body = "{\"weight\":1}\n{\"weight\":2}\n{\"weight\":3}\n{not json\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        failing.stream(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out,
+                QuoteStreamService.Format.NDJSON, () -> Deadline.after(Duration.ofSeconds(2)));
+
+        Map<Integer, JsonNode> results = new HashMap<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            JsonNode item = JsonMapper.builder().build().readTree(line);
+            results.put(item.get("index").asInt(), item.get("result"));
+        }
+        assertThat(results).hasSize(4);
+        assertError(results.get(0), ErrorCode.DEADLINE_EXCEEDED, true);
+        assertError(results.get(1), ErrorCode.UPSTREAM_UNAVAILABLE, true);
+        assertError(results.get(2), ErrorCode.ROUTE_NOT_SERVED, false);
+        assertError(results.get(3), ErrorCode.VALIDATION_FAILED, false);
+    }
+
+    private static void assertError(JsonNode result, ErrorCode errorCode, boolean retryable) {
+        assertThat(result.get("success").asBoolean()).isFalse();
+        assertThat(result.get("errorCode").asString()).isEqualTo(errorCode.name());
+        assertThat(result.get("retryable").asBoolean()).isEqualTo(retryable);
+    }
+
+    private ByteArrayInputStream ndjson(int count) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            body.append("{\"to_district_id\":1442,\"to_ward_code\":\"20314\",\"weight\":").append(100 + i).append("}\n");
+        }
+        return new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private class CountingGhtkService extends GhtkService {
+        @Override
+        public ShippingResponse calculateFee(ShippingRequest request) {
+            ghnCalls.incrementAndGet();
+            return ShippingResponse.builder().success(true).total(request.getWeight() * 10).build();
+        }
+    }
+
+    private static class FailingGhtkService extends GhtkService {
+        @Override
+        public ShippingResponse calculateFee(ShippingRequest request) {
+            switch (request.getWeight()) {
+                case 1:
+                    throw new DeadlineExceededException("GHN fee");
+                case 2:
+                    throw new IllegalStateException("connection reset");
+                default:
+                    throw new GhnApiException(ErrorCode.ROUTE_NOT_SERVED, "Route not found service");
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.shipping_fee.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.shipping_fee.dto.QuoteHintRequest;
+import com.example.shipping_fee.dto.ShippingRequest;
+import com.example.shipping_fee.dto.ShippingResponse;
+import com.example.shipping_fee.simulator.GhnSimulator;
+import com.example.shipping_fee.simulator.GhnSimulatorSettings;
+import com.example.shipping_fee.simulator.LatencySpec;
+
+@SpringBootTest(properties = "shipping.speculation.enabled=true")
+class SpeculativeQuoteServiceTest {
+
+    private static final GhnSimulator SIMULATOR = new GhnSimulator(GhnSimulatorSettings.builder()
+            .latency(Map.of(GhnSimulator.ENDPOINT_FEE, LatencySpec.fixed(50)))
+            .build());
+
+    static {
+        SIMULATOR.start();
+    }
+
+    @Autowired
+    private SpeculativeQuoteService speculativeQuoteService;
+
+    @Autowired
+    private GhtkService ghtkService;
+
+    @Autowired
+    private QuoteCache quoteCache;
+
+    @DynamicPropertySource
+    static void ghnProperties(DynamicPropertyRegistry registry) {
+        registry.add("ghtk.api.base-url", SIMULATOR::getBaseUrl);
+        registry.add("ghtk.api.token", () -> "test-token");
+    }
+
+    @AfterAll
+    static void stopSimulator() {
+        SIMULATOR.stop();
+    }
+
+    @Test
+    void hintedQuoteIsServedFromCache() throws Exception {
+        QuoteHintRequest hint = QuoteHintRequest.builder()
+                .toDistrictId(1001)
+                .toWardCode("100103")
+                .serviceTypeIds(List.of(1, 2))
+                .weight(1200)
+                .build();
+
+        ShippingRequest checkout = ShippingRequest.builder()
+                .toDistrictId(1001)
+                .toWardCode("100103")
+                .serviceTypeId(2)
+                .weight(1200)
+                .build();
+
+        assertThat(speculativeQuoteService.hint("session-1", hint)).isEqualTo(2);
+        long deadline = System.currentTimeMillis() + 3000;
+        while (!quoteCache.contains(QuoteKey.of(checkout)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        ShippingResponse response = ghtkService.calculateFee(checkout);
+
+        assertThat(response.isSuccess()).isTrue();
+        assertThat(SIMULATOR.getRequestCount(GhnSimulator.ENDPOINT_FEE)).isEqualTo(2);
+        // Same hint again: everything is cached, nothing new is scheduled
+        assertThat(speculativeQuoteService.hint("session-1", hint)).isZero();
+    }
+
+    @Test
+    void finishedOrReplacedSpeculationIsNotTracked() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            speculativeQuoteService.hint("session-2", QuoteHintRequest.builder()
+                    .toDistrictId(1002)
+                    .toWardCode("10020" + (i % 5))
+                    .serviceTypeIds(List.of(1, 2, 3))
+                    .weight(1000 + i)
+                    .build());
+        }
+
+        long deadline = System.currentTimeMillis() + 3000;
+        while (speculativeQuoteService.getTrackedClients() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(speculativeQuoteService.getTrackedClients()).isZero();
+    }
+}
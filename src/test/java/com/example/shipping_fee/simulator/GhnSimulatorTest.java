@@ -0,0 +1,84 @@
+package com.example.shipping_fee.simulator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.shipping_fee.dto.DistrictDTO;
+import com.example.shipping_fee.dto.ProvinceDTO;
+import com.example.shipping_fee.dto.ShippingRequest;
+import com.example.shipping_fee.dto.ShippingResponse;
+import com.example.shipping_fee.dto.WardDTO;
+import com.example.shipping_fee.service.GhtkService;
+
+class GhnSimulatorTest {
+
+    private GhnSimulator simulator;
+
+    @AfterEach
+    void tearDown() {
+        if (simulator != null) {
+            simulator.stop();
+        }
+    }
+
+    private GhtkService startWith(GhnSimulatorSettings settings) {
+        simulator = SimulatedGhn.start(settings);
+
+        GhtkService service = new GhtkService();
+        SimulatedGhn.connect(service, simulator);
+        return service;
+    }
+
+    @Test
+    void servesDeterministicMasterDataAndFees() {
+        GhtkService service = startWith(GhnSimulatorSettings.builder().token(SimulatedGhn.TOKEN).build());
+
+        List<ProvinceDTO> provinces = service.getProvinces();
+        assertThat(provinces).hasSize(63);
+
+        List<DistrictDTO> districts = service.getDistricts(provinces.get(0).getProvinceId());
+        assertThat(districts).hasSize(12);
+
+        List<WardDTO> wards = service.getWards(districts.get(0).getId());
+        assertThat(wards).hasSize(15);
+
+        ShippingRequest request = ShippingRequest.builder()
+                .toDistrictId(districts.get(0).getId())
+                .toWardCode(wards.get(0).getWardCode())
+                .weight(1200)
+                .serviceTypeId(2)
+                .build();
+        ShippingResponse first = service.calculateFee(request);
+        ShippingResponse second = service.calculateFee(request);
+
+        assertThat(first.isSuccess()).isTrue();
+        assertThat(first.getTotal()).isPositive().isEqualTo(second.getTotal());
+        assertThat(simulator.getRequestCount(GhnSimulator.ENDPOINT_FEE)).isEqualTo(2);
+    }
+
+    @Test
+    void unknownRouteIsRejectedLikeGhn() {
+        GhtkService service = startWith(GhnSimulatorSettings.builder().build());
+
+        ShippingResponse response = service.calculateFee(ShippingRequest.builder()
+                .toDistrictId(1)
+                .toWardCode("1")
+                .weight(500)
+                .build());
+
+        assertThat(response.isSuccess()).isFalse();
+    }
+
+    @Test
+    void injectedErrorsSurfaceAsApiFailures() {
+        GhtkService service = startWith(GhnSimulatorSettings.builder().errorRate(1.0).build());
+
+        assertThatThrownBy(service::getProvinces).isInstanceOf(RuntimeException.class);
+        assertThat(simulator.getRequestCount(GhnSimulator.ENDPOINT_PROVINCE)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.shipping_fee.simulator;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.shipping_fee.service.GhtkService;
+
+/**
+ * Points a GhtkService at a running GhnSimulator, like the ghn-stub profile does through
+ * ghtk.api.* properties, for tests that build the service by hand
+ */
+public final class SimulatedGhn {
+
+    public static final String TOKEN = "test-token";
+    public static final int SHOP_ID = 1;
+
+    private SimulatedGhn() {
+        // Prevent instantiation
+    }
+
+    public static GhnSimulator start(GhnSimulatorSettings settings) {
+        GhnSimulator simulator = new GhnSimulator(settings);
+        simulator.start();
+        return simulator;
+    }
+
+    public static <T extends GhtkService> T connect(T service, GhnSimulator simulator) {
+        ReflectionTestUtils.setField(service, "ghtkToken", TOKEN);
+        ReflectionTestUtils.setField(service, "shopId", SHOP_ID);
+        ReflectionTestUtils.setField(service, "ghtkBaseUrl", simulator.getBaseUrl());
+        return service;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.shipping_fee.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import com.example.shipping_fee.config.GhnHttpClientConfig;
+import com.example.shipping_fee.dto.SpanDTO;
+import com.example.shipping_fee.dto.TraceDTO;
+import com.example.shipping_fee.service.GhtkService;
+import com.example.shipping_fee.simulator.GhnSimulator;
+import com.example.shipping_fee.simulator.GhnSimulatorSettings;
+import com.example.shipping_fee.simulator.SimulatedGhn;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+
+class TraceCollectorTest {
+
+    @Test
+    void fastTraceIsDroppedAndFailedTraceIsKept() {
+        TraceCollector collector = new TraceCollector(new SimpleMeterRegistry(), true, 60_000, 0, 10, 64);
+
+        Span fast = collector.startRoot("GET /fast", null);
+        run(fast, () -> {
+            try (Span span = Span.start("validate")) {
+                span.attribute("errors", 0);
+            }
+        });
+
+        Span failed = collector.startRoot("GET /failed", null);
+        run(failed, () -> {
+            try (Span span = Span.start("ghn fee", Span.Kind.CLIENT)) {
+                span.error("HTTP 503");
+            }
+        });
+
+        assertThat(collector.get(fast.getTraceId())).isNull();
+        TraceDTO kept = collector.get(failed.getTraceId());
+        assertThat(kept.getKeptBecause()).isEqualTo(TraceCollector.KEPT_ERROR);
+        assertThat(kept.getSpans()).extracting(SpanDTO::getName).containsExactly("GET /failed", "ghn fee");
+        assertThat(kept.getSpans().get(1).getDepth()).isEqualTo(1);
+        assertThat(collector.recent(0, 10)).extracting(TraceDTO::getTraceId).containsExactly(failed.getTraceId());
+    }
+
+    @Test
+    void sampledCallerTraceIsContinuedAndKept() {
+        TraceCollector collector = new TraceCollector(new SimpleMeterRegistry(), true, 60_000, 0, 10, 64);
+        String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+        Span root = collector.startRoot("POST /calculate", "00-" + traceId + "-00f067aa0ba902b7-01");
+        run(root, () -> { });
+
+        assertThat(root.getTraceId()).isEqualTo(traceId);
+        TraceDTO trace = collector.get(traceId);
+        assertThat(trace.getKeptBecause()).isEqualTo(TraceCollector.KEPT_UPSTREAM);
+        assertThat(trace.getSpans().get(0).getParentId()).isEqualTo("00f067aa0ba902b7");
+        assertThat(TraceParent.parse("00-" + "0".repeat(32) + "-00f067aa0ba902b7-01")).isNull();
+    }
+
+    @Test
+    void ghnCallIsTracedWithConnectionPhases() throws Exception {
+        GhnSimulator simulator = SimulatedGhn.start(GhnSimulatorSettings.builder()
+                .provinces(1).districtsPerProvince(1).wardsPerDistrict(1).build());
+        GhnHttpClientConfig config = new GhnHttpClientConfig();
+        ReflectionTestUtils.setField(config, "maxConnections", 4);
+        ReflectionTestUtils.setField(config, "connectTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(config, "connectionRequestTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(config, "responseTimeoutMs", 5000L);
+
+        try (CloseableHttpClient httpClient = config.ghnHttpClient()) {
+            RestTemplate restTemplate = config.ghnRestTemplate(httpClient);
+            GhtkService service = new GhtkService(restTemplate);
+            SimulatedGhn.connect(service, simulator);
+
+            // Threshold 0: every trace counts as slow and is kept
+            TraceCollector collector = new TraceCollector(new SimpleMeterRegistry(), true, 0, 0, 10, 64);
+            Span root = collector.startRoot("GET /provinces", null);
+            run(root, service::getProvinces);
+
+            List<SpanDTO> spans = collector.get(root.getTraceId()).getSpans();
+            assertThat(spans).extracting(SpanDTO::getName)
+                    .contains("ghn province", "http.pool.lease", "http.connect", "http.server", "http.decode");
+            SpanDTO client = spans.stream().filter(span -> span.getName().equals("ghn province")).findFirst().orElseThrow();
+            assertThat(client.getKind()).isEqualTo("CLIENT");
+            assertThat(client.getAttributes()).containsEntry("http.status_code", 200);
+            assertThat(simulator.getLastTraceParent(GhnSimulator.ENDPOINT_PROVINCE))
+                    .isEqualTo("00-" + root.getTraceId() + "-" + client.getSpanId() + "-01");
+            assertThat(spans).filteredOn(span -> client.getSpanId().equals(span.getParentId()))
+                    .extracting(SpanDTO::getName)
+                    .containsExactly("http.pool.lease", "http.connect", "http.server", "http.decode");
+        } finally {
+            simulator.stop();
+        }
+    }
+
+    @Test
+    void retriedGhnCallHasOneSpanPerAttemptWithoutBackoff() {
+        GhnSimulator simulator = SimulatedGhn.start(GhnSimulatorSettings.builder().errorRate(1.0).build());
+        try {
+            GhtkService service = SimulatedGhn.connect(new GhtkService(new RestTemplate()), simulator);
+            ReflectionTestUtils.setField(service, "maxRetries", 2);
+            ReflectionTestUtils.setField(service, "retryBackoffMs", 500L);
+
+            TraceCollector collector = new TraceCollector(new SimpleMeterRegistry(), true, 0, 0, 10, 64);
+            Span root = collector.startRoot("GET /provinces", null);
+            run(root, () -> {
+                try {
+                    service.getProvinces();
+                } catch (RuntimeException expected) {
+                    // All attempts fail
+                }
+            });
+
+            List<SpanDTO> attempts = collector.get(root.getTraceId()).getSpans().stream()
+                    .filter(span -> span.getName().equals("ghn province")).toList();
+            assertThat(attempts).extracting(span -> span.getAttributes().get("attempt")).containsExactly(0, 1, 2);
+            assertThat(attempts).allSatisfy(span -> assertThat(span.getDurationMs()).isNotNull().isLessThan(500.0));
+        } finally {
+            simulator.stop();
+        }
+    }
+
+    @Test
+    void asyncRequestSpanEndsWhenTheAsyncWorkCompletes() throws Exception {
+        TraceCollector collector = new TraceCollector(new SimpleMeterRegistry(), true, 0, 0, 10, 64);
+        TracingFilter filter = new TracingFilter(collector);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/shipping/calculate");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<Runnable> quote = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, res) -> {
+            req.startAsync(req, res);
+            // Like Spring MVC: start async with the response, then quote on another thread
+            quote.set(TraceContext.wrap(() -> {
+                try (Span span = Span.start("calculate")) {
+                    span.attribute("success", true);
+                }
+                ((HttpServletResponse) res).setStatus(200);
+            }));
+        });
+        String traceId = response.getHeader(TracingFilter.TRACE_ID_HEADER);
+        assertThat(collector.get(traceId)).isNull();
+
+        CompletableFuture.runAsync(quote.get()).get(5, TimeUnit.SECONDS);
+        request.getAsyncContext().complete();
+
+        List<SpanDTO> spans = collector.get(traceId).getSpans();
+        assertThat(spans).extracting(SpanDTO::getName).containsExactly("POST /api/shipping/calculate", "calculate");
+        assertThat(spans.get(0).getDurationMs()).isNotNull();
+        assertThat(spans.get(0).getAttributes()).containsEntry("http.status_code", 200);
+        assertThat(spans.get(1).getParentId()).isEqualTo(spans.get(0).getSpanId());
+    }
+
+    private static void run(Span root, Runnable work) {
+        Span previous = TraceCollector.activate(root);
+        try {
+            work.run();
+        } finally {
+            TraceCollector.restore(previous);
+            root.end();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.shipping_fee.tracking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import com.example.shipping_fee.dto.OrderTrackingDTO;
+import com.example.shipping_fee.order.OrderSubmittedEvent;
+import com.example.shipping_fee.service.GhtkService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OrderTrackingServiceTest {
+
+    private final FakeGhn ghn = new FakeGhn();
+
+    @Test
+    void readsAreServedFromMemory() {
+        OrderTrackingService tracking = tracking(60_000, 60_000, 60_000);
+        ghn.statuses.put("GHN1", "transporting");
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(tracking.get("GHN1").getStatus()).isEqualTo("transporting");
+        }
+        assertThat(ghn.detailCalls.get()).isEqualTo(1);
+        assertThat(tracking.get("UNKNOWN")).isNull();
+    }
+
+    @Test
+    void pollIntervalFollowsStageAndStopsWhenSettled() throws Exception {
+        OrderTrackingService tracking = tracking(60_000, 60_000, 100);
+        ghn.statuses.put("GHN2", "delivering");
+
+        OrderTrackingDTO first = tracking.get("GHN2");
+        assertThat(first.getStage()).isEqualTo("OUT_FOR_DELIVERY");
+        assertThat(first.getNextCheckAt() - first.getCheckedAt()).isBetween(80L, 120L);
+
+        ghn.statuses.put("GHN2", "delivered");
+        pollFor(tracking, 300);
+
+        OrderTrackingDTO settled = tracking.get("GHN2");
+        assertThat(settled.getStatus()).isEqualTo("delivered");
+        assertThat(settled.getStage()).isEqualTo("SETTLED");
+        assertThat(settled.getNextCheckAt()).isNull();
+        int calls = ghn.detailCalls.get();
+
+        pollFor(tracking, 300);
+        assertThat(ghn.detailCalls.get()).isEqualTo(calls);
+    }
+
+    @Test
+    void submittedOrdersAreSpreadOverTheInterval() {
+        OrderTrackingService tracking = tracking(60_000, 60_000, 60_000);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 200; i++) {
+            ghn.statuses.put("GHN-" + i, "ready_to_pick");
+            tracking.onOrderSubmitted(new OrderSubmittedEvent("SHOP-" + i, "GHN-" + i));
+        }
+
+        LongSummaryStatistics firstPolls = new LongSummaryStatistics();
+        for (int i = 0; i < 200; i++) {
+            OrderTrackingDTO status = tracking.get("GHN-" + i);
+            assertThat(status.getClientOrderCode()).isEqualTo("SHOP-" + i);
+            firstPolls.accept(status.getNextCheckAt() - now);
+        }
+        assertThat(firstPolls.getMin()).isGreaterThanOrEqualTo(0);
+        assertThat(firstPolls.getMax()).isLessThanOrEqualTo(61_000);
+        assertThat(firstPolls.getMax() - firstPolls.getMin()).isGreaterThan(45_000);
+
+        // Nothing is due yet: no background poll happens
+        int calls = ghn.detailCalls.get();
+        tracking.dispatch();
+        assertThat(ghn.detailCalls.get()).isEqualTo(calls);
+    }
+
+    private OrderTrackingService tracking(long pickupMs, long transitMs, long deliveryMs) {
+        return new OrderTrackingService(ghn, new SyncTaskExecutor(), new SimpleMeterRegistry(), true,
+                pickupMs, transitMs, deliveryMs, 60_000, 0.2, 1_000, 1_000, 8, 1_000, 1_000);
+    }
+
+    private void pollFor(OrderTrackingService tracking, long millis) throws InterruptedException {
+        long end = System.currentTimeMillis() + millis;
+        while (System.currentTimeMillis() < end) {
+            tracking.dispatch();
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * GHN order detail API backed by a status map
+     */
+    private static class FakeGhn extends GhtkService {
+        final Map<String, String> statuses = new ConcurrentHashMap<>();
+        final AtomicInteger detailCalls = new AtomicInteger();
+
+        @Override
+        public OrderTrackingDTO getOrderDetail(String orderCode) {
+            detailCalls.incrementAndGet();
+            String status = statuses.get(orderCode);
+            if (status == null) {
+                return null;
+            }
+            return OrderTrackingDTO.builder().orderCode(orderCode).status(status).build();
+        }
+    }
+}
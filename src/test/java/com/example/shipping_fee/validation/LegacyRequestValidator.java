@@ -0,0 +1,81 @@
+package com.example.shipping_fee.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.shipping_fee.constant.ErrorMessages;
+import com.example.shipping_fee.dto.ErrorMessageDTO;
+import com.example.shipping_fee.dto.ShippingRequest;
+
+/**
+ * Copy of the hand-written GhtkService.validateRequest that ShippingRequestValidator replaced.
+ * Kept as the reference for equivalence tests and ValidationBenchmark.
+ */
+final class LegacyRequestValidator {
+
+    private static final int MAX_WEIGHT_GRAMS = 50000;
+    private static final int MAX_INSURANCE_VALUE = 5000000;
+    private static final int MAX_COD_VALUE = 5000000;
+    private static final int MAX_DIMENSION_CM = 200;
+    private static final int MIN_SERVICE_TYPE = 1;
+    private static final int MAX_SERVICE_TYPE = 3;
+
+    List<ErrorMessageDTO> validateRequest(ShippingRequest request) {
+        List<ErrorMessageDTO> errors = new ArrayList<>();
+
+        if (request.getToDistrictId() == null) {
+            errors.add(new ErrorMessageDTO(ErrorMessages.FIELD_TO_DISTRICT_ID, ErrorMessages.ERR_TO_DISTRICT_REQUIRED));
+        }
+        if (request.getToWardCode() == null || request.getToWardCode().trim().isEmpty()) {
+            errors.add(new ErrorMessageDTO(ErrorMessages.FIELD_TO_WARD_CODE, ErrorMessages.ERR_TO_WARD_REQUIRED));
+        }
+
+        if (request.getWeight() == null) {
+            errors.add(new ErrorMessageDTO(ErrorMessages.FIELD_WEIGHT, ErrorMessages.ERR_WEIGHT_REQUIRED));
+        } else if (request.getWeight() <= 0) {
+            errors.add(new ErrorMessageDTO(ErrorMessages.FIELD_WEIGHT, ErrorMessages.ERR_WEIGHT_INVALID));
+        } else if (request.getWeight() > MAX_WEIGHT_GRAMS) {
+            errors.add(new ErrorMessageDTO(ErrorMessages.FIELD_WEIGHT, ErrorMessages.ERR_WEIGHT_MAX_EXCEEDED));
+        }
+
+        if (request.getServiceTypeId() != null) {
+            int serviceType = request.getServiceTypeId();
+            if (serviceType < MIN_SERVICE_TYPE || serviceType > MAX_SERVICE_TYPE) {
+                errors.add(new ErrorMessageDTO(ErrorMessages.FIELD_SERVICE_TYPE_ID, ErrorMessages.ERR_SERVICE_TYPE_INVALID));
+            }
+        }
+
+        validateMonetaryValue(request.getInsuranceValue(), ErrorMessages.FIELD_INSURANCE_VALUE,
+                ErrorMessages.ERR_INSURANCE_VALUE_NEGATIVE, ErrorMessages.ERR_INSURANCE_VALUE_MAX_EXCEEDED,
+                MAX_INSURANCE_VALUE, errors);
+        validateMonetaryValue(request.getCodValue(), ErrorMessages.FIELD_COD_VALUE,
+                ErrorMessages.ERR_COD_VALUE_NEGATIVE, ErrorMessages.ERR_COD_VALUE_MAX_EXCEEDED,
+                MAX_COD_VALUE, errors);
+
+        validateDimension(request.getLength(), ErrorMessages.FIELD_LENGTH, errors);
+        validateDimension(request.getWidth(), ErrorMessages.FIELD_WIDTH, errors);
+        validateDimension(request.getHeight(), ErrorMessages.FIELD_HEIGHT, errors);
+        return errors;
+    }
+
+    private void validateMonetaryValue(Integer value, String fieldName, String negativeError,
+                                       String maxExceededError, int maxValue, List<ErrorMessageDTO> errors) {
+        if (value != null) {
+            if (value < 0) {
+                errors.add(new ErrorMessageDTO(fieldName, negativeError));
+            } else if (value > maxValue) {
+                errors.add(new ErrorMessageDTO(fieldName, maxExceededError));
+            }
+        }
+    }
+
+    private void validateDimension(Integer value, String fieldName, List<ErrorMessageDTO> errors) {
+        if (value != null) {
+            if (value < 0) {
+                errors.add(new ErrorMessageDTO(fieldName, ErrorMessages.ERR_DIMENSION_NEGATIVE));
+            } else if (value > MAX_DIMENSION_CM) {
+                errors.add(new ErrorMessageDTO(fieldName, ErrorMessages.ERR_DIMENSION_MAX_EXCEEDED));
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.shipping_fee.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.shipping_fee.constant.ErrorMessages;
+import com.example.shipping_fee.dto.ErrorMessageDTO;
+import com.example.shipping_fee.dto.ShippingRequest;
+
+class ShippingRequestValidatorTest {
+
+    private final ShippingRequestValidator validator = ShippingRequestValidator.defaults();
+    private final LegacyRequestValidator legacy = new LegacyRequestValidator();
+
+    @Test
+    void defaultRulesMatchPreviousValidation() {
+        List<ShippingRequest> requests = List.of(
+                ShippingRequest.builder().build(),
+                ShippingRequest.builder().toDistrictId(1442).toWardCode("20314").weight(1000).build(),
+                ShippingRequest.builder().toWardCode("  ").weight(0).serviceTypeId(0).build(),
+                ShippingRequest.builder().toDistrictId(1).toWardCode("1").weight(50001).serviceTypeId(4)
+                        .insuranceValue(-1).codValue(5000001).length(-1).width(201).height(200).build());
+
+        for (ShippingRequest request : requests) {
+            assertThat(validator.validate(request)).isEqualTo(legacy.validateRequest(request));
+        }
+    }
+
+    @Test
+    void validRequestSharesEmptyListAndErrorsAreInterned() {
+        ShippingRequest valid = ShippingRequest.builder().toDistrictId(1).toWardCode("1").weight(1).build();
+        assertThat(validator.validate(valid)).isSameAs(validator.validate(valid)).isEmpty();
+
+        ShippingRequest invalid = ShippingRequest.builder().weight(1).build();
+        ErrorMessageDTO first = validator.validate(invalid).get(0);
+        assertThat(validator.validate(invalid).get(0)).isSameAs(first);
+        assertThatThrownBy(() -> first.setMessage("changed")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void configuredRuleOverridesOnlyItsField() {
+        ShippingRequestValidator custom = ShippingRequestValidator.compile(List.of(
+                ValidationRule.builder().field("weight").required(true).min(1L).max(30000L)
+                        .maxMessage("Weight cannot exceed {max}g").build()));
+
+        List<ErrorMessageDTO> errors = custom.validate(ShippingRequest.builder().weight(30001).codValue(5000001).build());
+
+        assertThat(errors).containsExactly(
+                new ErrorMessageDTO("toDistrictId", ErrorMessages.ERR_TO_DISTRICT_REQUIRED),
+                new ErrorMessageDTO("toWardCode", ErrorMessages.ERR_TO_WARD_REQUIRED),
+                new ErrorMessageDTO("weight", "Weight cannot exceed 30000g"),
+                new ErrorMessageDTO("codValue", ErrorMessages.ERR_COD_VALUE_MAX_EXCEEDED));
+        assertThatThrownBy(() -> ShippingRequestValidator.compile(List.of(
+                ValidationRule.builder().field("volume").build())))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void configuredRuleReusesBuiltInMessageOnlyForUnchangedLimit() {
+        ShippingRequestValidator sameLimit = ShippingRequestValidator.compile(List.of(
+                ValidationRule.builder().field("weight").required(true).min(1L).max(50000L).build()));
+        ShippingRequestValidator lowerLimit = ShippingRequestValidator.compile(List.of(
+                ValidationRule.builder().field("weight").required(true).min(1L).max(30000L).build()));
+
+        ShippingRequest.ShippingRequestBuilder destination = ShippingRequest.builder().toDistrictId(1).toWardCode("1");
+        assertThat(sameLimit.validate(destination.weight(null).build()))
+                .containsExactly(new ErrorMessageDTO("weight", ErrorMessages.ERR_WEIGHT_REQUIRED));
+        assertThat(sameLimit.validate(destination.weight(50001).build()))
+                .containsExactly(new ErrorMessageDTO("weight", ErrorMessages.ERR_WEIGHT_MAX_EXCEEDED));
+        assertThat(lowerLimit.validate(destination.weight(30001).build()))
+                .containsExactly(new ErrorMessageDTO("weight", "weight cannot exceed 30000"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.shipping_fee.validation;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.shipping_fee.dto.ErrorMessageDTO;
+import com.example.shipping_fee.dto.ShippingRequest;
+
+/**
+ * Compiled validator vs. the previous hand-written validateRequest.
+ * Run: ./mvnw test -Pbenchmark -DskipTests -Djmh.includes=ValidationBenchmark
+ * (gc profiler reports allocation per operation)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private final LegacyRequestValidator legacy = new LegacyRequestValidator();
+    private final ShippingRequestValidator compiled = ShippingRequestValidator.defaults();
+
+    private final ShippingRequest valid = ShippingRequest.builder()
+            .toDistrictId(1442).toWardCode("20314").weight(1000).serviceTypeId(2)
+            .insuranceValue(500000).codValue(200000).length(30).width(20).height(10)
+            .build();
+
+    private final ShippingRequest invalid = ShippingRequest.builder()
+            .toWardCode(" ").weight(60000).serviceTypeId(9).codValue(-1).height(250)
+            .build();
+
+    @Benchmark
+    public List<ErrorMessageDTO> legacyValid() {
+        return legacy.validateRequest(valid);
+    }
+
+    @Benchmark
+    public List<ErrorMessageDTO> compiledValid() {
+        return compiled.validate(valid);
+    }
+
+    @Benchmark
+    public List<ErrorMessageDTO> legacyInvalid() {
+        return legacy.validateRequest(invalid);
+    }
+
+    @Benchmark
+    public List<ErrorMessageDTO> compiledInvalid() {
+        return compiled.validate(invalid);
+    }
+}